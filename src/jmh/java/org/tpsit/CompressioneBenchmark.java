@@ -0,0 +1,118 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CompressioneBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della compressione a blocchi di un file di misure da 1 MB e 100 MB, al variare del livello di compressione: compressione, decompressione
+ * e lettura di 4 KB da una posizione casuale, confrontate con la copia del file non compresso.
+ * Lo spazio occupato è riportato dai contatori byteSuDisco e byteOriginali (risultati secondari di comprimiIn), il cui rapporto è il rapporto di compressione.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressioneBenchmark {
+
+    /**
+     * Dimensione del file di misure.
+     */
+    @Param({"1MB", "100MB"})
+    public String dimensione;
+
+    /**
+     * Livello di compressione di Deflater: 0 memorizza i blocchi senza comprimerli.
+     */
+    @Param({"0", "1", "6", "9"})
+    public int livello;
+
+    private File fileCompresso;
+    private JavaFileManager sorgente;
+    private JavaFileManager compresso;
+    private long dimensioneOriginale;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        File file = FileBenchmark.misure(FileBenchmark.inByte(this.dimensione));
+        this.dimensioneOriginale = file.length();
+        this.fileCompresso = FileBenchmark.temporaneo("compresso");
+        this.sorgente = new JavaFileManager(file.getPath(), false, false);
+        this.sorgente.comprimiIn(this.fileCompresso.getPath(), this.livello, FileCompresso.DIMENSIONE_BLOCCO);
+        this.compresso = new JavaFileManager(this.fileCompresso.getPath(), false, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.sorgente.termina();
+        this.compresso.termina();
+        this.fileCompresso.delete();
+    }
+
+    /**
+     * Destinazione della compressione, della decompressione o della copia di ogni thread.
+     */
+    @State(Scope.Thread)
+    public static class Destinazione {
+
+        private File file;
+
+        @Setup(Level.Trial)
+        public void prepara() throws IOException {
+            this.file = FileBenchmark.temporaneo("destinazione");
+        }
+
+        @TearDown(Level.Trial)
+        public void chiudi() {
+            this.file.delete();
+        }
+    }
+
+    /**
+     * Contatori dello spazio occupato, riportati da JMH come risultati secondari.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Spazio {
+
+        public long byteSuDisco;
+        public long byteOriginali;
+
+        @Setup(Level.Iteration)
+        public void azzera() {
+            this.byteSuDisco = 0;
+            this.byteOriginali = 0;
+        }
+    }
+
+    @Benchmark
+    public long comprimiIn(Destinazione destinazione, Spazio spazio) {
+        long compressi = this.sorgente.comprimiIn(destinazione.file.getPath(), this.livello, FileCompresso.DIMENSIONE_BLOCCO);
+        spazio.byteSuDisco += compressi;
+        spazio.byteOriginali += this.dimensioneOriginale;
+        return compressi;
+    }
+
+    @Benchmark
+    public long decomprimiIn(Destinazione destinazione) {
+        return this.compresso.decomprimiIn(destinazione.file.getPath());
+    }
+
+    @Benchmark
+    public byte[] leggiCompresso() {
+        long posizione = ThreadLocalRandom.current().nextLong(Math.max(1, this.dimensioneOriginale - 4096));
+        return this.compresso.leggiCompresso(posizione, 4096);
+    }
+
+    @Benchmark
+    public void copiaNonCompresso(Destinazione destinazione) {
+        this.sorgente.copiaIn(destinazione.file.getPath(), true);
+    }
+}
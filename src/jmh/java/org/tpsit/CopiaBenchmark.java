@@ -0,0 +1,67 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CopiaBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della copia di file da 1 MB, 100 MB e 1 GB con copiaIn(). Tutti i thread copiano lo stesso file, ognuno in una propria destinazione.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopiaBenchmark {
+
+    /**
+     * Dimensione del file copiato.
+     */
+    @Param({"1MB", "100MB", "1GB"})
+    public String dimensione;
+
+    private JavaFileManager sorgente;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        File file = FileBenchmark.testo(FileBenchmark.inByte(this.dimensione));
+        this.sorgente = new JavaFileManager(file.getPath(), false, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.sorgente.termina();
+    }
+
+    /**
+     * Destinazione della copia di ogni thread.
+     */
+    @State(Scope.Thread)
+    public static class Destinazione {
+
+        private File file;
+        private JavaFileManager jfm;
+
+        @Setup(Level.Trial)
+        public void prepara() throws IOException {
+            this.file = FileBenchmark.temporaneo("copia");
+            this.jfm = new JavaFileManager(this.file.getPath(), false, false);
+        }
+
+        @TearDown(Level.Trial)
+        public void chiudi() {
+            this.jfm.termina();
+            this.file.delete();
+        }
+    }
+
+    @Benchmark
+    public void copiaIn(Destinazione destinazione) {
+        this.sorgente.copiaIn(destinazione.jfm, true);
+    }
+}
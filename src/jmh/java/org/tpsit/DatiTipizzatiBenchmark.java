@@ -0,0 +1,116 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DatiTipizzatiBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della scrittura e lettura di dati tipizzati (int e double), valore per valore e in array.
+ * Ogni thread scrive su un proprio file e legge con un proprio JFM i file preparati all'inizio del benchmark, riaprendoli a ogni invocazione per ripartire dall'inizio.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class DatiTipizzatiBenchmark {
+
+    /**
+     * Numero di valori scritti o letti da ogni invocazione.
+     */
+    @Param({"1024", "1048576"})
+    public int numeroValori;
+
+    private File fileScrittura;
+    private File fileInt;
+    private File fileDouble;
+    private JavaFileManager scrittore;
+    private JavaFileManager lettore;
+    private int[] valoriInt;
+    private double[] valoriDouble;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        this.valoriInt = new int[this.numeroValori];
+        this.valoriDouble = new double[this.numeroValori];
+        for(int i = 0; i < this.numeroValori; i++) {
+            this.valoriInt[i] = i * 31;
+            this.valoriDouble[i] = i / 7.0;
+        }
+        this.fileScrittura = FileBenchmark.temporaneo("tipizzati");
+        this.fileInt = FileBenchmark.temporaneo("tipizzati-int");
+        this.fileDouble = FileBenchmark.temporaneo("tipizzati-double");
+        this.scrittore = new JavaFileManager(this.fileInt.getPath(), false, false);
+        this.scrittore.scriviTipizzato(this.valoriInt, true);
+        this.scrittore.setFile(this.fileDouble.getPath(), false);
+        this.scrittore.scriviTipizzato(this.valoriDouble, true);
+        this.scrittore.setFile(this.fileScrittura.getPath(), false);
+        this.lettore = new JavaFileManager(this.fileInt.getPath(), false, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.scrittore.termina();
+        this.lettore.termina();
+        this.fileScrittura.delete();
+        this.fileInt.delete();
+        this.fileDouble.delete();
+    }
+
+    @Benchmark
+    public void scriviInt() {
+        this.scrittore.apriScrittura(true);
+        for(int valore : this.valoriInt) this.scrittore.scriviTipizzato(valore);
+        this.scrittore.chiudiScrittura();
+    }
+
+    @Benchmark
+    public void scriviInts() {
+        this.scrittore.scriviTipizzato(this.valoriInt, true);
+    }
+
+    @Benchmark
+    public void scriviDouble() {
+        this.scrittore.apriScrittura(true);
+        for(double valore : this.valoriDouble) this.scrittore.scriviTipizzato(valore);
+        this.scrittore.chiudiScrittura();
+    }
+
+    @Benchmark
+    public void scriviDoubles() {
+        this.scrittore.scriviTipizzato(this.valoriDouble, true);
+    }
+
+    @Benchmark
+    public long leggiInt() {
+        this.lettore.setFile(this.fileInt.getPath(), false);
+        long somma = 0;
+        for(int i = 0; i < this.numeroValori; i++) somma += this.lettore.leggiInt();
+        return somma;
+    }
+
+    @Benchmark
+    public int[] leggiInts() {
+        this.lettore.setFile(this.fileInt.getPath(), false);
+        return this.lettore.leggiInts(this.numeroValori);
+    }
+
+    @Benchmark
+    public double leggiDouble() {
+        this.lettore.setFile(this.fileDouble.getPath(), false);
+        double somma = 0;
+        for(int i = 0; i < this.numeroValori; i++) somma += this.lettore.leggiDouble();
+        return somma;
+    }
+
+    @Benchmark
+    public double[] leggiDoubles() {
+        this.lettore.setFile(this.fileDouble.getPath(), false);
+        return this.lettore.leggiDoubles(this.numeroValori);
+    }
+}
@@ -0,0 +1,101 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Random;
+
+/**
+ * FileBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Metodi di supporto ai benchmark JMH di JavaFileManager per la preparazione dei file di prova.</p>
+ */
+final class FileBenchmark {
+
+    private FileBenchmark() {
+    }
+
+    /**
+     * Metodo che converte una dimensione espressa come "64KB", "1MB" o "1GB" in byte.
+     * @param dimensione Dimensione da convertire.
+     * @return Dimensione in byte.
+     */
+    static long inByte(String dimensione) {
+        String valore = dimensione.trim().toUpperCase();
+        if(valore.endsWith("GB")) return Long.parseLong(valore.substring(0, valore.length() - 2)) << 30;
+        if(valore.endsWith("MB")) return Long.parseLong(valore.substring(0, valore.length() - 2)) << 20;
+        if(valore.endsWith("KB")) return Long.parseLong(valore.substring(0, valore.length() - 2)) << 10;
+        return Long.parseLong(valore);
+    }
+
+    /**
+     * Metodo che crea un file temporaneo vuoto, eliminato al termine della JVM.
+     * @param prefisso Prefisso del nome del file.
+     * @return File creato.
+     * @throws IOException In caso di errore durante la creazione del file.
+     */
+    static File temporaneo(String prefisso) throws IOException {
+        File file = Files.createTempFile("jfm-" + prefisso + "-", ".tmp").toFile();
+        file.deleteOnExit();
+        return file;
+    }
+
+    /**
+     * Metodo che restituisce una riga di testo ASCII della lunghezza indicata, senza terminatore.
+     * @param lunghezza Lunghezza della riga.
+     * @return Riga di testo.
+     */
+    static String riga(int lunghezza) {
+        StringBuilder riga = new StringBuilder(lunghezza);
+        for(int i = 0; i < lunghezza; i++) riga.append((char) ('a' + i % 26));
+        return riga.toString();
+    }
+
+    /**
+     * Metodo che restituisce un file di testo della dimensione indicata, composto da righe di 80 caratteri.
+     * Il file viene creato nella cartella temporanea e riutilizzato dalle esecuzioni successive, perché la sua preparazione può richiedere più tempo del benchmark.
+     * @param dimensione Dimensione (in byte) del file.
+     * @return File di testo.
+     * @throws IOException In caso di errore durante la scrittura del file.
+     */
+    static File testo(long dimensione) throws IOException {
+        File file = new File(System.getProperty("java.io.tmpdir"), "jfm-benchmark-" + dimensione + ".txt");
+        if(file.isFile() && file.length() == dimensione) return file;
+        byte[] riga = (riga(79) + "\n").getBytes(StandardCharsets.US_ASCII);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), 1 << 20)) {
+            long scritti = 0;
+            while(scritti < dimensione) {
+                int n = (int) Math.min(riga.length, dimensione - scritti);
+                output.write(riga, 0, n);
+                scritti += n;
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Metodo che restituisce un file di misure in formato CSV (sensore;istante;valore) della dimensione indicata, con valori pseudo-casuali ma ripetibili.
+     * A differenza di testo(), il contenuto è comprimibile quanto un file di dati reale. Il file viene creato nella cartella temporanea e riutilizzato dalle esecuzioni successive.
+     * @param dimensione Dimensione (in byte) del file.
+     * @return File di misure.
+     * @throws IOException In caso di errore durante la scrittura del file.
+     */
+    static File misure(long dimensione) throws IOException {
+        File file = new File(System.getProperty("java.io.tmpdir"), "jfm-benchmark-misure-" + dimensione + ".csv");
+        if(file.isFile() && file.length() == dimensione) return file;
+        Random casuale = new Random(42);
+        try (OutputStream output = new BufferedOutputStream(new FileOutputStream(file), 1 << 20)) {
+            long scritti = 0;
+            long istante = 1_700_000_000_000L;
+            while(scritti < dimensione) {
+                istante += casuale.nextInt(1000);
+                byte[] riga = ("sensore-" + casuale.nextInt(64) + ";" + istante + ";" + casuale.nextInt(100_000) / 100.0 + "\n").getBytes(StandardCharsets.US_ASCII);
+                int n = (int) Math.min(riga.length, dimensione - scritti);
+                output.write(riga, 0, n);
+                scritti += n;
+            }
+        }
+        return file;
+    }
+}
@@ -0,0 +1,69 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LetturaConcorrenteBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark di stress del lock di lettura e scrittura di JFM: tutti i thread accedono allo stesso file di int mappato in memoria.
+ * leggiIntAt misura la scalabilità delle sole letture al crescere dei thread (-t), misto affianca a tre lettori uno scrittore che modifica il file,
+ * così da misurare quanto le scritture rallentano le letture in parallelo.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LetturaConcorrenteBenchmark {
+
+    /**
+     * Numero di int del file.
+     */
+    @Param({"1048576"})
+    public int numeroValori;
+
+    private File file;
+    private JavaFileManager jfm;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        int[] valori = new int[this.numeroValori];
+        for(int i = 0; i < this.numeroValori; i++) valori[i] = i;
+        this.file = FileBenchmark.temporaneo("concorrente");
+        this.jfm = new JavaFileManager(this.file.getPath(), false, false);
+        this.jfm.scriviTipizzato(valori, true);
+        this.jfm.apriMappatura(Integer.BYTES, true);
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.jfm.termina();
+        this.file.delete();
+    }
+
+    @Benchmark
+    public int leggiIntAt() {
+        return this.jfm.leggiIntAt(ThreadLocalRandom.current().nextInt(this.numeroValori));
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(3)
+    public int leggiMisto() {
+        return this.jfm.leggiIntAt(ThreadLocalRandom.current().nextInt(this.numeroValori));
+    }
+
+    @Benchmark
+    @Group("misto")
+    @GroupThreads(1)
+    public void scriviMisto() {
+        int indice = ThreadLocalRandom.current().nextInt(this.numeroValori);
+        this.jfm.scriviIntAt(indice, indice);
+    }
+}
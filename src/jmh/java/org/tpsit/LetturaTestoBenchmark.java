@@ -0,0 +1,64 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * LetturaTestoBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della lettura di file di testo da 1 MB, 100 MB e 1 GB. Tutti i thread leggono dallo stesso JFM, per cui al crescere dei thread (-t) viene misurata
+ * la scalabilità delle letture in parallelo. leggi() carica l'intero file in memoria: con il file da 1 GB e più thread può essere necessario aumentare l'heap (-jvmArgsAppend).</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LetturaTestoBenchmark {
+
+    /**
+     * Dimensione del file letto.
+     */
+    @Param({"1MB", "100MB", "1GB"})
+    public String dimensione;
+
+    private JavaFileManager jfm;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        File file = FileBenchmark.testo(FileBenchmark.inByte(this.dimensione));
+        this.jfm = new JavaFileManager(file.getPath(), false, false);
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.jfm.termina();
+    }
+
+    @Benchmark
+    public String leggi() {
+        return this.jfm.leggi();
+    }
+
+    @Benchmark
+    public long righe() {
+        try (Stream<String> righe = this.jfm.righe()) {
+            return righe.count();
+        }
+    }
+
+    @Benchmark
+    public long leggiBlocchi() {
+        long[] caratteri = new long[1];
+        this.jfm.leggi(blocco -> {
+            caratteri[0] += blocco.length();
+            return true;
+        }, 64 * 1024);
+        return caratteri[0];
+    }
+}
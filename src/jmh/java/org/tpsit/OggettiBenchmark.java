@@ -0,0 +1,108 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * OggettiBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della scrittura e lettura di oggetti, singoli e nel log di oggetti, con la serializzazione Java e con il codec binario compatto.
+ * Ogni thread utilizza propri file.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class OggettiBenchmark {
+
+    /**
+     * Oggetto scritto e letto dai benchmark.
+     */
+    public record Misura(long id, double valore, String etichetta) implements Serializable {
+    }
+
+    /**
+     * Numero di oggetti nel log letto da leggiOggetti().
+     */
+    private static final int OGGETTI_LOG = 1000;
+
+    /**
+     * Codec utilizzato: "java" (serializzazione Java) o "compatto" (CodecBinarioCompatto).
+     */
+    @Param({"java", "compatto"})
+    public String codec;
+
+    /**
+     * Lunghezza (in caratteri) del testo contenuto in ogni oggetto.
+     */
+    @Param({"16", "1024"})
+    public int lunghezzaTesto;
+
+    private File fileScrittura;
+    private File fileLettura;
+    private File fileLog;
+    private JavaFileManager scrittore;
+    private JavaFileManager lettore;
+    private JavaFileManager log;
+    private Misura misura;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        CodecOggetti codecOggetti = this.codec.equals("compatto") ? new CodecBinarioCompatto(Misura.class) : new CodecSerializzazioneJava();
+        this.misura = new Misura(42, Math.PI, FileBenchmark.riga(this.lunghezzaTesto));
+        this.fileScrittura = FileBenchmark.temporaneo("oggetti");
+        this.fileLettura = FileBenchmark.temporaneo("oggetti-lettura");
+        this.fileLog = FileBenchmark.temporaneo("oggetti-log");
+        this.scrittore = new JavaFileManager(this.fileScrittura.getPath(), false, false);
+        this.scrittore.setCodec(codecOggetti);
+        this.lettore = new JavaFileManager(this.fileLettura.getPath(), false, false);
+        this.lettore.setCodec(codecOggetti);
+        this.lettore.scriviOggetto(this.misura, true);
+        this.log = new JavaFileManager(this.fileLog.getPath(), false, false);
+        this.log.setCodec(codecOggetti);
+        for(int i = 0; i < OGGETTI_LOG; i++) this.log.scriviOggettoLog(this.misura);
+    }
+
+    @Setup(Level.Iteration)
+    public void svuota() {
+        this.scrittore.cancellaContenuto();
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.scrittore.termina();
+        this.lettore.termina();
+        this.log.termina();
+        this.fileScrittura.delete();
+        this.fileLettura.delete();
+        this.fileLog.delete();
+    }
+
+    @Benchmark
+    public void scriviOggetto() {
+        this.scrittore.scriviOggetto(this.misura, true);
+    }
+
+    @Benchmark
+    public Object leggiOggetto() {
+        return this.lettore.leggiOggetto();
+    }
+
+    @Benchmark
+    public void scriviOggettoLog() {
+        this.scrittore.scriviOggettoLog(this.misura);
+    }
+
+    @Benchmark
+    public long leggiOggetti() {
+        try (Stream<Object> oggetti = this.log.leggiOggetti()) {
+            return oggetti.count();
+        }
+    }
+}
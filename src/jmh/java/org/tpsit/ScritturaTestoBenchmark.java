@@ -0,0 +1,89 @@
+package org.tpsit;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScritturaTestoBenchmark
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Benchmark della scrittura di righe di testo in append. Tutti i thread scrivono sullo stesso JFM, per cui al crescere dei thread (-t) viene misurata anche la contesa sul lock.
+ * Il file viene svuotato all'inizio di ogni iterazione.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScritturaTestoBenchmark {
+
+    /**
+     * Lunghezza (in caratteri) di ogni riga scritta.
+     */
+    @Param({"16", "256", "4096"})
+    public int lunghezzaRiga;
+
+    private File file;
+    private JavaFileManager jfm;
+    private String riga;
+
+    @Setup(Level.Trial)
+    public void prepara() throws IOException {
+        this.file = FileBenchmark.temporaneo("scrittura");
+        this.jfm = new JavaFileManager(this.file.getPath(), false, false);
+        this.riga = FileBenchmark.riga(this.lunghezzaRiga);
+    }
+
+    @Setup(Level.Iteration)
+    public void svuota() {
+        this.jfm.cancellaContenuto();
+    }
+
+    @TearDown(Level.Trial)
+    public void chiudi() {
+        this.jfm.termina();
+        this.file.delete();
+    }
+
+    @Benchmark
+    public void scrivi() {
+        this.jfm.scrivi(this.riga);
+    }
+
+    /**
+     * Stato con la scrittura asincrona avviata, per il confronto tra scrivi() e scriviInCoda().
+     */
+    @State(Scope.Benchmark)
+    public static class Coda {
+
+        private File file;
+        private JavaFileManager jfm;
+
+        @Setup(Level.Trial)
+        public void prepara() throws IOException {
+            this.file = FileBenchmark.temporaneo("scrittura-coda");
+            this.jfm = new JavaFileManager(this.file.getPath(), false, false);
+            this.jfm.avviaScritturaAsincrona();
+        }
+
+        @Setup(Level.Iteration)
+        public void svuota() {
+            this.jfm.cancellaContenuto();
+        }
+
+        @TearDown(Level.Trial)
+        public void chiudi() {
+            this.jfm.termina();
+            this.file.delete();
+        }
+    }
+
+    @Benchmark
+    public CompletableFuture<Void> scriviInCoda(Coda coda) {
+        return coda.jfm.scriviInCoda(this.riga);
+    }
+}
@@ -0,0 +1,55 @@
+package org.tpsit;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * BufferScrittura
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Buffer della sessione di scrittura di dati tipizzati utilizzato da JavaFileManager. Conta in un long i byte ricevuti, per sapere se il buffer contiene dati
+ * non ancora scritti sul file e quanti byte scrive ogni operazione: DataOutputStream#size() è un int che si ferma a Integer.MAX_VALUE.</p>
+ */
+final class BufferScrittura extends BufferedOutputStream {
+
+    /**
+     * Numero di byte ricevuti dalla creazione del buffer.
+     */
+    private long scritti = 0;
+
+    /**
+     * Costruttore di BufferScrittura.
+     * @param output Stream su cui scrivere il contenuto del buffer.
+     * @param dimensione Dimensione (in byte) del buffer.
+     */
+    BufferScrittura(OutputStream output, int dimensione) {
+        super(output, dimensione);
+    }
+
+    @Override
+    public synchronized void write(int b) throws IOException {
+        super.write(b);
+        this.scritti++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+        super.write(b, off, len);
+        this.scritti += len;
+    }
+
+    /**
+     * Metodo che scarta i byte del buffer non ancora scritti sul file, ad esempio perché il contenuto del file sta per essere cancellato.
+     */
+    synchronized void scarta() {
+        this.count = 0;
+    }
+
+    /**
+     * @return Numero di byte ricevuti dalla creazione del buffer, compresi quelli non ancora scritti sul file.
+     */
+    synchronized long scritti() {
+        return this.scritti;
+    }
+}
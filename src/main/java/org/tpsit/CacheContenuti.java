@@ -0,0 +1,200 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CacheContenuti
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Cache dei contenuti letti con leggi(), condivisa da tutti i JavaFileManager della JVM. Le voci sono identificate dal percorso canonico del file
+ * e sono valide finché la data di ultima modifica e la dimensione del file non cambiano; le scritture eseguite tramite JFM le invalidano immediatamente.
+ * Quando l'occupazione stimata supera la dimensione massima, vengono rimosse le voci utilizzate meno di recente (LRU).</p>
+ */
+final class CacheContenuti {
+
+    /**
+     * Cache attiva. Null se la cache non è abilitata.
+     */
+    private static volatile CacheContenuti attiva = null;
+
+    /**
+     * Contenuto di un file con gli attributi che ne determinano la validità.
+     */
+    private static final class Voce {
+        private final String contenuto;
+        private final long ultimaModifica;
+        private final long dimensioneFile;
+        private final long occupazione;
+        private volatile long verificataIl;
+
+        Voce(String contenuto, long ultimaModifica, long dimensioneFile, long verificataIl) {
+            this.contenuto = contenuto;
+            this.ultimaModifica = ultimaModifica;
+            this.dimensioneFile = dimensioneFile;
+            this.occupazione = 2L * contenuto.length();
+            this.verificataIl = verificataIl;
+        }
+    }
+
+    /**
+     * Voci della cache, in ordine di accesso (dalla meno recente).
+     */
+    private final LinkedHashMap<String, Voce> voci = new LinkedHashMap<>(16, 0.75f, true);
+    private final long dimensioneMassima;
+    private final long intervalloVerificaNanos;
+    private long occupazione = 0;
+
+    private final LongAdder successi = new LongAdder();
+    private final LongAdder mancati = new LongAdder();
+    private final LongAdder rimozioni = new LongAdder();
+    private final LongAdder invalidazioni = new LongAdder();
+
+    private CacheContenuti(long dimensioneMassima, long intervalloVerificaMs) {
+        this.dimensioneMassima = dimensioneMassima;
+        this.intervalloVerificaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, intervalloVerificaMs));
+    }
+
+    /**
+     * Metodo che abilita la cache, sostituendo l'eventuale cache già attiva.
+     * @param dimensioneMassima Occupazione massima (in byte) dei contenuti memorizzati.
+     * @param intervalloVerificaMs Intervallo (in millisecondi) entro il quale una voce già verificata è considerata valida senza controllare di nuovo il file.
+     */
+    static void abilita(long dimensioneMassima, long intervalloVerificaMs) {
+        attiva = new CacheContenuti(dimensioneMassima, intervalloVerificaMs);
+    }
+
+    /**
+     * Metodo che disabilita la cache, rilasciandone i contenuti.
+     */
+    static void disabilita() {
+        attiva = null;
+    }
+
+    /**
+     * Metodo che restituisce la cache attiva.
+     * @return Cache attiva. Null se la cache non è abilitata.
+     */
+    static CacheContenuti attiva() {
+        return attiva;
+    }
+
+    /**
+     * Metodo che restituisce la chiave di un file nella cache.
+     * @param file File di cui calcolare la chiave.
+     * @return Percorso canonico del file, oppure il percorso assoluto se non è possibile calcolarlo.
+     */
+    static String chiave(File file) {
+        try {
+            return file.getCanonicalPath();
+        } catch (IOException e) {
+            return file.getAbsolutePath();
+        }
+    }
+
+    /**
+     * Metodo che legge gli attributi del file che determinano la validità di una voce.
+     * @param file File di cui leggere gli attributi.
+     * @return Attributi del file. Null se il file non esiste o in caso di errore.
+     */
+    static BasicFileAttributes attributi(File file) {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Metodo che invalida la voce di un file nella cache attiva, se abilitata.
+     * @param file File modificato.
+     */
+    static void invalidaSeAttiva(File file) {
+        CacheContenuti cache = attiva;
+        if(cache != null && file != null) cache.invalida(chiave(file));
+    }
+
+    /**
+     * Metodo che restituisce il contenuto memorizzato di un file, se ancora valido.
+     * @param chiave Chiave del file.
+     * @param file File da leggere.
+     * @return Contenuto del file. Null se il contenuto non è memorizzato o se il file è stato modificato.
+     */
+    String leggi(String chiave, File file) {
+        Voce voce;
+        synchronized (this) {
+            voce = this.voci.get(chiave);
+        }
+        if(voce == null) {
+            this.mancati.increment();
+            return null;
+        }
+        long ora = System.nanoTime();
+        if(ora - voce.verificataIl >= this.intervalloVerificaNanos) {
+            BasicFileAttributes attributi = attributi(file);
+            if(attributi == null || attributi.lastModifiedTime().toMillis() != voce.ultimaModifica || attributi.size() != voce.dimensioneFile) {
+                synchronized (this) {
+                    if(this.voci.remove(chiave, voce)) {
+                        this.occupazione -= voce.occupazione;
+                        this.invalidazioni.increment();
+                    }
+                }
+                this.mancati.increment();
+                return null;
+            }
+            voce.verificataIl = ora;
+        }
+        this.successi.increment();
+        return voce.contenuto;
+    }
+
+    /**
+     * Metodo che memorizza il contenuto di un file, rimuovendo le voci utilizzate meno di recente se necessario.
+     * I contenuti più grandi della dimensione massima della cache non vengono memorizzati.
+     * @param chiave Chiave del file.
+     * @param contenuto Contenuto letto dal file.
+     * @param attributi Attributi del file letti prima del contenuto.
+     */
+    void inserisci(String chiave, String contenuto, BasicFileAttributes attributi) {
+        Voce voce = new Voce(contenuto, attributi.lastModifiedTime().toMillis(), attributi.size(), System.nanoTime());
+        if(voce.occupazione > this.dimensioneMassima) return;
+        synchronized (this) {
+            Voce precedente = this.voci.put(chiave, voce);
+            if(precedente != null) this.occupazione -= precedente.occupazione;
+            this.occupazione += voce.occupazione;
+            Iterator<Map.Entry<String, Voce>> menoRecenti = this.voci.entrySet().iterator();
+            while(this.occupazione > this.dimensioneMassima && menoRecenti.hasNext()) {
+                this.occupazione -= menoRecenti.next().getValue().occupazione;
+                menoRecenti.remove();
+                this.rimozioni.increment();
+            }
+        }
+    }
+
+    /**
+     * Metodo che invalida la voce di un file.
+     * @param chiave Chiave del file.
+     */
+    void invalida(String chiave) {
+        synchronized (this) {
+            Voce voce = this.voci.remove(chiave);
+            if(voce == null) return;
+            this.occupazione -= voce.occupazione;
+        }
+        this.invalidazioni.increment();
+    }
+
+    /**
+     * Metodo che restituisce un'istantanea delle statistiche della cache.
+     * @return Statistiche della cache.
+     */
+    synchronized StatisticheCache statistiche() {
+        return new StatisticheCache(this.successi.sum(), this.mancati.sum(), this.rimozioni.sum(), this.invalidazioni.sum(), this.voci.size(), this.occupazione, this.dimensioneMassima);
+    }
+}
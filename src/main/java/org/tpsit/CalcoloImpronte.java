@@ -0,0 +1,162 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * CalcoloImpronte
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Calcolo delle impronte (SHA-256) dei file utilizzato da JavaFileManager. Il file viene diviso in blocchi di dimensione fissa, le cui impronte vengono calcolate in parallelo
+ * nel ForkJoinPool comune tramite letture posizionali sullo stesso canale.</p>
+ * <p> Le impronte calcolate vengono memorizzate in una cache condivisa, identificate dal percorso canonico del file e valide finché la data di ultima modifica e la dimensione del file non cambiano.
+ * Quando la cache è piena, vengono rimosse le impronte utilizzate meno di recente.</p>
+ */
+final class CalcoloImpronte {
+
+    /**
+     * Dimensione (in byte) dei blocchi di cui viene calcolata l'impronta.
+     */
+    static final int DIMENSIONE_BLOCCO = 4 * 1024 * 1024;
+
+    /**
+     * Numero massimo di impronte memorizzate.
+     */
+    private static final int VOCI_MASSIME = 1024;
+
+    /**
+     * Impronta di un file con gli attributi che ne determinano la validità.
+     */
+    private static final class Voce {
+        private final ImprontaFile impronta;
+        private final long ultimaModifica;
+        private final long dimensioneFile;
+
+        Voce(ImprontaFile impronta, BasicFileAttributes attributi) {
+            this.impronta = impronta;
+            this.ultimaModifica = attributi.lastModifiedTime().toMillis();
+            this.dimensioneFile = attributi.size();
+        }
+
+        boolean valida(BasicFileAttributes attributi) {
+            return this.ultimaModifica == attributi.lastModifiedTime().toMillis() && this.dimensioneFile == attributi.size();
+        }
+    }
+
+    /**
+     * Impronte memorizzate, in ordine di accesso (dalla meno recente).
+     */
+    private static final Map<String, Voce> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Voce> voce) {
+            return size() > VOCI_MASSIME;
+        }
+    };
+
+    private CalcoloImpronte() {
+    }
+
+    /**
+     * Metodo che restituisce l'impronta di un file, dalla cache se ancora valida.
+     * @param file File di cui calcolare l'impronta.
+     * @return Impronta del file.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    static ImprontaFile impronta(File file) throws IOException {
+        String chiave = file.getCanonicalPath();
+        BasicFileAttributes attributi = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        synchronized(CACHE) {
+            Voce voce = CACHE.get(chiave);
+            if(voce != null && voce.valida(attributi)) return voce.impronta;
+        }
+        ImprontaFile impronta = calcola(file);
+        BasicFileAttributes attributiFinali = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        if(attributiFinali.lastModifiedTime().equals(attributi.lastModifiedTime()) && attributiFinali.size() == impronta.getDimensione()) {
+            synchronized(CACHE) {
+                CACHE.put(chiave, new Voce(impronta, attributiFinali));
+            }
+        }
+        return impronta;
+    }
+
+    /**
+     * Metodo che memorizza l'impronta di un file appena scritto con un contenuto di impronta nota, evitando di rileggerlo.
+     * @param file File scritto.
+     * @param impronta Impronta del contenuto del file.
+     * @throws IOException In caso di errore durante la lettura degli attributi del file.
+     */
+    static void memorizza(File file, ImprontaFile impronta) throws IOException {
+        BasicFileAttributes attributi = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        if(attributi.size() != impronta.getDimensione()) return;
+        synchronized(CACHE) {
+            CACHE.put(file.getCanonicalPath(), new Voce(impronta, attributi));
+        }
+    }
+
+    /**
+     * Metodo che calcola l'impronta di un file, calcolando in parallelo le impronte dei blocchi.
+     * @param file File di cui calcolare l'impronta.
+     * @return Impronta del file.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private static ImprontaFile calcola(File file) throws IOException {
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long dimensione = canale.size();
+            int blocchi = (int) ((dimensione + DIMENSIONE_BLOCCO - 1) / DIMENSIONE_BLOCCO);
+            byte[][] impronteBlocchi = new byte[blocchi][];
+            try {
+                IntStream.range(0, blocchi).parallel().forEach(i -> impronteBlocchi[i] = improntaBlocco(canale, (long) i * DIMENSIONE_BLOCCO, Math.min(DIMENSIONE_BLOCCO, dimensione - (long) i * DIMENSIONE_BLOCCO)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            MessageDigest radice = sha256();
+            radice.update(ByteBuffer.allocate(Long.BYTES).putLong(0, dimensione));
+            for(byte[] improntaBlocco : impronteBlocchi) radice.update(improntaBlocco);
+            return new ImprontaFile(dimensione, DIMENSIONE_BLOCCO, impronteBlocchi, radice.digest());
+        }
+    }
+
+    /**
+     * Metodo che calcola l'impronta di un blocco del file.
+     * @param canale Canale del file, condiviso tra i thread tramite letture posizionali.
+     * @param inizio Posizione del primo byte del blocco.
+     * @param lunghezza Dimensione (in byte) del blocco.
+     * @return Impronta del blocco.
+     */
+    private static byte[] improntaBlocco(FileChannel canale, long inizio, long lunghezza) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        long letti = 0;
+        try {
+            while(letti < lunghezza) {
+                buffer.clear();
+                if(lunghezza - letti < buffer.capacity()) buffer.limit((int) (lunghezza - letti));
+                int n = canale.read(buffer, inizio + letti);
+                if(n < 0) throw new EOFException();
+                buffer.flip();
+                digest.update(buffer);
+                letti += n;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponibile", e);
+        }
+    }
+}
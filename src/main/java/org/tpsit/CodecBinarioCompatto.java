@@ -0,0 +1,304 @@
+package org.tpsit;
+
+import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * CodecBinarioCompatto
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Codec binario compatto per record e classi i cui campi sono di tipo primitivo, wrapper, String o enum.
+ * Nel file vengono scritti solo i valori dei campi, senza intestazioni né descrittori di classe: gli interi sono codificati come varint (zig-zag), i float e i double
+ * nel loro formato binario e le stringhe in UTF-8 precedute dalla lunghezza. Il tipo degli oggetti è quindi indicato alla creazione del codec e deve essere lo stesso in scrittura e in lettura.</p>
+ * <p> La struttura di ogni classe viene analizzata tramite riflessione una sola volta e condivisa tra tutti i codec.
+ * I campi dei record seguono l'ordine dei componenti; quelli delle altre classi (che devono avere un costruttore senza parametri) sono ordinati per nome, a partire dalla superclasse.
+ * I campi static e transient vengono ignorati.</p>
+ */
+public final class CodecBinarioCompatto implements CodecOggetti {
+
+    /**
+     * Struttura delle classi già analizzate.
+     */
+    private static final ConcurrentHashMap<Class<?>, Struttura> STRUTTURE = new ConcurrentHashMap<>();
+
+    /**
+     * Tipo degli oggetti gestiti dal codec.
+     */
+    private final Class<?> tipo;
+
+    /**
+     * Struttura del tipo degli oggetti gestiti dal codec.
+     */
+    private final Struttura struttura;
+
+    /**
+     * Costruttore di CodecBinarioCompatto.
+     * @param tipo Tipo degli oggetti da scrivere e leggere.
+     * @throws IllegalArgumentException Se il tipo contiene campi non supportati o non ha un costruttore utilizzabile.
+     */
+    public CodecBinarioCompatto(Class<?> tipo) {
+        this.tipo = tipo;
+        this.struttura = STRUTTURE.computeIfAbsent(tipo, Struttura::new);
+    }
+
+    @Override
+    public void scrivi(Object oggetto, OutputStream output) throws IOException {
+        if(!this.tipo.isInstance(oggetto)) throw new NotSerializableException("Oggetto di tipo diverso da " + this.tipo.getName());
+        try {
+            for(Campo campo : this.struttura.campi) campo.scrivi(oggetto, output);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public Object leggi(InputStream input) throws IOException {
+        try {
+            return this.struttura.leggi(input);
+        } catch (IOException | RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Tipi dei campi supportati.
+     */
+    private enum TipoCampo {
+        BOOLEAN, BYTE, SHORT, CHAR, INT, LONG, FLOAT, DOUBLE, STRING, ENUM;
+
+        static TipoCampo di(Class<?> classe) {
+            if(classe == boolean.class || classe == Boolean.class) return BOOLEAN;
+            if(classe == byte.class || classe == Byte.class) return BYTE;
+            if(classe == short.class || classe == Short.class) return SHORT;
+            if(classe == char.class || classe == Character.class) return CHAR;
+            if(classe == int.class || classe == Integer.class) return INT;
+            if(classe == long.class || classe == Long.class) return LONG;
+            if(classe == float.class || classe == Float.class) return FLOAT;
+            if(classe == double.class || classe == Double.class) return DOUBLE;
+            if(classe == String.class) return STRING;
+            if(classe.isEnum()) return ENUM;
+            return null;
+        }
+    }
+
+    /**
+     * Struttura di una classe: campi da codificare e modalità di costruzione delle istanze.
+     */
+    private static class Struttura {
+
+        private final Campo[] campi;
+
+        /**
+         * Costruttore canonico del record, con parametri raccolti in un Object[]. Null per le classi.
+         */
+        private final MethodHandle costruttoreRecord;
+
+        /**
+         * Costruttore senza parametri della classe. Null per i record.
+         */
+        private final MethodHandle costruttore;
+
+        Struttura(Class<?> classe) {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                List<Campo> campi = new ArrayList<>();
+                if(classe.isRecord()) {
+                    RecordComponent[] componenti = classe.getRecordComponents();
+                    Class<?>[] tipiComponenti = new Class<?>[componenti.length];
+                    for(int i = 0; i < componenti.length; i++) {
+                        tipiComponenti[i] = componenti[i].getType();
+                        Method accessore = componenti[i].getAccessor();
+                        accessore.setAccessible(true);
+                        campi.add(new Campo(componenti[i].getName(), componenti[i].getType(), lookup.unreflect(accessore), null));
+                    }
+                    Constructor<?> canonico = classe.getDeclaredConstructor(tipiComponenti);
+                    canonico.setAccessible(true);
+                    this.costruttoreRecord = lookup.unreflectConstructor(canonico)
+                            .asSpreader(Object[].class, componenti.length)
+                            .asType(MethodType.methodType(Object.class, Object[].class));
+                    this.costruttore = null;
+                } else {
+                    List<Class<?>> gerarchia = new ArrayList<>();
+                    for(Class<?> c = classe; c != null && c != Object.class; c = c.getSuperclass()) gerarchia.add(0, c);
+                    for(Class<?> c : gerarchia) {
+                        Field[] campiDichiarati = c.getDeclaredFields();
+                        Arrays.sort(campiDichiarati, Comparator.comparing(Field::getName));
+                        for(Field campo : campiDichiarati) {
+                            if(Modifier.isStatic(campo.getModifiers()) || Modifier.isTransient(campo.getModifiers())) continue;
+                            campo.setAccessible(true);
+                            campi.add(new Campo(campo.getName(), campo.getType(), lookup.unreflectGetter(campo), lookup.unreflectSetter(campo)));
+                        }
+                    }
+                    Constructor<?> senzaParametri = classe.getDeclaredConstructor();
+                    senzaParametri.setAccessible(true);
+                    this.costruttore = lookup.unreflectConstructor(senzaParametri).asType(MethodType.methodType(Object.class));
+                    this.costruttoreRecord = null;
+                }
+                this.campi = campi.toArray(new Campo[0]);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                throw new IllegalArgumentException("Tipo non supportato da CodecBinarioCompatto: " + classe.getName() + " (" + e.getMessage() + ")", e);
+            }
+        }
+
+        Object leggi(InputStream input) throws Throwable {
+            if(this.costruttoreRecord != null) {
+                Object[] valori = new Object[this.campi.length];
+                for(int i = 0; i < valori.length; i++) valori[i] = this.campi[i].leggi(input);
+                return (Object) this.costruttoreRecord.invokeExact(valori);
+            }
+            Object oggetto = (Object) this.costruttore.invokeExact();
+            for(Campo campo : this.campi) campo.imposta(oggetto, campo.leggi(input));
+            return oggetto;
+        }
+    }
+
+    /**
+     * Campo di una classe, con le operazioni per leggerne e scriverne il valore.
+     */
+    private static class Campo {
+
+        private final TipoCampo tipoCampo;
+
+        /**
+         * Variabile che indica se il campo è di tipo primitivo (e quindi mai null).
+         */
+        private final boolean primitivo;
+
+        /**
+         * Costanti dell'enum, se il campo è di tipo enum.
+         */
+        private final Object[] costanti;
+
+        /**
+         * Getter del campo, di tipo (Object)Object.
+         */
+        private final MethodHandle getter;
+
+        /**
+         * Setter del campo, di tipo (Object, Object)void. Null per i record.
+         */
+        private final MethodHandle setter;
+
+        Campo(String nome, Class<?> classe, MethodHandle getter, MethodHandle setter) {
+            this.tipoCampo = TipoCampo.di(classe);
+            if(this.tipoCampo == null) throw new IllegalArgumentException("campo '" + nome + "' di tipo " + classe.getName() + " non supportato");
+            this.primitivo = classe.isPrimitive();
+            this.costanti = classe.isEnum() ? classe.getEnumConstants() : null;
+            this.getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            this.setter = setter == null ? null : setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        }
+
+        void imposta(Object oggetto, Object valore) throws Throwable {
+            this.setter.invokeExact(oggetto, valore);
+        }
+
+        void scrivi(Object oggetto, OutputStream output) throws Throwable {
+            Object valore = (Object) this.getter.invokeExact(oggetto);
+            if(!this.primitivo) {
+                if(valore == null) {
+                    output.write(0);
+                    return;
+                }
+                if(this.tipoCampo != TipoCampo.STRING && this.tipoCampo != TipoCampo.ENUM) output.write(1);
+            }
+            switch (this.tipoCampo) {
+                case BOOLEAN -> output.write((Boolean) valore ? 1 : 0);
+                case BYTE -> output.write((Byte) valore);
+                case SHORT -> scriviVarLong(output, zigZag((Short) valore));
+                case CHAR -> scriviVarLong(output, (Character) valore);
+                case INT -> scriviVarLong(output, zigZag((Integer) valore));
+                case LONG -> scriviVarLong(output, zigZag((Long) valore));
+                case FLOAT -> scriviFisso(output, Float.floatToRawIntBits((Float) valore), Float.BYTES);
+                case DOUBLE -> scriviFisso(output, Double.doubleToRawLongBits((Double) valore), Double.BYTES);
+                case STRING -> {
+                    byte[] bytes = ((String) valore).getBytes(StandardCharsets.UTF_8);
+                    scriviVarLong(output, bytes.length + 1L);
+                    output.write(bytes);
+                }
+                case ENUM -> scriviVarLong(output, ((Enum<?>) valore).ordinal() + 1L);
+            }
+        }
+
+        Object leggi(InputStream input) throws IOException {
+            if(!this.primitivo && this.tipoCampo != TipoCampo.STRING && this.tipoCampo != TipoCampo.ENUM && leggiByte(input) == 0) return null;
+            switch (this.tipoCampo) {
+                case BOOLEAN: return leggiByte(input) != 0;
+                case BYTE: return (byte) leggiByte(input);
+                case SHORT: return (short) deZigZag(leggiVarLong(input));
+                case CHAR: return (char) leggiVarLong(input);
+                case INT: return (int) deZigZag(leggiVarLong(input));
+                case LONG: return deZigZag(leggiVarLong(input));
+                case FLOAT: return Float.intBitsToFloat((int) leggiFisso(input, Float.BYTES));
+                case DOUBLE: return Double.longBitsToDouble(leggiFisso(input, Double.BYTES));
+                case STRING: {
+                    int lunghezza = (int) leggiVarLong(input);
+                    if(lunghezza == 0) return null;
+                    byte[] bytes = new byte[lunghezza - 1];
+                    if(input.readNBytes(bytes, 0, bytes.length) < bytes.length) throw new EOFException();
+                    return new String(bytes, StandardCharsets.UTF_8);
+                }
+                default: {
+                    int ordinale = (int) leggiVarLong(input);
+                    if(ordinale == 0) return null;
+                    if(ordinale > this.costanti.length) throw new StreamCorruptedException("Costante enum non valida");
+                    return this.costanti[ordinale - 1];
+                }
+            }
+        }
+    }
+
+    private static long zigZag(long valore) {
+        return (valore << 1) ^ (valore >> 63);
+    }
+
+    private static long deZigZag(long valore) {
+        return (valore >>> 1) ^ -(valore & 1);
+    }
+
+    private static void scriviVarLong(OutputStream output, long valore) throws IOException {
+        while((valore & ~0x7FL) != 0) {
+            output.write((int) ((valore & 0x7F) | 0x80));
+            valore >>>= 7;
+        }
+        output.write((int) valore);
+    }
+
+    private static long leggiVarLong(InputStream input) throws IOException {
+        long valore = 0;
+        for(int spostamento = 0; spostamento < 64; spostamento += 7) {
+            int b = leggiByte(input);
+            valore |= (long) (b & 0x7F) << spostamento;
+            if((b & 0x80) == 0) return valore;
+        }
+        throw new StreamCorruptedException("Varint non valido");
+    }
+
+    private static void scriviFisso(OutputStream output, long valore, int bytes) throws IOException {
+        for(int i = bytes - 1; i >= 0; i--) output.write((int) (valore >>> (i * 8)));
+    }
+
+    private static long leggiFisso(InputStream input, int bytes) throws IOException {
+        long valore = 0;
+        for(int i = 0; i < bytes; i++) valore = (valore << 8) | leggiByte(input);
+        return valore;
+    }
+
+    private static int leggiByte(InputStream input) throws IOException {
+        int b = input.read();
+        if(b < 0) throw new EOFException();
+        return b;
+    }
+}
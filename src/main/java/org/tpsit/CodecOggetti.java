@@ -0,0 +1,33 @@
+package org.tpsit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * CodecOggetti
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Interfaccia dei codec utilizzati da JavaFileManager per scrivere e leggere oggetti con scriviOggetto(), leggiOggetto() e il log di oggetti.
+ * Il codec di default è CodecSerializzazioneJava; CodecBinarioCompatto offre una codifica più veloce e compatta per record e classi con campi di tipo primitivo.</p>
+ * @see JavaFileManager#setCodec(CodecOggetti)
+ */
+public interface CodecOggetti {
+
+    /**
+     * Metodo che scrive un oggetto su uno stream.
+     * @param oggetto Oggetto da scrivere.
+     * @param output Stream su cui scrivere. Non viene chiuso.
+     * @throws IOException Se l'oggetto non è supportato dal codec o in caso di errore durante la scrittura.
+     */
+    void scrivi(Object oggetto, OutputStream output) throws IOException;
+
+    /**
+     * Metodo che legge un oggetto da uno stream.
+     * @param input Stream da cui leggere. Non viene chiuso.
+     * @return Oggetto letto.
+     * @throws IOException In caso di errore durante la lettura.
+     * @throws ClassNotFoundException Se la classe dell'oggetto non è disponibile.
+     */
+    Object leggi(InputStream input) throws IOException, ClassNotFoundException;
+}
@@ -0,0 +1,25 @@
+package org.tpsit;
+
+import java.io.*;
+
+/**
+ * CodecSerializzazioneJava
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Codec di default di JavaFileManager, basato sulla serializzazione Java (ObjectOutputStream e ObjectInputStream).
+ * Ogni oggetto viene scritto con la propria intestazione e i propri descrittori di classe, come nelle versioni precedenti di JFM.</p>
+ */
+public class CodecSerializzazioneJava implements CodecOggetti {
+
+    @Override
+    public void scrivi(Object oggetto, OutputStream output) throws IOException {
+        ObjectOutputStream outputOggetto = new ObjectOutputStream(output);
+        outputOggetto.writeObject(oggetto);
+        outputOggetto.flush();
+    }
+
+    @Override
+    public Object leggi(InputStream input) throws IOException, ClassNotFoundException {
+        return new ObjectInputStream(input).readObject();
+    }
+}
@@ -0,0 +1,206 @@
+package org.tpsit;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * DivisioneFile
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Divisione di un file in parti e unione di più file utilizzate da JavaFileManager. I confini delle parti vengono cercati con letture posizionali
+ * (a fine riga per i file di testo, a multipli della dimensione dell'elemento per i file di dati tipizzati), poi le parti vengono scritte in parallelo nel ForkJoinPool comune
+ * tramite FileChannel#transferTo sullo stesso canale. La memoria utilizzata non dipende dalla dimensione del file: i dati non passano per la memoria della JVM.</p>
+ */
+final class DivisioneFile {
+
+    /**
+     * Dimensione (in byte) del buffer utilizzato per cercare i fine riga.
+     */
+    private static final int DIMENSIONE_BUFFER = 64 * 1024;
+
+    private DivisioneFile() {
+    }
+
+    /**
+     * Metodo che restituisce il file di una parte: il nome del file diviso seguito da ".parte" e dal numero della parte, a partire da 0.
+     * @param file File diviso.
+     * @param indice Numero della parte.
+     * @return File della parte, nella stessa cartella del file diviso.
+     */
+    static File parte(File file, int indice) {
+        return new File(file.getPath() + String.format(".parte%04d", indice));
+    }
+
+    /**
+     * Metodo che calcola i confini di un numero prefissato di parti di dimensione il più possibile uguale.
+     * Le parti possono essere vuote se il file contiene meno righe o elementi delle parti richieste.
+     * @param canale Canale del file da dividere.
+     * @param parti Numero di parti.
+     * @param dimensioneElemento Dimensione (in byte) degli elementi del file. 0 per dividere a fine riga.
+     * @return Posizioni dei confini: la parte i va da confini[i] (incluso) a confini[i + 1] (escluso).
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    static long[] confini(FileChannel canale, int parti, int dimensioneElemento) throws IOException {
+        long dimensione = canale.size();
+        long unita = dimensioneElemento > 0 ? dimensione / dimensioneElemento : dimensione;
+        ByteBuffer buffer = dimensioneElemento > 0 ? null : ByteBuffer.allocate(DIMENSIONE_BUFFER);
+        long[] confini = new long[parti + 1];
+        for(int i = 1; i < parti; i++) {
+            long ideale = unita / parti * i + unita % parti * i / parti;
+            long confine = dimensioneElemento > 0 ? ideale * dimensioneElemento : fineRiga(canale, Math.max(confini[i - 1], ideale), buffer);
+            confini[i] = Math.max(confini[i - 1], confine);
+        }
+        confini[parti] = dimensione;
+        return confini;
+    }
+
+    /**
+     * Metodo che calcola i confini del minor numero di parti che non superano la dimensione indicata.
+     * Una parte supera la dimensione solo se contiene una sola riga (o un solo elemento) più lunga della dimensione; i byte finali che non formano un elemento completo sono aggiunti all'ultima parte.
+     * @param canale Canale del file da dividere.
+     * @param byteMassimi Dimensione (in byte) massima di una parte.
+     * @param dimensioneElemento Dimensione (in byte) degli elementi del file. 0 per dividere a fine riga.
+     * @return Posizioni dei confini: la parte i va da confini[i] (incluso) a confini[i + 1] (escluso). Un file vuoto ha una sola parte, vuota.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    static long[] confini(FileChannel canale, long byteMassimi, int dimensioneElemento) throws IOException {
+        long dimensione = canale.size();
+        ByteBuffer buffer = dimensioneElemento > 0 ? null : ByteBuffer.allocate(DIMENSIONE_BUFFER);
+        List<Long> confini = new ArrayList<>();
+        confini.add(0L);
+        long inizio = 0;
+        while(inizio < dimensione) {
+            long fine;
+            if(dimensione - inizio <= byteMassimi) {
+                fine = dimensione;
+            } else if(dimensioneElemento > 0) {
+                fine = Math.min(dimensione, inizio + Math.max(1, byteMassimi / dimensioneElemento) * dimensioneElemento);
+                if(dimensione - fine < dimensioneElemento) fine = dimensione;
+            } else {
+                fine = ultimaFineRiga(canale, inizio, inizio + byteMassimi, buffer);
+                if(fine < 0) fine = fineRiga(canale, inizio + byteMassimi, buffer);
+            }
+            confini.add(fine);
+            inizio = fine;
+        }
+        if(confini.size() == 1) confini.add(dimensione);
+        return confini.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Metodo che cerca la prima fine riga a partire da una posizione.
+     * @param canale Canale del file.
+     * @param posizione Posizione di inizio della ricerca: se il byte precedente è un '\n', è già una fine riga.
+     * @param buffer Buffer di lettura.
+     * @return Posizione del byte successivo al primo '\n' trovato. La dimensione del file se non ci sono altri '\n'.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private static long fineRiga(FileChannel canale, long posizione, ByteBuffer buffer) throws IOException {
+        if(posizione <= 0) return 0;
+        long dimensione = canale.size();
+        long daLeggere = posizione - 1;
+        while(daLeggere < dimensione) {
+            buffer.clear();
+            int letti = canale.read(buffer, daLeggere);
+            if(letti <= 0) break;
+            for(int i = 0; i < letti; i++) {
+                if(buffer.get(i) == '\n') return daLeggere + i + 1;
+            }
+            daLeggere += letti;
+        }
+        return dimensione;
+    }
+
+    /**
+     * Metodo che cerca l'ultima fine riga in un intervallo del file, leggendolo all'indietro.
+     * @param canale Canale del file.
+     * @param inizio Inizio (incluso) dell'intervallo.
+     * @param fine Fine (esclusa) dell'intervallo.
+     * @param buffer Buffer di lettura.
+     * @return Posizione del byte successivo all'ultimo '\n' dell'intervallo. -1 se l'intervallo non contiene '\n'.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private static long ultimaFineRiga(FileChannel canale, long inizio, long fine, ByteBuffer buffer) throws IOException {
+        long daLeggere = fine;
+        while(daLeggere > inizio) {
+            int lunghezza = (int) Math.min(buffer.capacity(), daLeggere - inizio);
+            long posizione = daLeggere - lunghezza;
+            buffer.clear().limit(lunghezza);
+            while(buffer.hasRemaining()) {
+                if(canale.read(buffer, posizione + buffer.position()) < 0) throw new EOFException();
+            }
+            for(int i = lunghezza - 1; i >= 0; i--) {
+                if(buffer.get(i) == '\n') return posizione + i + 1;
+            }
+            daLeggere = posizione;
+        }
+        return -1;
+    }
+
+    /**
+     * Metodo che scrive le parti del file in parallelo. I file delle parti esistenti vengono sovrascritti.
+     * @param canale Canale del file da dividere, condiviso tra i thread tramite trasferimenti posizionali.
+     * @param confini Confini delle parti.
+     * @param parti File delle parti, uno per ogni coppia di confini consecutivi.
+     * @throws IOException In caso di errore durante la scrittura delle parti.
+     */
+    static void scriviParti(FileChannel canale, long[] confini, List<File> parti) throws IOException {
+        try {
+            IntStream.range(0, parti.size()).parallel().forEach(i -> scriviParte(canale, confini[i], confini[i + 1], parti.get(i)));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Metodo che scrive una parte del file tramite FileChannel#transferTo.
+     * @param canale Canale del file da dividere.
+     * @param inizio Posizione del primo byte della parte.
+     * @param fine Posizione successiva all'ultimo byte della parte.
+     * @param parte File della parte.
+     */
+    private static void scriviParte(FileChannel canale, long inizio, long fine, File parte) {
+        try (FileChannel canaleParte = FileChannel.open(parte.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            trasferisci(canale, inizio, fine - inizio, canaleParte);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            CacheContenuti.invalidaSeAttiva(parte);
+        }
+    }
+
+    /**
+     * Metodo che accoda il contenuto di un file a un canale tramite FileChannel#transferTo, senza passare i dati per la memoria della JVM.
+     * @param file File da accodare.
+     * @param destinazione Canale in cui accodare il file, posizionato alla fine.
+     * @return Numero di byte accodati.
+     * @throws IOException In caso di errore durante la lettura del file o la scrittura nel canale.
+     */
+    static long accoda(File file, FileChannel destinazione) throws IOException {
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long dimensione = canale.size();
+            trasferisci(canale, 0, dimensione, destinazione);
+            return dimensione;
+        }
+    }
+
+    /**
+     * Metodo che trasferisce una porzione di un canale in un altro, ripetendo FileChannel#transferTo finché non è completo.
+     */
+    private static void trasferisci(FileChannel sorgente, long posizione, long lunghezza, FileChannel destinazione) throws IOException {
+        long fine = posizione + lunghezza;
+        while(posizione < fine) {
+            long trasferiti = sorgente.transferTo(posizione, fine - posizione, destinazione);
+            if(trasferiti <= 0) throw new EOFException();
+            posizione += trasferiti;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.tpsit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * EsecuzioneAsincrona
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Esecuzione asincrona delle operazioni di JavaFileManager. Ogni operazione viene eseguita su un esecutore e il risultato restituito tramite un CompletableFuture.
+ * L'esecutore predefinito crea un thread virtuale per ogni operazione, se disponibile (Java 21 o successivo); altrimenti utilizza un pool limitato di thread daemon,
+ * così che migliaia di operazioni concorrenti non creino altrettanti thread di piattaforma.</p>
+ * <p> Se il CompletableFuture viene annullato o scade (orTimeout()) prima dell'avvio dell'operazione, l'operazione non viene eseguita.
+ * Un'operazione già avviata non viene interrotta, poiché l'interruzione di un thread durante una lettura chiuderebbe il canale condiviso con gli altri JFM: viene completata e il risultato scartato.</p>
+ */
+final class EsecuzioneAsincrona {
+
+    /**
+     * Numero di thread del pool utilizzato se i thread virtuali non sono disponibili.
+     */
+    static final int THREAD_POOL = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Esecutore predefinito, creato al primo utilizzo.
+     */
+    private static volatile ExecutorService predefinito = null;
+
+    private EsecuzioneAsincrona() {
+    }
+
+    /**
+     * Metodo che restituisce l'esecutore predefinito: un thread virtuale per ogni operazione, oppure un pool di THREAD_POOL thread daemon.
+     * @return Esecutore predefinito.
+     */
+    static ExecutorService predefinito() {
+        ExecutorService esecutore = predefinito;
+        if(esecutore == null) {
+            synchronized(EsecuzioneAsincrona.class) {
+                esecutore = predefinito;
+                if(esecutore == null) {
+                    esecutore = creaPredefinito();
+                    predefinito = esecutore;
+                }
+            }
+        }
+        return esecutore;
+    }
+
+    /**
+     * Metodo che crea l'esecutore predefinito. I thread virtuali vengono cercati tramite reflection, poiché la libreria è compilata per Java 17.
+     * @return Esecutore creato.
+     */
+    private static ExecutorService creaPredefinito() {
+        try {
+            Method virtuali = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtuali.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger numero = new AtomicInteger();
+            return Executors.newFixedThreadPool(THREAD_POOL, operazione -> {
+                Thread thread = new Thread(operazione, "JFM-asincrono-" + numero.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Metodo che esegue un'operazione in modo asincrono.
+     * @param operazione Operazione da eseguire.
+     * @param esecutore Esecutore su cui eseguire l'operazione. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato con il risultato dell'operazione, oppure eccezionalmente se l'operazione lancia un'eccezione o viene rifiutata dall'esecutore.
+     * @param <T> Tipo del risultato.
+     */
+    static <T> CompletableFuture<T> esegui(Supplier<T> operazione, Executor esecutore) {
+        CompletableFuture<T> risultato = new CompletableFuture<>();
+        try {
+            (esecutore != null ? esecutore : predefinito()).execute(() -> {
+                if(risultato.isDone()) return;
+                try {
+                    risultato.complete(operazione.get());
+                } catch (Throwable e) {
+                    risultato.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            risultato.completeExceptionally(e);
+        }
+        return risultato;
+    }
+
+    /**
+     * Metodo che esegue un'operazione senza risultato in modo asincrono.
+     * @param operazione Operazione da eseguire.
+     * @param esecutore Esecutore su cui eseguire l'operazione. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato al termine dell'operazione.
+     */
+    static CompletableFuture<Void> eseguiSenzaRisultato(Runnable operazione, Executor esecutore) {
+        return esegui(() -> {
+            operazione.run();
+            return null;
+        }, esecutore);
+    }
+}
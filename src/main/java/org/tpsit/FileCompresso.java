@@ -0,0 +1,557 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * FileCompresso
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Formato dei file compressi a blocchi utilizzato da JavaFileManager. Il contenuto viene diviso in blocchi di dimensione fissa, compressi indipendentemente l'uno dall'altro
+ * con Deflater (formato zlib, con checksum): per leggere un punto qualsiasi del contenuto basta decomprimere il blocco che lo contiene.
+ * I blocchi che non si riducono comprimendoli vengono memorizzati così come sono.</p>
+ * <p> Il file inizia con un'intestazione (numero magico, versione e dimensione dei blocchi), seguita dai blocchi, ognuno preceduto dalla dimensione originale e da quella memorizzata (int).
+ * Al termine della scrittura vengono aggiunti l'indice dei blocchi (posizione, dimensione memorizzata e dimensione originale) e una coda con il numero di blocchi e la posizione dell'indice.
+ * Se la coda manca (ad esempio dopo un'interruzione durante la scrittura), l'indice viene ricostruito dalle intestazioni dei blocchi completi.</p>
+ * <p> La compressione e la decompressione dell'intero file avvengono in parallelo nel ForkJoinPool comune, con un numero limitato di blocchi in memoria, e i blocchi vengono scritti nell'ordine originale.</p>
+ */
+final class FileCompresso {
+
+    /**
+     * Numero magico all'inizio e alla fine del file ("JFMZ").
+     */
+    static final int MAGIA = 0x4A464D5A;
+
+    /**
+     * Versione del formato.
+     */
+    static final int VERSIONE = 1;
+
+    /**
+     * Dimensione (in byte) predefinita dei blocchi.
+     */
+    static final int DIMENSIONE_BLOCCO = 1024 * 1024;
+
+    private static final int DIMENSIONE_INTESTAZIONE = 3 * Integer.BYTES;
+    private static final int DIMENSIONE_INTESTAZIONE_BLOCCO = 2 * Integer.BYTES;
+    private static final int DIMENSIONE_VOCE = Long.BYTES + 2 * Integer.BYTES;
+    private static final int DIMENSIONE_CODA = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private FileCompresso() {
+    }
+
+    /**
+     * Numero massimo di blocchi in compressione o decompressione contemporaneamente, che limita la memoria utilizzata.
+     */
+    private static int massimoInElaborazione() {
+        return 2 * ForkJoinPool.getCommonPoolParallelism() + 1;
+    }
+
+    /**
+     * Blocco codificato, pronto per essere scritto: intestazione del blocco e contenuto memorizzato.
+     */
+    private static final class BloccoCodificato {
+        private final byte[] originale;
+        private final ByteBuffer codificato;
+        private final int dimensioneOriginale;
+
+        BloccoCodificato(byte[] originale, ByteBuffer codificato, int dimensioneOriginale) {
+            this.originale = originale;
+            this.codificato = codificato;
+            this.dimensioneOriginale = dimensioneOriginale;
+        }
+    }
+
+    /**
+     * Metodo che comprime un blocco. Se il blocco compresso non è più piccolo dell'originale, il blocco viene memorizzato senza compressione.
+     * @param dati Contenuto del blocco.
+     * @param lunghezza Numero di byte del blocco.
+     * @param livello Livello di compressione di Deflater.
+     * @return Blocco codificato, con l'intestazione del blocco.
+     */
+    private static BloccoCodificato codifica(byte[] dati, int lunghezza, int livello) {
+        ByteBuffer codificato = ByteBuffer.allocate(DIMENSIONE_INTESTAZIONE_BLOCCO + lunghezza);
+        Deflater deflater = new Deflater(livello);
+        try {
+            deflater.setInput(dati, 0, lunghezza);
+            deflater.finish();
+            int compressi = 0;
+            while(!deflater.finished() && compressi < lunghezza) {
+                compressi += deflater.deflate(codificato.array(), DIMENSIONE_INTESTAZIONE_BLOCCO + compressi, lunghezza - compressi);
+            }
+            if(deflater.finished() && compressi < lunghezza) {
+                codificato.putInt(0, lunghezza).putInt(4, compressi).limit(DIMENSIONE_INTESTAZIONE_BLOCCO + compressi);
+            } else {
+                codificato.putInt(0, lunghezza).putInt(4, lunghezza).put(DIMENSIONE_INTESTAZIONE_BLOCCO, dati, 0, lunghezza);
+            }
+        } finally {
+            deflater.end();
+        }
+        return new BloccoCodificato(dati, codificato, lunghezza);
+    }
+
+    /**
+     * Metodo che decodifica un blocco.
+     * @param memorizzato Contenuto memorizzato del blocco.
+     * @param lunghezzaMemorizzata Numero di byte memorizzati.
+     * @param destinazione Array in cui decodificare il blocco, lungo almeno quanto il blocco originale.
+     * @param dimensioneOriginale Dimensione originale del blocco.
+     * @throws IOException Se il blocco è danneggiato.
+     */
+    private static void decodifica(byte[] memorizzato, int lunghezzaMemorizzata, byte[] destinazione, int dimensioneOriginale) throws IOException {
+        if(lunghezzaMemorizzata == dimensioneOriginale) {
+            System.arraycopy(memorizzato, 0, destinazione, 0, dimensioneOriginale);
+            return;
+        }
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(memorizzato, 0, lunghezzaMemorizzata);
+            int decompressi = 0;
+            while(decompressi < dimensioneOriginale && !inflater.finished()) {
+                int n = inflater.inflate(destinazione, decompressi, dimensioneOriginale - decompressi);
+                if(n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                decompressi += n;
+            }
+            if(decompressi != dimensioneOriginale || !inflater.finished()) throw new IOException("Blocco compresso danneggiato");
+        } catch (DataFormatException e) {
+            throw new IOException("Blocco compresso danneggiato", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static void leggiCompleto(FileChannel canale, ByteBuffer buffer, long posizione) throws IOException {
+        while(buffer.hasRemaining()) {
+            if(canale.read(buffer, posizione + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    private static <T> T attendi(CompletableFuture<T> futuro) throws IOException {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Indice dei blocchi di un file compresso.
+     */
+    static final class Indice {
+        private long[] posizioni = new long[16];
+        private int[] memorizzati = new int[16];
+        private int[] originali = new int[16];
+
+        /**
+         * Posizione nel contenuto originale dell'inizio di ogni blocco; l'ultimo elemento è la dimensione del contenuto originale.
+         */
+        private long[] inizi = new long[17];
+        private int blocchi = 0;
+
+        private void aggiungi(long posizione, int memorizzato, int originale) {
+            if(this.blocchi == this.posizioni.length) {
+                this.posizioni = Arrays.copyOf(this.posizioni, this.blocchi * 2);
+                this.memorizzati = Arrays.copyOf(this.memorizzati, this.blocchi * 2);
+                this.originali = Arrays.copyOf(this.originali, this.blocchi * 2);
+                this.inizi = Arrays.copyOf(this.inizi, this.blocchi * 2 + 1);
+            }
+            this.posizioni[this.blocchi] = posizione;
+            this.memorizzati[this.blocchi] = memorizzato;
+            this.originali[this.blocchi] = originale;
+            this.inizi[this.blocchi + 1] = this.inizi[this.blocchi] + originale;
+            this.blocchi++;
+        }
+
+        /**
+         * Metodo che legge l'indice di un file compresso dalla coda del file o, se non valida, dalle intestazioni dei blocchi.
+         * @param canale Canale del file, aperto in lettura.
+         * @return Indice dei blocchi.
+         * @throws IOException Se il file non è un file compresso da JFM o in caso di errore durante la lettura.
+         */
+        static Indice leggi(FileChannel canale) throws IOException {
+            long dimensione = canale.size();
+            ByteBuffer intestazione = ByteBuffer.allocate(DIMENSIONE_INTESTAZIONE);
+            leggiCompleto(canale, intestazione, 0);
+            if(intestazione.getInt(0) != MAGIA) throw new IOException("Il file non è un file compresso da JFM");
+            if(intestazione.getInt(4) != VERSIONE) throw new IOException("Versione del file compresso non supportata: " + intestazione.getInt(4));
+            Indice indice = new Indice();
+            if(dimensione >= DIMENSIONE_INTESTAZIONE + DIMENSIONE_CODA) {
+                ByteBuffer coda = ByteBuffer.allocate(DIMENSIONE_CODA);
+                leggiCompleto(canale, coda, dimensione - DIMENSIONE_CODA);
+                int blocchi = coda.getInt(0);
+                long posizioneIndice = coda.getLong(4);
+                if(coda.getInt(12) == MAGIA && blocchi >= 0 && posizioneIndice + (long) blocchi * DIMENSIONE_VOCE + DIMENSIONE_CODA == dimensione) {
+                    ByteBuffer voci = ByteBuffer.allocate(blocchi * DIMENSIONE_VOCE);
+                    leggiCompleto(canale, voci, posizioneIndice);
+                    for(int b = 0; b < blocchi; b++) indice.aggiungi(voci.getLong(), voci.getInt(), voci.getInt());
+                    return indice;
+                }
+            }
+            ByteBuffer intestazioneBlocco = ByteBuffer.allocate(DIMENSIONE_INTESTAZIONE_BLOCCO);
+            long posizione = DIMENSIONE_INTESTAZIONE;
+            while(posizione + DIMENSIONE_INTESTAZIONE_BLOCCO <= dimensione) {
+                intestazioneBlocco.clear();
+                leggiCompleto(canale, intestazioneBlocco, posizione);
+                int originale = intestazioneBlocco.getInt(0);
+                int memorizzato = intestazioneBlocco.getInt(4);
+                if(originale <= 0 || memorizzato <= 0 || memorizzato > originale || posizione + DIMENSIONE_INTESTAZIONE_BLOCCO + memorizzato > dimensione) break;
+                indice.aggiungi(posizione, memorizzato, originale);
+                posizione += DIMENSIONE_INTESTAZIONE_BLOCCO + memorizzato;
+            }
+            return indice;
+        }
+
+        /**
+         * @return Dimensione (in byte) del contenuto originale.
+         */
+        long dimensione() {
+            return this.inizi[this.blocchi];
+        }
+
+        /**
+         * @return Numero di blocchi.
+         */
+        int blocchi() {
+            return this.blocchi;
+        }
+
+        /**
+         * Metodo che individua il blocco che contiene una posizione del contenuto originale.
+         * @param posizione Posizione nel contenuto originale, minore della dimensione.
+         * @return Indice del blocco.
+         */
+        int blocco(long posizione) {
+            int b = Arrays.binarySearch(this.inizi, 0, this.blocchi + 1, posizione);
+            return b >= 0 ? b : -b - 2;
+        }
+
+        /**
+         * Metodo che legge e decodifica un blocco.
+         * @param canale Canale del file.
+         * @param b Indice del blocco.
+         * @param memorizzato Buffer riutilizzabile per il contenuto memorizzato. Può essere null.
+         * @param destinazione Array in cui decodificare il blocco, lungo almeno quanto il blocco originale.
+         * @return Buffer utilizzato per il contenuto memorizzato, da riutilizzare.
+         * @throws IOException In caso di errore durante la lettura o se il blocco è danneggiato.
+         */
+        byte[] leggiBlocco(FileChannel canale, int b, byte[] memorizzato, byte[] destinazione) throws IOException {
+            int lunghezza = this.memorizzati[b];
+            if(memorizzato == null || memorizzato.length < lunghezza) memorizzato = new byte[lunghezza];
+            leggiCompleto(canale, ByteBuffer.wrap(memorizzato, 0, lunghezza), this.posizioni[b] + DIMENSIONE_INTESTAZIONE_BLOCCO);
+            decodifica(memorizzato, lunghezza, destinazione, this.originali[b]);
+            return memorizzato;
+        }
+
+        int originale(int b) {
+            return this.originali[b];
+        }
+
+        long inizio(int b) {
+            return this.inizi[b];
+        }
+
+        /**
+         * @return Dimensione massima (in byte) di un blocco originale.
+         */
+        int dimensioneMassimaBlocco() {
+            int massimo = 0;
+            for(int b = 0; b < this.blocchi; b++) massimo = Math.max(massimo, this.originali[b]);
+            return massimo;
+        }
+    }
+
+    /**
+     * Stream di scrittura di un file compresso. I byte scritti vengono raccolti in blocchi; ogni blocco completo viene compresso in parallelo mentre si riempie il successivo
+     * e scritto nel file nell'ordine originale. Al più 2 * parallelismo + 1 blocchi sono in memoria contemporaneamente: oltre, la scrittura attende la compressione del blocco più vecchio.
+     * flush() attende e scrive i blocchi completi, ma non scrive il blocco incompleto, per non ridurre la compressione; il contenuto è completo solo dopo close().
+     */
+    static final class Scrittore extends OutputStream {
+
+        private final File file;
+        private final FileChannel canale;
+        private final int livello;
+        private final int dimensioneBlocco;
+        private final int massimoInElaborazione = massimoInElaborazione();
+        private final ArrayDeque<CompletableFuture<BloccoCodificato>> inElaborazione = new ArrayDeque<>();
+        private final ArrayDeque<byte[]> liberi = new ArrayDeque<>();
+        private final Indice indice = new Indice();
+        private byte[] blocco;
+        private int riempito = 0;
+        private long posizione;
+        private boolean chiuso = false;
+
+        /**
+         * Costruttore di Scrittore. Crea il file (o ne cancella il contenuto) e ne scrive l'intestazione.
+         * @param file File da scrivere.
+         * @param livello Livello di compressione di Deflater, da 0 (nessuna compressione) a 9 (massima), oppure Deflater.DEFAULT_COMPRESSION.
+         * @param dimensioneBlocco Dimensione (in byte) dei blocchi.
+         * @throws IOException In caso di errore durante l'apertura del file.
+         */
+        Scrittore(File file, int livello, int dimensioneBlocco) throws IOException {
+            if((livello < 0 || livello > 9) && livello != Deflater.DEFAULT_COMPRESSION) throw new IllegalArgumentException("Livello di compressione non valido: " + livello);
+            if(dimensioneBlocco < 4096) throw new IllegalArgumentException("Dimensione dei blocchi non valida: " + dimensioneBlocco);
+            this.file = file;
+            this.livello = livello;
+            this.dimensioneBlocco = dimensioneBlocco;
+            this.canale = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer intestazione = ByteBuffer.allocate(DIMENSIONE_INTESTAZIONE).putInt(MAGIA).putInt(VERSIONE).putInt(dimensioneBlocco).flip();
+            try {
+                scriviTutto(intestazione);
+            } catch (IOException e) {
+                this.canale.close();
+                throw e;
+            }
+            this.blocco = new byte[dimensioneBlocco];
+        }
+
+        private void scriviTutto(ByteBuffer buffer) throws IOException {
+            while(buffer.hasRemaining()) this.posizione += this.canale.write(buffer, this.posizione);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if(this.riempito == this.blocco.length) invia();
+            this.blocco[this.riempito++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if(this.chiuso) throw new IOException("Stream chiuso");
+            while(len > 0) {
+                if(this.riempito == this.blocco.length) invia();
+                int n = Math.min(len, this.blocco.length - this.riempito);
+                System.arraycopy(b, off, this.blocco, this.riempito, n);
+                this.riempito += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /**
+         * Metodo che avvia la compressione del blocco corrente e prepara il successivo, scrivendo i blocchi già compressi oltre il limite di blocchi in memoria.
+         */
+        private void invia() throws IOException {
+            if(this.chiuso) throw new IOException("Stream chiuso");
+            byte[] dati = this.blocco;
+            int lunghezza = this.riempito;
+            this.inElaborazione.addLast(CompletableFuture.supplyAsync(() -> codifica(dati, lunghezza, this.livello), ForkJoinPool.commonPool()));
+            byte[] libero = this.liberi.pollFirst();
+            this.blocco = libero != null ? libero : new byte[this.dimensioneBlocco];
+            this.riempito = 0;
+            while(this.inElaborazione.size() >= this.massimoInElaborazione) scriviPrimo();
+        }
+
+        /**
+         * Metodo che attende la compressione del blocco più vecchio e lo scrive nel file.
+         */
+        private void scriviPrimo() throws IOException {
+            BloccoCodificato codificato = attendi(this.inElaborazione.pollFirst());
+            long inizio = this.posizione;
+            int memorizzato = codificato.codificato.remaining() - DIMENSIONE_INTESTAZIONE_BLOCCO;
+            scriviTutto(codificato.codificato);
+            this.indice.aggiungi(inizio, memorizzato, codificato.dimensioneOriginale);
+            this.liberi.addLast(codificato.originale);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            while(!this.inElaborazione.isEmpty()) scriviPrimo();
+        }
+
+        /**
+         * @return Numero di byte scritti nel file finora.
+         */
+        long byteScritti() {
+            return this.posizione;
+        }
+
+        /**
+         * Metodo che comprime l'ultimo blocco, scrive i blocchi rimanenti, l'indice e la coda e chiude il file.
+         * @throws IOException In caso di errore durante la scrittura.
+         */
+        @Override
+        public void close() throws IOException {
+            if(this.chiuso) return;
+            try {
+                if(this.riempito > 0) invia();
+                this.chiuso = true;
+                flush();
+                long posizioneIndice = this.posizione;
+                ByteBuffer voci = ByteBuffer.allocate(this.indice.blocchi * DIMENSIONE_VOCE + DIMENSIONE_CODA);
+                for(int b = 0; b < this.indice.blocchi; b++) voci.putLong(this.indice.posizioni[b]).putInt(this.indice.memorizzati[b]).putInt(this.indice.originali[b]);
+                voci.putInt(this.indice.blocchi).putLong(posizioneIndice).putInt(MAGIA).flip();
+                scriviTutto(voci);
+            } finally {
+                this.chiuso = true;
+                this.inElaborazione.forEach(futuro -> futuro.cancel(false));
+                this.canale.close();
+                CacheContenuti.invalidaSeAttiva(this.file);
+            }
+        }
+    }
+
+    /**
+     * Stream di lettura di un file compresso. Decomprime un blocco alla volta, per cui la memoria utilizzata non dipende dalla dimensione del file.
+     * skip() e posiziona() spostano la lettura in un punto qualsiasi del contenuto decomprimendo solo il blocco che lo contiene.
+     */
+    static final class Lettore extends InputStream {
+
+        private final FileChannel canale;
+        private final Indice indice;
+        private final byte[] corrente;
+        private byte[] memorizzato = null;
+        private int bloccoCorrente = -1;
+        private long posizione = 0;
+
+        /**
+         * Costruttore di Lettore. Apre il file e ne legge l'indice.
+         * @param file File compresso.
+         * @throws IOException Se il file non è un file compresso da JFM o in caso di errore durante la lettura.
+         */
+        Lettore(File file) throws IOException {
+            this.canale = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try {
+                this.indice = Indice.leggi(this.canale);
+            } catch (IOException | RuntimeException e) {
+                this.canale.close();
+                throw e;
+            }
+            this.corrente = new byte[this.indice.dimensioneMassimaBlocco()];
+        }
+
+        /**
+         * @return Dimensione (in byte) del contenuto decompresso.
+         */
+        long dimensione() {
+            return this.indice.dimensione();
+        }
+
+        /**
+         * Metodo che sposta la lettura in una posizione del contenuto decompresso.
+         * @param posizione Posizione (in byte) nel contenuto decompresso. Se oltre la fine, le letture successive restituiscono -1.
+         */
+        void posiziona(long posizione) {
+            this.posizione = Math.max(0, posizione);
+        }
+
+        /**
+         * Metodo che decomprime, se necessario, il blocco che contiene la posizione corrente.
+         * @return Numero di byte leggibili dal blocco a partire dalla posizione corrente. 0 alla fine del contenuto.
+         */
+        private int disponibili() throws IOException {
+            if(this.posizione >= this.indice.dimensione()) return 0;
+            if(this.bloccoCorrente < 0 || this.posizione < this.indice.inizio(this.bloccoCorrente) || this.posizione >= this.indice.inizio(this.bloccoCorrente + 1)) {
+                int b = this.indice.blocco(this.posizione);
+                this.bloccoCorrente = -1;
+                this.memorizzato = this.indice.leggiBlocco(this.canale, b, this.memorizzato, this.corrente);
+                this.bloccoCorrente = b;
+            }
+            return (int) (this.indice.inizio(this.bloccoCorrente + 1) - this.posizione);
+        }
+
+        @Override
+        public int read() throws IOException {
+            if(disponibili() == 0) return -1;
+            return this.corrente[(int) (this.posizione++ - this.indice.inizio(this.bloccoCorrente))] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if(len == 0) return 0;
+            int disponibili = disponibili();
+            if(disponibili == 0) return -1;
+            int n = Math.min(len, disponibili);
+            System.arraycopy(this.corrente, (int) (this.posizione - this.indice.inizio(this.bloccoCorrente)), b, off, n);
+            this.posizione += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            if(n <= 0) return 0;
+            long saltati = Math.min(n, Math.max(0, this.indice.dimensione() - this.posizione));
+            this.posizione += saltati;
+            return saltati;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return this.bloccoCorrente >= 0 && this.posizione >= this.indice.inizio(this.bloccoCorrente) && this.posizione < this.indice.inizio(this.bloccoCorrente + 1)
+                    ? (int) (this.indice.inizio(this.bloccoCorrente + 1) - this.posizione) : 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.canale.close();
+        }
+    }
+
+    /**
+     * Metodo che comprime un file in un altro, in parallelo.
+     * @param sorgente File da comprimere.
+     * @param destinazione File compresso. Se esiste, il contenuto precedente viene cancellato.
+     * @param livello Livello di compressione di Deflater.
+     * @param dimensioneBlocco Dimensione (in byte) dei blocchi.
+     * @return Dimensione (in byte) del file compresso.
+     * @throws IOException In caso di errore durante la lettura o la scrittura.
+     */
+    static long comprimi(File sorgente, File destinazione, int livello, int dimensioneBlocco) throws IOException {
+        Scrittore scrittore = new Scrittore(destinazione, livello, dimensioneBlocco);
+        try (scrittore; FileInputStream input = new FileInputStream(sorgente)) {
+            input.transferTo(scrittore);
+        }
+        return scrittore.byteScritti();
+    }
+
+    /**
+     * Metodo che decomprime un file compresso in un altro, decomprimendo i blocchi in parallelo e scrivendoli nell'ordine originale.
+     * @param sorgente File compresso.
+     * @param destinazione File decompresso. Se esiste, il contenuto precedente viene cancellato.
+     * @return Dimensione (in byte) del contenuto decompresso.
+     * @throws IOException Se il file non è un file compresso da JFM o in caso di errore durante la lettura o la scrittura.
+     */
+    static long decomprimi(File sorgente, File destinazione) throws IOException {
+        try (FileChannel input = FileChannel.open(sorgente.toPath(), StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(destinazione.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Indice indice = Indice.leggi(input);
+            ArrayDeque<CompletableFuture<ByteBuffer>> inElaborazione = new ArrayDeque<>();
+            int massimo = massimoInElaborazione();
+            long scritti = 0;
+            try {
+                for(int b = 0; b <= indice.blocchi(); b++) {
+                    while(!inElaborazione.isEmpty() && (inElaborazione.size() >= massimo || b == indice.blocchi())) {
+                        ByteBuffer blocco = attendi(inElaborazione.pollFirst());
+                        while(blocco.hasRemaining()) scritti += output.write(blocco, scritti);
+                    }
+                    if(b == indice.blocchi()) break;
+                    int blocco = b;
+                    inElaborazione.addLast(CompletableFuture.supplyAsync(() -> {
+                        byte[] decompresso = new byte[indice.originale(blocco)];
+                        try {
+                            indice.leggiBlocco(input, blocco, null, decompresso);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return ByteBuffer.wrap(decompresso);
+                    }, ForkJoinPool.commonPool()));
+                }
+            } finally {
+                inElaborazione.forEach(futuro -> futuro.cancel(false));
+            }
+            return scritti;
+        }
+    }
+}
@@ -0,0 +1,711 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+
+/**
+ * FileRecord
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Formato del file di record utilizzato da JavaFileManager. Il file inizia con un'intestazione (numero magico, versione, lunghezza dell'intestazione e schema),
+ * seguita dai blocchi di record. Ogni blocco è memorizzato per colonne: il numero di record (int), la lunghezza in byte di ogni colonna (int) e i valori di ogni colonna, uno di seguito all'altro.
+ * Le stringhe di lunghezza fissa sono completate con byte 0; quelle di lunghezza variabile sono precedute dalle posizioni (int) di inizio di ogni stringa e della fine dell'ultima.</p>
+ * <p> La posizione e il numero di record di ogni blocco sono scritti nel file indice (.bidx), per cui una colonna può essere letta saltando direttamente alla sua posizione in ogni blocco,
+ * senza decodificare le altre. Se il file indice manca o non è aggiornato (ad esempio dopo un'interruzione durante la scrittura), l'indice viene ricostruito dalle intestazioni dei blocchi
+ * e un eventuale blocco incompleto alla fine del file viene ignorato.</p>
+ */
+final class FileRecord {
+
+    /**
+     * Numero magico all'inizio del file ("JFMR").
+     */
+    static final int MAGIA = 0x4A464D52;
+
+    /**
+     * Versione del formato.
+     */
+    static final int VERSIONE = 1;
+
+    /**
+     * Estensione del file indice, contenente la posizione (long) e il numero di record (int) di ogni blocco.
+     */
+    static final String ESTENSIONE_INDICE = ".bidx";
+
+    /**
+     * Dimensione (in byte) di una voce del file indice.
+     */
+    private static final int DIMENSIONE_VOCE = Long.BYTES + Integer.BYTES;
+
+    private final SchemaRecord schema;
+    private final int numeroColonne;
+
+    /**
+     * Posizione nel file del primo blocco.
+     */
+    private final long inizioBlocchi;
+
+    /**
+     * Posizione di ogni blocco nel file.
+     */
+    private long[] posizioni;
+
+    /**
+     * Indice del primo record di ogni blocco; l'ultimo elemento è il numero totale di record.
+     */
+    private long[] primi;
+    private int blocchi;
+
+    /**
+     * Posizione nel file successiva all'ultimo blocco completo.
+     */
+    private long fine;
+
+    /**
+     * Variabile che indica se il file indice è stato corretto durante il caricamento e va riscritto.
+     */
+    private boolean indiceCorretto = false;
+
+    private long byteLetti = 0;
+
+    /**
+     * Blocco dei record non ancora scritti sul file, aggiunto in memoria dopo l'ultimo blocco completo. Null se assente.
+     */
+    private ByteBuffer bloccoInMemoria = null;
+
+    /**
+     * Costruttore di FileRecord. Legge l'intestazione e l'indice dei blocchi.
+     * @param canale Canale del file, aperto in lettura.
+     * @param file File dei record, per individuare il file indice.
+     * @throws IOException Se il file non è un file di record o in caso di errore durante la lettura.
+     */
+    FileRecord(FileChannel canale, File file) throws IOException {
+        ByteBuffer inizio = ByteBuffer.allocate(3 * Integer.BYTES);
+        leggiCompleto(canale, inizio, 0);
+        if(inizio.getInt(0) != MAGIA) throw new IOException("Il file non è un file di record di JFM");
+        if(inizio.getInt(4) != VERSIONE) throw new IOException("Versione del file di record non supportata: " + inizio.getInt(4));
+        int lunghezza = inizio.getInt(8);
+        ByteBuffer intestazione = ByteBuffer.allocate(lunghezza - inizio.capacity());
+        leggiCompleto(canale, intestazione, inizio.capacity());
+        this.schema = leggiSchema(new DataInputStream(new ByteArrayInputStream(intestazione.array())));
+        this.numeroColonne = this.schema.getNumeroColonne();
+        this.inizioBlocchi = lunghezza;
+        caricaIndice(canale, fileIndice(file));
+    }
+
+    /**
+     * Metodo che restituisce il file indice associato a un file di record.
+     * @param file File dei record.
+     * @return File indice.
+     */
+    static File fileIndice(File file) {
+        return new File(file.getPath() + ESTENSIONE_INDICE);
+    }
+
+    /**
+     * Metodo che codifica l'intestazione di un file di record.
+     * @param schema Schema dei record.
+     * @return Intestazione codificata.
+     * @throws IOException In caso di errore durante la codifica.
+     */
+    static ByteBuffer intestazione(SchemaRecord schema) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeInt(MAGIA);
+        output.writeInt(VERSIONE);
+        output.writeInt(0);
+        output.writeInt(schema.getNumeroColonne());
+        for(int i = 0; i < schema.getNumeroColonne(); i++) {
+            output.writeByte(schema.getTipo(i).ordinal());
+            output.writeInt(schema.getLunghezzaFissa(i));
+            output.writeUTF(schema.getNome(i));
+        }
+        output.flush();
+        ByteBuffer intestazione = ByteBuffer.wrap(bytes.toByteArray());
+        intestazione.putInt(8, intestazione.capacity());
+        return intestazione;
+    }
+
+    private static SchemaRecord leggiSchema(DataInput input) throws IOException {
+        SchemaRecord schema = new SchemaRecord();
+        int colonne = input.readInt();
+        TipoColonna[] tipi = TipoColonna.values();
+        for(int i = 0; i < colonne; i++) {
+            int tipo = input.readUnsignedByte();
+            int lunghezzaFissa = input.readInt();
+            String nome = input.readUTF();
+            if(tipo >= tipi.length) throw new IOException("Tipo di colonna non valido: " + tipo);
+            schema.aggiungiColonna(nome, tipi[tipo], lunghezzaFissa);
+        }
+        return schema;
+    }
+
+    /**
+     * Metodo che carica l'indice dei blocchi dal file indice, verificandolo e completandolo con le intestazioni dei blocchi successivi all'ultimo indicizzato.
+     */
+    private void caricaIndice(FileChannel canale, File indice) throws IOException {
+        long dimensione = canale.size();
+        this.posizioni = new long[16];
+        this.primi = new long[17];
+        this.blocchi = 0;
+        int[] conteggi = new int[16];
+        if(indice.isFile()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(indice)))) {
+                long voci = indice.length() / DIMENSIONE_VOCE;
+                long precedente = -1;
+                for(long i = 0; i < voci; i++) {
+                    long posizione = input.readLong();
+                    int conteggio = input.readInt();
+                    if(posizione <= precedente || (i == 0 && posizione != this.inizioBlocchi) || conteggio < 0) break;
+                    if(this.blocchi == conteggi.length) conteggi = Arrays.copyOf(conteggi, conteggi.length * 2);
+                    aggiungiBlocco(posizione, conteggio);
+                    conteggi[this.blocchi - 1] = conteggio;
+                    precedente = posizione;
+                }
+            }
+            if(this.blocchi * (long) DIMENSIONE_VOCE != indice.length()) this.indiceCorretto = true;
+        } else {
+            this.indiceCorretto = true;
+        }
+        ByteBuffer intestazioneBlocco = ByteBuffer.allocate(Integer.BYTES * (1 + this.numeroColonne));
+        this.fine = this.inizioBlocchi;
+        while(this.blocchi > 0) {
+            long posizione = this.posizioni[this.blocchi - 1];
+            long fineBlocco = posizione < dimensione ? fineBlocco(canale, intestazioneBlocco, posizione, dimensione) : -1;
+            if(fineBlocco >= 0 && intestazioneBlocco.getInt(0) == conteggi[this.blocchi - 1]) {
+                this.fine = fineBlocco;
+                break;
+            }
+            this.blocchi--;
+            this.indiceCorretto = true;
+        }
+        while(this.fine < dimensione) {
+            long fineBlocco = fineBlocco(canale, intestazioneBlocco, this.fine, dimensione);
+            if(fineBlocco < 0) break;
+            aggiungiBlocco(this.fine, intestazioneBlocco.getInt(0));
+            this.fine = fineBlocco;
+            this.indiceCorretto = true;
+        }
+    }
+
+    /**
+     * Metodo che legge l'intestazione di un blocco e ne calcola la fine.
+     * @return Posizione successiva al blocco. -1 se il blocco non è completo o non è valido.
+     */
+    private long fineBlocco(FileChannel canale, ByteBuffer intestazioneBlocco, long posizione, long dimensione) throws IOException {
+        if(posizione + intestazioneBlocco.capacity() > dimensione) return -1;
+        leggiCompleto(canale, intestazioneBlocco, posizione);
+        if(intestazioneBlocco.getInt(0) < 0) return -1;
+        long fine = posizione + intestazioneBlocco.capacity();
+        for(int c = 0; c < this.numeroColonne; c++) {
+            int lunghezza = intestazioneBlocco.getInt(Integer.BYTES * (1 + c));
+            if(lunghezza < 0) return -1;
+            fine += lunghezza;
+        }
+        return fine <= dimensione ? fine : -1;
+    }
+
+    private void aggiungiBlocco(long posizione, int conteggio) {
+        if(this.blocchi == this.posizioni.length) {
+            this.posizioni = Arrays.copyOf(this.posizioni, this.blocchi * 2);
+            this.primi = Arrays.copyOf(this.primi, this.blocchi * 2 + 1);
+        }
+        this.posizioni[this.blocchi] = posizione;
+        this.primi[this.blocchi + 1] = this.primi[this.blocchi] + conteggio;
+        this.blocchi++;
+    }
+
+    /**
+     * Metodo che riscrive il file indice a partire dall'indice caricato.
+     */
+    private void riscriviIndice(File indice) throws IOException {
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indice)))) {
+            for(int b = 0; b < this.blocchi; b++) {
+                output.writeLong(this.posizioni[b]);
+                output.writeInt((int) (this.primi[b + 1] - this.primi[b]));
+            }
+        }
+    }
+
+    /**
+     * Metodo che riempie il buffer, fino al suo limite, con i byte del file a partire dalla posizione indicata.
+     * @throws EOFException Se il file termina prima.
+     */
+    private static void leggiCompleto(FileChannel canale, ByteBuffer buffer, long posizione) throws IOException {
+        buffer.rewind();
+        while(buffer.hasRemaining()) {
+            if(canale.read(buffer, posizione + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Metodo che aggiunge in coda ai blocchi del file il blocco dei record non ancora scritti dallo Scrittore, così che le letture li comprendano senza scriverli sul file.
+     * @param blocco Blocco codificato dallo Scrittore. Se null non viene aggiunto nulla.
+     */
+    void aggiungiBloccoInMemoria(ByteBuffer blocco) {
+        if(blocco == null) return;
+        this.bloccoInMemoria = blocco;
+        aggiungiBlocco(this.fine, blocco.getInt(0));
+    }
+
+    /**
+     * Metodo che riempie il buffer, fino al suo limite, con i byte di un blocco a partire dalla posizione indicata, leggendoli dal file o dal blocco in memoria.
+     * @param b Indice del blocco.
+     * @param posizione Posizione all'interno del blocco.
+     */
+    private void leggiBlocco(FileChannel canale, int b, ByteBuffer buffer, long posizione) throws IOException {
+        if(this.bloccoInMemoria == null || b < this.blocchi - 1) {
+            leggiCompleto(canale, buffer, this.posizioni[b] + posizione);
+            return;
+        }
+        if(posizione + buffer.limit() > this.bloccoInMemoria.limit()) throw new EOFException();
+        buffer.put(0, this.bloccoInMemoria, (int) posizione, buffer.limit()).rewind();
+    }
+
+    /**
+     * @return Schema dei record del file.
+     */
+    SchemaRecord schema() {
+        return this.schema;
+    }
+
+    /**
+     * @return Numero di record del file.
+     */
+    long conta() {
+        return this.primi[this.blocchi];
+    }
+
+    /**
+     * @return Numero di byte letti dal file, escluse intestazione e indice.
+     */
+    long byteLetti() {
+        return this.byteLetti;
+    }
+
+    /**
+     * Metodo che restituisce l'indice di una colonna, verificandone il tipo.
+     * @param nome Nome della colonna.
+     * @param tipi Tipi ammessi.
+     * @return Indice della colonna.
+     * @throws IllegalArgumentException Se lo schema non contiene la colonna o se la colonna non è di uno dei tipi ammessi.
+     */
+    int colonna(String nome, TipoColonna... tipi) {
+        int colonna = this.schema.indice(nome);
+        if(colonna < 0) throw new IllegalArgumentException("Colonna non presente nello schema: " + nome);
+        for(TipoColonna tipo : tipi) if(this.schema.getTipo(colonna) == tipo) return colonna;
+        throw new IllegalArgumentException("Tipo della colonna " + nome + " non valido: " + this.schema.getTipo(colonna));
+    }
+
+    /**
+     * Operazione eseguita sui valori di una colonna di un blocco.
+     */
+    private interface ElaborazioneBlocco {
+        /**
+         * @param dati Valori della colonna nel blocco, dalla posizione 0.
+         * @param conteggio Numero di record del blocco.
+         * @param primo Indice del primo record del blocco.
+         */
+        void elabora(ByteBuffer dati, int conteggio, long primo) throws IOException;
+    }
+
+    /**
+     * Metodo che legge, blocco per blocco, solo i byte di una colonna e li passa all'elaborazione. Il buffer viene riutilizzato tra un blocco e l'altro.
+     */
+    private void perOgniBlocco(FileChannel canale, int colonna, ElaborazioneBlocco elaborazione) throws IOException {
+        ByteBuffer intestazioneBlocco = ByteBuffer.allocate(Integer.BYTES * (1 + this.numeroColonne));
+        ByteBuffer dati = ByteBuffer.allocate(0);
+        for(int b = 0; b < this.blocchi; b++) {
+            leggiBlocco(canale, b, intestazioneBlocco, 0);
+            long posizione = intestazioneBlocco.capacity();
+            for(int c = 0; c < colonna; c++) posizione += intestazioneBlocco.getInt(Integer.BYTES * (1 + c));
+            int lunghezza = intestazioneBlocco.getInt(Integer.BYTES * (1 + colonna));
+            if(dati.capacity() < lunghezza) dati = ByteBuffer.allocate(Math.max(lunghezza, dati.capacity() * 2));
+            dati.limit(lunghezza);
+            leggiBlocco(canale, b, dati, posizione);
+            this.byteLetti += lunghezza;
+            elaborazione.elabora(dati, intestazioneBlocco.getInt(0), this.primi[b]);
+        }
+    }
+
+    private int totale() throws IOException {
+        if(conta() > Integer.MAX_VALUE - 8) throw new IOException("Troppi record per un unico array: " + conta());
+        return (int) conta();
+    }
+
+    int[] leggiInt(FileChannel canale, int colonna) throws IOException {
+        int[] valori = new int[totale()];
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> dati.asIntBuffer().get(valori, (int) primo, n));
+        return valori;
+    }
+
+    long[] leggiLong(FileChannel canale, int colonna) throws IOException {
+        long[] valori = new long[totale()];
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> dati.asLongBuffer().get(valori, (int) primo, n));
+        return valori;
+    }
+
+    float[] leggiFloat(FileChannel canale, int colonna) throws IOException {
+        float[] valori = new float[totale()];
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> dati.asFloatBuffer().get(valori, (int) primo, n));
+        return valori;
+    }
+
+    double[] leggiDouble(FileChannel canale, int colonna) throws IOException {
+        double[] valori = new double[totale()];
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> dati.asDoubleBuffer().get(valori, (int) primo, n));
+        return valori;
+    }
+
+    String[] leggiString(FileChannel canale, int colonna) throws IOException {
+        String[] valori = new String[totale()];
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> {
+            for(int i = 0; i < n; i++) valori[(int) primo + i] = stringa(dati, colonna, n, i);
+        });
+        return valori;
+    }
+
+    /**
+     * Indici dei record che soddisfano un filtro, raccolti in un array che cresce al bisogno.
+     */
+    private static final class Indici {
+        private long[] indici = new long[64];
+        private int numero = 0;
+
+        void aggiungi(long indice) {
+            if(this.numero == this.indici.length) this.indici = Arrays.copyOf(this.indici, this.numero * 2);
+            this.indici[this.numero++] = indice;
+        }
+
+        long[] array() {
+            return Arrays.copyOf(this.indici, this.numero);
+        }
+    }
+
+    long[] filtraInt(FileChannel canale, int colonna, IntPredicate filtro) throws IOException {
+        Indici indici = new Indici();
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> {
+            for(int i = 0; i < n; i++) if(filtro.test(dati.getInt(i * Integer.BYTES))) indici.aggiungi(primo + i);
+        });
+        return indici.array();
+    }
+
+    long[] filtraLong(FileChannel canale, int colonna, LongPredicate filtro) throws IOException {
+        Indici indici = new Indici();
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> {
+            for(int i = 0; i < n; i++) if(filtro.test(dati.getLong(i * Long.BYTES))) indici.aggiungi(primo + i);
+        });
+        return indici.array();
+    }
+
+    long[] filtraDouble(FileChannel canale, int colonna, DoublePredicate filtro) throws IOException {
+        Indici indici = new Indici();
+        boolean float32 = this.schema.getTipo(colonna) == TipoColonna.FLOAT;
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> {
+            for(int i = 0; i < n; i++) {
+                double valore = float32 ? dati.getFloat(i * Float.BYTES) : dati.getDouble(i * Double.BYTES);
+                if(filtro.test(valore)) indici.aggiungi(primo + i);
+            }
+        });
+        return indici.array();
+    }
+
+    long[] filtraString(FileChannel canale, int colonna, Predicate<String> filtro) throws IOException {
+        Indici indici = new Indici();
+        perOgniBlocco(canale, colonna, (dati, n, primo) -> {
+            for(int i = 0; i < n; i++) if(filtro.test(stringa(dati, colonna, n, i))) indici.aggiungi(primo + i);
+        });
+        return indici.array();
+    }
+
+    /**
+     * Metodo che decodifica l'i-esima stringa di una colonna di un blocco.
+     */
+    private String stringa(ByteBuffer dati, int colonna, int conteggio, int i) {
+        int lunghezzaFissa = this.schema.getLunghezzaFissa(colonna);
+        int inizio;
+        int fine;
+        if(lunghezzaFissa > 0) {
+            inizio = i * lunghezzaFissa;
+            fine = inizio + lunghezzaFissa;
+            while(fine > inizio && dati.get(fine - 1) == 0) fine--;
+        } else {
+            int dati0 = (conteggio + 1) * Integer.BYTES;
+            inizio = dati0 + dati.getInt(i * Integer.BYTES);
+            fine = dati0 + dati.getInt((i + 1) * Integer.BYTES);
+        }
+        return new String(dati.array(), dati.arrayOffset() + inizio, fine - inizio, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Metodo che legge un singolo record, leggendo di ogni colonna solo i byte del valore richiesto.
+     * @param canale Canale del file.
+     * @param n Indice del record, a partire da 0.
+     * @return Valori del record, nell'ordine delle colonne dello schema.
+     * @throws IOException In caso di errore durante la lettura.
+     * @throws IndexOutOfBoundsException Se il record non esiste.
+     */
+    Object[] leggiRecord(FileChannel canale, long n) throws IOException {
+        if(n < 0 || n >= conta()) throw new IndexOutOfBoundsException("Record non presente: " + n);
+        int b = Arrays.binarySearch(this.primi, 0, this.blocchi + 1, n);
+        if(b < 0) b = -b - 2;
+        while(this.primi[b + 1] == this.primi[b]) b++;
+        int i = (int) (n - this.primi[b]);
+        ByteBuffer intestazioneBlocco = ByteBuffer.allocate(Integer.BYTES * (1 + this.numeroColonne));
+        leggiBlocco(canale, b, intestazioneBlocco, 0);
+        int conteggio = intestazioneBlocco.getInt(0);
+        long posizione = intestazioneBlocco.capacity();
+        Object[] valori = new Object[this.numeroColonne];
+        for(int c = 0; c < this.numeroColonne; c++) {
+            TipoColonna tipo = this.schema.getTipo(c);
+            ByteBuffer valore;
+            if(tipo != TipoColonna.STRING) {
+                valore = ByteBuffer.allocate(tipo.getDimensione());
+                leggiBlocco(canale, b, valore, posizione + (long) i * tipo.getDimensione());
+            } else if(this.schema.getLunghezzaFissa(c) > 0) {
+                valore = ByteBuffer.allocate(this.schema.getLunghezzaFissa(c));
+                leggiBlocco(canale, b, valore, posizione + (long) i * valore.capacity());
+            } else {
+                ByteBuffer estremi = ByteBuffer.allocate(2 * Integer.BYTES);
+                leggiBlocco(canale, b, estremi, posizione + (long) i * Integer.BYTES);
+                valore = ByteBuffer.allocate(estremi.getInt(4) - estremi.getInt(0));
+                leggiBlocco(canale, b, valore, posizione + (long) (conteggio + 1) * Integer.BYTES + estremi.getInt(0));
+            }
+            this.byteLetti += valore.capacity();
+            switch(tipo) {
+                case INT: valori[c] = valore.getInt(0); break;
+                case LONG: valori[c] = valore.getLong(0); break;
+                case FLOAT: valori[c] = valore.getFloat(0); break;
+                case DOUBLE: valori[c] = valore.getDouble(0); break;
+                default:
+                    int fine = valore.capacity();
+                    if(this.schema.getLunghezzaFissa(c) > 0) while(fine > 0 && valore.get(fine - 1) == 0) fine--;
+                    valori[c] = new String(valore.array(), 0, fine, StandardCharsets.UTF_8);
+            }
+            posizione += intestazioneBlocco.getInt(Integer.BYTES * (1 + c));
+        }
+        return valori;
+    }
+
+    /**
+     * Scrittore dei record in append, a blocchi. I record vengono raccolti per colonne in memoria e scritti come un unico blocco ogni recordPerBlocco record,
+     * alla chiusura e quando viene invocato svuota(). I record in memoria possono essere letti tramite bloccoInSospeso() senza scriverli.
+     */
+    static final class Scrittore implements Closeable {
+
+        private final SchemaRecord schema;
+        private final int recordPerBlocco;
+        private final FileChannel canale;
+        private final FileChannel canaleIndice;
+        private final Object[] colonne;
+        private final int[] lunghezzeVariabili;
+        private int nelBlocco = 0;
+        private long posizione;
+
+        /**
+         * Costruttore di Scrittore. Se il file è vuoto (o va cancellato) scrive l'intestazione, altrimenti verifica che lo schema del file coincida e riprende dopo l'ultimo blocco completo.
+         * @param file File dei record.
+         * @param schema Schema dei record.
+         * @param recordPerBlocco Numero di record per blocco.
+         * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno i record già presenti nel file.
+         * @throws IOException Se lo schema del file è diverso da quello indicato o in caso di errore durante l'apertura.
+         */
+        Scrittore(File file, SchemaRecord schema, int recordPerBlocco, boolean cancellaContenutoPrecedente) throws IOException {
+            if(recordPerBlocco <= 0 || schema.getNumeroColonne() == 0) throw new IllegalArgumentException("Schema vuoto o numero di record per blocco non valido");
+            this.schema = schema.copia();
+            this.recordPerBlocco = recordPerBlocco;
+            this.canale = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+            File indice = fileIndice(file);
+            try {
+                if(cancellaContenutoPrecedente || this.canale.size() == 0) {
+                    this.canale.truncate(0);
+                    ByteBuffer intestazione = intestazione(this.schema);
+                    while(intestazione.hasRemaining()) this.canale.write(intestazione, intestazione.position());
+                    this.posizione = intestazione.capacity();
+                    this.canaleIndice = FileChannel.open(indice.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+                } else {
+                    FileRecord esistente = new FileRecord(this.canale, file);
+                    if(!esistente.schema.equals(this.schema)) throw new IOException("Lo schema del file " + esistente.schema + " è diverso da " + this.schema);
+                    if(esistente.indiceCorretto) esistente.riscriviIndice(indice);
+                    if(this.canale.size() > esistente.fine) this.canale.truncate(esistente.fine);
+                    this.posizione = esistente.fine;
+                    this.canaleIndice = FileChannel.open(indice.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+            } catch (IOException | RuntimeException e) {
+                this.canale.close();
+                throw e;
+            }
+            this.colonne = new Object[this.schema.getNumeroColonne()];
+            this.lunghezzeVariabili = new int[this.schema.getNumeroColonne()];
+            for(int c = 0; c < this.colonne.length; c++) {
+                switch(this.schema.getTipo(c)) {
+                    case INT: this.colonne[c] = new int[recordPerBlocco]; break;
+                    case LONG: this.colonne[c] = new long[recordPerBlocco]; break;
+                    case FLOAT: this.colonne[c] = new float[recordPerBlocco]; break;
+                    case DOUBLE: this.colonne[c] = new double[recordPerBlocco]; break;
+                    default: this.colonne[c] = new byte[recordPerBlocco][];
+                }
+            }
+        }
+
+        /**
+         * Metodo che aggiunge un record al blocco corrente, scrivendo il blocco se completo. Il record viene verificato per intero prima di essere aggiunto.
+         * @param valori Valori del record, nell'ordine delle colonne dello schema.
+         * @return Numero di byte scritti sul file: 0 se il blocco non è ancora completo.
+         * @throws IOException In caso di errore durante la scrittura del blocco.
+         * @throws IllegalArgumentException Se il numero o il tipo dei valori non corrispondono allo schema.
+         */
+        synchronized long aggiungi(Object[] valori) throws IOException {
+            if(valori == null || valori.length != this.colonne.length) throw new IllegalArgumentException("Numero di valori diverso dal numero di colonne dello schema");
+            byte[][] stringhe = new byte[valori.length][];
+            for(int c = 0; c < valori.length; c++) {
+                Object valore = valori[c];
+                boolean valido;
+                switch(this.schema.getTipo(c)) {
+                    case INT: valido = valore instanceof Integer || valore instanceof Short || valore instanceof Byte; break;
+                    case LONG: valido = valore instanceof Long || valore instanceof Integer || valore instanceof Short || valore instanceof Byte; break;
+                    case FLOAT: valido = valore instanceof Float; break;
+                    case DOUBLE: valido = valore instanceof Double || valore instanceof Float; break;
+                    default:
+                        valido = valore instanceof String;
+                        if(valido) {
+                            stringhe[c] = ((String) valore).getBytes(StandardCharsets.UTF_8);
+                            int lunghezzaFissa = this.schema.getLunghezzaFissa(c);
+                            valido = lunghezzaFissa == 0 || stringhe[c].length <= lunghezzaFissa;
+                        }
+                }
+                if(!valido) throw new IllegalArgumentException("Valore non valido per la colonna " + this.schema.getNome(c) + " (" + this.schema.getTipo(c) + "): " + valore);
+            }
+            for(int c = 0; c < valori.length; c++) {
+                switch(this.schema.getTipo(c)) {
+                    case INT: ((int[]) this.colonne[c])[this.nelBlocco] = ((Number) valori[c]).intValue(); break;
+                    case LONG: ((long[]) this.colonne[c])[this.nelBlocco] = ((Number) valori[c]).longValue(); break;
+                    case FLOAT: ((float[]) this.colonne[c])[this.nelBlocco] = (Float) valori[c]; break;
+                    case DOUBLE: ((double[]) this.colonne[c])[this.nelBlocco] = ((Number) valori[c]).doubleValue(); break;
+                    default:
+                        ((byte[][]) this.colonne[c])[this.nelBlocco] = stringhe[c];
+                        this.lunghezzeVariabili[c] += stringhe[c].length;
+                }
+            }
+            this.nelBlocco++;
+            return this.nelBlocco == this.recordPerBlocco ? svuota() : 0;
+        }
+
+        /**
+         * Metodo che verifica se il blocco in memoria contiene record non ancora scritti sul file.
+         * @return True se ci sono record da scrivere.
+         */
+        synchronized boolean inSospeso() {
+            return this.nelBlocco > 0;
+        }
+
+        /**
+         * Metodo che restituisce una copia codificata del blocco dei record non ancora scritti, nel formato del file, senza scriverla.
+         * @return Blocco codificato. Null se non ci sono record in memoria.
+         * @throws IOException Se il blocco è troppo grande.
+         */
+        synchronized ByteBuffer bloccoInSospeso() throws IOException {
+            return this.nelBlocco == 0 ? null : codifica();
+        }
+
+        /**
+         * Metodo che scrive i record raccolti come un unico blocco e ne aggiunge la voce al file indice.
+         * @return Numero di byte scritti.
+         * @throws IOException In caso di errore durante la scrittura.
+         */
+        synchronized long svuota() throws IOException {
+            if(this.nelBlocco == 0) return 0;
+            int n = this.nelBlocco;
+            ByteBuffer blocco = codifica();
+            long totale = blocco.limit();
+            long inizio = this.posizione;
+            while(blocco.hasRemaining()) this.canale.write(blocco, inizio + blocco.position());
+            ByteBuffer voce = ByteBuffer.allocate(DIMENSIONE_VOCE).putLong(inizio).putInt(n).flip();
+            while(voce.hasRemaining()) this.canaleIndice.write(voce);
+            this.posizione = inizio + totale;
+            for(int c = 0; c < this.colonne.length; c++) {
+                if(this.schema.getTipo(c) == TipoColonna.STRING) {
+                    Arrays.fill((byte[][]) this.colonne[c], 0, n, null);
+                    this.lunghezzeVariabili[c] = 0;
+                }
+            }
+            this.nelBlocco = 0;
+            return totale;
+        }
+
+        /**
+         * Metodo che codifica i record raccolti come un unico blocco.
+         */
+        private ByteBuffer codifica() throws IOException {
+            int n = this.nelBlocco;
+            int[] lunghezze = new int[this.colonne.length];
+            long totale = Integer.BYTES * (1L + this.colonne.length);
+            for(int c = 0; c < this.colonne.length; c++) {
+                TipoColonna tipo = this.schema.getTipo(c);
+                int lunghezzaFissa = this.schema.getLunghezzaFissa(c);
+                long lunghezza = tipo != TipoColonna.STRING ? (long) n * tipo.getDimensione()
+                        : lunghezzaFissa > 0 ? (long) n * lunghezzaFissa : (long) (n + 1) * Integer.BYTES + this.lunghezzeVariabili[c];
+                if(lunghezza > Integer.MAX_VALUE) throw new IOException("Colonna " + this.schema.getNome(c) + " troppo grande per un blocco");
+                lunghezze[c] = (int) lunghezza;
+                totale += lunghezza;
+            }
+            if(totale > Integer.MAX_VALUE - 8) throw new IOException("Blocco troppo grande: ridurre il numero di record per blocco");
+            ByteBuffer blocco = ByteBuffer.allocate((int) totale);
+            blocco.putInt(n);
+            for(int lunghezza : lunghezze) blocco.putInt(lunghezza);
+            for(int c = 0; c < this.colonne.length; c++) {
+                switch(this.schema.getTipo(c)) {
+                    case INT: blocco.asIntBuffer().put((int[]) this.colonne[c], 0, n); break;
+                    case LONG: blocco.asLongBuffer().put((long[]) this.colonne[c], 0, n); break;
+                    case FLOAT: blocco.asFloatBuffer().put((float[]) this.colonne[c], 0, n); break;
+                    case DOUBLE: blocco.asDoubleBuffer().put((double[]) this.colonne[c], 0, n); break;
+                    default:
+                        byte[][] stringhe = (byte[][]) this.colonne[c];
+                        int lunghezzaFissa = this.schema.getLunghezzaFissa(c);
+                        if(lunghezzaFissa > 0) {
+                            for(int i = 0; i < n; i++) {
+                                int inizio = blocco.position() + i * lunghezzaFissa;
+                                blocco.put(inizio, stringhe[i]);
+                            }
+                        } else {
+                            int offset = 0;
+                            int inizioDati = blocco.position() + (n + 1) * Integer.BYTES;
+                            for(int i = 0; i < n; i++) {
+                                blocco.putInt(blocco.position() + i * Integer.BYTES, offset);
+                                blocco.put(inizioDati + offset, stringhe[i]);
+                                offset += stringhe[i].length;
+                            }
+                            blocco.putInt(blocco.position() + n * Integer.BYTES, offset);
+                        }
+                }
+                blocco.position(blocco.position() + lunghezze[c]);
+            }
+            return blocco.flip();
+        }
+
+        /**
+         * Metodo che scrive l'eventuale blocco incompleto e chiude il file e il file indice.
+         * @throws IOException In caso di errore durante la scrittura o la chiusura.
+         */
+        @Override
+        public synchronized void close() throws IOException {
+            try {
+                svuota();
+            } finally {
+                try {
+                    this.canale.close();
+                } finally {
+                    this.canaleIndice.close();
+                }
+            }
+        }
+    }
+}
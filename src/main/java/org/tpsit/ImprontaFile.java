@@ -0,0 +1,92 @@
+package org.tpsit;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * ImprontaFile
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Impronta (digest SHA-256) del contenuto di un file, calcolata da JavaFileManager#impronta() su blocchi di dimensione fissa.
+ * Ogni blocco ha la propria impronta; l'impronta del file è calcolata sulla dimensione del file e sulle impronte dei blocchi (albero di Merkle a due livelli),
+ * per cui due file con la stessa impronta hanno lo stesso contenuto e due file diversi possono essere confrontati blocco per blocco.</p>
+ * @see JavaFileManager#impronta()
+ */
+public final class ImprontaFile {
+
+    private final long dimensione;
+    private final int dimensioneBlocco;
+    private final byte[][] impronteBlocchi;
+    private final byte[] impronta;
+
+    ImprontaFile(long dimensione, int dimensioneBlocco, byte[][] impronteBlocchi, byte[] impronta) {
+        this.dimensione = dimensione;
+        this.dimensioneBlocco = dimensioneBlocco;
+        this.impronteBlocchi = impronteBlocchi;
+        this.impronta = impronta;
+    }
+
+    /**
+     * @return Dimensione (in byte) del file.
+     */
+    public long getDimensione() {
+        return dimensione;
+    }
+
+    /**
+     * @return Dimensione (in byte) dei blocchi. L'ultimo blocco può essere più piccolo.
+     */
+    public int getDimensioneBlocco() {
+        return dimensioneBlocco;
+    }
+
+    /**
+     * @return Numero di blocchi del file.
+     */
+    public int getNumeroBlocchi() {
+        return impronteBlocchi.length;
+    }
+
+    /**
+     * @return Impronta del file in esadecimale.
+     */
+    public String getImpronta() {
+        return HexFormat.of().formatHex(impronta);
+    }
+
+    /**
+     * @param blocco Indice del blocco, a partire da 0.
+     * @return Impronta del blocco in esadecimale.
+     */
+    public String getImprontaBlocco(int blocco) {
+        return HexFormat.of().formatHex(impronteBlocchi[blocco]);
+    }
+
+    /**
+     * Metodo che verifica se un blocco ha la stessa impronta del blocco corrispondente di un altro file.
+     * @param blocco Indice del blocco.
+     * @param altra Impronta dell'altro file, calcolata con la stessa dimensione dei blocchi.
+     * @return True se entrambi i file contengono il blocco e le impronte coincidono.
+     */
+    boolean bloccoUguale(int blocco, ImprontaFile altra) {
+        return blocco < this.impronteBlocchi.length && blocco < altra.impronteBlocchi.length && Arrays.equals(this.impronteBlocchi[blocco], altra.impronteBlocchi[blocco]);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof ImprontaFile)) return false;
+        ImprontaFile altra = (ImprontaFile) o;
+        return dimensione == altra.dimensione && Arrays.equals(impronta, altra.impronta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(impronta);
+    }
+
+    @Override
+    public String toString() {
+        return "SHA-256 " + getImpronta() + " (" + dimensione + " byte, " + impronteBlocchi.length + " blocchi)";
+    }
+}
@@ -0,0 +1,156 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Inseguimento
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Inseguimento di un file di testo utilizzato da JavaFileManager: un thread in background passa al consumatore ogni riga aggiunta al file, tramite un LettoreIncrementale.
+ * Il thread attende le modifiche della cartella del file con un WatchService e, in ogni caso, controlla il file almeno una volta per intervallo:
+ * se il WatchService non è disponibile o non segnala le modifiche (ad esempio su file system di rete), l'inseguimento prosegue per polling.</p>
+ */
+class Inseguimento implements Closeable {
+
+    private final File file;
+    private final LettoreIncrementale lettore;
+    private final Consumer<String> consumatore;
+    private final long intervalloMs;
+    private final boolean mostraAvvisi;
+    private final WatchService osservatore;
+    private final Thread thread;
+    private volatile boolean chiuso = false;
+
+    /**
+     * Costruttore di Inseguimento. Avvia il thread di inseguimento.
+     * @param file File da inseguire.
+     * @param consumatore Funzione invocata, dal thread di inseguimento, per ogni riga aggiunta al file.
+     * @param dallaFine Variabile che indica se ignorare il contenuto già presente nel file.
+     * @param intervalloMs Intervallo (in millisecondi) massimo tra due controlli del file.
+     * @param mostraAvvisi Variabile che indica se stampare o meno gli avvisi sotto forma di errori.
+     */
+    Inseguimento(File file, Consumer<String> consumatore, boolean dallaFine, long intervalloMs, boolean mostraAvvisi) {
+        this.file = file;
+        this.lettore = new LettoreIncrementale(file, dallaFine);
+        this.consumatore = consumatore;
+        this.intervalloMs = Math.max(1, intervalloMs);
+        this.mostraAvvisi = mostraAvvisi;
+        this.osservatore = osservatore(file);
+        this.thread = new Thread(this::insegui, "JFM-inseguimento('" + file + "')");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Metodo che registra un WatchService sulla cartella del file.
+     * @param file File da inseguire.
+     * @return WatchService registrato. Null se non disponibile: l'inseguimento avviene per polling.
+     */
+    private static WatchService osservatore(File file) {
+        File cartella = file.getAbsoluteFile().getParentFile();
+        if(cartella == null) return null;
+        WatchService osservatore = null;
+        try {
+            osservatore = FileSystems.getDefault().newWatchService();
+            cartella.toPath().register(osservatore, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            return osservatore;
+        } catch (IOException | UnsupportedOperationException e) {
+            if(osservatore != null) {
+                try {
+                    osservatore.close();
+                } catch (IOException ignorata) {
+                    // L'inseguimento prosegue per polling.
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Ciclo del thread di inseguimento: legge le righe aggiunte e attende la modifica successiva, fino alla chiusura.
+     */
+    private void insegui() {
+        while(!this.chiuso) {
+            try {
+                for(String riga : this.lettore.leggi()) {
+                    if(this.chiuso) return;
+                    this.consumatore.accept(riga);
+                }
+                attendi();
+            } catch (IOException | RuntimeException e) {
+                if(this.chiuso) return;
+                if(this.mostraAvvisi) System.err.println("Errore durante l'inseguimento del file tramite JFM.\nDa JFM('" + this.file + "').\nGenerato da segui().");
+                try {
+                    Thread.sleep(this.intervalloMs);
+                } catch (InterruptedException interruzione) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Metodo che attende una modifica della cartella del file, per al più un intervallo.
+     * @throws InterruptedException Se il thread viene interrotto durante l'attesa.
+     */
+    private void attendi() throws InterruptedException {
+        if(this.osservatore == null) {
+            Thread.sleep(this.intervalloMs);
+            return;
+        }
+        try {
+            WatchKey chiave = this.osservatore.poll(this.intervalloMs, TimeUnit.MILLISECONDS);
+            if(chiave != null) {
+                chiave.pollEvents();
+                chiave.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            if(!this.chiuso) Thread.sleep(this.intervalloMs);
+        }
+    }
+
+    /**
+     * Metodo che ferma l'inseguimento e attende la terminazione del thread.
+     * @throws IOException In caso di errore durante la chiusura del WatchService.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ferma();
+        } finally {
+            attendiTermine();
+        }
+    }
+
+    /**
+     * Metodo che ferma l'inseguimento senza attendere la terminazione del thread: il consumatore non riceve altre righe dopo quella in corso.
+     * @throws IOException In caso di errore durante la chiusura del WatchService.
+     */
+    void ferma() throws IOException {
+        if(this.chiuso) return;
+        this.chiuso = true;
+        try {
+            if(this.osservatore != null) this.osservatore.close();
+        } finally {
+            if(Thread.currentThread() != this.thread) this.thread.interrupt();
+        }
+    }
+
+    /**
+     * Metodo che attende la terminazione del thread di inseguimento, cioè che il consumatore termini l'eventuale riga in corso.
+     * Non attende se invocato dal thread di inseguimento stesso (ad esempio dal consumatore).
+     */
+    void attendiTermine() {
+        if(Thread.currentThread() == this.thread) return;
+        try {
+            this.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
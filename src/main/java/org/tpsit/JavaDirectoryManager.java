@@ -0,0 +1,416 @@
+package org.tpsit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * JavaDirectoryManager
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * @see <a href="https://github.com/matbagnoletti/JavaFileManager">JavaFileManager on GitHub</a>
+ * <p> Classe che gestisce i file di una cartella in Java. Visita la cartella e le sue sottocartelle, eventualmente filtrando i file con un glob e limitando la profondità,
+ * ed esegue in parallelo un'operazione su ogni file: lettura, conteggio delle righe, copia, eliminazione o una funzione definita dall'utente.
+ * Se non diversamente impostato, stampa eventuali avvisi sotto forma di errori.</p>
+ * <p> Le operazioni vengono eseguite da un ForkJoinPool (work-stealing) con il parallelismo indicato, mentre un semaforo limita il numero di file elaborati contemporaneamente (concorrenza di I/O).
+ * Ogni file viene gestito da un JavaFileManager che non stampa avvisi: gli errori di ogni file vengono invece raccolti nel RisultatoCartella restituito.</p>
+ */
+public class JavaDirectoryManager implements AutoCloseable {
+
+    /**
+     * Variabile che indica se stampare o meno gli avvisi sotto forma di errori (System.err).
+     */
+    private volatile boolean mostraAvvisi = true;
+
+    /**
+     * Cartella da gestire.
+     */
+    private final File cartellaDaGestire;
+
+    /**
+     * Filtro (glob) applicato al percorso di ogni file relativo alla cartella. Null per non filtrare i file.
+     */
+    private volatile PathMatcher filtro = null;
+
+    /**
+     * Profondità massima della visita: 1 per i soli file contenuti direttamente nella cartella.
+     */
+    private volatile int profonditaMassima = Integer.MAX_VALUE;
+
+    /**
+     * Numero di thread del ForkJoinPool.
+     */
+    private int parallelismo = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Numero massimo di file elaborati contemporaneamente.
+     */
+    private int concorrenzaIO = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * ForkJoinPool che esegue le operazioni, creato al primo utilizzo.
+     */
+    private ForkJoinPool pool = null;
+
+    /**
+     * Operazione da eseguire su un file.
+     * @param <T> Tipo del risultato.
+     */
+    private interface OperazioneFile<T> {
+        T esegui(File file) throws Exception;
+    }
+
+    /**
+     * Costruttore di JavaDirectoryManager.
+     * @param nomeCartella Nome della cartella con il percorso dalla root del progetto.
+     */
+    public JavaDirectoryManager(String nomeCartella) {
+        this(nomeCartella, true);
+    }
+
+    /**
+     * Costruttore di JavaDirectoryManager.
+     * @param nomeCartella Nome della cartella con il percorso dalla root del progetto.
+     * @param mostraAvvisi Variabile che indica se stampare o meno gli avvisi sotto forma di errori.
+     */
+    public JavaDirectoryManager(String nomeCartella, boolean mostraAvvisi) {
+        this.mostraAvvisi = mostraAvvisi;
+        this.cartellaDaGestire = new File(nomeCartella);
+        if(!this.cartellaDaGestire.isDirectory()) {
+            if(this.mostraAvvisi) System.err.println("La cartella specificata non esiste o non è una cartella.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato alla creazione.");
+        }
+    }
+
+    /**
+     * Setter dell'attributo boolean mostraAvvisi
+     * @param mostraAvvisi Variabile che indica se stampare o meno gli avvisi sotto forma di errori.
+     */
+    public void setAvvisi(boolean mostraAvvisi) {
+        this.mostraAvvisi = mostraAvvisi;
+    }
+
+    /**
+     * Setter del filtro dei file.
+     * Il glob viene applicato al percorso di ogni file relativo alla cartella, ad esempio "*.txt" per i soli file di testo contenuti direttamente nella cartella o "**.txt" per quelli di tutte le sottocartelle.
+     * @param glob Glob dei file da elaborare (vedi FileSystem#getPathMatcher(String)). Se null, vengono elaborati tutti i file.
+     */
+    public void setFiltro(String glob) {
+        if(glob == null) {
+            this.filtro = null;
+            return;
+        }
+        try {
+            this.filtro = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        } catch (IllegalArgumentException e) {
+            if(this.mostraAvvisi) System.err.println("Il filtro specificato non è valido: " + glob + "\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da setFiltro().");
+        }
+    }
+
+    /**
+     * Setter della profondità massima della visita della cartella.
+     * @param profonditaMassima Profondità massima: 1 per i soli file contenuti direttamente nella cartella, 2 per includere le sottocartelle dirette e così via.
+     */
+    public void setProfonditaMassima(int profonditaMassima) {
+        if(profonditaMassima < 1) {
+            if(this.mostraAvvisi) System.err.println("La profondità massima deve essere almeno 1.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da setProfonditaMassima().");
+            return;
+        }
+        this.profonditaMassima = profonditaMassima;
+    }
+
+    /**
+     * Metodo che permette di impostare il parallelismo delle operazioni. Di default, sono pari al numero di processori disponibili.
+     * @param parallelismo Numero di thread del ForkJoinPool che esegue le operazioni.
+     * @param concorrenzaIO Numero massimo di file elaborati contemporaneamente. Utile per limitare il carico su dischi lenti.
+     */
+    public synchronized void setParallelismo(int parallelismo, int concorrenzaIO) {
+        if(parallelismo < 1 || concorrenzaIO < 1) {
+            if(this.mostraAvvisi) System.err.println("Il parallelismo e la concorrenza di I/O devono essere almeno 1.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da setParallelismo().");
+            return;
+        }
+        this.parallelismo = parallelismo;
+        this.concorrenzaIO = concorrenzaIO;
+        if(this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Metodo che permette di conoscere i file della cartella che verrebbero elaborati, secondo il filtro e la profondità massima impostati.
+     * @return File della cartella, ordinati per percorso. Null in caso di errore durante la visita della cartella.
+     */
+    public List<File> elencaFile() {
+        Map<File, Exception> errori = new TreeMap<>();
+        List<File> file = visita(errori, "elencaFile()");
+        if(file != null && !errori.isEmpty() && this.mostraAvvisi) {
+            System.err.println("Impossibile visitare " + errori.size() + " percorsi della cartella tramite JDM.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da elencaFile().");
+        }
+        return file;
+    }
+
+    /**
+     * Metodo che permette di leggere in parallelo il contenuto di ogni file, come JavaFileManager#leggi().
+     * @return Contenuto di ogni file. Null se la cartella non esiste.
+     */
+    public RisultatoCartella<String> leggi() {
+        return esegui(file -> {
+            try (JavaFileManager jfm = apri(file)) {
+                String contenuto = jfm.leggi();
+                if(contenuto == null) throw new IOException("Errore durante la lettura del file " + file);
+                return contenuto;
+            }
+        }, "leggi()");
+    }
+
+    /**
+     * Metodo che permette di contare in parallelo le righe di ogni file.
+     * @return Numero di righe di ogni file. Null se la cartella non esiste.
+     */
+    public RisultatoCartella<Long> contaRighe() {
+        return esegui(file -> {
+            try (JavaFileManager jfm = apri(file)) {
+                Stream<String> righe = jfm.righe();
+                if(righe == null) throw new IOException("Errore durante la lettura del file " + file);
+                try (righe) {
+                    return righe.count();
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            }
+        }, "contaRighe()");
+    }
+
+    /**
+     * Metodo che permette di copiare in parallelo ogni file in un'altra cartella, mantenendo il percorso relativo. Le sottocartelle mancanti vengono create e i file esistenti sovrascritti.
+     * @param nomeCartella Cartella di destinazione con il percorso dalla root del progetto.
+     * @return Numero di byte copiati per ogni file. Null se la cartella non esiste.
+     */
+    public RisultatoCartella<Long> copiaIn(String nomeCartella) {
+        Path radice = this.cartellaDaGestire.toPath();
+        Path destinazione = Paths.get(nomeCartella);
+        return esegui(file -> {
+            File copia = destinazione.resolve(radice.relativize(file.toPath())).toFile();
+            File cartella = copia.getParentFile();
+            if(cartella != null && !cartella.isDirectory() && !cartella.mkdirs() && !cartella.isDirectory()) throw new IOException("Impossibile creare la cartella " + cartella);
+            try (JavaFileManager jfm = apri(file)) {
+                jfm.copiaIn(copia.getPath(), true);
+            }
+            if(copia.length() != file.length()) throw new IOException("Errore durante la copia del file " + file + " in " + copia);
+            return copia.length();
+        }, "copiaIn()");
+    }
+
+    /**
+     * Metodo che permette di eliminare in parallelo ogni file. Le cartelle non vengono eliminate.
+     * @return Dimensione (in byte) di ogni file eliminato. Null se la cartella non esiste.
+     */
+    public RisultatoCartella<Long> elimina() {
+        return esegui(file -> {
+            long dimensione = file.length();
+            try (JavaFileManager jfm = apri(file)) {
+                jfm.elimina();
+            }
+            if(file.exists()) throw new IOException("Errore durante l'eliminazione del file " + file);
+            return dimensione;
+        }, "elimina()");
+    }
+
+    /**
+     * Metodo che permette di eseguire in parallelo una funzione su ogni file. La funzione riceve un JavaFileManager del file, che non stampa avvisi e viene terminato al termine della funzione.
+     * Le eccezioni lanciate dalla funzione vengono raccolte tra gli errori del risultato; un risultato null viene considerato valido.
+     * @param funzione Funzione da eseguire su ogni file. Deve essere thread-safe.
+     * @return Risultato della funzione per ogni file. Null se la cartella non esiste.
+     * @param <T> Tipo del risultato della funzione.
+     */
+    public <T> RisultatoCartella<T> esegui(Function<JavaFileManager, ? extends T> funzione) {
+        return esegui(file -> {
+            try (JavaFileManager jfm = apri(file)) {
+                return funzione.apply(jfm);
+            }
+        }, "esegui()");
+    }
+
+    /**
+     * Metodo che crea il JavaFileManager di un file, senza avvisi.
+     * @param file File da gestire.
+     * @return JavaFileManager del file.
+     */
+    private static JavaFileManager apri(File file) {
+        return new JavaFileManager(file.getPath(), false, false);
+    }
+
+    /**
+     * Metodo che visita la cartella ed esegue in parallelo un'operazione su ogni file.
+     * @param operazione Operazione da eseguire.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Risultato dell'operazione. Null se la cartella non esiste.
+     * @param <T> Tipo del risultato dell'operazione.
+     */
+    private <T> RisultatoCartella<T> esegui(OperazioneFile<? extends T> operazione, String generatoDa) {
+        long inizio = System.nanoTime();
+        Map<File, Exception> errori = new ConcurrentHashMap<>();
+        List<File> file = visita(errori, generatoDa);
+        if(file == null) return null;
+        Map<File, T> risultati = Collections.synchronizedMap(new HashMap<>());
+        ForkJoinPool pool;
+        Semaphore semaforo;
+        synchronized(this) {
+            if(this.pool == null) this.pool = new ForkJoinPool(this.parallelismo);
+            pool = this.pool;
+            semaforo = new Semaphore(this.concorrenzaIO);
+        }
+        pool.invoke(new Elaborazione<>(file, 0, file.size(), operazione, semaforo, risultati, errori));
+        return new RisultatoCartella<>(risultati, errori, System.nanoTime() - inizio);
+    }
+
+    /**
+     * Metodo che visita la cartella e raccoglie i file da elaborare.
+     * @param errori Mappa in cui raccogliere i percorsi che non è stato possibile visitare.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return File da elaborare, ordinati per percorso. Null se la cartella non esiste o in caso di errore durante la visita.
+     */
+    private List<File> visita(Map<File, Exception> errori, String generatoDa) {
+        if(!this.cartellaDaGestire.isDirectory()) {
+            if(this.mostraAvvisi) System.err.println("Impossibile visitare la cartella tramite JDM. La cartella non esiste o non è una cartella.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return null;
+        }
+        Path radice = this.cartellaDaGestire.toPath();
+        PathMatcher filtro = this.filtro;
+        List<File> file = new ArrayList<>();
+        try {
+            Files.walkFileTree(radice, EnumSet.noneOf(FileVisitOption.class), this.profonditaMassima, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path percorso, BasicFileAttributes attributi) {
+                    if(attributi.isRegularFile() && (filtro == null || filtro.matches(radice.relativize(percorso)))) file.add(percorso.toFile());
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path percorso, IOException e) {
+                    errori.put(percorso.toFile(), e);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la visita della cartella tramite JDM.\nDa JDM('" + this.cartellaDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return null;
+        }
+        Collections.sort(file);
+        return file;
+    }
+
+    /**
+     * Elaborazione di un intervallo di file, suddivisa ricorsivamente fino al singolo file così che i thread inattivi possano sottrarre lavoro a quelli occupati.
+     * @param <T> Tipo del risultato dell'operazione.
+     */
+    private static class Elaborazione<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<File> file;
+        private final int inizio;
+        private final int fine;
+        private final OperazioneFile<? extends T> operazione;
+        private final Semaphore semaforo;
+        private final Map<File, T> risultati;
+        private final Map<File, Exception> errori;
+
+        Elaborazione(List<File> file, int inizio, int fine, OperazioneFile<? extends T> operazione, Semaphore semaforo, Map<File, T> risultati, Map<File, Exception> errori) {
+            this.file = file;
+            this.inizio = inizio;
+            this.fine = fine;
+            this.operazione = operazione;
+            this.semaforo = semaforo;
+            this.risultati = risultati;
+            this.errori = errori;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.fine - this.inizio > 1) {
+                int meta = (this.inizio + this.fine) >>> 1;
+                invokeAll(new Elaborazione<>(this.file, this.inizio, meta, this.operazione, this.semaforo, this.risultati, this.errori),
+                        new Elaborazione<>(this.file, meta, this.fine, this.operazione, this.semaforo, this.risultati, this.errori));
+                return;
+            }
+            if(this.fine == this.inizio) return;
+            File corrente = this.file.get(this.inizio);
+            try {
+                ForkJoinPool.managedBlock(new AcquisizioneSemaforo(this.semaforo));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                this.errori.put(corrente, e);
+                return;
+            }
+            try {
+                this.risultati.put(corrente, this.operazione.esegui(corrente));
+            } catch (Exception e) {
+                this.errori.put(corrente, e);
+            } finally {
+                this.semaforo.release();
+            }
+        }
+    }
+
+    /**
+     * Acquisizione di un permesso del semaforo da un thread del ForkJoinPool. Se il thread deve attendere, il pool può attivare un thread di compensazione,
+     * così che l'attesa non riduca il numero di thread disponibili per le altre elaborazioni.
+     */
+    private static class AcquisizioneSemaforo implements ForkJoinPool.ManagedBlocker {
+        private final Semaphore semaforo;
+        private boolean acquisito = false;
+
+        AcquisizioneSemaforo(Semaphore semaforo) {
+            this.semaforo = semaforo;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if(!this.acquisito) {
+                this.semaforo.acquire();
+                this.acquisito = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            if(!this.acquisito) this.acquisito = this.semaforo.tryAcquire();
+            return this.acquisito;
+        }
+    }
+
+    /**
+     * Metodo che permette di liberare i thread utilizzati per le operazioni. Una successiva operazione crea nuovamente il pool.
+     */
+    public synchronized void termina() {
+        if(this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+    /**
+     * Metodo che permette di utilizzare JDM con try-with-resources. Equivale a termina().
+     *
+     * @see #termina()
+     */
+    @Override
+    public void close() {
+        termina();
+    }
+
+    @Override
+    public String toString() {
+        return "JDM della cartella: " + cartellaDaGestire.toString();
+    }
+}
@@ -1,6 +1,42 @@
 package org.tpsit;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.DoublePredicate;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.Deflater;
 
 /**
  * JavaFileManager
@@ -9,15 +45,17 @@ import java.io.*;
  * @since 1.0.0
  * @see <a href="https://github.com/matbagnoletti/JavaFileManager">JavaFileManager on GitHub</a>
  * <p> Classe che gestisce i file in Java. Permette di leggere e scrivere dati tipizzati e righe di testo. Se non diversamente impostato, stampa eventuali avvisi sotto forma di errori.
- * Non supporta la scrittura e lettura di dati tipizzati come byte, bytes, long, short, char, chars.
- * JFM è thread-safe. La clausola synchronized garantisce la mutua esclusione tra i thread che accedono a JFM.</p>
+ * Non supporta la scrittura e lettura di dati tipizzati come byte, bytes, short, char, chars.
+ * JFM è thread-safe. Un ReentrantReadWriteLock permette a più thread di leggere in parallelo e garantisce la mutua esclusione delle operazioni che modificano il file.
+ * Ogni thread legge i dati tipizzati con un proprio cursore.
+ * Il file viene aperto in lettura solo alla prima lettura di dati tipizzati, tramite un pool di canali condiviso da tutti i JFM dello stesso file (vedi configuraPoolCanali()).</p>
  */
-public class JavaFileManager {
+public class JavaFileManager implements AutoCloseable {
 
     /**
      * Variabile che indica se stampare o meno gli avvisi sotto forma di errori (System.err).
      */
-    private boolean mostraAvvisi = true;
+    private volatile boolean mostraAvvisi = true;
 
     /**
      * File da gestire.
@@ -26,9 +64,135 @@ public class JavaFileManager {
     private File fileDaGestire;
 
     /**
-     * Stream di input per la lettura di dati tipizzati.
+     * Lock che permette le letture in parallelo e garantisce la mutua esclusione delle operazioni che modificano il file o lo stato di JFM.
      */
-    private DataInputStream inputStreamTipizzato = null;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Riferimento al canale del file, ottenuto dal pool condiviso, da cui i cursori leggono i dati tipizzati.
+     * Acquisito alla prima lettura di dati tipizzati e rilasciato da termina() o setFile().
+     */
+    private volatile PoolCanali.Riferimento canaleLettura = null;
+
+    /**
+     * Cursore di ogni thread per la lettura di dati tipizzati.
+     * Ogni thread legge i dati tipizzati dall'inizio del file con un proprio cursore, tramite letture posizionali sul canale condiviso.
+     * Sostituito ad ogni acquisizione del canale, così che tutti i cursori ripartano dall'inizio del file.
+     */
+    private volatile ThreadLocal<LettoreTipizzato> cursori = new ThreadLocal<>();
+
+    /**
+     * Numero di scritture eseguite sul file, incrementato ad ogni invalidazione della cache.
+     * Un cursore con una generazione diversa scarta i dati letti in anticipo e li rilegge dal file, mantenendo la propria posizione.
+     */
+    private final AtomicLong generazione = new AtomicLong();
+
+    /**
+     * Lock che protegge l'acquisizione e il rilascio del canale per la lettura di dati tipizzati, che può avvenire durante una lettura.
+     */
+    private final Object lockCanale = new Object();
+
+    /**
+     * Dimensione (in byte) del buffer utilizzato dalla sessione di scrittura di dati tipizzati.
+     * Al raggiungimento di tale soglia il contenuto del buffer viene scritto sul file.
+     */
+    private static final int DIMENSIONE_BUFFER_SCRITTURA = 64 * 1024;
+
+    /**
+     * Stream di output della sessione di scrittura di dati tipizzati.
+     * Diverso da null solo tra l'invocazione di apriScrittura() e quella di chiudiScrittura().
+     */
+    private DataOutputStream outputStreamTipizzato = null;
+
+    /**
+     * Buffer della sessione di scrittura di dati tipizzati, che conta i byte ricevuti dallo stream.
+     * Diverso da null solo tra l'invocazione di apriScrittura() e quella di chiudiScrittura().
+     */
+    private BufferScrittura bufferScrittura = null;
+
+    /**
+     * Byte della sessione di scrittura già scritti sul file da svuotaScrittura(), confrontati con BufferScrittura#scritti() per sapere se il buffer contiene dati.
+     */
+    private long byteSvuotati = 0;
+
+    /**
+     * Canale del file aperto dalla sessione di scrittura di dati tipizzati.
+     * Utilizzato per cancellare il contenuto precedente del file senza chiudere la sessione.
+     */
+    private FileChannel canaleScritturaTipizzata = null;
+
+    /**
+     * Mappatura in memoria del file per l'accesso posizionale ai dati tipizzati.
+     * Diversa da null solo tra l'invocazione di apriMappatura() e quella di chiudiMappatura().
+     */
+    private MappaturaTipizzata mappatura = null;
+
+    /**
+     * Dimensione (in byte) degli elementi della mappatura, utilizzata da dimensioneInElementi().
+     */
+    private int dimensioneElementoMappato = 0;
+
+    /**
+     * Variabile che indica se mantenere il file indice del log di oggetti, per l'accesso diretto ai record con leggiOggetto(long).
+     */
+    private boolean indiceOggetti = false;
+
+    /**
+     * Codec utilizzato per scrivere e leggere gli oggetti. Di default, la serializzazione Java.
+     */
+    private CodecOggetti codec = new CodecSerializzazioneJava();
+
+    /**
+     * Scrittore asincrono delle righe di testo accodate con scriviInCoda().
+     * Diverso da null solo tra l'invocazione di avviaScritturaAsincrona() e quella di fermaScritturaAsincrona().
+     */
+    private volatile ScrittoreAsincrono scrittoreAsincrono = null;
+
+    /**
+     * Lettore delle righe aggiunte al file, utilizzato da leggiNuoveRighe(). Creato alla prima invocazione e rimosso da setFile().
+     */
+    private LettoreIncrementale lettoreIncrementale = null;
+
+    /**
+     * Inseguimento del file in background.
+     * Diverso da null solo tra l'invocazione di segui() e quella di fermaInseguimento().
+     */
+    private Inseguimento inseguimento = null;
+
+    /**
+     * Log segmentato su cui scrivono scrivi(String) e scrivi(String, boolean).
+     * Diverso da null solo tra l'invocazione di avviaLogSegmentato() e quella di fermaLogSegmentato().
+     */
+    private LogSegmentato logSegmentato = null;
+
+    /**
+     * Scrittore del file di record. Diverso da null solo tra l'invocazione di apriRecord() e quella di chiudiRecord().
+     */
+    private FileRecord.Scrittore scrittoreRecord = null;
+
+    /**
+     * Chiave del file nella cache dei contenuti (percorso canonico), calcolata al primo utilizzo.
+     */
+    private volatile String chiaveCache = null;
+
+    /**
+     * Metriche delle operazioni di JFM, create alla prima operazione registrata.
+     */
+    private final AtomicReference<MetricheJFM> metriche = new AtomicReference<>();
+
+    /**
+     * Nome con cui le metriche di JFM sono registrate come MBean. Diverso da null solo tra l'invocazione di registraMBean() e quella di termina().
+     */
+    private ObjectName nomeMBean = null;
+
+    /**
+     * Nome dell'MBean delle metriche globali di tutti i JFM.
+     */
+    private static final String NOME_MBEAN_GLOBALE = "org.tpsit:type=JavaFileManager,name=globale";
+
+    static {
+        if(MetricheJFM.abilitate()) registraMBeanGlobale("JavaFileManager (proprietà di sistema jfm.metriche)");
+    }
 
     /**
      * Costruttore di JavaFileManager.
@@ -57,8 +221,6 @@ public class JavaFileManager {
         this.fileDaGestire = new File(nomeFile);
         if (!this.fileDaGestire.exists() || !this.fileDaGestire.isFile()) {
             if(this.mostraAvvisi) System.err.println("Il file specificato non esiste o non è un file.\nDa JFM('null').\nGenerato alla creazione.");
-        } else {
-            this.inputStreamTipizzato = apriStreamTipizzato();
         }
     }
 
@@ -72,14 +234,9 @@ public class JavaFileManager {
         if ((!this.fileDaGestire.exists() || !this.fileDaGestire.isFile())) {
             if(creaSeNull){
                 this.fileDaGestire = creaFile(nomeFile);
-                if(this.fileDaGestire != null){
-                    this.inputStreamTipizzato = apriStreamTipizzato();
-                }
             } else {
                 if(this.mostraAvvisi) System.err.println("Il file specificato non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato alla creazione.");
             }
-        } else {
-            this.inputStreamTipizzato = apriStreamTipizzato();
         }
     }
 
@@ -95,14 +252,9 @@ public class JavaFileManager {
         if ((!this.fileDaGestire.exists() || !this.fileDaGestire.isFile())) {
             if(creaSeNull){
                 this.fileDaGestire = creaFile(nomeFile);
-                if(this.fileDaGestire != null){
-                    this.inputStreamTipizzato = apriStreamTipizzato();
-                }
             } else {
                 if(this.mostraAvvisi) System.err.println("Il file specificato non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato alla creazione.");
             }
-        } else {
-            this.inputStreamTipizzato = apriStreamTipizzato();
         }
     }
 
@@ -128,13 +280,13 @@ public class JavaFileManager {
     }
 
     /**
-     * Metodo che permette di aprire lo stream per la lettura di dati tipizzati.
+     * Metodo che permette di aprire uno stream bufferizzato per la lettura di dati tipizzati.
      * @return Stream di input per la lettura di dati tipizzati. Null in caso di errore durante l'apertura del file.
      */
     public DataInputStream apriStreamTipizzato() {
         DataInputStream inputStream;
         try {
-            inputStream = new DataInputStream(new FileInputStream(this.fileDaGestire));
+            inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(this.fileDaGestire), LettoreTipizzato.DIMENSIONE_BUFFER));
         } catch (FileNotFoundException e) {
             if (this.mostraAvvisi) System.err.println("Errore durante l'apertura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriStreamTipizzato().");
             return null;
@@ -142,482 +294,4113 @@ public class JavaFileManager {
         return inputStream;
     }
 
+    /**
+     * Metodo che restituisce il canale per la lettura di dati tipizzati, acquisendolo dal pool condiviso alla prima lettura.
+     * Se il canale è stato chiuso (ad esempio per l'interruzione di un thread durante una lettura), ne viene acquisito uno nuovo.
+     * @return Riferimento al canale del file.
+     * @throws IOException In caso di errore durante l'apertura del file.
+     */
+    private PoolCanali.Riferimento canaleLettura() throws IOException {
+        PoolCanali.Riferimento canale = this.canaleLettura;
+        if(canale != null && canale.canale().isOpen()) return canale;
+        synchronized (this.lockCanale) {
+            canale = this.canaleLettura;
+            if(canale != null && canale.canale().isOpen()) return canale;
+            if(canale != null) canale.close();
+            canale = PoolCanali.condiviso().acquisisci(this.fileDaGestire);
+            this.cursori = new ThreadLocal<>();
+            this.canaleLettura = canale;
+            return canale;
+        }
+    }
+
+    /**
+     * Metodo che rilascia il canale per la lettura di dati tipizzati, se acquisito. Deve essere invocato con il lock di scrittura.
+     */
+    private void rilasciaCanaleLettura() {
+        synchronized (this.lockCanale) {
+            if(this.canaleLettura == null) return;
+            this.canaleLettura.close();
+            this.canaleLettura = null;
+            this.cursori = new ThreadLocal<>();
+        }
+    }
+
+    /**
+     * Metodo che restituisce il cursore del thread corrente per la lettura di dati tipizzati, creandolo se necessario.
+     * @return Cursore del thread corrente.
+     * @throws IOException In caso di errore durante l'apertura del file.
+     */
+    private LettoreTipizzato cursore() throws IOException {
+        PoolCanali.Riferimento canale = canaleLettura();
+        ThreadLocal<LettoreTipizzato> cursori = this.cursori;
+        LettoreTipizzato cursore = cursori.get();
+        if(cursore == null || !cursore.utilizza(canale.canale())) {
+            cursore = new LettoreTipizzato(canale.canale());
+            cursori.set(cursore);
+        }
+        cursore.sincronizza(this.generazione.get());
+        return cursore;
+    }
+
     /**
      * Setter dell'attributo File fileDaGestire
      * @param nomeFile Nome del file con il percorso dalla root del progetto.
      * @param creaSeNull Variabile che indica se creare o meno il file se non esiste.
      */
-    public synchronized void setFile(String nomeFile, boolean creaSeNull) {
-        this.fileDaGestire = new File(nomeFile);
-        if ((!this.fileDaGestire.exists() || !this.fileDaGestire.isFile())) {
-            if(creaSeNull){
-                this.fileDaGestire = creaFile(nomeFile);
-                if(this.fileDaGestire != null){
-                    this.inputStreamTipizzato = apriStreamTipizzato();
+    public void setFile(String nomeFile, boolean creaSeNull) {
+        Inseguimento inseguimento = null;
+        blocca(this.lock.writeLock());
+        try {
+            chiudiScrittura();
+            chiudiMappatura();
+            fermaScritturaAsincrona();
+            inseguimento = interrompiInseguimento("setFile()");
+            fermaLogSegmentato();
+            chiudiRecord();
+            rilasciaCanaleLettura();
+            this.chiaveCache = null;
+            this.lettoreIncrementale = null;
+            this.fileDaGestire = new File(nomeFile);
+            if ((!this.fileDaGestire.exists() || !this.fileDaGestire.isFile())) {
+                if(creaSeNull){
+                    this.fileDaGestire = creaFile(nomeFile);
+                } else {
+                    if(this.mostraAvvisi) System.err.println("Il file specificato non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da setFile().");
                 }
-            } else {
-                if(this.mostraAvvisi) System.err.println("Il file specificato non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da setFile().");
             }
-        } else {
-            this.inputStreamTipizzato = apriStreamTipizzato();
+        } finally {
+            this.lock.writeLock().unlock();
         }
+        attendiInseguimento(inseguimento);
     }
 
     /**
      * Setter dell'attributo boolean mostraAvvisi
      * @param mostraAvvisi Variabile che indica se stampare o meno gli avvisi sotto forma di errori.
      */
-    public synchronized void setAvvisi(boolean mostraAvvisi) {
+    public void setAvvisi(boolean mostraAvvisi) {
         this.mostraAvvisi = mostraAvvisi;
     }
 
+    /**
+     * Setter dell'attributo CodecOggetti codec.
+     * Il codec viene utilizzato da scriviOggetto(), leggiOggetto() e dal log di oggetti: i file devono essere letti con lo stesso codec con cui sono stati scritti.
+     * @param codec Codec da utilizzare. Se null, viene ripristinata la serializzazione Java.
+     * @see CodecBinarioCompatto
+     */
+    public void setCodec(CodecOggetti codec) {
+        blocca(this.lock.writeLock());
+        try {
+            this.codec = codec != null ? codec : new CodecSerializzazioneJava();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
     /**
      * Metodo che permette di leggere l'intero contenuto del file sotto forma di String.
+     * Ogni riga letta viene terminata con '\n'. Per file di grandi dimensioni è preferibile utilizzare righe() oppure leggi(Predicate, int).
+     * Se la cache dei contenuti è abilitata, il contenuto viene letto dalla cache finché il file non viene modificato.
      * @return Stringa contenente l'intero contenuto del file. Null in caso di errore durante la lettura del file.
+     * @see #righe()
      */
-    public synchronized String leggi() {
-        if(this.fileDaGestire != null) {
-            try (BufferedReader inputTesto = new BufferedReader(new FileReader(this.fileDaGestire))) {
-                StringBuilder contenutoTesto = new StringBuilder();
-                String rigaLetta = inputTesto.readLine();
-                while (rigaLetta != null) {
-                    contenutoTesto.append(rigaLetta).append("\n");
-                    rigaLetta = inputTesto.readLine();
+    public String leggi() {
+        return leggi(Charset.defaultCharset());
+    }
+
+    /**
+     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String, decodificandolo con il charset indicato.
+     * Ogni riga letta viene terminata con '\n'. La cache dei contenuti viene utilizzata solo con il charset predefinito.
+     * @param charset Charset con cui decodificare il file.
+     * @return Stringa contenente l'intero contenuto del file. Null in caso di errore durante la lettura del file.
+     * @see #leggiBytes()
+     */
+    public String leggi(Charset charset) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            CacheContenuti cache = this.fileDaGestire != null && charset.equals(Charset.defaultCharset()) ? CacheContenuti.attiva() : null;
+            BasicFileAttributes attributi = null;
+            if(cache != null) {
+                String contenuto = cache.leggi(chiaveCache(), this.fileDaGestire);
+                if(contenuto != null) {
+                    if(inizio != 0) registra(OperazioneIO.LEGGI, inizio, this.fileDaGestire.length());
+                    return contenuto;
                 }
-                return contenutoTesto.toString();
-            } catch (IOException e) {
+                attributi = CacheContenuti.attributi(this.fileDaGestire);
+            }
+            Stream<String> righe = righe(charset, "leggi()");
+            if(righe == null) return null;
+            try (righe) {
+                StringBuilder contenutoTesto = new StringBuilder();
+                righe.forEach(rigaLetta -> contenutoTesto.append(rigaLetta).append("\n"));
+                String contenuto = contenutoTesto.toString();
+                if(attributi != null) cache.inserisci(chiaveCache(), contenuto, attributi);
+                if(inizio != 0) registra(OperazioneIO.LEGGI, inizio, attributi != null ? attributi.size() : this.fileDaGestire.length());
+                return contenuto;
+            } catch (UncheckedIOException e) {
                 if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggi().");
                 return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggi().");
-            return null;
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String. Di default, non cancella il contenuto precedente del file e manda a capo a fine riga.
-     *
-     * @param testoDaScrivere Testo da scrivere nel file.
+     * Metodo che permette di leggere l'intero contenuto del file sotto forma di byte, senza decodificarlo.
+     * A differenza di leggi(), il contenuto è identico a quello del file, compresi i terminatori di riga.
+     * @return Byte del file. Null in caso di errore durante la lettura del file o se il file supera i 2 GB.
+     * @see #leggiBuffer()
      */
-    public synchronized void scrivi(String testoDaScrivere) {
-        if(this.fileDaGestire != null) {
-            try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, true))) {
-                outputTesto.write(testoDaScrivere);
-                outputTesto.newLine();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+    public byte[] leggiBytes() {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.READ)) {
+                    ByteBuffer contenuto = leggiCanale(canale);
+                    if(contenuto == null) {
+                        if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il file supera i 2 GB.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiBytes().");
+                        return null;
+                    }
+                    registra(OperazioneIO.LEGGI, inizio, contenuto.limit());
+                    return contenuto.array();
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiBytes().");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiBytes().");
+                return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi().");
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String. Di default, non cancella il contenuto precedente del file.
-     *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     * Dimensione (in byte) oltre la quale leggiBuffer() mappa il file in memoria invece di leggerlo.
      */
-    public synchronized void scrivi(String testoDaScrivere, boolean mandaACapo) {
-        if(this.fileDaGestire != null) {
-            try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, true))) {
-                outputTesto.write(testoDaScrivere);
-                if(mandaACapo) outputTesto.newLine();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+    private static final long SOGLIA_MAPPATURA_BUFFER = 1024 * 1024;
+
+    /**
+     * Metodo che permette di leggere l'intero contenuto del file in un ByteBuffer di sola lettura, senza decodificarlo.
+     * I file più grandi di 1 MB vengono mappati in memoria: il contenuto non viene copiato nella memoria della JVM e viene caricato dal sistema operativo solo quando letto.
+     * Un buffer mappato riflette le successive modifiche del file e non deve essere utilizzato dopo che il file è stato troncato.
+     * @return Buffer di sola lettura con il contenuto del file, dalla posizione 0 alla dimensione del file. Null in caso di errore durante la lettura del file o se il file supera i 2 GB.
+     * @see #leggiBytes()
+     */
+    public ByteBuffer leggiBuffer() {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.READ)) {
+                    long dimensione = canale.size();
+                    ByteBuffer contenuto;
+                    if(dimensione > Integer.MAX_VALUE - 8) {
+                        contenuto = null;
+                    } else if(dimensione > SOGLIA_MAPPATURA_BUFFER) {
+                        contenuto = canale.map(FileChannel.MapMode.READ_ONLY, 0, dimensione);
+                    } else {
+                        contenuto = leggiCanale(canale);
+                        if(contenuto != null) contenuto = contenuto.asReadOnlyBuffer();
+                    }
+                    if(contenuto == null) {
+                        if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il file supera i 2 GB.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiBuffer().");
+                        return null;
+                    }
+                    registra(OperazioneIO.LEGGI, inizio, contenuto.limit());
+                    return contenuto;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiBuffer().");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiBuffer().");
+                return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi().");
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String.
+     * Metodo che legge l'intero contenuto di un canale in un ByteBuffer su heap, con un'unica allocazione della dimensione del file al momento della lettura.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
-     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param canale Canale del file da leggere.
+     * @return Buffer con il contenuto del file (posizione 0, limite pari ai byte letti). Null se il file supera i 2 GB.
+     * @throws IOException In caso di errore durante la lettura del file.
      */
-    public synchronized void scrivi(String testoDaScrivere, boolean mandaACapo, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                outputTesto.write(testoDaScrivere);
-                if(mandaACapo) outputTesto.newLine();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi(String).");
-        }
+    private static ByteBuffer leggiCanale(FileChannel canale) throws IOException {
+        long dimensione = canale.size();
+        if(dimensione > Integer.MAX_VALUE - 8) return null;
+        ByteBuffer contenuto = ByteBuffer.allocate((int) dimensione);
+        while(contenuto.hasRemaining() && canale.read(contenuto) >= 0);
+        contenuto.flip();
+        if(contenuto.limit() == contenuto.capacity()) return contenuto;
+        return ByteBuffer.wrap(Arrays.copyOf(contenuto.array(), contenuto.limit()));
     }
 
     /**
-     * Metodo che permette di serializzare un oggetto in un file. Di default, non cancella il contenuto precedente del file.
+     * Metodo che permette di leggere il contenuto del file una riga alla volta, senza caricarlo interamente in memoria.
+     * Le righe vengono lette solo quando richieste dallo Stream, che può quindi essere interrotto in anticipo (ad esempio con findFirst() o limit()).
+     * Lo Stream mantiene il file aperto e deve essere chiuso, ad esempio con try-with-resources.
+     * Eventuali errori durante la lettura vengono segnalati dallo Stream tramite UncheckedIOException.
      *
-     * @param oggettoDaSerializzare Oggetto da serializzare.
+     * @return Stream delle righe del file, prive del terminatore di riga. Null in caso di errore durante l'apertura del file.
+     */
+    public Stream<String> righe() {
+        return righe(Charset.defaultCharset(), "righe()");
+    }
+
+    /**
+     * Metodo che permette di leggere il contenuto del file una riga alla volta, decodificandolo con il charset indicato.
+     *
+     * @param charset Charset con cui decodificare il file.
+     * @return Stream delle righe del file, prive del terminatore di riga. Null in caso di errore durante l'apertura del file.
+     * @see #righe()
+     */
+    public Stream<String> righe(Charset charset) {
+        return righe(charset, "righe(Charset)");
+    }
+
+    /**
+     * Metodo che apre lo Stream delle righe del file.
+     *
+     * @param charset Charset con cui decodificare il file.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Stream delle righe del file. Null in caso di errore durante l'apertura del file.
      */
-    public synchronized void scriviOggetto(Object oggettoDaSerializzare) {
-        if(this.fileDaGestire != null) {
-            if(oggettoDaSerializzare instanceof Serializable){
-                try (ObjectOutputStream outputOggetto = new ObjectOutputStream(new FileOutputStream(this.fileDaGestire, true))) {
-                    outputOggetto.writeObject(oggettoDaSerializzare);
+    private Stream<String> righe(Charset charset, String generatoDa) {
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    BufferedReader inputTesto = new BufferedReader(new InputStreamReader(new FileInputStream(this.fileDaGestire), charset));
+                    return inputTesto.lines().onClose(() -> {
+                        try {
+                            inputTesto.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
                 } catch (IOException e) {
-                    if(this.mostraAvvisi) System.err.println("Errore durante la serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    return null;
                 }
             } else {
-                if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. L'oggetto inserito non è serializzabile.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviOggetto().");
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di serializzare un oggetto in un file.
+     * Metodo che permette di leggere il contenuto del file a blocchi di caratteri, utilizzando una quantità di memoria limitata indipendentemente dalla dimensione del file.
+     * I terminatori di riga vengono mantenuti così come sono nel file.
+     * Il blocco passato al consumatore è riutilizzato: il suo contenuto è valido solo durante l'invocazione e deve essere copiato se necessario.
      *
-     * @param oggettoDaSerializzare Oggetto da serializzare.
-     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param consumatore Funzione invocata per ogni blocco letto. Se restituisce false, la lettura viene interrotta.
+     * @param dimensioneBlocco Numero massimo di caratteri per blocco. Deve essere maggiore di 0.
+     * @return True se il file è stato letto per intero. False se la lettura è stata interrotta, se la dimensione dei blocchi non è valida o in caso di errore durante la lettura del file.
      */
-    public synchronized void scriviOggetto(Object oggettoDaSerializzare, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            if (oggettoDaSerializzare instanceof Serializable){
-                try (ObjectOutputStream outputOggetto = new ObjectOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                    outputOggetto.writeObject(oggettoDaSerializzare);
+    public boolean leggi(Predicate<CharSequence> consumatore, int dimensioneBlocco) {
+        if(dimensioneBlocco <= 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. La dimensione dei blocchi deve essere maggiore di 0.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggi(Predicate, int).");
+            return false;
+        }
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try (FileInputStream inputFile = new FileInputStream(this.fileDaGestire); BufferedReader inputTesto = new BufferedReader(new InputStreamReader(inputFile))) {
+                    CharBuffer blocco = CharBuffer.allocate(dimensioneBlocco);
+                    boolean completa = true;
+                    while (completa && inputTesto.read(blocco) >= 0) {
+                        if(blocco.position() < dimensioneBlocco) continue;
+                        blocco.flip();
+                        completa = consumatore.test(blocco);
+                        blocco.clear();
+                    }
+                    if(completa) {
+                        blocco.flip();
+                        completa = !blocco.hasRemaining() || consumatore.test(blocco);
+                    }
+                    if(inizio != 0) registra(OperazioneIO.LEGGI, inizio, inputFile.getChannel().position());
+                    return completa;
                 } catch (IOException e) {
-                    if(this.mostraAvvisi) System.err.println("Errore durante la serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggi(Predicate, int).");
+                    return false;
                 }
             } else {
-                if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. L'oggetto inserito non è serializzabile.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggi(Predicate, int).");
+                return false;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviOggetto().");
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di de-serializzare un oggetto da un file.
+     * Metodo che permette di leggere solo le righe aggiunte al file dall'invocazione precedente, ad esempio per controllare periodicamente un file di log.
+     * JFM ricorda la posizione dell'ultima riga letta, per cui ogni invocazione legge solo i byte aggiunti: alla prima invocazione viene letto l'intero file.
+     * Una riga non ancora terminata viene restituita solo quando è completa. Se il file viene troncato (ad esempio con cancellaContenuto()) o sostituito da un altro file (rotazione),
+     * la lettura riparte dall'inizio del file.
      *
-     * @see #scriviOggetto(Object)
-     * @see #scriviOggetto(Object, boolean)
-     * @return Oggetto de-serializzato. Null in caso di errore durante la de-serializzazione del file.
+     * @return Stream delle righe aggiunte, prive del terminatore di riga. Null in caso di errore durante la lettura del file.
+     * @see #segui(Consumer, boolean, long)
      */
-    public synchronized Object leggiOggetto() {
-        if(this.fileDaGestire != null) {
-            try (ObjectInputStream inputOggetto = new ObjectInputStream(new FileInputStream(this.fileDaGestire))) {
-                return inputOggetto.readObject();
-            } catch (IOException | ClassNotFoundException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la de-serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiOggetto().");
+    public Stream<String> leggiNuoveRighe() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiNuoveRighe().");
                 return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile de-serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiOggetto().");
-            return null;
+            if(this.lettoreIncrementale == null) this.lettoreIncrementale = new LettoreIncrementale(this.fileDaGestire, false);
+            try {
+                return this.lettoreIncrementale.leggi().stream();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiNuoveRighe().");
+                return null;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di scrivere una stringa UTF in un file. Di default, non cancella il contenuto precedente del file.
+     * Metodo che permette di inseguire il file a partire dalla fine, controllandolo almeno una volta al secondo.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param consumatore Funzione invocata per ogni riga aggiunta al file.
+     * @see #segui(Consumer, boolean, long)
      */
-    public synchronized void scriviTipizzato(String testoDaScrivere) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, true))) {
-                outputTesto.writeUTF(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(String).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(String).");
-        }
+    public void segui(Consumer<String> consumatore) {
+        segui(consumatore, true, 1000);
     }
 
     /**
-     * Metodo che permette di scrivere una stringa UTF in un file.
+     * Metodo che permette di inseguire il file (come tail -F): un thread in background passa al consumatore ogni riga aggiunta al file, leggendo solo i byte aggiunti.
+     * Il thread attende le modifiche tramite WatchService e controlla comunque il file almeno una volta per intervallo, anche se il WatchService non è disponibile.
+     * Se il file viene troncato o sostituito da un altro file (rotazione), l'inseguimento riparte dall'inizio del nuovo contenuto.
+     * Le eccezioni lanciate dal consumatore vengono segnalate come avvisi e non interrompono l'inseguimento.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param cancellaContenutoPrecedente  Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param consumatore Funzione invocata, dal thread di inseguimento, per ogni riga aggiunta al file.
+     * @param dallaFine Variabile che indica se ignorare il contenuto già presente nel file. Se impostato su false, vengono passate al consumatore anche le righe già presenti.
+     * @param intervalloMs Intervallo (in millisecondi) massimo tra due controlli del file.
+     * @see #fermaInseguimento()
      */
-    public synchronized void scriviTipizzato(String testoDaScrivere, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                outputTesto.writeUTF(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(String).");
+    public void segui(Consumer<String> consumatore, boolean dallaFine, long intervalloMs) {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile inseguire il file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da segui().");
+                return;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(String).");
+            if(this.inseguimento != null) {
+                if(this.mostraAvvisi) System.err.println("Inseguimento già avviato tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da segui().");
+                return;
+            }
+            this.inseguimento = new Inseguimento(this.fileDaGestire, consumatore, dallaFine, intervalloMs, this.mostraAvvisi);
+        } finally {
+            this.lock.writeLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di scrivere un numero int in un file. Di default, non cancella il contenuto precedente del file.
+     * Metodo che permette di fermare l'inseguimento del file. Attende che il consumatore termini l'eventuale riga in corso.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
+     * @see #segui(Consumer, boolean, long)
      */
-    public synchronized void scriviTipizzato(int testoDaScrivere) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, true))) {
-                outputTesto.writeInt(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(int).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(int).");
+    public void fermaInseguimento() {
+        Inseguimento inseguimento = null;
+        blocca(this.lock.writeLock());
+        try {
+            inseguimento = interrompiInseguimento("fermaInseguimento()");
+        } finally {
+            this.lock.writeLock().unlock();
         }
+        attendiInseguimento(inseguimento);
     }
 
     /**
-     * Metodo che permette di scrivere un numero int in un file.
+     * Metodo che ferma l'eventuale inseguimento del file senza attendere il thread di inseguimento. Deve essere invocato con il lock di scrittura.
+     * Il thread va atteso con attendiInseguimento() dopo aver rilasciato il lock, perché il consumatore potrebbe invocare un metodo di JFM.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Inseguimento fermato. Null se il file non era inseguito.
      */
-    public synchronized void scriviTipizzato(int testoDaScrivere, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                outputTesto.writeInt(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(int).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(int).");
+    private Inseguimento interrompiInseguimento(String generatoDa) {
+        Inseguimento inseguimento = this.inseguimento;
+        if(inseguimento == null) return null;
+        this.inseguimento = null;
+        try {
+            inseguimento.ferma();
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la chiusura dell'inseguimento tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
         }
+        return inseguimento;
     }
 
     /**
-     * Metodo che permette di scrivere un numero double in un file. Di default, non cancella il contenuto precedente del file.
+     * Metodo che attende la terminazione del thread di un inseguimento fermato con interrompiInseguimento(). Deve essere invocato senza il lock di scrittura.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param inseguimento Inseguimento fermato. Se null, il metodo non ha effetto.
      */
-    public synchronized void scriviTipizzato(double testoDaScrivere) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, true))) {
-                outputTesto.writeDouble(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(double).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(double).");
-        }
+    private static void attendiInseguimento(Inseguimento inseguimento) {
+        if(inseguimento != null) inseguimento.attendiTermine();
     }
 
     /**
-     * Metodo che permette di scrivere un numero double in un file.
+     * Metodo che permette di contare le righe del file senza caricarlo in memoria. Il file viene mappato in memoria e analizzato in parallelo a blocchi.
+     * Ogni '\n' termina una riga e l'eventuale ultima riga non terminata viene contata, come con righe().
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @return Numero di righe del file. -1 in caso di errore durante la lettura del file.
      */
-    public synchronized void scriviTipizzato(double testoDaScrivere, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                outputTesto.writeDouble(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(double).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(double).");
+    public long contaRighe() {
+        blocca(this.lock.readLock());
+        try {
+            ScansioneParallela scansione = scansione("contaRighe()");
+            return scansione != null ? scansione.contaRighe() : -1;
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di scrivere un numero float in un file. Di default, non cancella il contenuto precedente del file.
+     * Metodo che permette di contare le occorrenze (non sovrapposte) di un testo nel file. Il file viene mappato in memoria e analizzato in parallelo a blocchi, confrontando direttamente i byte.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param testo Testo da cercare. Non può contenere terminatori di riga.
+     * @return Numero di occorrenze. -1 in caso di errore durante la lettura del file o se il testo non è valido.
      */
-    public synchronized void scriviTipizzato(float testoDaScrivere) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, true))) {
-                outputTesto.writeFloat(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(float).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(float).");
+    public long contaOccorrenze(String testo) {
+        byte[] testoCodificato = codificaRicerca(testo, "contaOccorrenze(String)");
+        if(testoCodificato == null) return -1;
+        blocca(this.lock.readLock());
+        try {
+            ScansioneParallela scansione = scansione("contaOccorrenze(String)");
+            return scansione != null ? scansione.contaOccorrenze(testoCodificato) : -1;
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di scrivere un numero float in un file.
+     * Metodo che permette di contare le occorrenze di un'espressione regolare nel file, riga per riga. Il file viene mappato in memoria e analizzato in parallelo a blocchi.
      *
-     * @param testoDaScrivere Testo da scrivere nel file.
-     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param espressione Espressione regolare da cercare in ogni riga.
+     * @return Numero di occorrenze. -1 in caso di errore durante la lettura del file.
      */
-    public synchronized void scriviTipizzato(float testoDaScrivere, boolean cancellaContenutoPrecedente) {
-        if(this.fileDaGestire != null) {
-            try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
-                outputTesto.writeFloat(testoDaScrivere);
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviTipizzato(float).");
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviTipizzato(float).");
+    public long contaOccorrenze(Pattern espressione) {
+        blocca(this.lock.readLock());
+        try {
+            ScansioneParallela scansione = scansione("contaOccorrenze(Pattern)");
+            return scansione != null ? scansione.contaOccorrenze(espressione) : -1;
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di leggere una stringa UTF da un file.
+     * Metodo che permette di cercare le occorrenze (non sovrapposte) di un testo nel file, senza caricarlo in memoria.
+     * Il file viene letto a blocchi allineati alle righe solo quando lo Stream richiede nuove occorrenze: ogni lotto di blocchi viene letto mantenendo il lock di lettura
+     * e analizzato in parallelo, confrontando direttamente i byte. Lo Stream restituisce le occorrenze in ordine di posizione e può quindi essere interrotto in anticipo (ad esempio con findFirst() o limit()).
+     * Le modifiche eseguite sul file mentre lo Stream viene consumato possono essere riflesse solo in parte nelle occorrenze restituite.
+     * Lo Stream mantiene il file aperto e deve essere chiuso, ad esempio con try-with-resources. Eventuali errori durante la lettura vengono segnalati dallo Stream tramite UncheckedIOException.
      *
-     * @return Stringa UTF letta dal file. Null in caso di errore durante la lettura del file.
+     * @param testo Testo da cercare. Non può contenere terminatori di riga.
+     * @return Stream delle occorrenze, con posizione, numero e testo della riga. Null in caso di errore durante l'apertura del file o se il testo non è valido.
      */
-    public synchronized String leggiString() {
-        if(this.fileDaGestire != null) {
-            try {
-                return this.inputStreamTipizzato.readUTF();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiString().");
-                return null;
-            }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiString().");
-            return null;
-        }
+    public Stream<Occorrenza> cerca(String testo) {
+        byte[] testoCodificato = codificaRicerca(testo, "cerca(String)");
+        if(testoCodificato == null) return null;
+        FileChannel canale = apriRicerca("cerca(String)");
+        return canale != null ? ScansioneParallela.cerca(canale, this.lock.readLock(), this::blocca, testoCodificato) : null;
     }
 
     /**
-     * Metodo che permette di leggere un numero int da un file.
+     * Metodo che permette di cercare le occorrenze di un'espressione regolare nel file, riga per riga, senza caricarlo in memoria.
+     * Il file viene letto a blocchi solo quando lo Stream richiede nuove occorrenze e i blocchi di ogni lotto vengono analizzati in parallelo; lo Stream restituisce le occorrenze in ordine di posizione.
      *
-     * @return Numero int letto dal file. 0 in caso di errore durante la lettura del file.
+     * @param espressione Espressione regolare da cercare in ogni riga.
+     * @return Stream delle occorrenze, con posizione, numero e testo della riga. Null in caso di errore durante l'apertura del file.
+     * @see #cerca(String)
+     */
+    public Stream<Occorrenza> cerca(Pattern espressione) {
+        FileChannel canale = apriRicerca("cerca(Pattern)");
+        return canale != null ? ScansioneParallela.cerca(canale, this.lock.readLock(), this::blocca, espressione) : null;
+    }
+
+    /**
+     * Metodo che apre in lettura il file per la ricerca delle occorrenze.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Canale del file. Null in caso di errore durante l'apertura del file.
      */
-    public synchronized int leggiInt() {
-        if(this.fileDaGestire != null) {
+    private FileChannel apriRicerca(String generatoDa) {
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
             try {
-                return this.inputStreamTipizzato.readInt();
+                return FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.READ);
             } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiInt().");
-                return 0;
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return null;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiInt().");
-            return 0;
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di leggere un numero double da un file.
+     * Metodo che mappa il file in memoria per il conteggio parallelo.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Scansione del file. Null in caso di errore durante la mappatura del file.
+     */
+    private ScansioneParallela scansione(String generatoDa) {
+        if(this.fileDaGestire == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+            return null;
+        }
+        try {
+            return new ScansioneParallela(this.fileDaGestire);
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return null;
+        }
+    }
+
+    /**
+     * Metodo che codifica il testo da cercare con il charset predefinito, lo stesso con cui viene letto il file.
+     *
+     * @param testo Testo da cercare.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Byte del testo. Null se il testo è vuoto o contiene terminatori di riga.
+     */
+    private byte[] codificaRicerca(String testo, String generatoDa) {
+        if(testo == null || testo.isEmpty() || testo.indexOf('\n') >= 0 || testo.indexOf('\r') >= 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile cercare il testo tramite JFM. Il testo è vuoto o contiene terminatori di riga.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return null;
+        }
+        return testo.getBytes(Charset.defaultCharset());
+    }
+
+    /**
+     * Metodo che permette di abilitare la cache dei contenuti letti con leggi(), condivisa da tutti i JFM. Le voci vengono verificate ad ogni lettura.
+     *
+     * @param dimensioneMassima Occupazione massima (in byte) dei contenuti memorizzati.
+     * @see #abilitaCache(long, long)
+     */
+    public static void abilitaCache(long dimensioneMassima) {
+        abilitaCache(dimensioneMassima, 0);
+    }
+
+    /**
+     * Metodo che permette di abilitare la cache dei contenuti letti con leggi(), condivisa da tutti i JFM. Se la cache è già abilitata, i contenuti memorizzati vengono rilasciati.
+     * Le voci sono identificate dal percorso canonico del file e restano valide finché la data di ultima modifica e la dimensione del file non cambiano.
+     * Le scritture eseguite tramite JFM invalidano immediatamente la voce del file; al superamento della dimensione massima vengono rimosse le voci utilizzate meno di recente.
+     *
+     * @param dimensioneMassima Occupazione massima (in byte) dei contenuti memorizzati.
+     * @param intervalloVerificaMs Intervallo (in millisecondi) entro il quale una voce già verificata viene restituita senza controllare di nuovo il file.
+     *                             Con 0 il file viene controllato ad ogni lettura; con un valore maggiore le modifiche eseguite senza JFM possono essere rilevate in ritardo.
+     * @see #disabilitaCache()
+     * @see #statisticheCache()
+     */
+    public static void abilitaCache(long dimensioneMassima, long intervalloVerificaMs) {
+        CacheContenuti.abilita(dimensioneMassima, intervalloVerificaMs);
+    }
+
+    /**
+     * Metodo che permette di disabilitare la cache dei contenuti, rilasciandone i contenuti memorizzati.
+     */
+    public static void disabilitaCache() {
+        CacheContenuti.disabilita();
+    }
+
+    /**
+     * Metodo che permette di conoscere le statistiche della cache dei contenuti: successi, mancati, rimozioni, invalidazioni e occupazione.
+     *
+     * @return Istantanea delle statistiche. Null se la cache non è abilitata.
+     */
+    public static StatisticheCache statisticheCache() {
+        CacheContenuti cache = CacheContenuti.attiva();
+        return cache == null ? null : cache.statistiche();
+    }
+
+    /**
+     * Metodo che permette di configurare il pool dei canali in lettura condiviso da tutti i JFM, utilizzato per la lettura di dati tipizzati.
+     * Più JFM dello stesso file condividono un unico canale, che resta aperto per il tempo di inattività indicato dopo l'ultimo termina().
+     * Di default, al più 256 canali aperti e 30 secondi di inattività.
+     *
+     * @param canaliMassimi Numero massimo di canali aperti. Se superato, vengono chiusi i canali inutilizzati da più tempo; i canali in uso non vengono mai chiusi.
+     * @param inattivitaMassimaMs Tempo (in millisecondi) dopo il quale un canale non più utilizzato viene chiuso.
+     */
+    public static void configuraPoolCanali(int canaliMassimi, long inattivitaMassimaMs) {
+        PoolCanali.condiviso().configura(canaliMassimi, inattivitaMassimaMs);
+    }
+
+    /**
+     * Metodo che permette di abilitare o disabilitare a runtime la registrazione delle metriche di tutti i JFM: operazioni, byte, latenze, attesa dei lock e file aperti.
+     * Di default, la registrazione è abilitata solo se la proprietà di sistema jfm.metriche è true. All'abilitazione (anche tramite la proprietà di sistema), le metriche globali vengono registrate come MBean.
+     *
+     * @param abilitate Variabile che indica se registrare o meno le metriche.
+     * @see #statisticheIO()
+     * @see #statisticheIOGlobali()
+     */
+    public static void setMetriche(boolean abilitate) {
+        MetricheJFM.setAbilitate(abilitate);
+        if(abilitate) registraMBeanGlobale("setMetriche()");
+    }
+
+    /**
+     * Metodo che permette di conoscere le metriche di tutti i JFM della JVM.
+     *
+     * @return Istantanea delle metriche globali.
+     */
+    public static StatisticheIO statisticheIOGlobali() {
+        return MetricheJFM.globali().istantanea(MetricheJFM.fileAperti());
+    }
+
+    /**
+     * Metodo che permette di conoscere le metriche di questo JFM.
+     *
+     * @return Istantanea delle metriche di JFM.
+     */
+    public StatisticheIO statisticheIO() {
+        MetricheJFM metriche = this.metriche.get();
+        return metriche == null ? MetricheJFM.istantaneaVuota(fileAperti()) : metriche.istantanea(fileAperti());
+    }
+
+    /**
+     * Metodo che permette di registrare le metriche di questo JFM come MBean (org.tpsit:type=JavaFileManager,file=...), insieme a quelle globali (org.tpsit:type=JavaFileManager,name=globale).
+     * L'MBean viene rimosso da termina().
+     */
+    public void registraMBean() {
+        blocca(this.lock.writeLock());
+        try {
+            registraMBeanGlobale("registraMBean()");
+            if(this.nomeMBean != null) return;
+            try {
+                ObjectName nome = new ObjectName("org.tpsit:type=JavaFileManager,file=" + ObjectName.quote(String.valueOf(this.fileDaGestire)) + ",id=" + Integer.toHexString(System.identityHashCode(this)));
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MBeanMetricheJFM(this::statisticheIO, () -> metriche().azzera()), nome);
+                this.nomeMBean = nome;
+            } catch (JMException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la registrazione dell'MBean tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da registraMBean().");
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che registra le metriche globali come MBean, se non già registrate.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private static synchronized void registraMBeanGlobale(String generatoDa) {
+        try {
+            ObjectName nome = new ObjectName(NOME_MBEAN_GLOBALE);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if(!server.isRegistered(nome)) server.registerMBean(new MBeanMetricheJFM(JavaFileManager::statisticheIOGlobali, MetricheJFM.globali()::azzera), nome);
+        } catch (JMException e) {
+            System.err.println("Errore durante la registrazione dell'MBean delle metriche globali di JFM.\nGenerato da " + generatoDa + ".");
+        }
+    }
+
+    /**
+     * Metodo che restituisce le metriche di JFM, creandole alla prima operazione registrata.
+     *
+     * @return Metriche di JFM.
+     */
+    private MetricheJFM metriche() {
+        MetricheJFM metriche = this.metriche.get();
+        if(metriche == null) {
+            this.metriche.compareAndSet(null, new MetricheJFM());
+            metriche = this.metriche.get();
+        }
+        return metriche;
+    }
+
+    /**
+     * Metodo che registra un'operazione completata nelle metriche di JFM e in quelle globali.
+     *
+     * @param operazione Operazione eseguita.
+     * @param inizio Istante di inizio dell'operazione restituito da MetricheJFM.inizio(). Se 0, l'operazione non viene registrata.
+     * @param numeroByte Byte letti, scritti o copiati.
+     */
+    private void registra(OperazioneIO operazione, long inizio, long numeroByte) {
+        if(inizio != 0) metriche().registra(operazione, inizio, numeroByte);
+    }
+
+    /**
+     * Metodo che acquisisce un lock di JFM, registrando nelle metriche l'eventuale attesa se il lock è posseduto da un altro thread.
+     *
+     * @param lock Lock di lettura o di scrittura di JFM.
+     */
+    private void blocca(Lock lock) {
+        if(!MetricheJFM.abilitate()) {
+            lock.lock();
+            return;
+        }
+        if(lock.tryLock()) return;
+        long inizio = System.nanoTime();
+        lock.lock();
+        metriche().registraAttesaLock(System.nanoTime() - inizio);
+    }
+
+    /**
+     * Metodo che restituisce il numero di file aperti da JFM: canale in lettura, sessione di scrittura, mappatura, scrittura asincrona, log segmentato e file di record.
+     *
+     * @return Numero di file aperti.
+     */
+    private int fileAperti() {
+        return (this.canaleLettura != null ? 1 : 0) + (this.outputStreamTipizzato != null ? 1 : 0) + (this.mappatura != null ? 1 : 0) + (this.scrittoreAsincrono != null ? 1 : 0) + (this.logSegmentato != null ? 1 : 0) + (this.scrittoreRecord != null ? 1 : 0);
+    }
+
+    /**
+     * Metodo che restituisce la chiave del file nella cache dei contenuti, calcolandola se necessario.
+     *
+     * @return Percorso canonico del file.
+     */
+    private String chiaveCache() {
+        String chiave = this.chiaveCache;
+        if(chiave == null) {
+            chiave = CacheContenuti.chiave(this.fileDaGestire);
+            this.chiaveCache = chiave;
+        }
+        return chiave;
+    }
+
+    /**
+     * Metodo che invalida il contenuto del file nella cache dei contenuti, se abilitata, e i dati letti in anticipo dai cursori. Invocato dopo ogni scrittura.
+     */
+    private void invalidaCache() {
+        this.generazione.incrementAndGet();
+        CacheContenuti cache = CacheContenuti.attiva();
+        if(cache != null && this.fileDaGestire != null) cache.invalida(chiaveCache());
+    }
+
+    /**
+     * Metodo da invocare, con il lock di scrittura, prima di un'operazione che tronca o sostituisce il contenuto del file.
+     * Chiude l'eventuale mappatura in memoria: l'accesso a una mappatura oltre la nuova fine del file causerebbe un errore della JVM.
+     * Scarta i dati della sessione di scrittura non ancora scritti sul file, che altrimenti verrebbero accodati al nuovo contenuto,
+     * ed elimina il file indice del log di oggetti, le cui posizioni non sarebbero più valide.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void preparaSovrascrittura(String generatoDa) {
+        chiudiMappatura();
+        if(this.bufferScrittura != null) {
+            this.bufferScrittura.scarta();
+            this.byteSvuotati = this.bufferScrittura.scritti();
+        }
+        if(this.fileDaGestire == null) return;
+        try {
+            Files.deleteIfExists(LogOggetti.fileIndice(this.fileDaGestire).toPath());
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file indice del log di oggetti tramite JFM. Le letture con leggiOggetto(long) potrebbero restituire oggetti errati.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+        }
+    }
+
+    /**
+     * Metodo da invocare, con il lock di scrittura, prima di un'operazione che scrive sul file senza passare per la sessione di scrittura.
+     * Se il contenuto del file viene cancellato vedi preparaSovrascrittura(), altrimenti i dati della sessione vengono prima scritti sul file, così da mantenere l'ordine delle scritture.
+     *
+     * @param cancellaContenutoPrecedente Variabile che indica se l'operazione cancella il contenuto precedente del file.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void preparaScrittura(boolean cancellaContenutoPrecedente, String generatoDa) {
+        if(cancellaContenutoPrecedente) {
+            preparaSovrascrittura(generatoDa);
+        } else {
+            svuotaScrittura(generatoDa);
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String. Di default, non cancella il contenuto precedente del file e manda a capo a fine riga.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scrivi(String testoDaScrivere) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.logSegmentato != null) {
+                scriviSegmento(testoDaScrivere, true, inizio);
+            } else if(this.fileDaGestire != null) {
+                svuotaScrittura("scrivi()");
+                try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, true))) {
+                    outputTesto.write(testoDaScrivere);
+                    outputTesto.newLine();
+                    outputTesto.flush();
+                    if(inizio != 0) registra(OperazioneIO.SCRIVI, inizio, lunghezzaCodificata(testoDaScrivere, true));
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che calcola il numero di byte occupati da un testo scritto con il charset predefinito, utilizzato dalle metriche.
+     *
+     * @param testo Testo scritto.
+     * @param mandaACapo Variabile che indica se al testo segue il separatore di riga.
+     * @return Numero di byte del testo codificato.
+     */
+    private static long lunghezzaCodificata(String testo, boolean mandaACapo) {
+        Charset charset = Charset.defaultCharset();
+        return testo.getBytes(charset).length + (mandaACapo ? System.lineSeparator().getBytes(charset).length : 0);
+    }
+
+    /**
+     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     */
+    public void scrivi(String testoDaScrivere, boolean mandaACapo) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.logSegmentato != null) {
+                scriviSegmento(testoDaScrivere, mandaACapo, inizio);
+            } else if(this.fileDaGestire != null) {
+                svuotaScrittura("scrivi()");
+                try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, true))) {
+                    outputTesto.write(testoDaScrivere);
+                    if(mandaACapo) outputTesto.newLine();
+                    outputTesto.flush();
+                    if(inizio != 0) registra(OperazioneIO.SCRIVI, inizio, lunghezzaCodificata(testoDaScrivere, mandaACapo));
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere l'intero contenuto del file sotto forma di String.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scrivi(String testoDaScrivere, boolean mandaACapo, boolean cancellaContenutoPrecedente) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                preparaScrittura(cancellaContenutoPrecedente, "scrivi()");
+                try (BufferedWriter outputTesto = new BufferedWriter(new FileWriter(this.fileDaGestire, !cancellaContenutoPrecedente))) {
+                    outputTesto.write(testoDaScrivere);
+                    if(mandaACapo) outputTesto.newLine();
+                    outputTesto.flush();
+                    if(inizio != 0) registra(OperazioneIO.SCRIVI, inizio, lunghezzaCodificata(testoDaScrivere, mandaACapo));
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scrivi(String).");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere nel file, codificando il testo con il charset indicato.
+     * Il testo viene codificato una sola volta e scritto con un'unica operazione, senza passare per un Writer.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param charset Charset con cui codificare il testo.
+     */
+    public void scrivi(String testoDaScrivere, boolean mandaACapo, boolean cancellaContenutoPrecedente, Charset charset) {
+        scriviBytes(ByteBuffer.wrap((mandaACapo ? testoDaScrivere + System.lineSeparator() : testoDaScrivere).getBytes(charset)), cancellaContenutoPrecedente, "scrivi(String, boolean, boolean, Charset)");
+    }
+
+    /**
+     * Metodo che permette di scrivere dei byte nel file, senza codificarli. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param bytesDaScrivere Byte da scrivere nel file.
+     * @see #scrivi(ByteBuffer, boolean)
+     */
+    public void scrivi(byte[] bytesDaScrivere) {
+        scrivi(bytesDaScrivere, false);
+    }
+
+    /**
+     * Metodo che permette di scrivere dei byte nel file, senza codificarli.
+     *
+     * @param bytesDaScrivere Byte da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scrivi(byte[] bytesDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviBytes(ByteBuffer.wrap(bytesDaScrivere), cancellaContenutoPrecedente, "scrivi(byte[])");
+    }
+
+    /**
+     * Metodo che permette di scrivere il contenuto di un ByteBuffer nel file, senza codificarlo. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param bytesDaScrivere Buffer da scrivere nel file.
+     * @see #scrivi(ByteBuffer, boolean)
+     */
+    public void scrivi(ByteBuffer bytesDaScrivere) {
+        scrivi(bytesDaScrivere, false);
+    }
+
+    /**
+     * Metodo che permette di scrivere il contenuto di un ByteBuffer nel file, senza codificarlo.
+     * Vengono scritti i byte tra la posizione e il limite del buffer e, come con FileChannel#write(ByteBuffer), la posizione del buffer viene avanzata.
+     * Un buffer diretto (o mappato) viene scritto senza copie intermedie.
+     *
+     * @param bytesDaScrivere Buffer da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scrivi(ByteBuffer bytesDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviBytes(bytesDaScrivere, cancellaContenutoPrecedente, "scrivi(ByteBuffer)");
+    }
+
+    /**
+     * Metodo che scrive i byte rimanenti di un buffer nel file tramite FileChannel.
+     *
+     * @param bytesDaScrivere Buffer da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void scriviBytes(ByteBuffer bytesDaScrivere, boolean cancellaContenutoPrecedente, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                preparaScrittura(cancellaContenutoPrecedente, generatoDa);
+                try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        cancellaContenutoPrecedente ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND)) {
+                    long scritti = 0;
+                    while(bytesDaScrivere.hasRemaining()) scritti += canale.write(bytesDaScrivere);
+                    registra(OperazioneIO.SCRIVI, inizio, scritti);
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di avviare la scrittura asincrona con una coda di 8192 righe e senza forzare la scrittura su disco.
+     *
+     * @see #avviaScritturaAsincrona(int, PoliticaDurabilita, long)
+     */
+    public void avviaScritturaAsincrona() {
+        avviaScritturaAsincrona(8192, PoliticaDurabilita.NESSUNA, 0);
+    }
+
+    /**
+     * Metodo che permette di avviare la scrittura asincrona delle righe di testo accodate con scriviInCoda().
+     * Un unico thread in background scrive le righe in append a lotti, con un'unica operazione di scrittura per lotto, evitando ai produttori di attendere l'apertura e la chiusura del file.
+     *
+     * @param capacitaCoda Numero massimo di righe in attesa di essere scritte. Se la coda è piena, scriviInCoda() attende che si liberi spazio.
+     * @param politica Politica con cui forzare la scrittura su disco dei dati scritti.
+     * @param intervalloSincronizzazioneMs Intervallo (in millisecondi) tra due scritture su disco forzate, utilizzato con PoliticaDurabilita.PERIODICA.
+     * @see #fermaScritturaAsincrona()
+     */
+    public void avviaScritturaAsincrona(int capacitaCoda, PoliticaDurabilita politica, long intervalloSincronizzazioneMs) {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(this.scrittoreAsincrono != null) {
+                    if(this.mostraAvvisi) System.err.println("Scrittura asincrona già avviata tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da avviaScritturaAsincrona().");
+                    return;
+                }
+                try {
+                    this.scrittoreAsincrono = new ScrittoreAsincrono(this.fileDaGestire, capacitaCoda, politica, intervalloSincronizzazioneMs);
+                    MetricheJFM.risorseAperte(1);
+                } catch (IOException | IllegalArgumentException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante l'avvio della scrittura asincrona tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da avviaScritturaAsincrona().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da avviaScritturaAsincrona().");
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di accodare una riga di testo alla scrittura asincrona. Il testo viene scritto in append e mandato a capo, come con scrivi(String).
+     * Il metodo non acquisisce il lock di JFM: attende solo se la coda è piena.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @return Conferma completata quando la riga è stata scritta secondo la politica di durabilità. Completata eccezionalmente in caso di errore o se la scrittura asincrona non è avviata.
+     * @see #avviaScritturaAsincrona(int, PoliticaDurabilita, long)
+     */
+    public CompletableFuture<Void> scriviInCoda(String testoDaScrivere) {
+        ScrittoreAsincrono scrittore = this.scrittoreAsincrono;
+        if(scrittore == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile accodare il testo tramite JFM. La scrittura asincrona non è stata avviata.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviInCoda().");
+            return CompletableFuture.failedFuture(new IllegalStateException("Scrittura asincrona non avviata"));
+        }
+        return scrittore.accoda(testoDaScrivere);
+    }
+
+    /**
+     * Metodo che permette di fermare la scrittura asincrona, dopo aver scritto tutte le righe già accodate.
+     *
+     * @see #avviaScritturaAsincrona(int, PoliticaDurabilita, long)
+     */
+    public void fermaScritturaAsincrona() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.scrittoreAsincrono == null) return;
+            try {
+                this.scrittoreAsincrono.close();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da fermaScritturaAsincrona().");
+            } finally {
+                this.scrittoreAsincrono = null;
+                MetricheJFM.risorseAperte(-1);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di conoscere le statistiche della scrittura asincrona: righe accodate e scritte, lotti, fsync e attese dei produttori per coda piena.
+     *
+     * @return Istantanea delle statistiche. Null se la scrittura asincrona non è avviata.
+     */
+    public StatisticheScritturaAsincrona statisticheScritturaAsincrona() {
+        ScrittoreAsincrono scrittore = this.scrittoreAsincrono;
+        return scrittore == null ? null : scrittore.statistiche();
+    }
+
+    /**
+     * Metodo che permette di avviare il log segmentato con segmenti da 64 MB, senza rotazione per tempo e mantenendo al più 16 segmenti.
+     *
+     * @see #avviaLogSegmentato(long, long, int, long)
+     */
+    public void avviaLogSegmentato() {
+        avviaLogSegmentato(64 * 1024 * 1024, 0, 16, 0);
+    }
+
+    /**
+     * Metodo che permette di avviare il log segmentato: fino a fermaLogSegmentato(), scrivi(String) e scrivi(String, boolean) scrivono in append sul segmento attivo invece che nel file.
+     * I segmenti si trovano nella cartella del file e si chiamano come il file seguito dal numero del segmento (ad esempio "app.log.0000000001").
+     * Il segmento attivo resta aperto, per cui il costo di ogni scrittura non dipende dalla dimensione del log; la scrittura riprende dall'ultimo segmento esistente, se non è pieno.
+     *
+     * @param dimensioneSegmento Dimensione (in byte) massima di un segmento, superata la quale viene aperto un nuovo segmento (rotazione).
+     * @param durataSegmentoMs Tempo (in millisecondi) dopo il quale il segmento attivo viene ruotato alla scrittura successiva. 0 per ruotare solo per dimensione.
+     * @param segmentiMassimi Numero massimo di segmenti, compreso quello attivo: a ogni rotazione vengono eliminati i più vecchi. 0 per non limitarlo.
+     * @param byteMassimi Dimensione (in byte) massima complessiva dei segmenti, verificata a ogni rotazione. 0 per non limitarla.
+     * @see #leggiSegmenti()
+     * @see #fermaLogSegmentato()
+     */
+    public void avviaLogSegmentato(long dimensioneSegmento, long durataSegmentoMs, int segmentiMassimi, long byteMassimi) {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(this.logSegmentato != null) {
+                    if(this.mostraAvvisi) System.err.println("Log segmentato già avviato tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da avviaLogSegmentato().");
+                    return;
+                }
+                try {
+                    this.logSegmentato = new LogSegmentato(this.fileDaGestire, dimensioneSegmento, durataSegmentoMs, segmentiMassimi, byteMassimi);
+                    MetricheJFM.risorseAperte(1);
+                } catch (IOException | IllegalArgumentException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante l'avvio del log segmentato tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da avviaLogSegmentato().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da avviaLogSegmentato().");
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di fermare il log segmentato, chiudendo il segmento attivo. I segmenti scritti restano leggibili con leggiSegmenti().
+     *
+     * @see #avviaLogSegmentato(long, long, int, long)
+     */
+    public void fermaLogSegmentato() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.logSegmentato == null) return;
+            try {
+                this.logSegmentato.close();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da fermaLogSegmentato().");
+            } finally {
+                this.logSegmentato = null;
+                MetricheJFM.risorseAperte(-1);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere le righe di tutti i segmenti del log, dal più vecchio, senza caricarli in memoria.
+     * I segmenti vengono cercati sul disco, per cui il log può essere letto anche da un JFM diverso da quello che lo scrive. I segmenti eliminati durante la lettura vengono saltati.
+     * Lo Stream mantiene aperto il segmento in lettura e deve essere chiuso, ad esempio con try-with-resources.
+     *
+     * @return Stream delle righe dei segmenti, prive del terminatore di riga. Null se non è stato inserito alcun file da gestire.
+     * @see #avviaLogSegmentato(long, long, int, long)
+     */
+    public Stream<String> leggiSegmenti() {
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiSegmenti().");
+                return null;
+            }
+            Charset charset = Charset.defaultCharset();
+            return LogSegmentato.segmenti(this.fileDaGestire).stream().flatMap(segmento -> LogSegmentato.righe(segmento, charset));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di conoscere i segmenti del log presenti sul disco.
+     *
+     * @return Segmenti del log, dal più vecchio. Vuota se il log non ha segmenti o se non è stato inserito alcun file da gestire.
+     */
+    public List<File> segmentiLog() {
+        blocca(this.lock.readLock());
+        try {
+            return this.fileDaGestire == null ? new ArrayList<>() : LogSegmentato.segmenti(this.fileDaGestire);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che scrive una riga nel segmento attivo del log segmentato, invocato da scrivi() mentre il log è avviato.
+     *
+     * @param testoDaScrivere Testo da scrivere.
+     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     * @param inizio Istante di inizio della scrittura, per le metriche.
+     */
+    private void scriviSegmento(String testoDaScrivere, boolean mandaACapo, long inizio) {
+        try {
+            registra(OperazioneIO.SCRIVI, inizio, this.logSegmentato.scrivi(testoDaScrivere, mandaACapo));
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del log segmentato tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scrivi().");
+        }
+    }
+
+    /**
+     * Metodo che permette di serializzare un oggetto in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param oggettoDaSerializzare Oggetto da serializzare.
+     */
+    public void scriviOggetto(Object oggettoDaSerializzare) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(oggettoDaSerializzare instanceof Serializable || !(this.codec instanceof CodecSerializzazioneJava)){
+                    svuotaScrittura("scriviOggetto()");
+                    try (FileOutputStream outputFile = new FileOutputStream(this.fileDaGestire, true); OutputStream outputOggetto = new BufferedOutputStream(outputFile)) {
+                        long posizione = inizio != 0 ? outputFile.getChannel().position() : 0;
+                        this.codec.scrivi(oggettoDaSerializzare, outputOggetto);
+                        outputOggetto.flush();
+                        if(inizio != 0) registra(OperazioneIO.SCRIVI_OGGETTO, inizio, outputFile.getChannel().position() - posizione);
+                    } catch (IOException e) {
+                        if(this.mostraAvvisi) System.err.println("Errore durante la serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                    }
+                } else {
+                    if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. L'oggetto inserito non è serializzabile.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviOggetto().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di serializzare un oggetto in un file.
+     *
+     * @param oggettoDaSerializzare Oggetto da serializzare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviOggetto(Object oggettoDaSerializzare, boolean cancellaContenutoPrecedente) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if (oggettoDaSerializzare instanceof Serializable || !(this.codec instanceof CodecSerializzazioneJava)){
+                    preparaScrittura(cancellaContenutoPrecedente, "scriviOggetto()");
+                    try (FileOutputStream outputFile = new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente); OutputStream outputOggetto = new BufferedOutputStream(outputFile)) {
+                        long posizione = inizio != 0 ? outputFile.getChannel().position() : 0;
+                        this.codec.scrivi(oggettoDaSerializzare, outputOggetto);
+                        outputOggetto.flush();
+                        if(inizio != 0) registra(OperazioneIO.SCRIVI_OGGETTO, inizio, outputFile.getChannel().position() - posizione);
+                    } catch (IOException e) {
+                        if(this.mostraAvvisi) System.err.println("Errore durante la serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                    }
+                } else {
+                    if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. L'oggetto inserito non è serializzabile.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggetto().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviOggetto().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di de-serializzare un oggetto da un file.
+     *
+     * @see #scriviOggetto(Object)
+     * @see #scriviOggetto(Object, boolean)
+     * @return Oggetto de-serializzato. Null in caso di errore durante la de-serializzazione del file.
+     */
+    public Object leggiOggetto() {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try (FileInputStream inputFile = new FileInputStream(this.fileDaGestire); InputStream inputOggetto = new BufferedInputStream(inputFile)) {
+                    Object oggetto = this.codec.leggi(inputOggetto);
+                    if(inizio != 0) registra(OperazioneIO.LEGGI_OGGETTO, inizio, inputFile.getChannel().position());
+                    return oggetto;
+                } catch (IOException | ClassNotFoundException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la de-serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiOggetto().");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile de-serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiOggetto().");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Setter dell'attributo boolean indiceOggetti.
+     * Se abilitato, scriviOggettoLog() aggiorna il file indice (con estensione .jfmidx) che permette a leggiOggetto(long) di accedere direttamente all'n-esimo record.
+     * All'abilitazione, l'indice viene ricostruito a partire dal log esistente. Le operazioni di JFM che cancellano o sostituiscono il contenuto del file eliminano l'indice, che viene ricostruito dalla scrittura successiva.
+     *
+     * @param indiceOggetti Variabile che indica se mantenere o meno il file indice del log di oggetti.
+     */
+    public void setIndiceOggetti(boolean indiceOggetti) {
+        blocca(this.lock.writeLock());
+        try {
+            this.indiceOggetti = indiceOggetti;
+            if(indiceOggetti && this.fileDaGestire != null) {
+                try {
+                    ricostruisciIndiceOggetti();
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la creazione dell'indice del log di oggetti tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da setIndiceOggetti().");
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che ricostruisce il file indice del log di oggetti a partire dal log.
+     *
+     * @throws IOException Se il file non è un log di oggetti o in caso di errore durante la lettura o la scrittura.
+     */
+    private void ricostruisciIndiceOggetti() throws IOException {
+        try (DataInputStream inputLog = new DataInputStream(new BufferedInputStream(new FileInputStream(this.fileDaGestire)))) {
+            long posizione = this.fileDaGestire.length() == 0 ? 0 : LogOggetti.DIMENSIONE_INTESTAZIONE;
+            if(posizione > 0) LogOggetti.verificaIntestazione(inputLog);
+            try (DataOutputStream outputIndice = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(LogOggetti.fileIndice(this.fileDaGestire))))) {
+                while(posizione < this.fileDaGestire.length()) {
+                    outputIndice.writeLong(posizione);
+                    int lunghezza = LogOggetti.leggiLunghezza(inputLog);
+                    inputLog.skipNBytes(lunghezza);
+                    posizione += Integer.BYTES + lunghezza;
+                }
+            }
+        }
+    }
+
+    /**
+     * Metodo che permette di aggiungere un oggetto serializzato al log di oggetti del file.
+     * A differenza di scriviOggetto(), il log ha un'unica intestazione, i descrittori delle classi sono ridotti al solo nome e ogni record è preceduto dalla sua lunghezza:
+     * tutti gli oggetti possono quindi essere letti con leggiOggetti() o, singolarmente, con leggiOggetto(long).
+     *
+     * @param oggettoDaSerializzare Oggetto da serializzare.
+     * @see #leggiOggetti()
+     * @see #leggiOggetto(long)
+     */
+    public void scriviOggettoLog(Object oggettoDaSerializzare) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(oggettoDaSerializzare instanceof Serializable || !(this.codec instanceof CodecSerializzazioneJava)) {
+                    svuotaScrittura("scriviOggettoLog()");
+                    try {
+                        byte[] record = codificaRecord(oggettoDaSerializzare);
+                        long posizione;
+                        try (FileOutputStream outputFile = new FileOutputStream(this.fileDaGestire, true)) {
+                            posizione = outputFile.getChannel().size();
+                            ByteArrayOutputStream bytes = new ByteArrayOutputStream(LogOggetti.DIMENSIONE_INTESTAZIONE + Integer.BYTES + record.length);
+                            DataOutputStream outputLog = new DataOutputStream(bytes);
+                            if(posizione == 0) {
+                                LogOggetti.scriviIntestazione(outputLog);
+                                posizione = LogOggetti.DIMENSIONE_INTESTAZIONE;
+                            }
+                            outputLog.writeInt(record.length);
+                            outputLog.write(record);
+                            bytes.writeTo(outputFile);
+                            registra(OperazioneIO.SCRIVI_OGGETTO, inizio, bytes.size());
+                        }
+                        if(!this.indiceOggetti && posizione == LogOggetti.DIMENSIONE_INTESTAZIONE) {
+                            Files.deleteIfExists(LogOggetti.fileIndice(this.fileDaGestire).toPath());
+                        } else if(this.indiceOggetti && posizione != LogOggetti.DIMENSIONE_INTESTAZIONE && !LogOggetti.fileIndice(this.fileDaGestire).isFile()) {
+                            ricostruisciIndiceOggetti();
+                        } else if(this.indiceOggetti) {
+                            try (DataOutputStream outputIndice = new DataOutputStream(new FileOutputStream(LogOggetti.fileIndice(this.fileDaGestire), posizione != LogOggetti.DIMENSIONE_INTESTAZIONE))) {
+                                outputIndice.writeLong(posizione);
+                            }
+                        }
+                    } catch (IOException e) {
+                        if(this.mostraAvvisi) System.err.println("Errore durante la serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggettoLog().");
+                    }
+                } else {
+                    if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. L'oggetto inserito non è serializzabile.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviOggettoLog().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da scriviOggettoLog().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere tutti gli oggetti del log di oggetti del file, uno alla volta.
+     * Gli oggetti vengono de-serializzati solo quando richiesti dallo Stream, che mantiene il file aperto e deve essere chiuso, ad esempio con try-with-resources.
+     * Eventuali errori durante la lettura vengono segnalati dallo Stream tramite UncheckedIOException.
+     *
+     * @return Stream degli oggetti del log. Null in caso di errore durante l'apertura del file.
+     * @see #scriviOggettoLog(Object)
+     */
+    public Stream<Object> leggiOggetti() {
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    DataInputStream inputLog = new DataInputStream(new BufferedInputStream(new FileInputStream(this.fileDaGestire)));
+                    Iterator<Object> oggetti;
+                    try {
+                        if(this.fileDaGestire.length() > 0) LogOggetti.verificaIntestazione(inputLog);
+                        oggetti = iteratoreLog(inputLog);
+                    } catch (IOException e) {
+                        inputLog.close();
+                        throw e;
+                    } catch (UncheckedIOException e) {
+                        inputLog.close();
+                        throw e.getCause();
+                    }
+                    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(oggetti, Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                        try {
+                            inputLog.close();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la de-serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiOggetti().");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile de-serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiOggetti().");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che restituisce un Iterator sui record di un log di oggetti, letti da uno stream posizionato dopo l'intestazione.
+     * Il primo record viene letto alla creazione: un errore durante la sua lettura viene segnalato tramite UncheckedIOException.
+     *
+     * @param inputLog Stream del log, che non viene chiuso dall'Iterator.
+     * @return Iterator degli oggetti del log.
+     */
+    private Iterator<Object> iteratoreLog(DataInputStream inputLog) {
+        return new Iterator<>() {
+            private byte[] prossimo = leggiRecord();
+
+            private byte[] leggiRecord() {
+                try {
+                    byte[] record = new byte[LogOggetti.leggiLunghezza(inputLog)];
+                    inputLog.readFully(record);
+                    return record;
+                } catch (EOFException e) {
+                    return null;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.prossimo != null;
+            }
+
+            @Override
+            public Object next() {
+                if(this.prossimo == null) throw new NoSuchElementException();
+                try {
+                    return decodificaRecord(this.prossimo);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new UncheckedIOException(new InvalidClassException(e.getMessage()));
+                } finally {
+                    this.prossimo = leggiRecord();
+                }
+            }
+        };
+    }
+
+    /**
+     * Metodo che permette di leggere l'n-esimo oggetto del log di oggetti del file.
+     * Se è presente il file indice (vedi setIndiceOggetti()), il record viene letto direttamente, altrimenti vengono saltati i record precedenti senza de-serializzarli.
+     *
+     * @param n Indice dell'oggetto da leggere, a partire da 0.
+     * @return Oggetto de-serializzato. Null in caso di errore durante la de-serializzazione, se n è negativo o se il log contiene meno di n + 1 oggetti.
+     * @see #scriviOggettoLog(Object)
+     */
+    public Object leggiOggetto(long n) {
+        if(n < 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile de-serializzare l'oggetto tramite JFM. L'indice dell'oggetto non può essere negativo.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiOggetto(long).");
+            return null;
+        }
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire != null) {
+                try (RandomAccessFile inputLog = new RandomAccessFile(this.fileDaGestire, "r")) {
+                    LogOggetti.verificaIntestazione(inputLog);
+                    long posizione = -1;
+                    File fileIndice = LogOggetti.fileIndice(this.fileDaGestire);
+                    if(fileIndice.length() >= (n + 1) * Long.BYTES) {
+                        try (RandomAccessFile inputIndice = new RandomAccessFile(fileIndice, "r")) {
+                            inputIndice.seek(n * Long.BYTES);
+                            posizione = inputIndice.readLong();
+                        }
+                    }
+                    if(posizione < LogOggetti.DIMENSIONE_INTESTAZIONE || posizione >= inputLog.length()) {
+                        posizione = LogOggetti.DIMENSIONE_INTESTAZIONE;
+                        for(long i = 0; i < n; i++) {
+                            inputLog.seek(posizione);
+                            posizione += Integer.BYTES + LogOggetti.leggiLunghezza(inputLog);
+                        }
+                    }
+                    inputLog.seek(posizione);
+                    byte[] record = new byte[LogOggetti.leggiLunghezza(inputLog)];
+                    inputLog.readFully(record);
+                    Object oggetto = decodificaRecord(record);
+                    registra(OperazioneIO.LEGGI_OGGETTO, inizio, Integer.BYTES + record.length);
+                    return oggetto;
+                } catch (IOException | ClassNotFoundException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la de-serializzazione dell'oggetto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiOggetto(long).");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile de-serializzare l'oggetto tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiOggetto(long).");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che codifica un oggetto come record del log di oggetti.
+     * Con la serializzazione Java viene utilizzato il formato ridotto del log, altrimenti il codec impostato.
+     *
+     * @param oggetto Oggetto da codificare.
+     * @return Byte del record.
+     * @throws IOException In caso di errore durante la codifica.
+     */
+    private byte[] codificaRecord(Object oggetto) throws IOException {
+        if(this.codec instanceof CodecSerializzazioneJava) return LogOggetti.codifica(oggetto);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        this.codec.scrivi(oggetto, bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Metodo che decodifica un record del log di oggetti.
+     *
+     * @param record Byte del record.
+     * @return Oggetto decodificato.
+     * @throws IOException In caso di errore durante la decodifica.
+     * @throws ClassNotFoundException Se la classe dell'oggetto non è disponibile.
+     */
+    private Object decodificaRecord(byte[] record) throws IOException, ClassNotFoundException {
+        if(this.codec instanceof CodecSerializzazioneJava) return LogOggetti.decodifica(record);
+        return this.codec.leggi(new ByteArrayInputStream(record));
+    }
+
+    /**
+     * Metodo che permette di scrivere una stringa UTF in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scriviTipizzato(String testoDaScrivere) {
+        scriviTipizzato(outputTesto -> outputTesto.writeUTF(testoDaScrivere), false, "scriviTipizzato(String)");
+    }
+
+    /**
+     * Metodo che permette di scrivere una stringa UTF in un file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param cancellaContenutoPrecedente  Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(String testoDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(outputTesto -> outputTesto.writeUTF(testoDaScrivere), cancellaContenutoPrecedente, "scriviTipizzato(String)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero int in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scriviTipizzato(int testoDaScrivere) {
+        scriviTipizzato(outputTesto -> outputTesto.writeInt(testoDaScrivere), false, "scriviTipizzato(int)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero int in un file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(int testoDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(outputTesto -> outputTesto.writeInt(testoDaScrivere), cancellaContenutoPrecedente, "scriviTipizzato(int)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero long (8 byte, big-endian) in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scriviTipizzato(long testoDaScrivere) {
+        scriviTipizzato(outputTesto -> outputTesto.writeLong(testoDaScrivere), false, "scriviTipizzato(long)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero long (8 byte, big-endian) in un file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(long testoDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(outputTesto -> outputTesto.writeLong(testoDaScrivere), cancellaContenutoPrecedente, "scriviTipizzato(long)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero double in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scriviTipizzato(double testoDaScrivere) {
+        scriviTipizzato(outputTesto -> outputTesto.writeDouble(testoDaScrivere), false, "scriviTipizzato(double)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero double in un file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(double testoDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(outputTesto -> outputTesto.writeDouble(testoDaScrivere), cancellaContenutoPrecedente, "scriviTipizzato(double)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero float in un file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     */
+    public void scriviTipizzato(float testoDaScrivere) {
+        scriviTipizzato(outputTesto -> outputTesto.writeFloat(testoDaScrivere), false, "scriviTipizzato(float)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un numero float in un file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(float testoDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(outputTesto -> outputTesto.writeFloat(testoDaScrivere), cancellaContenutoPrecedente, "scriviTipizzato(float)");
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri int in un file, codificandolo a blocchi invece che un elemento alla volta. Di default, non cancella il contenuto precedente del file.
+     * Il formato è lo stesso di scriviTipizzato(int) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     */
+    public void scriviTipizzato(int[] valoriDaScrivere) {
+        scriviTipizzato(valoriDaScrivere, false, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri int in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Il formato è lo stesso di scriviTipizzato(int) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(int[] valoriDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(valoriDaScrivere, cancellaContenutoPrecedente, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri int in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Con ByteOrder.nativeOrder() la codifica è la più veloce, ma il file dovrà essere letto indicando lo stesso ordine.
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param ordine Ordine dei byte con cui scrivere i numeri. ByteOrder.BIG_ENDIAN è compatibile con leggiInt().
+     */
+    public void scriviTipizzato(int[] valoriDaScrivere, boolean cancellaContenutoPrecedente, ByteOrder ordine) {
+        scriviBlocco(valoriDaScrivere.length, Integer.BYTES, (blocco, inizio, quanti) -> blocco.asIntBuffer().put(valoriDaScrivere, inizio, quanti), cancellaContenutoPrecedente, ordine, "scriviTipizzato(int[])");
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri long in un file, codificandolo a blocchi invece che un elemento alla volta. Di default, non cancella il contenuto precedente del file.
+     * Ogni numero occupa 8 byte (big-endian), come in scriviTipizzato(long), e può essere letto con leggiLong().
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     */
+    public void scriviTipizzato(long[] valoriDaScrivere) {
+        scriviTipizzato(valoriDaScrivere, false, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri long in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Ogni numero occupa 8 byte (big-endian), come in scriviTipizzato(long), e può essere letto con leggiLong().
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(long[] valoriDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(valoriDaScrivere, cancellaContenutoPrecedente, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri long in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Con ByteOrder.nativeOrder() la codifica è la più veloce, ma il file dovrà essere letto indicando lo stesso ordine.
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param ordine Ordine dei byte con cui scrivere i numeri. ByteOrder.BIG_ENDIAN è compatibile con leggiLong().
+     */
+    public void scriviTipizzato(long[] valoriDaScrivere, boolean cancellaContenutoPrecedente, ByteOrder ordine) {
+        scriviBlocco(valoriDaScrivere.length, Long.BYTES, (blocco, inizio, quanti) -> blocco.asLongBuffer().put(valoriDaScrivere, inizio, quanti), cancellaContenutoPrecedente, ordine, "scriviTipizzato(long[])");
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri float in un file, codificandolo a blocchi invece che un elemento alla volta. Di default, non cancella il contenuto precedente del file.
+     * Il formato è lo stesso di scriviTipizzato(float) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     */
+    public void scriviTipizzato(float[] valoriDaScrivere) {
+        scriviTipizzato(valoriDaScrivere, false, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri float in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Il formato è lo stesso di scriviTipizzato(float) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(float[] valoriDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(valoriDaScrivere, cancellaContenutoPrecedente, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri float in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Con ByteOrder.nativeOrder() la codifica è la più veloce, ma il file dovrà essere letto indicando lo stesso ordine.
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param ordine Ordine dei byte con cui scrivere i numeri. ByteOrder.BIG_ENDIAN è compatibile con leggiFloat().
+     */
+    public void scriviTipizzato(float[] valoriDaScrivere, boolean cancellaContenutoPrecedente, ByteOrder ordine) {
+        scriviBlocco(valoriDaScrivere.length, Float.BYTES, (blocco, inizio, quanti) -> blocco.asFloatBuffer().put(valoriDaScrivere, inizio, quanti), cancellaContenutoPrecedente, ordine, "scriviTipizzato(float[])");
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri double in un file, codificandolo a blocchi invece che un elemento alla volta. Di default, non cancella il contenuto precedente del file.
+     * Il formato è lo stesso di scriviTipizzato(double) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     */
+    public void scriviTipizzato(double[] valoriDaScrivere) {
+        scriviTipizzato(valoriDaScrivere, false, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri double in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Il formato è lo stesso di scriviTipizzato(double) (big-endian).
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     */
+    public void scriviTipizzato(double[] valoriDaScrivere, boolean cancellaContenutoPrecedente) {
+        scriviTipizzato(valoriDaScrivere, cancellaContenutoPrecedente, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di scrivere un array di numeri double in un file, codificandolo a blocchi invece che un elemento alla volta.
+     * Con ByteOrder.nativeOrder() la codifica è la più veloce, ma il file dovrà essere letto indicando lo stesso ordine.
+     *
+     * @param valoriDaScrivere Numeri da scrivere nel file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @param ordine Ordine dei byte con cui scrivere i numeri. ByteOrder.BIG_ENDIAN è compatibile con leggiDouble().
+     */
+    public void scriviTipizzato(double[] valoriDaScrivere, boolean cancellaContenutoPrecedente, ByteOrder ordine) {
+        scriviBlocco(valoriDaScrivere.length, Double.BYTES, (blocco, inizio, quanti) -> blocco.asDoubleBuffer().put(valoriDaScrivere, inizio, quanti), cancellaContenutoPrecedente, ordine, "scriviTipizzato(double[])");
+    }
+
+    /**
+     * Dimensione massima (in byte) del blocco utilizzato per codificare gli array di dati tipizzati.
+     */
+    private static final int DIMENSIONE_BLOCCO_SCRITTURA = 1024 * 1024;
+
+    /**
+     * Codifica di una porzione di array in un blocco di byte.
+     */
+    private interface CodificaBlocco {
+        void codifica(ByteBuffer blocco, int inizio, int quanti);
+    }
+
+    /**
+     * Metodo che scrive un array di dati tipizzati codificandolo tramite le viste di un ByteBuffer, un blocco alla volta.
+     * Se è aperta una sessione di scrittura i blocchi vengono scritti nel suo stream, altrimenti direttamente nel canale del file.
+     *
+     * @param elementi Numero di elementi dell'array.
+     * @param dimensioneElemento Dimensione (in byte) di un elemento.
+     * @param codifica Operazione che codifica una porzione dell'array nel blocco.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param ordine Ordine dei byte con cui scrivere gli elementi.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void scriviBlocco(int elementi, int dimensioneElemento, CodificaBlocco codifica, boolean cancellaContenutoPrecedente, ByteOrder ordine, String generatoDa) {
+        long inizioOperazione = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(cancellaContenutoPrecedente) preparaSovrascrittura(generatoDa);
+                ByteBuffer blocco = ByteBuffer.allocate((int) Math.min((long) elementi * dimensioneElemento, DIMENSIONE_BLOCCO_SCRITTURA)).order(ordine);
+                int elementiPerBlocco = Math.max(1, blocco.capacity() / dimensioneElemento);
+                if(this.outputStreamTipizzato != null) {
+                    try {
+                        if(cancellaContenutoPrecedente) this.canaleScritturaTipizzata.truncate(0);
+                        for(int inizio = 0; inizio < elementi; inizio += elementiPerBlocco) {
+                            int quanti = Math.min(elementiPerBlocco, elementi - inizio);
+                            codifica.codifica(blocco, inizio, quanti);
+                            this.outputStreamTipizzato.write(blocco.array(), 0, quanti * dimensioneElemento);
+                        }
+                        registra(OperazioneIO.SCRIVI_TIPIZZATO, inizioOperazione, (long) elementi * dimensioneElemento);
+                    } catch (IOException e) {
+                        if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    }
+                    return;
+                }
+                try (FileChannel canale = new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente).getChannel()) {
+                    for(int inizio = 0; inizio < elementi; inizio += elementiPerBlocco) {
+                        int quanti = Math.min(elementiPerBlocco, elementi - inizio);
+                        codifica.codifica(blocco, inizio, quanti);
+                        blocco.limit(quanti * dimensioneElemento).position(0);
+                        while(blocco.hasRemaining()) canale.write(blocco);
+                        blocco.clear();
+                    }
+                    registra(OperazioneIO.SCRIVI_TIPIZZATO, inizioOperazione, (long) elementi * dimensioneElemento);
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di aprire una sessione di scrittura di dati tipizzati. Di default, non cancella il contenuto precedente del file.
+     * Fino all'invocazione di chiudiScrittura(), i metodi scriviTipizzato() utilizzano un unico stream bufferizzato invece di aprire e chiudere il file ad ogni invocazione.
+     *
+     * @see #chiudiScrittura()
+     */
+    public void apriScrittura() {
+        apriScrittura(false);
+    }
+
+    /**
+     * Metodo che permette di aprire una sessione di scrittura di dati tipizzati.
+     * Fino all'invocazione di chiudiScrittura(), i metodi scriviTipizzato() utilizzano un unico stream bufferizzato invece di aprire e chiudere il file ad ogni invocazione.
+     * I dati vengono scritti sul file al riempimento del buffer, alla lettura di dati tipizzati e alla chiusura della sessione.
+     *
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il file verrà aperto in modalità append.
+     * @see #chiudiScrittura()
+     */
+    public void apriScrittura(boolean cancellaContenutoPrecedente) {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(this.outputStreamTipizzato != null) {
+                    if(this.mostraAvvisi) System.err.println("Sessione di scrittura già aperta tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriScrittura().");
+                    return;
+                }
+                if(cancellaContenutoPrecedente) preparaSovrascrittura("apriScrittura()");
+                try {
+                    FileOutputStream outputFile = new FileOutputStream(this.fileDaGestire, true);
+                    try {
+                        if(cancellaContenutoPrecedente) outputFile.getChannel().truncate(0);
+                    } catch (IOException e) {
+                        outputFile.close();
+                        throw e;
+                    }
+                    this.canaleScritturaTipizzata = outputFile.getChannel();
+                    this.bufferScrittura = new BufferScrittura(outputFile, DIMENSIONE_BUFFER_SCRITTURA);
+                    this.outputStreamTipizzato = new DataOutputStream(this.bufferScrittura);
+                    this.byteSvuotati = 0;
+                    if(cancellaContenutoPrecedente) invalidaCache();
+                    MetricheJFM.risorseAperte(1);
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante l'apertura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriScrittura().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da apriScrittura().");
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di chiudere la sessione di scrittura di dati tipizzati, scrivendo sul file i dati ancora presenti nel buffer.
+     *
+     * @see #apriScrittura(boolean)
+     */
+    public void chiudiScrittura() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.outputStreamTipizzato == null) return;
+            try {
+                this.outputStreamTipizzato.close();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da chiudiScrittura().");
+            } finally {
+                this.outputStreamTipizzato = null;
+                this.bufferScrittura = null;
+                this.canaleScritturaTipizzata = null;
+                MetricheJFM.risorseAperte(-1);
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere sul file i dati presenti nel buffer della sessione di scrittura, se aperta.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void svuotaScrittura(String generatoDa) {
+        if(this.outputStreamTipizzato == null) return;
+        try {
+            this.outputStreamTipizzato.flush();
+            this.byteSvuotati = this.bufferScrittura.scritti();
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+        }
+        invalidaCache();
+    }
+
+    /**
+     * Metodo che verifica se la sessione di scrittura o il file di record aperto contengono dati non ancora scritti sul file. Deve essere invocato con un lock di JFM.
+     *
+     * @return True se ci sono dati da scrivere sul file prima di leggerlo.
+     */
+    private boolean scritturaInSospeso() {
+        return (this.outputStreamTipizzato != null && this.bufferScrittura.scritti() != this.byteSvuotati) || (this.scrittoreRecord != null && this.scrittoreRecord.inSospeso());
+    }
+
+    /**
+     * Metodo che scrive sul file i dati in memoria della sessione di scrittura e del file di record aperto, con il lock di scrittura.
+     * Se il thread possiede solo il lock di lettura, i dati sono già stati scritti da chi lo ha acquisito.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void svuotaInSospeso(String generatoDa) {
+        if(this.lock.getReadHoldCount() > 0 && !this.lock.isWriteLockedByCurrentThread()) return;
+        blocca(this.lock.writeLock());
+        try {
+            svuotaScrittura(generatoDa);
+            svuotaRecord(generatoDa);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che acquisisce il lock di lettura per un'operazione che legge il file, scrivendo prima sul file gli eventuali dati in memoria della sessione di scrittura e del file di record.
+     * La scrittura modifica lo stato di JFM, per cui avviene con il lock di scrittura, che viene poi declassato a lock di lettura senza permettere altre scritture nel frattempo.
+     * Il lock di lettura deve essere rilasciato dal chiamante.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void bloccaLettura(String generatoDa) {
+        blocca(this.lock.readLock());
+        if(!scritturaInSospeso()) return;
+        if(this.lock.isWriteLockedByCurrentThread()) {
+            svuotaScrittura(generatoDa);
+            svuotaRecord(generatoDa);
+            return;
+        }
+        if(this.lock.getReadHoldCount() > 1) return;
+        this.lock.readLock().unlock();
+        blocca(this.lock.writeLock());
+        try {
+            svuotaScrittura(generatoDa);
+            svuotaRecord(generatoDa);
+        } finally {
+            this.lock.readLock().lock();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Operazione di scrittura di un dato tipizzato.
+     */
+    private interface ScritturaTipizzata {
+        void scrivi(DataOutputStream outputTesto) throws IOException;
+    }
+
+    /**
+     * Metodo che esegue una scrittura di dati tipizzati, utilizzando la sessione di scrittura se aperta oppure uno stream dedicato.
+     *
+     * @param scrittura Operazione di scrittura da eseguire.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void scriviTipizzato(ScritturaTipizzata scrittura, boolean cancellaContenutoPrecedente, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(cancellaContenutoPrecedente) preparaSovrascrittura(generatoDa);
+                if(this.outputStreamTipizzato != null) {
+                    try {
+                        if(cancellaContenutoPrecedente) this.canaleScritturaTipizzata.truncate(0);
+                        long scritti = this.bufferScrittura.scritti();
+                        scrittura.scrivi(this.outputStreamTipizzato);
+                        registra(OperazioneIO.SCRIVI_TIPIZZATO, inizio, this.bufferScrittura.scritti() - scritti);
+                    } catch (IOException e) {
+                        if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    }
+                    return;
+                }
+                try (DataOutputStream outputTesto = new DataOutputStream(new FileOutputStream(this.fileDaGestire, !cancellaContenutoPrecedente))) {
+                    scrittura.scrivi(outputTesto);
+                    registra(OperazioneIO.SCRIVI_TIPIZZATO, inizio, outputTesto.size());
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere una stringa UTF da un file.
+     *
+     * @return Stringa UTF letta dal file. Null in caso di errore durante la lettura del file.
+     */
+    public String leggiString() {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura("leggiString()");
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    LettoreTipizzato cursore = cursore();
+                    long posizione = cursore.posizione();
+                    String testo = cursore.leggiUTF();
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, cursore.posizione() - posizione);
+                    return testo;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiString().");
+                    return null;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiString().");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere un numero int da un file.
+     *
+     * @return Numero int letto dal file. 0 in caso di errore durante la lettura del file.
+     */
+    public int leggiInt() {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura("leggiInt()");
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    int valore = cursore().leggiInt();
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, Integer.BYTES);
+                    return valore;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiInt().");
+                    return 0;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiInt().");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere un numero double da un file.
      *
      * @return Numero double letto dal file. 0 in caso di errore durante la lettura del file.
      */
-    public synchronized double leggiDouble() {
-        if(this.fileDaGestire != null) {
+    public double leggiDouble() {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura("leggiDouble()");
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    double valore = cursore().leggiDouble();
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, Double.BYTES);
+                    return valore;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiDouble().");
+                    return 0;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiDouble().");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere un numero float da un file.
+     *
+     * @return Numero float letto dal file. 0 in caso di errore durante la lettura del file.
+     */
+    public float leggiFloat() {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura("leggiFloat()");
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    float valore = cursore().leggiFloat();
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, Float.BYTES);
+                    return valore;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiFloat().");
+                    return 0;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiFloat().");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere un numero long da un file.
+     *
+     * @return Numero long letto dal file. 0 in caso di errore durante la lettura del file.
+     */
+    public long leggiLong() {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura("leggiLong()");
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    long valore = cursore().leggiLong();
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, Long.BYTES);
+                    return valore;
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiLong().");
+                    return 0;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiLong().");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri int da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @return Numero di int letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     */
+    public int leggiInt(int[] destinazione, int inizio, int lunghezza) {
+        return leggiInt(destinazione, inizio, lunghezza, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri int da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Numero di int letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     * @see #scriviTipizzato(int[], boolean, ByteOrder)
+     */
+    public int leggiInt(int[] destinazione, int inizio, int lunghezza, ByteOrder ordine) {
+        return leggiBlocco(lettore -> lettore.leggi(destinazione, inizio, lunghezza, ordine), "leggiInt(int[], int, int)");
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri int da un file.
+     *
+     * @param n Numero di int da leggere.
+     * @return Array dei numeri int letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public int[] leggiInts(int n) {
+        return leggiInts(n, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri int da un file.
+     *
+     * @param n Numero di int da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Array dei numeri int letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public int[] leggiInts(int n, ByteOrder ordine) {
+        if(n < 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il numero di int da leggere non può essere negativo.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiInts(int, ByteOrder).");
+            return null;
+        }
+        int[] letti = new int[n];
+        int quanti = leggiInt(letti, 0, n, ordine);
+        return quanti < 0 ? null : (quanti < n ? Arrays.copyOf(letti, quanti) : letti);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri long da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @return Numero di long letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     */
+    public int leggiLong(long[] destinazione, int inizio, int lunghezza) {
+        return leggiLong(destinazione, inizio, lunghezza, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri long da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Numero di long letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     * @see #scriviTipizzato(long[], boolean, ByteOrder)
+     */
+    public int leggiLong(long[] destinazione, int inizio, int lunghezza, ByteOrder ordine) {
+        return leggiBlocco(lettore -> lettore.leggi(destinazione, inizio, lunghezza, ordine), "leggiLong(long[], int, int)");
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri long da un file.
+     *
+     * @param n Numero di long da leggere.
+     * @return Array dei numeri long letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public long[] leggiLongs(int n) {
+        return leggiLongs(n, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri long da un file.
+     *
+     * @param n Numero di long da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Array dei numeri long letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public long[] leggiLongs(int n, ByteOrder ordine) {
+        if(n < 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il numero di long da leggere non può essere negativo.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiLongs(int, ByteOrder).");
+            return null;
+        }
+        long[] letti = new long[n];
+        int quanti = leggiLong(letti, 0, n, ordine);
+        return quanti < 0 ? null : (quanti < n ? Arrays.copyOf(letti, quanti) : letti);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri float da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @return Numero di float letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     */
+    public int leggiFloat(float[] destinazione, int inizio, int lunghezza) {
+        return leggiFloat(destinazione, inizio, lunghezza, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri float da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Numero di float letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     * @see #scriviTipizzato(float[], boolean, ByteOrder)
+     */
+    public int leggiFloat(float[] destinazione, int inizio, int lunghezza, ByteOrder ordine) {
+        return leggiBlocco(lettore -> lettore.leggi(destinazione, inizio, lunghezza, ordine), "leggiFloat(float[], int, int)");
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri float da un file.
+     *
+     * @param n Numero di float da leggere.
+     * @return Array dei numeri float letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public float[] leggiFloats(int n) {
+        return leggiFloats(n, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri float da un file.
+     *
+     * @param n Numero di float da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Array dei numeri float letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public float[] leggiFloats(int n, ByteOrder ordine) {
+        if(n < 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il numero di float da leggere non può essere negativo.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiFloats(int, ByteOrder).");
+            return null;
+        }
+        float[] letti = new float[n];
+        int quanti = leggiFloat(letti, 0, n, ordine);
+        return quanti < 0 ? null : (quanti < n ? Arrays.copyOf(letti, quanti) : letti);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri double da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @return Numero di double letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     */
+    public int leggiDouble(double[] destinazione, int inizio, int lunghezza) {
+        return leggiDouble(destinazione, inizio, lunghezza, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere un blocco di numeri double da un file, decodificandoli in un'unica operazione.
+     *
+     * @param destinazione Array in cui inserire i numeri letti.
+     * @param inizio Indice dell'array dal quale inserire i numeri letti.
+     * @param lunghezza Numero massimo di numeri da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Numero di double letti, inferiore a lunghezza se il file termina prima. -1 in caso di errore durante la lettura del file.
+     * @see #scriviTipizzato(double[], boolean, ByteOrder)
+     */
+    public int leggiDouble(double[] destinazione, int inizio, int lunghezza, ByteOrder ordine) {
+        return leggiBlocco(lettore -> lettore.leggi(destinazione, inizio, lunghezza, ordine), "leggiDouble(double[], int, int)");
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri double da un file.
+     *
+     * @param n Numero di double da leggere.
+     * @return Array dei numeri double letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public double[] leggiDoubles(int n) {
+        return leggiDoubles(n, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di leggere n numeri double da un file.
+     *
+     * @param n Numero di double da leggere.
+     * @param ordine Ordine dei byte con cui sono stati scritti i numeri.
+     * @return Array dei numeri double letti, più corto di n se il file termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public double[] leggiDoubles(int n, ByteOrder ordine) {
+        if(n < 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Il numero di double da leggere non può essere negativo.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiDoubles(int, ByteOrder).");
+            return null;
+        }
+        double[] letti = new double[n];
+        int quanti = leggiDouble(letti, 0, n, ordine);
+        return quanti < 0 ? null : (quanti < n ? Arrays.copyOf(letti, quanti) : letti);
+    }
+
+    /**
+     * Lettura di un blocco di dati tipizzati.
+     */
+    private interface LetturaBlocco {
+        int leggi(LettoreTipizzato lettore) throws IOException;
+    }
+
+    /**
+     * Metodo che esegue la lettura di un blocco di dati tipizzati tramite il lettore bufferizzato.
+     *
+     * @param lettura Operazione di lettura da eseguire.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Numero di elementi letti. -1 in caso di errore durante la lettura del file.
+     */
+    private int leggiBlocco(LetturaBlocco lettura, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura(generatoDa);
+        try {
+            if(this.fileDaGestire != null) {
+                try {
+                    LettoreTipizzato cursore = cursore();
+                    long posizione = cursore.posizione();
+                    int letti = lettura.leggi(cursore);
+                    registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, cursore.posizione() - posizione);
+                    return letti;
+                } catch (IOException | IndexOutOfBoundsException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    return -1;
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return -1;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di mappare in memoria il file in sola lettura, per accedere ai dati tipizzati tramite indice (leggiIntAt(), leggiDoubleAt(), ...).
+     *
+     * @param dimensioneElemento Dimensione (in byte) degli elementi del file, ad esempio Integer.BYTES. Utilizzata da dimensioneInElementi(). Deve essere maggiore di 0.
+     * @see #chiudiMappatura()
+     */
+    public void apriMappatura(int dimensioneElemento) {
+        apriMappatura(dimensioneElemento, false);
+    }
+
+    /**
+     * Metodo che permette di mappare in memoria il file, per accedere ai dati tipizzati tramite indice come in un array di tipo primitivo.
+     * Il file deve contenere dati dello stesso tipo scritti con scriviTipizzato() (big-endian): l'elemento di indice i di un tipo di n byte si trova all'offset i * n.
+     * I file più grandi di 2 GB vengono mappati in più segmenti. La dimensione del file è quella al momento della mappatura.
+     * Le operazioni di JFM che cancellano o sostituiscono il contenuto del file (ad esempio cancellaContenuto()) e elimina() chiudono la mappatura, che va riaperta.
+     *
+     * @param dimensioneElemento Dimensione (in byte) degli elementi del file, ad esempio Integer.BYTES. Utilizzata da dimensioneInElementi(). Deve essere maggiore di 0.
+     * @param scrittura Variabile che indica se mappare il file anche in scrittura (scriviIntAt(), scriviDoubleAt(), ...).
+     * @see #chiudiMappatura()
+     */
+    public void apriMappatura(int dimensioneElemento, boolean scrittura) {
+        if(dimensioneElemento <= 0) {
+            if(this.mostraAvvisi) System.err.println("Impossibile mappare il file tramite JFM. La dimensione degli elementi deve essere maggiore di 0.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriMappatura().");
+            return;
+        }
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                chiudiMappatura();
+                svuotaScrittura("apriMappatura()");
+                try {
+                    this.mappatura = new MappaturaTipizzata(this.fileDaGestire, scrittura);
+                    this.dimensioneElementoMappato = dimensioneElemento;
+                    MetricheJFM.risorseAperte(1);
+                } catch (IOException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la mappatura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriMappatura().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile mappare il file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da apriMappatura().");
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di chiudere la mappatura in memoria del file, scrivendo su disco le eventuali modifiche.
+     *
+     * @see #apriMappatura(int, boolean)
+     */
+    public void chiudiMappatura() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.mappatura == null) return;
+            try {
+                this.mappatura.close();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da chiudiMappatura().");
+            } finally {
+                this.mappatura = null;
+                this.dimensioneElementoMappato = 0;
+                MetricheJFM.risorseAperte(-1);
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di conoscere il numero di elementi del file mappato in memoria.
+     *
+     * @return Numero di elementi della dimensione indicata in apriMappatura(). -1 se il file non è mappato.
+     */
+    public long dimensioneInElementi() {
+        blocca(this.lock.readLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("dimensioneInElementi()");
+            return mappatura == null ? -1 : mappatura.dimensione() / this.dimensioneElementoMappato;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che restituisce la mappatura in memoria del file, se aperta.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Mappatura del file. Null se il file non è mappato.
+     */
+    private MappaturaTipizzata mappatura(String generatoDa) {
+        if(this.mappatura == null && this.mostraAvvisi) System.err.println("Impossibile accedere al file tramite JFM. Il file non è mappato in memoria, invocare apriMappatura().\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+        return this.mappatura;
+    }
+
+    /**
+     * Metodo che permette di leggere il numero int di indice specificato dal file mappato in memoria.
+     *
+     * @param indice Indice del numero da leggere.
+     * @return Numero int letto dal file. 0 in caso di errore o di indice non valido.
+     * @see #apriMappatura(int, boolean)
+     */
+    public int leggiIntAt(long indice) {
+        blocca(this.lock.readLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("leggiIntAt(long)");
+            if(mappatura == null) return 0;
+            try {
+                return mappatura.leggiInt(indice);
+            } catch (IndexOutOfBoundsException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM. Indice " + indice + " non valido.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiIntAt(long).");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere il numero int di indice specificato nel file mappato in memoria.
+     * Non modifica la dimensione del file: l'indice deve essere inferiore a dimensioneInElementi().
+     *
+     * @param indice Indice del numero da scrivere.
+     * @param valore Numero da scrivere nel file.
+     * @see #apriMappatura(int, boolean)
+     */
+    public void scriviIntAt(long indice, int valore) {
+        blocca(this.lock.writeLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("scriviIntAt(long, int)");
+            if(mappatura == null) return;
+            try {
+                mappatura.scriviInt(indice, valore);
+            } catch (IndexOutOfBoundsException | ReadOnlyBufferException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM. Indice " + indice + " non valido o file mappato in sola lettura.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviIntAt(long, int).");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere il numero long di indice specificato dal file mappato in memoria.
+     *
+     * @param indice Indice del numero da leggere.
+     * @return Numero long letto dal file. 0 in caso di errore o di indice non valido.
+     * @see #apriMappatura(int, boolean)
+     */
+    public long leggiLongAt(long indice) {
+        blocca(this.lock.readLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("leggiLongAt(long)");
+            if(mappatura == null) return 0;
+            try {
+                return mappatura.leggiLong(indice);
+            } catch (IndexOutOfBoundsException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM. Indice " + indice + " non valido.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiLongAt(long).");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere il numero long di indice specificato nel file mappato in memoria.
+     * Non modifica la dimensione del file: l'indice deve essere inferiore a dimensioneInElementi().
+     *
+     * @param indice Indice del numero da scrivere.
+     * @param valore Numero da scrivere nel file.
+     * @see #apriMappatura(int, boolean)
+     */
+    public void scriviLongAt(long indice, long valore) {
+        blocca(this.lock.writeLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("scriviLongAt(long, long)");
+            if(mappatura == null) return;
+            try {
+                mappatura.scriviLong(indice, valore);
+            } catch (IndexOutOfBoundsException | ReadOnlyBufferException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM. Indice " + indice + " non valido o file mappato in sola lettura.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviLongAt(long, long).");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere il numero float di indice specificato dal file mappato in memoria.
+     *
+     * @param indice Indice del numero da leggere.
+     * @return Numero float letto dal file. 0 in caso di errore o di indice non valido.
+     * @see #apriMappatura(int, boolean)
+     */
+    public float leggiFloatAt(long indice) {
+        blocca(this.lock.readLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("leggiFloatAt(long)");
+            if(mappatura == null) return 0;
+            try {
+                return mappatura.leggiFloat(indice);
+            } catch (IndexOutOfBoundsException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM. Indice " + indice + " non valido.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiFloatAt(long).");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere il numero float di indice specificato nel file mappato in memoria.
+     * Non modifica la dimensione del file: l'indice deve essere inferiore a dimensioneInElementi().
+     *
+     * @param indice Indice del numero da scrivere.
+     * @param valore Numero da scrivere nel file.
+     * @see #apriMappatura(int, boolean)
+     */
+    public void scriviFloatAt(long indice, float valore) {
+        blocca(this.lock.writeLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("scriviFloatAt(long, float)");
+            if(mappatura == null) return;
+            try {
+                mappatura.scriviFloat(indice, valore);
+            } catch (IndexOutOfBoundsException | ReadOnlyBufferException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM. Indice " + indice + " non valido o file mappato in sola lettura.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviFloatAt(long, float).");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere il numero double di indice specificato dal file mappato in memoria.
+     *
+     * @param indice Indice del numero da leggere.
+     * @return Numero double letto dal file. 0 in caso di errore o di indice non valido.
+     * @see #apriMappatura(int, boolean)
+     */
+    public double leggiDoubleAt(long indice) {
+        blocca(this.lock.readLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("leggiDoubleAt(long)");
+            if(mappatura == null) return 0;
+            try {
+                return mappatura.leggiDouble(indice);
+            } catch (IndexOutOfBoundsException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM. Indice " + indice + " non valido.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiDoubleAt(long).");
+                return 0;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere il numero double di indice specificato nel file mappato in memoria.
+     * Non modifica la dimensione del file: l'indice deve essere inferiore a dimensioneInElementi().
+     *
+     * @param indice Indice del numero da scrivere.
+     * @param valore Numero da scrivere nel file.
+     * @see #apriMappatura(int, boolean)
+     */
+    public void scriviDoubleAt(long indice, double valore) {
+        blocca(this.lock.writeLock());
+        try {
+            MappaturaTipizzata mappatura = mappatura("scriviDoubleAt(long, double)");
+            if(mappatura == null) return;
+            try {
+                mappatura.scriviDouble(indice, valore);
+            } catch (IndexOutOfBoundsException | ReadOnlyBufferException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file tramite JFM. Indice " + indice + " non valido o file mappato in sola lettura.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviDoubleAt(long, double).");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di aprire il file di record in scrittura, con blocchi da 4096 record. Di default, non cancella i record già presenti.
+     *
+     * @param schema Schema dei record.
+     * @see #apriRecord(SchemaRecord, boolean, int)
+     */
+    public void apriRecord(SchemaRecord schema) {
+        apriRecord(schema, false, 4096);
+    }
+
+    /**
+     * Metodo che permette di aprire il file di record in scrittura. Fino a chiudiRecord(), i record scritti con scriviRecord() vengono raccolti per colonne in memoria
+     * e scritti a blocchi, ognuno registrato nel file indice (.bidx). Se il file è vuoto (o viene cancellato) viene scritta l'intestazione con lo schema;
+     * altrimenti lo schema del file deve coincidere con quello indicato e i record vengono aggiunti dopo quelli presenti.
+     *
+     * @param schema Schema dei record.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno i record già presenti nel file.
+     * @param recordPerBlocco Numero di record per blocco. Blocchi più grandi rendono più veloce la lettura delle colonne, blocchi più piccoli limitano la memoria utilizzata in scrittura.
+     * @see #scriviRecord(Object...)
+     * @see #chiudiRecord()
+     */
+    public void apriRecord(SchemaRecord schema, boolean cancellaContenutoPrecedente, int recordPerBlocco) {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire != null) {
+                if(this.scrittoreRecord != null) {
+                    if(this.mostraAvvisi) System.err.println("File di record già aperto tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriRecord().");
+                    return;
+                }
+                preparaScrittura(cancellaContenutoPrecedente, "apriRecord()");
+                try {
+                    this.scrittoreRecord = new FileRecord.Scrittore(this.fileDaGestire, schema, recordPerBlocco, cancellaContenutoPrecedente);
+                    MetricheJFM.risorseAperte(1);
+                } catch (IOException | IllegalArgumentException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante l'apertura del file di record tramite JFM. " + e.getMessage() + "\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriRecord().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da apriRecord().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di scrivere un record nel file di record aperto con apriRecord(). I numeri int possono essere scritti anche nelle colonne long e i float nelle colonne double.
+     * Il record viene verificato per intero: se un valore non è valido, nessun valore del record viene scritto.
+     *
+     * @param valori Valori del record, nell'ordine delle colonne dello schema.
+     */
+    public void scriviRecord(Object... valori) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.writeLock());
+        try {
+            if(this.scrittoreRecord == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il record tramite JFM. Il file di record non è stato aperto con apriRecord().\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviRecord().");
+                return;
+            }
+            try {
+                registra(OperazioneIO.SCRIVI_TIPIZZATO, inizio, this.scrittoreRecord.aggiungi(valori));
+            } catch (IllegalArgumentException e) {
+                if(this.mostraAvvisi) System.err.println("Impossibile scrivere il record tramite JFM. " + e.getMessage() + "\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviRecord().");
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file di record tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da scriviRecord().");
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di chiudere il file di record, scrivendo i record ancora in memoria come ultimo blocco.
+     *
+     * @see #apriRecord(SchemaRecord, boolean, int)
+     */
+    public void chiudiRecord() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.scrittoreRecord == null) return;
+            try {
+                this.scrittoreRecord.close();
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da chiudiRecord().");
+            } finally {
+                this.scrittoreRecord = null;
+                MetricheJFM.risorseAperte(-1);
+            }
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che scrive i record in memoria dell'eventuale file di record aperto, così che le letture li comprendano.
+     *
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void svuotaRecord(String generatoDa) {
+        if(this.scrittoreRecord == null) return;
+        try {
+            this.scrittoreRecord.svuota();
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante la scrittura del file di record tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+        }
+        invalidaCache();
+    }
+
+    /**
+     * Lettura di un file di record.
+     */
+    private interface LetturaRecord<T> {
+        T leggi(FileRecord file, FileChannel canale) throws IOException;
+    }
+
+    /**
+     * Metodo che apre il file di record in lettura, ne carica lo schema e l'indice dei blocchi ed esegue una lettura.
+     * I record non ancora scritti dal file di record aperto vengono letti dalla memoria, senza scrivere sul file un blocco incompleto.
+     *
+     * @param lettura Lettura da eseguire.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Risultato della lettura. Null in caso di errore.
+     */
+    private <T> T letturaRecord(LetturaRecord<T> lettura, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
+            try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.READ)) {
+                FileRecord file = new FileRecord(canale, this.fileDaGestire);
+                if(this.scrittoreRecord != null) file.aggiungiBloccoInMemoria(this.scrittoreRecord.bloccoInSospeso());
+                T risultato = lettura.leggi(file, canale);
+                registra(OperazioneIO.LEGGI_TIPIZZATO, inizio, file.byteLetti());
+                return risultato;
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il file di record tramite JFM. " + e.getMessage() + "\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return null;
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file di record tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere lo schema del file di record, scritto nella sua intestazione.
+     *
+     * @return Schema dei record. Null in caso di errore durante la lettura del file.
+     */
+    public SchemaRecord schemaRecord() {
+        return letturaRecord((file, canale) -> file.schema(), "schemaRecord()");
+    }
+
+    /**
+     * Metodo che permette di conoscere il numero di record del file di record, dall'indice dei blocchi.
+     *
+     * @return Numero di record. -1 in caso di errore durante la lettura del file.
+     */
+    public long contaRecord() {
+        Long conteggio = letturaRecord((file, canale) -> file.conta(), "contaRecord()");
+        return conteggio == null ? -1 : conteggio;
+    }
+
+    /**
+     * Metodo che permette di leggere direttamente l'n-esimo record del file di record: il blocco viene individuato dall'indice e di ogni colonna viene letto solo il valore del record.
+     *
+     * @param n Indice del record, a partire da 0.
+     * @return Valori del record (Integer, Long, Float, Double o String), nell'ordine delle colonne dello schema. Null se il record non esiste o in caso di errore durante la lettura del file.
+     */
+    public Object[] leggiRecord(long n) {
+        return letturaRecord((file, canale) -> file.leggiRecord(canale, n), "leggiRecord()");
+    }
+
+    /**
+     * Metodo che permette di leggere tutti i valori di una colonna int del file di record, leggendo di ogni blocco solo i byte della colonna.
+     *
+     * @param colonna Nome della colonna.
+     * @return Valori della colonna, nell'ordine dei record. Null se la colonna non esiste o non è di tipo INT oppure in caso di errore durante la lettura del file.
+     */
+    public int[] leggiColonnaInt(String colonna) {
+        return letturaRecord((file, canale) -> file.leggiInt(canale, file.colonna(colonna, TipoColonna.INT)), "leggiColonnaInt()");
+    }
+
+    /**
+     * Metodo che permette di leggere tutti i valori di una colonna long del file di record, leggendo di ogni blocco solo i byte della colonna.
+     *
+     * @param colonna Nome della colonna.
+     * @return Valori della colonna, nell'ordine dei record. Null se la colonna non esiste o non è di tipo LONG oppure in caso di errore durante la lettura del file.
+     */
+    public long[] leggiColonnaLong(String colonna) {
+        return letturaRecord((file, canale) -> file.leggiLong(canale, file.colonna(colonna, TipoColonna.LONG)), "leggiColonnaLong()");
+    }
+
+    /**
+     * Metodo che permette di leggere tutti i valori di una colonna float del file di record, leggendo di ogni blocco solo i byte della colonna.
+     *
+     * @param colonna Nome della colonna.
+     * @return Valori della colonna, nell'ordine dei record. Null se la colonna non esiste o non è di tipo FLOAT oppure in caso di errore durante la lettura del file.
+     */
+    public float[] leggiColonnaFloat(String colonna) {
+        return letturaRecord((file, canale) -> file.leggiFloat(canale, file.colonna(colonna, TipoColonna.FLOAT)), "leggiColonnaFloat()");
+    }
+
+    /**
+     * Metodo che permette di leggere tutti i valori di una colonna double del file di record, leggendo di ogni blocco solo i byte della colonna.
+     *
+     * @param colonna Nome della colonna.
+     * @return Valori della colonna, nell'ordine dei record. Null se la colonna non esiste o non è di tipo DOUBLE oppure in caso di errore durante la lettura del file.
+     */
+    public double[] leggiColonnaDouble(String colonna) {
+        return letturaRecord((file, canale) -> file.leggiDouble(canale, file.colonna(colonna, TipoColonna.DOUBLE)), "leggiColonnaDouble()");
+    }
+
+    /**
+     * Metodo che permette di leggere tutti i valori di una colonna di stringhe del file di record, leggendo di ogni blocco solo i byte della colonna.
+     *
+     * @param colonna Nome della colonna.
+     * @return Valori della colonna, nell'ordine dei record. Null se la colonna non esiste o non è di tipo STRING oppure in caso di errore durante la lettura del file.
+     */
+    public String[] leggiColonnaString(String colonna) {
+        return letturaRecord((file, canale) -> file.leggiString(canale, file.colonna(colonna, TipoColonna.STRING)), "leggiColonnaString()");
+    }
+
+    /**
+     * Metodo che permette di cercare i record del file di record che soddisfano una condizione su una colonna int, senza decodificare le altre colonne.
+     * I record trovati possono essere letti con leggiRecord(long).
+     *
+     * @param colonna Nome della colonna.
+     * @param filtro Condizione che i valori della colonna devono soddisfare.
+     * @return Indici dei record che soddisfano la condizione, in ordine crescente. Null se la colonna non esiste o non è di tipo INT oppure in caso di errore durante la lettura del file.
+     */
+    public long[] filtraInt(String colonna, IntPredicate filtro) {
+        return letturaRecord((file, canale) -> file.filtraInt(canale, file.colonna(colonna, TipoColonna.INT), filtro), "filtraInt()");
+    }
+
+    /**
+     * Metodo che permette di cercare i record del file di record che soddisfano una condizione su una colonna long, senza decodificare le altre colonne.
+     *
+     * @param colonna Nome della colonna.
+     * @param filtro Condizione che i valori della colonna devono soddisfare.
+     * @return Indici dei record che soddisfano la condizione, in ordine crescente. Null se la colonna non esiste o non è di tipo LONG oppure in caso di errore durante la lettura del file.
+     */
+    public long[] filtraLong(String colonna, LongPredicate filtro) {
+        return letturaRecord((file, canale) -> file.filtraLong(canale, file.colonna(colonna, TipoColonna.LONG), filtro), "filtraLong()");
+    }
+
+    /**
+     * Metodo che permette di cercare i record del file di record che soddisfano una condizione su una colonna float o double, senza decodificare le altre colonne.
+     *
+     * @param colonna Nome della colonna.
+     * @param filtro Condizione che i valori della colonna devono soddisfare.
+     * @return Indici dei record che soddisfano la condizione, in ordine crescente. Null se la colonna non esiste o non è di tipo FLOAT o DOUBLE oppure in caso di errore durante la lettura del file.
+     */
+    public long[] filtraDouble(String colonna, DoublePredicate filtro) {
+        return letturaRecord((file, canale) -> file.filtraDouble(canale, file.colonna(colonna, TipoColonna.FLOAT, TipoColonna.DOUBLE), filtro), "filtraDouble()");
+    }
+
+    /**
+     * Metodo che permette di cercare i record del file di record che soddisfano una condizione su una colonna di stringhe, senza decodificare le altre colonne.
+     *
+     * @param colonna Nome della colonna.
+     * @param filtro Condizione che i valori della colonna devono soddisfare.
+     * @return Indici dei record che soddisfano la condizione, in ordine crescente. Null se la colonna non esiste o non è di tipo STRING oppure in caso di errore durante la lettura del file.
+     */
+    public long[] filtraString(String colonna, Predicate<String> filtro) {
+        return letturaRecord((file, canale) -> file.filtraString(canale, file.colonna(colonna, TipoColonna.STRING), filtro), "filtraString()");
+    }
+
+    /**
+     * Metodo che permette di comprimere il file in un altro file, a blocchi da 1 MB con il livello di compressione predefinito.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file compresso. Se esiste, il contenuto precedente viene cancellato.
+     * @return Dimensione (in byte) del file compresso. -1 in caso di errore durante la compressione.
+     * @see #comprimiIn(String, int, int)
+     */
+    public long comprimiIn(String nomeFileDestinazione) {
+        return comprimiIn(nomeFileDestinazione, Deflater.DEFAULT_COMPRESSION, FileCompresso.DIMENSIONE_BLOCCO);
+    }
+
+    /**
+     * Metodo che permette di comprimere il file in un altro file. Il contenuto viene diviso in blocchi compressi indipendentemente (Deflater) e in parallelo,
+     * con un numero limitato di blocchi in memoria, per cui il file compresso può essere letto a partire da qualsiasi posizione senza decomprimerlo dall'inizio.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file compresso. Deve essere diverso dal file da comprimere. Se esiste, il contenuto precedente viene cancellato.
+     * @param livello Livello di compressione, da 0 (nessuna compressione) a 9 (massima), oppure Deflater.DEFAULT_COMPRESSION. I livelli più alti riducono lo spazio occupato ma comprimono più lentamente.
+     * @param dimensioneBlocco Dimensione (in byte) dei blocchi, almeno 4096. I blocchi più grandi comprimono meglio, quelli più piccoli rendono più veloce la lettura di singole posizioni.
+     * @return Dimensione (in byte) del file compresso. -1 in caso di errore durante la compressione.
+     * @see #apriLetturaCompressa()
+     */
+    public long comprimiIn(String nomeFileDestinazione, int livello, int dimensioneBlocco) {
+        return trasformaIn(nomeFileDestinazione, destinazione -> FileCompresso.comprimi(this.fileDaGestire, destinazione, livello, dimensioneBlocco), "comprimiIn()");
+    }
+
+    /**
+     * Metodo che permette di decomprimere il file, compresso con comprimiIn() o apriScritturaCompressa(), in un altro file. I blocchi vengono decompressi in parallelo.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file decompresso. Deve essere diverso dal file compresso. Se esiste, il contenuto precedente viene cancellato.
+     * @return Dimensione (in byte) del contenuto decompresso. -1 in caso di errore durante la decompressione.
+     */
+    public long decomprimiIn(String nomeFileDestinazione) {
+        return trasformaIn(nomeFileDestinazione, destinazione -> FileCompresso.decomprimi(this.fileDaGestire, destinazione), "decomprimiIn()");
+    }
+
+    /**
+     * Trasformazione del file in un file di destinazione.
+     */
+    private interface Trasformazione {
+        long trasforma(File destinazione) throws IOException;
+    }
+
+    /**
+     * Metodo che esegue una trasformazione del file (compressione o decompressione) in un altro file, verificando che i due file siano diversi.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file di destinazione.
+     * @param trasformazione Trasformazione da eseguire.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Risultato della trasformazione. -1 in caso di errore.
+     */
+    private long trasformaIn(String nomeFileDestinazione, Trasformazione trasformazione, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura(generatoDa);
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile trasformare il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return -1;
+            }
+            File destinazione = new File(nomeFileDestinazione);
+            try {
+                if(destinazione.getCanonicalFile().equals(this.fileDaGestire.getCanonicalFile())) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile trasformare il contenuto del file tramite JFM. Il file di destinazione coincide con il file di origine.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    return -1;
+                }
+                long risultato = trasformazione.trasforma(destinazione);
+                registra(OperazioneIO.COPIA, inizio, destinazione.length());
+                return risultato;
+            } catch (IOException | IllegalArgumentException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la trasformazione del file tramite JFM. " + e.getMessage() + "\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return -1;
+            } finally {
+                CacheContenuti.invalidaSeAttiva(destinazione);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di aprire uno stream di scrittura compressa del file, a blocchi da 1 MB con il livello di compressione predefinito.
+     *
+     * @return Stream di scrittura compressa. Null in caso di errore durante l'apertura del file.
+     * @see #apriScritturaCompressa(int, int)
+     */
+    public OutputStream apriScritturaCompressa() {
+        return apriScritturaCompressa(Deflater.DEFAULT_COMPRESSION, FileCompresso.DIMENSIONE_BLOCCO);
+    }
+
+    /**
+     * Metodo che permette di aprire uno stream di scrittura compressa del file, cancellandone il contenuto precedente. I byte scritti vengono compressi a blocchi in parallelo,
+     * con un numero limitato di blocchi in memoria. Lo stream può essere utilizzato con DataOutputStream, ObjectOutputStream o un Writer per scrivere dati tipizzati, oggetti o testo compressi.
+     * Il file è completo solo dopo la chiusura dello stream, che va sempre chiuso (ad esempio con try-with-resources).
+     *
+     * @param livello Livello di compressione, da 0 (nessuna compressione) a 9 (massima), oppure Deflater.DEFAULT_COMPRESSION.
+     * @param dimensioneBlocco Dimensione (in byte) dei blocchi, almeno 4096.
+     * @return Stream di scrittura compressa. Null in caso di errore durante l'apertura del file.
+     * @see #apriLetturaCompressa()
+     */
+    public OutputStream apriScritturaCompressa(int livello, int dimensioneBlocco) {
+        if(this.fileDaGestire == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile scrivere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da apriScritturaCompressa().");
+            return null;
+        }
+        try {
+            return new FileCompresso.Scrittore(this.fileDaGestire, livello, dimensioneBlocco);
+        } catch (IOException | IllegalArgumentException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante l'apertura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriScritturaCompressa().");
+            return null;
+        }
+    }
+
+    /**
+     * Metodo che permette di aprire uno stream di lettura del contenuto decompresso del file. I blocchi vengono decompressi uno alla volta, per cui la memoria utilizzata non dipende dalla dimensione del file;
+     * skip() si sposta in qualsiasi posizione decomprimendo solo il blocco che la contiene. Lo stream può essere utilizzato con DataInputStream, ObjectInputStream o un Reader.
+     *
+     * @return Stream di lettura del contenuto decompresso. Null se il file non è un file compresso da JFM o in caso di errore durante l'apertura del file.
+     */
+    public InputStream apriLetturaCompressa() {
+        if(this.fileDaGestire == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da apriLetturaCompressa().");
+            return null;
+        }
+        try {
+            return new FileCompresso.Lettore(this.fileDaGestire);
+        } catch (IOException | RuntimeException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante l'apertura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da apriLetturaCompressa().");
+            return null;
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere una porzione del contenuto decompresso del file, decomprimendo solo i blocchi che la contengono.
+     *
+     * @param posizione Posizione (in byte) del contenuto decompresso dalla quale iniziare la lettura.
+     * @param lunghezza Numero massimo di byte da leggere.
+     * @return Byte letti: meno di quelli richiesti se il contenuto termina prima. Null in caso di errore durante la lettura del file.
+     */
+    public byte[] leggiCompresso(long posizione, int lunghezza) {
+        long inizio = MetricheJFM.inizio();
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiCompresso().");
+                return null;
+            }
+            try (FileCompresso.Lettore lettore = new FileCompresso.Lettore(this.fileDaGestire)) {
+                lettore.posiziona(posizione);
+                byte[] letti = lettore.readNBytes(Math.max(0, lunghezza));
+                registra(OperazioneIO.LEGGI, inizio, letti.length);
+                return letti;
+            } catch (IOException | RuntimeException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiCompresso().");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di conoscere la dimensione del contenuto decompresso del file, dall'indice dei blocchi.
+     *
+     * @return Dimensione (in byte) del contenuto decompresso. -1 se il file non è un file compresso da JFM o in caso di errore durante la lettura del file.
+     */
+    public long dimensioneDecompressa() {
+        blocca(this.lock.readLock());
+        try {
+            if(this.fileDaGestire == null) return -1;
+            try (FileCompresso.Lettore lettore = new FileCompresso.Lettore(this.fileDaGestire)) {
+                return lettore.dimensione();
+            } catch (IOException | RuntimeException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da dimensioneDecompressa().");
+                return -1;
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file specificato. Di default, non cancella il contenuto precedente del file di destinazione.
+     * La copia avviene byte per byte, senza decodificare il contenuto, per cui è adatta anche a file di dati tipizzati o oggetti serializzati.
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     */
+    public void copiaIn(JavaFileManager jfm) {
+        copiaIn(jfm, 0, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file specificato.
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaIn(JavaFileManager jfm, boolean cancellaContenutoPrecedente) {
+        copiaIn(jfm, 0, Long.MAX_VALUE, cancellaContenutoPrecedente);
+    }
+
+    /**
+     * Metodo che permette di copiare una porzione del file in un altro file specificato.
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @param posizione Posizione (in byte) del file dalla quale iniziare la copia.
+     * @param lunghezza Numero massimo di byte da copiare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaIn(JavaFileManager jfm, long posizione, long lunghezza, boolean cancellaContenutoPrecedente) {
+        eseguiCopia(this, jfm, () -> {
+            jfm.preparaScrittura(cancellaContenutoPrecedente, "copiaIn()");
+            copiaByte(this.fileDaGestire, jfm.fileDaGestire, posizione, lunghezza, cancellaContenutoPrecedente, "copiaIn()");
+        });
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file specificato. Di default, non cancella il contenuto precedente del file di destinazione.
+     * Se il file di destinazione non esiste, viene creato.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     */
+    public void copiaIn(String nomeFile) {
+        copiaIn(nomeFile, false);
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file specificato.
+     * Se il file di destinazione non esiste, viene creato.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaIn(String nomeFile, boolean cancellaContenutoPrecedente) {
+        bloccaLettura("copiaIn()");
+        try {
+            copiaByte(this.fileDaGestire, new File(nomeFile), 0, Long.MAX_VALUE, cancellaContenutoPrecedente, "copiaIn()");
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file. Di default, non cancella il contenuto precedente del file.
+     * La copia avviene byte per byte, senza decodificare il contenuto, per cui è adatta anche a file di dati tipizzati o oggetti serializzati.
+     *
+     * @param jfm JavaFileManager da cui copiare il contenuto del file.
+     */
+    public void copiaDa(JavaFileManager jfm) {
+        copiaDa(jfm, 0, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file.
+     *
+     * @param jfm JavaFileManager da cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaDa(JavaFileManager jfm, boolean cancellaContenutoPrecedente) {
+        copiaDa(jfm, 0, Long.MAX_VALUE, cancellaContenutoPrecedente);
+    }
+
+    /**
+     * Metodo che permette di copiare una porzione di un altro file in questo file.
+     *
+     * @param jfm JavaFileManager da cui copiare il contenuto del file.
+     * @param posizione Posizione (in byte) del file di origine dalla quale iniziare la copia.
+     * @param lunghezza Numero massimo di byte da copiare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaDa(JavaFileManager jfm, long posizione, long lunghezza, boolean cancellaContenutoPrecedente) {
+        eseguiCopia(jfm, this, () -> {
+            preparaScrittura(cancellaContenutoPrecedente, "copiaDa()");
+            copiaByte(jfm.fileDaGestire, this.fileDaGestire, posizione, lunghezza, cancellaContenutoPrecedente, "copiaDa()");
+        });
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file da cui copiare il contenuto del file.
+     */
+    public void copiaDa(String nomeFile) {
+        copiaDa(nomeFile, false);
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file da cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file. Se impostato su false, il contenuto verrà copiato in append.
+     */
+    public void copiaDa(String nomeFile, boolean cancellaContenutoPrecedente) {
+        blocca(this.lock.writeLock());
+        try {
+            preparaScrittura(cancellaContenutoPrecedente, "copiaDa()");
+            copiaByte(new File(nomeFile), this.fileDaGestire, 0, Long.MAX_VALUE, cancellaContenutoPrecedente, "copiaDa()");
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di ottenere l'impronta (SHA-256) del contenuto del file. Il file viene diviso in blocchi da 4 MB, le cui impronte vengono calcolate in parallelo.
+     * Le impronte calcolate vengono memorizzate e riutilizzate finché la data di ultima modifica e la dimensione del file non cambiano.
+     *
+     * @return Impronta del file. Null in caso di errore durante la lettura del file.
+     * @see ImprontaFile
+     */
+    public ImprontaFile impronta() {
+        bloccaLettura("impronta()");
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile calcolare l'impronta del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da impronta().");
+                return null;
+            }
+            return CalcoloImpronte.impronta(this.fileDaGestire);
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Impossibile calcolare l'impronta del file tramite JFM. Errore durante la lettura del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da impronta().");
+            return null;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file, riscrivendo solo i blocchi (da 4 MB) che differiscono.
+     * Se i due file hanno già la stessa impronta, la copia non viene eseguita. Al termine, il file di destinazione ha lo stesso contenuto del file.
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @return Numero di byte riscritti: 0 se i file erano già identici. -1 in caso di errore durante la copia.
+     * @see #impronta()
+     */
+    public long copiaIncrementaleIn(JavaFileManager jfm) {
+        long[] scritti = {-1};
+        eseguiCopia(this, jfm, () -> {
+            jfm.preparaSovrascrittura("copiaIncrementaleIn()");
+            scritti[0] = copiaIncrementale(this.fileDaGestire, jfm.fileDaGestire, "copiaIncrementaleIn()");
+        });
+        return scritti[0];
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto del file in un altro file specificato, riscrivendo solo i blocchi (da 4 MB) che differiscono.
+     * Se il file di destinazione non esiste, viene creato.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     * @return Numero di byte riscritti: 0 se i file erano già identici. -1 in caso di errore durante la copia.
+     */
+    public long copiaIncrementaleIn(String nomeFile) {
+        bloccaLettura("copiaIncrementaleIn()");
+        try {
+            return copiaIncrementale(this.fileDaGestire, new File(nomeFile), "copiaIncrementaleIn()");
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file, riscrivendo solo i blocchi (da 4 MB) che differiscono.
+     *
+     * @param jfm JavaFileManager da cui copiare il contenuto del file.
+     * @return Numero di byte riscritti: 0 se i file erano già identici. -1 in caso di errore durante la copia.
+     */
+    public long copiaIncrementaleDa(JavaFileManager jfm) {
+        long[] scritti = {-1};
+        eseguiCopia(jfm, this, () -> {
+            preparaSovrascrittura("copiaIncrementaleDa()");
+            scritti[0] = copiaIncrementale(jfm.fileDaGestire, this.fileDaGestire, "copiaIncrementaleDa()");
+        });
+        return scritti[0];
+    }
+
+    /**
+     * Metodo che permette di copiare il contenuto di un altro file in questo file, riscrivendo solo i blocchi (da 4 MB) che differiscono.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file da cui copiare il contenuto del file.
+     * @return Numero di byte riscritti: 0 se i file erano già identici. -1 in caso di errore durante la copia.
+     */
+    public long copiaIncrementaleDa(String nomeFile) {
+        blocca(this.lock.writeLock());
+        try {
+            preparaSovrascrittura("copiaIncrementaleDa()");
+            return copiaIncrementale(new File(nomeFile), this.fileDaGestire, "copiaIncrementaleDa()");
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lock utilizzato per ordinare l'acquisizione dei lock di due JFM con lo stesso hash di identità.
+     */
+    private static final Object LOCK_COPIA = new Object();
+
+    /**
+     * Metodo che esegue una copia tra due JFM acquisendo il lock di lettura della sorgente e quello di scrittura della destinazione.
+     * I lock vengono acquisiti sempre nello stesso ordine, così che due copie in direzioni opposte non possano bloccarsi a vicenda.
+     * I dati in memoria della sorgente vengono scritti sul file prima della copia, con il suo lock di scrittura. Al termine della copia vengono invalidati la cache e i cursori della destinazione.
+     *
+     * @param sorgente JFM da cui copiare.
+     * @param destinazione JFM in cui copiare.
+     * @param copia Operazione di copia.
+     */
+    private static void eseguiCopia(JavaFileManager sorgente, JavaFileManager destinazione, Runnable copia) {
+        if(sorgente != destinazione) sorgente.svuotaInSospeso("eseguiCopia()");
+        Runnable copiaEInvalida = () -> {
             try {
-                return this.inputStreamTipizzato.readDouble();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiDouble().");
-                return 0;
+                copia.run();
+            } finally {
+                destinazione.invalidaCache();
+            }
+        };
+        if(sorgente == destinazione) {
+            destinazione.blocca(destinazione.lock.writeLock());
+            try {
+                copiaEInvalida.run();
+            } finally {
+                destinazione.lock.writeLock().unlock();
+            }
+            return;
+        }
+        int hashSorgente = System.identityHashCode(sorgente);
+        int hashDestinazione = System.identityHashCode(destinazione);
+        Lock primo = hashSorgente < hashDestinazione ? sorgente.lock.readLock() : destinazione.lock.writeLock();
+        Lock secondo = hashSorgente < hashDestinazione ? destinazione.lock.writeLock() : sorgente.lock.readLock();
+        if(hashSorgente == hashDestinazione) {
+            synchronized (LOCK_COPIA) {
+                eseguiBloccando(primo, secondo, copiaEInvalida);
             }
         } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiDouble().");
-            return 0;
+            eseguiBloccando(primo, secondo, copiaEInvalida);
         }
     }
 
     /**
-     * Metodo che permette di leggere un numero float da un file.
+     * Metodo che esegue un'operazione dopo aver acquisito due lock, nell'ordine indicato.
      *
-     * @return Numero float letto dal file. 0 in caso di errore durante la lettura del file.
+     * @param primo Primo lock da acquisire.
+     * @param secondo Secondo lock da acquisire.
+     * @param operazione Operazione da eseguire.
      */
-    public synchronized float leggiFloat() {
-        if(this.fileDaGestire != null) {
+    private static void eseguiBloccando(Lock primo, Lock secondo, Runnable operazione) {
+        primo.lock();
+        try {
+            secondo.lock();
             try {
-                return this.inputStreamTipizzato.readFloat();
-            } catch (IOException e) {
-                if(this.mostraAvvisi) System.err.println("Errore durante la lettura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da leggiFloat().");
+                operazione.run();
+            } finally {
+                secondo.unlock();
+            }
+        } finally {
+            primo.unlock();
+        }
+    }
+
+    /**
+     * Metodo che esegue un'operazione dopo aver acquisito più lock, nell'ordine della lista. I lock vengono rilasciati in ordine inverso.
+     *
+     * @param lock Lock da acquisire.
+     * @param operazione Operazione da eseguire.
+     */
+    private static void eseguiBloccando(List<Lock> lock, Runnable operazione) {
+        int bloccati = 0;
+        try {
+            for(Lock daBloccare : lock) {
+                daBloccare.lock();
+                bloccati++;
+            }
+            operazione.run();
+        } finally {
+            for(int i = bloccati - 1; i >= 0; i--) lock.get(i).unlock();
+        }
+    }
+
+    /**
+     * Metodo che copia una porzione di un file in un altro tramite FileChannel#transferTo, senza passare i dati per la memoria della JVM.
+     * Se il file di destinazione non esiste, viene creato.
+     *
+     * @param sorgente File da cui copiare.
+     * @param destinazione File in cui copiare.
+     * @param posizione Posizione (in byte) del file di origine dalla quale iniziare la copia.
+     * @param lunghezza Numero massimo di byte da copiare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     */
+    private void copiaByte(File sorgente, File destinazione, long posizione, long lunghezza, boolean cancellaContenutoPrecedente, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        if(sorgente == null || destinazione == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return;
+        }
+        try {
+            if(cancellaContenutoPrecedente && sorgente.getCanonicalFile().equals(destinazione.getCanonicalFile())) {
+                if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Il file di origine e quello di destinazione coincidono.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return;
+            }
+            try (FileChannel canaleSorgente = FileChannel.open(sorgente.toPath(), StandardOpenOption.READ);
+                 FileChannel canaleDestinazione = FileChannel.open(destinazione.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                if(cancellaContenutoPrecedente) canaleDestinazione.truncate(0);
+                canaleDestinazione.position(canaleDestinazione.size());
+                long daCopiare = Math.max(0, posizione);
+                long fine = daCopiare + Math.min(Math.max(0, lunghezza), Math.max(0, canaleSorgente.size() - daCopiare));
+                long totale = 0;
+                while(daCopiare < fine) {
+                    long copiati = canaleSorgente.transferTo(daCopiare, fine - daCopiare, canaleDestinazione);
+                    if(copiati <= 0) break;
+                    daCopiare += copiati;
+                    totale += copiati;
+                }
+                registra(OperazioneIO.COPIA, inizio, totale);
+            }
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la copia del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+        } finally {
+            CacheContenuti.invalidaSeAttiva(destinazione);
+        }
+    }
+
+    /**
+     * Metodo che rende il file di destinazione identico al file di origine, confrontandone le impronte: se coincidono non copia nulla,
+     * altrimenti copia tramite FileChannel#transferTo solo i blocchi diversi o mancanti e tronca la destinazione alla dimensione dell'origine.
+     * L'impronta del file di destinazione viene memorizzata, così che una copia successiva non debba rileggerlo.
+     *
+     * @param sorgente File da cui copiare.
+     * @param destinazione File in cui copiare.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Numero di byte riscritti. -1 in caso di errore durante la copia.
+     */
+    private long copiaIncrementale(File sorgente, File destinazione, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        if(sorgente == null || destinazione == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return -1;
+        }
+        try {
+            if(sorgente.getCanonicalFile().equals(destinazione.getCanonicalFile())) return 0;
+            ImprontaFile improntaSorgente = CalcoloImpronte.impronta(sorgente);
+            ImprontaFile improntaDestinazione = destinazione.exists() ? CalcoloImpronte.impronta(destinazione) : null;
+            if(improntaSorgente.equals(improntaDestinazione)) {
+                registra(OperazioneIO.COPIA, inizio, 0);
                 return 0;
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile leggere il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da leggiFloat().");
-            return 0;
+            long totale = 0;
+            try (FileChannel canaleSorgente = FileChannel.open(sorgente.toPath(), StandardOpenOption.READ);
+                 FileChannel canaleDestinazione = FileChannel.open(destinazione.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                long dimensione = improntaSorgente.getDimensione();
+                long blocco = improntaSorgente.getDimensioneBlocco();
+                for(int i = 0; i < improntaSorgente.getNumeroBlocchi(); i++) {
+                    if(improntaDestinazione != null && improntaSorgente.bloccoUguale(i, improntaDestinazione)) continue;
+                    long daCopiare = i * blocco;
+                    long fine = Math.min(dimensione, daCopiare + blocco);
+                    canaleDestinazione.position(daCopiare);
+                    while(daCopiare < fine) {
+                        long copiati = canaleSorgente.transferTo(daCopiare, fine - daCopiare, canaleDestinazione);
+                        if(copiati <= 0) throw new EOFException();
+                        daCopiare += copiati;
+                        totale += copiati;
+                    }
+                }
+                if(canaleDestinazione.size() > dimensione) canaleDestinazione.truncate(dimensione);
+            }
+            CalcoloImpronte.memorizza(destinazione, improntaSorgente);
+            registra(OperazioneIO.COPIA, inizio, totale);
+            return totale;
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la copia del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+            return -1;
+        } finally {
+            CacheContenuti.invalidaSeAttiva(destinazione);
         }
     }
 
     /**
-     * Metodo che permette di copiare il contenuto del file in un altro file specificato.
+     * Metodo che permette di ordinare i numeri int del file (scritti con scriviTipizzato(), big-endian) in un altro file, utilizzando al più un quarto della memoria massima della JVM (e non oltre 256 MB).
      *
-     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file in cui scrivere i numeri ordinati. Se esiste, il contenuto precedente viene cancellato.
+     * @return Numero di int ordinati. -1 in caso di errore durante l'ordinamento.
+     * @see #ordinaInt(String, long, String, ByteOrder)
      */
-    public synchronized void copiaIn(JavaFileManager jfm) {
-        if(this.leggi() != null) {
-            jfm.scrivi(this.leggi(), false);
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la lettura del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da copiaIn().");
+    public long ordinaInt(String nomeFileDestinazione) {
+        return ordinaInt(nomeFileDestinazione, memoriaOrdinamento(), null, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di ordinare i numeri int del file in un altro file, anche se il file è molto più grande della memoria disponibile (ordinamento esterno).
+     * Il file viene letto a sequenze che vengono ordinate in parallelo e scritte in file temporanei, poi fuse nel file di destinazione.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file in cui scrivere i numeri ordinati. Deve essere diverso dal file da ordinare. Se esiste, il contenuto precedente viene cancellato.
+     * @param memoriaMassima Memoria (in byte) utilizzabile per l'ordinamento (almeno 4 MB). Più è grande, meno sono le sequenze da fondere.
+     * @param cartellaTemporanea Percorso della cartella in cui scrivere i file temporanei, che devono poter contenere l'intero file. Se null, viene utilizzata la cartella temporanea di sistema.
+     * @param ordine Ordine dei byte del file, mantenuto nel file di destinazione.
+     * @return Numero di int ordinati. -1 in caso di errore durante l'ordinamento.
+     */
+    public long ordinaInt(String nomeFileDestinazione, long memoriaMassima, String cartellaTemporanea, ByteOrder ordine) {
+        return ordina(OrdinamentoEsterno.Tipo.INT, nomeFileDestinazione, memoriaMassima, cartellaTemporanea, ordine, "ordinaInt()");
+    }
+
+    /**
+     * Metodo che permette di ordinare i numeri double del file (scritti con scriviTipizzato(), big-endian) in un altro file, utilizzando al più un quarto della memoria massima della JVM (e non oltre 256 MB).
+     * I numeri vengono ordinati come Double.compare(): -0.0 precede 0.0 e i NaN seguono tutti gli altri valori.
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file in cui scrivere i numeri ordinati. Se esiste, il contenuto precedente viene cancellato.
+     * @return Numero di double ordinati. -1 in caso di errore durante l'ordinamento.
+     * @see #ordinaDouble(String, long, String, ByteOrder)
+     */
+    public long ordinaDouble(String nomeFileDestinazione) {
+        return ordinaDouble(nomeFileDestinazione, memoriaOrdinamento(), null, ByteOrder.BIG_ENDIAN);
+    }
+
+    /**
+     * Metodo che permette di ordinare i numeri double del file in un altro file, anche se il file è molto più grande della memoria disponibile (ordinamento esterno).
+     *
+     * @param nomeFileDestinazione Percorso dalla root del progetto del file in cui scrivere i numeri ordinati. Deve essere diverso dal file da ordinare. Se esiste, il contenuto precedente viene cancellato.
+     * @param memoriaMassima Memoria (in byte) utilizzabile per l'ordinamento (almeno 4 MB).
+     * @param cartellaTemporanea Percorso della cartella in cui scrivere i file temporanei. Se null, viene utilizzata la cartella temporanea di sistema.
+     * @param ordine Ordine dei byte del file, mantenuto nel file di destinazione.
+     * @return Numero di double ordinati. -1 in caso di errore durante l'ordinamento.
+     * @see #ordinaInt(String, long, String, ByteOrder)
+     */
+    public long ordinaDouble(String nomeFileDestinazione, long memoriaMassima, String cartellaTemporanea, ByteOrder ordine) {
+        return ordina(OrdinamentoEsterno.Tipo.DOUBLE, nomeFileDestinazione, memoriaMassima, cartellaTemporanea, ordine, "ordinaDouble()");
+    }
+
+    /**
+     * Metodo che restituisce la memoria predefinita per l'ordinamento: un quarto della memoria massima della JVM, al più 256 MB.
+     *
+     * @return Memoria (in byte) per l'ordinamento.
+     */
+    private static long memoriaOrdinamento() {
+        return Math.min(256L * 1024 * 1024, Runtime.getRuntime().maxMemory() / 4);
+    }
+
+    /**
+     * Metodo che esegue l'ordinamento esterno del file.
+     *
+     * @param tipo Tipo dei dati da ordinare.
+     * @param nomeFileDestinazione Percorso del file in cui scrivere i dati ordinati.
+     * @param memoriaMassima Memoria (in byte) utilizzabile per l'ordinamento.
+     * @param cartellaTemporanea Percorso della cartella dei file temporanei. Null per la cartella temporanea di sistema.
+     * @param ordine Ordine dei byte del file.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return Numero di elementi ordinati. -1 in caso di errore durante l'ordinamento.
+     */
+    private long ordina(OrdinamentoEsterno.Tipo tipo, String nomeFileDestinazione, long memoriaMassima, String cartellaTemporanea, ByteOrder ordine, String generatoDa) {
+        bloccaLettura(generatoDa);
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile ordinare il contenuto del file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return -1;
+            }
+            File destinazione = new File(nomeFileDestinazione);
+            try {
+                if(destinazione.getCanonicalFile().equals(this.fileDaGestire.getCanonicalFile())) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile ordinare il contenuto del file tramite JFM. Il file di destinazione coincide con il file da ordinare.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    return -1;
+                }
+                return new OrdinamentoEsterno(tipo, ordine, memoriaMassima, cartellaTemporanea != null ? new File(cartellaTemporanea) : null).ordina(this.fileDaGestire, destinazione);
+            } catch (IOException | OutOfMemoryError e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante l'ordinamento del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return -1;
+            } finally {
+                CacheContenuti.invalidaSeAttiva(destinazione);
+            }
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di copiare il contenuto del file in un altro file specificato.
+     * Metodo che permette di dividere un file di testo in un numero prefissato di parti di dimensione il più possibile uguale, senza spezzare le righe.
+     * Le parti vengono scritte in parallelo nella cartella del file, con il nome del file seguito da ".parte0000", ".parte0001", ...; i file delle parti esistenti vengono sovrascritti.
+     * Il file di testo deve utilizzare un charset in cui '\n' occupa un solo byte (ad esempio UTF-8).
      *
-     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     * @param parti Numero di parti. Alcune parti possono essere vuote se il file contiene meno righe delle parti richieste; il numero di parti non può superare il numero di byte del file.
+     * @return JFM delle parti, nell'ordine del file. Null in caso di errore durante la divisione.
+     * @see #dividiPerDimensione(long)
+     * @see #unisci(List)
      */
-    public synchronized void copiaIn(String nomeFile) {
-        JavaFileManager jfmCopiaIn = new JavaFileManager(nomeFile, true);
-        if(this.leggi() != null) {
-            jfmCopiaIn.scrivi(this.leggi(), false);
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la lettura del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da copiaIn().");
+    public List<JavaFileManager> dividiInParti(int parti) {
+        return dividi(parti, 0, false, 0, "dividiInParti(int)");
+    }
+
+    /**
+     * Metodo che permette di dividere un file di testo nel minor numero di parti che non superano la dimensione indicata, senza spezzare le righe.
+     * Una parte supera la dimensione solo se contiene una sola riga più lunga della dimensione.
+     *
+     * @param byteMassimi Dimensione (in byte) massima di una parte.
+     * @return JFM delle parti, nell'ordine del file. Null in caso di errore durante la divisione.
+     * @see #dividiInParti(int)
+     */
+    public List<JavaFileManager> dividiPerDimensione(long byteMassimi) {
+        return dividi(0, byteMassimi, false, 0, "dividiPerDimensione(long)");
+    }
+
+    /**
+     * Metodo che permette di dividere un file di dati tipizzati della stessa dimensione (ad esempio scritti con scriviTipizzato(double[])) in un numero prefissato di parti,
+     * senza spezzare gli elementi. I byte finali che non formano un elemento completo vengono aggiunti all'ultima parte.
+     *
+     * @param parti Numero di parti. Non può superare il numero di elementi del file.
+     * @param dimensioneElemento Dimensione (in byte) di un elemento, ad esempio Double.BYTES.
+     * @return JFM delle parti, nell'ordine del file. Null in caso di errore durante la divisione.
+     * @see #dividiInParti(int)
+     */
+    public List<JavaFileManager> dividiTipizzatoInParti(int parti, int dimensioneElemento) {
+        return dividi(parti, 0, true, dimensioneElemento, "dividiTipizzatoInParti(int, int)");
+    }
+
+    /**
+     * Metodo che permette di dividere un file di dati tipizzati della stessa dimensione nel minor numero di parti che non superano la dimensione indicata, senza spezzare gli elementi.
+     *
+     * @param byteMassimi Dimensione (in byte) massima di una parte.
+     * @param dimensioneElemento Dimensione (in byte) di un elemento, ad esempio Double.BYTES.
+     * @return JFM delle parti, nell'ordine del file. Null in caso di errore durante la divisione.
+     * @see #dividiPerDimensione(long)
+     */
+    public List<JavaFileManager> dividiTipizzatoPerDimensione(long byteMassimi, int dimensioneElemento) {
+        return dividi(0, byteMassimi, true, dimensioneElemento, "dividiTipizzatoPerDimensione(long, int)");
+    }
+
+    /**
+     * Metodo che divide il file in parti. Viene indicato il numero di parti oppure la loro dimensione massima.
+     * Il numero di parti non può superare il numero di byte (o di elementi) del file, così che un numero errato non crei un file vuoto per ogni parte.
+     *
+     * @param parti Numero di parti. 0 per dividere in base alla dimensione massima.
+     * @param byteMassimi Dimensione (in byte) massima di una parte. 0 per dividere in base al numero di parti.
+     * @param tipizzato Variabile che indica se il file contiene dati tipizzati, da dividere tra un elemento e l'altro, o righe di testo.
+     * @param dimensioneElemento Dimensione (in byte) di un elemento. Ignorata per i file di testo.
+     * @param generatoDa Firma del metodo da riportare negli avvisi.
+     * @return JFM delle parti. Null in caso di errore durante la divisione.
+     */
+    private List<JavaFileManager> dividi(int parti, long byteMassimi, boolean tipizzato, int dimensioneElemento, String generatoDa) {
+        long inizio = MetricheJFM.inizio();
+        bloccaLettura(generatoDa);
+        try {
+            if(this.fileDaGestire == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile dividere il file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
+            if(parti < 0 || byteMassimi < 0 || (parti > 0) == (byteMassimi > 0) || (tipizzato && dimensioneElemento <= 0)) {
+                if(this.mostraAvvisi) System.err.println("Impossibile dividere il file tramite JFM. Il numero di parti, la dimensione delle parti o la dimensione dell'elemento non sono validi.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
+            int elemento = tipizzato ? dimensioneElemento : 0;
+            try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.READ)) {
+                long unita = tipizzato ? canale.size() / dimensioneElemento : canale.size();
+                if(parti > Math.max(1, unita)) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile dividere il file tramite JFM. Il numero di parti (" + parti + ") supera il numero di " + (tipizzato ? "elementi" : "byte") + " del file (" + unita + ").\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                    return null;
+                }
+                long[] confini = parti > 0 ? DivisioneFile.confini(canale, parti, elemento) : DivisioneFile.confini(canale, byteMassimi, elemento);
+                List<File> file = new ArrayList<>();
+                for(int i = 0; i < confini.length - 1; i++) file.add(DivisioneFile.parte(this.fileDaGestire, i));
+                DivisioneFile.scriviParti(canale, confini, file);
+                List<JavaFileManager> risultato = new ArrayList<>();
+                for(File parte : file) risultato.add(new JavaFileManager(parte.getPath(), false, this.mostraAvvisi));
+                registra(OperazioneIO.COPIA, inizio, confini[confini.length - 1]);
+                return risultato;
+            } catch (IOException e) {
+                if(this.mostraAvvisi) System.err.println("Errore durante la divisione del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da " + generatoDa + ".");
+                return null;
+            }
+        } finally {
+            this.lock.readLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di copiare il contenuto di un altro file in questo file.
+     * Metodo che permette di accodare al file il contenuto di altri file, nell'ordine della lista (ad esempio le parti create da dividiInParti()).
+     * Di default, non cancella il contenuto precedente del file.
      *
-     * @param jfm JavaFileManager da cui copiare il contenuto del file.
+     * @param parti JFM dei file da accodare.
+     * @return Numero di byte accodati. -1 in caso di errore durante l'unione.
+     * @see #unisci(List, boolean)
+     */
+    public long unisci(List<JavaFileManager> parti) {
+        return unisci(parti, false);
+    }
+
+    /**
+     * Metodo che permette di accodare al file il contenuto di altri file, nell'ordine della lista. Ogni file viene copiato tramite FileChannel#transferTo,
+     * senza passare i dati per la memoria della JVM. Per tutta l'unione vengono mantenuti il lock di scrittura di questo file e quelli di lettura dei file accodati,
+     * acquisiti sempre nello stesso ordine come in copiaDa(), così che nessun'altra scrittura possa inserirsi tra un file accodato e l'altro.
+     *
+     * @param parti JFM dei file da accodare. Nessuno può coincidere con il file di destinazione.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @return Numero di byte accodati. -1 in caso di errore durante l'unione: i file già accodati restano nel file.
      */
-    public synchronized void copiaDa(JavaFileManager jfm) {
-        if(jfm.leggi() != null) {
-            this.scrivi(jfm.leggi(), false);
+    public long unisci(List<JavaFileManager> parti, boolean cancellaContenutoPrecedente) {
+        long inizio = MetricheJFM.inizio();
+        if(parti == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile unire i file tramite JFM. Non è stato indicato alcun file da accodare.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da unisci(List, boolean).");
+            return -1;
+        }
+        List<JavaFileManager> daBloccare = new ArrayList<>();
+        daBloccare.add(this);
+        for(JavaFileManager parte : parti) {
+            if(parte == null) {
+                if(this.mostraAvvisi) System.err.println("Impossibile unire i file tramite JFM. Uno dei file da accodare non è valido.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da unisci(List, boolean).");
+                return -1;
+            }
+            if(daBloccare.contains(parte)) continue;
+            parte.svuotaInSospeso("unisci(List, boolean)");
+            daBloccare.add(parte);
+        }
+        daBloccare.sort(Comparator.comparingInt(System::identityHashCode));
+        List<Lock> lock = new ArrayList<>();
+        boolean stessoHash = false;
+        for(int i = 0; i < daBloccare.size(); i++) {
+            JavaFileManager jfm = daBloccare.get(i);
+            lock.add(jfm == this ? jfm.lock.writeLock() : jfm.lock.readLock());
+            if(i > 0 && System.identityHashCode(jfm) == System.identityHashCode(daBloccare.get(i - 1))) stessoHash = true;
+        }
+        long[] totale = new long[1];
+        Runnable unione = () -> totale[0] = accoda(parti, cancellaContenutoPrecedente, inizio);
+        if(stessoHash) {
+            synchronized (LOCK_COPIA) {
+                eseguiBloccando(lock, unione);
+            }
         } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la lettura del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da copiaDa().");
+            eseguiBloccando(lock, unione);
         }
+        return totale[0];
     }
 
     /**
-     * Metodo che permette di copiare il contenuto di un altro file in questo file.
+     * Metodo che accoda al file il contenuto di altri file. Deve essere invocato con il lock di scrittura di questo file e quelli di lettura dei file accodati.
      *
-     * @param nomeFile Percorso dalla root del progetto del file da cui copiare il contenuto del file.
+     * @param parti JFM dei file da accodare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param inizio Istante di inizio dell'operazione, per le metriche.
+     * @return Numero di byte accodati. -1 in caso di errore durante l'unione.
      */
-    public synchronized void copiaDa(String nomeFile) {
-        JavaFileManager jfmCopiaDa = new JavaFileManager(nomeFile);
-        if(jfmCopiaDa.leggi() != null && this.fileDaGestire != null) {
-            this.scrivi(jfmCopiaDa.leggi(), false);
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile copiare il contenuto del file tramite JFM. Errore durante la lettura del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da copiaDa().");
+    private long accoda(List<JavaFileManager> parti, boolean cancellaContenutoPrecedente, long inizio) {
+        if(this.fileDaGestire == null) {
+            if(this.mostraAvvisi) System.err.println("Impossibile unire i file tramite JFM. Non è stato inserito alcun file da gestire.\nDa JFM('null').\nGenerato da unisci(List, boolean).");
+            return -1;
         }
+        try {
+            File destinazione = this.fileDaGestire.getCanonicalFile();
+            for(JavaFileManager parte : parti) {
+                if(parte.fileDaGestire == null || parte.fileDaGestire.getCanonicalFile().equals(destinazione)) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile unire i file tramite JFM. Uno dei file da accodare non è valido o coincide con il file di destinazione.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da unisci(List, boolean).");
+                    return -1;
+                }
+            }
+            preparaScrittura(cancellaContenutoPrecedente, "unisci(List, boolean)");
+            try (FileChannel canale = FileChannel.open(this.fileDaGestire.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+                if(cancellaContenutoPrecedente) canale.truncate(0);
+                canale.position(canale.size());
+                long totale = 0;
+                for(JavaFileManager parte : parti) totale += DivisioneFile.accoda(parte.fileDaGestire, canale);
+                registra(OperazioneIO.COPIA, inizio, totale);
+                return totale;
+            }
+        } catch (IOException e) {
+            if(this.mostraAvvisi) System.err.println("Errore durante l'unione dei file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da unisci(List, boolean).");
+            return -1;
+        } finally {
+            invalidaCache();
+        }
+    }
+
+    /**
+     * Metodo che permette di leggere il contenuto del file in modo asincrono, sull'esecutore predefinito (un thread virtuale per operazione, se disponibile).
+     *
+     * @return CompletableFuture completato con il contenuto del file, come restituito da leggi().
+     * @see #leggiAsync(Executor)
+     */
+    public CompletableFuture<String> leggiAsync() {
+        return leggiAsync(null);
+    }
+
+    /**
+     * Metodo che permette di leggere il contenuto del file in modo asincrono.
+     * Se il CompletableFuture viene annullato o scade (orTimeout()) prima dell'avvio della lettura, il file non viene letto. Una lettura già avviata viene completata e il risultato scartato.
+     *
+     * @param esecutore Esecutore su cui eseguire la lettura. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato con il contenuto del file, come restituito da leggi() (null in caso di errore).
+     */
+    public CompletableFuture<String> leggiAsync(Executor esecutore) {
+        return EsecuzioneAsincrona.esegui(this::leggi, esecutore);
+    }
+
+    /**
+     * Metodo che permette di scrivere in modo asincrono nel file, sull'esecutore predefinito. Di default, manda a capo e non cancella il contenuto precedente del file.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @return CompletableFuture completato al termine della scrittura.
+     * @see #scriviAsync(String, boolean, boolean, Executor)
+     */
+    public CompletableFuture<Void> scriviAsync(String testoDaScrivere) {
+        return scriviAsync(testoDaScrivere, true, false, null);
+    }
+
+    /**
+     * Metodo che permette di scrivere in modo asincrono nel file, come scrivi(String, boolean, boolean).
+     * Se il CompletableFuture viene annullato o scade prima dell'avvio della scrittura, il testo non viene scritto. Una scrittura già avviata viene completata.
+     *
+     * @param testoDaScrivere Testo da scrivere nel file.
+     * @param mandaACapo Variabile che indica se mandare o meno a capo il testo.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param esecutore Esecutore su cui eseguire la scrittura. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato al termine della scrittura.
+     */
+    public CompletableFuture<Void> scriviAsync(String testoDaScrivere, boolean mandaACapo, boolean cancellaContenutoPrecedente, Executor esecutore) {
+        return EsecuzioneAsincrona.eseguiSenzaRisultato(() -> scrivi(testoDaScrivere, mandaACapo, cancellaContenutoPrecedente), esecutore);
+    }
+
+    /**
+     * Metodo che permette di serializzare un oggetto in modo asincrono, sull'esecutore predefinito. Di default, non cancella il contenuto precedente del file.
+     *
+     * @param oggettoDaSerializzare Oggetto da serializzare.
+     * @return CompletableFuture completato al termine della serializzazione.
+     * @see #scriviOggettoAsync(Object, boolean, Executor)
+     */
+    public CompletableFuture<Void> scriviOggettoAsync(Object oggettoDaSerializzare) {
+        return scriviOggettoAsync(oggettoDaSerializzare, false, null);
+    }
+
+    /**
+     * Metodo che permette di serializzare un oggetto in modo asincrono, come scriviOggetto(Object, boolean).
+     *
+     * @param oggettoDaSerializzare Oggetto da serializzare.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file.
+     * @param esecutore Esecutore su cui eseguire la serializzazione. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato al termine della serializzazione.
+     */
+    public CompletableFuture<Void> scriviOggettoAsync(Object oggettoDaSerializzare, boolean cancellaContenutoPrecedente, Executor esecutore) {
+        return EsecuzioneAsincrona.eseguiSenzaRisultato(() -> scriviOggetto(oggettoDaSerializzare, cancellaContenutoPrecedente), esecutore);
+    }
+
+    /**
+     * Metodo che permette di de-serializzare un oggetto in modo asincrono, sull'esecutore predefinito.
+     *
+     * @return CompletableFuture completato con l'oggetto de-serializzato, come restituito da leggiOggetto().
+     * @see #leggiOggettoAsync(Executor)
+     */
+    public CompletableFuture<Object> leggiOggettoAsync() {
+        return leggiOggettoAsync(null);
+    }
+
+    /**
+     * Metodo che permette di de-serializzare un oggetto in modo asincrono, come leggiOggetto().
+     *
+     * @param esecutore Esecutore su cui eseguire la de-serializzazione. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato con l'oggetto de-serializzato (null in caso di errore).
+     */
+    public CompletableFuture<Object> leggiOggettoAsync(Executor esecutore) {
+        return EsecuzioneAsincrona.esegui(this::leggiOggetto, esecutore);
+    }
+
+    /**
+     * Metodo che permette di copiare in modo asincrono il contenuto del file in un altro file specificato, sull'esecutore predefinito. Di default, non cancella il contenuto precedente del file di destinazione.
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @return CompletableFuture completato al termine della copia.
+     * @see #copiaInAsync(JavaFileManager, boolean, Executor)
+     */
+    public CompletableFuture<Void> copiaInAsync(JavaFileManager jfm) {
+        return copiaInAsync(jfm, false, null);
+    }
+
+    /**
+     * Metodo che permette di copiare in modo asincrono il contenuto del file in un altro file specificato, come copiaIn(JavaFileManager, boolean).
+     *
+     * @param jfm JavaFileManager in cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione.
+     * @param esecutore Esecutore su cui eseguire la copia. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato al termine della copia.
+     */
+    public CompletableFuture<Void> copiaInAsync(JavaFileManager jfm, boolean cancellaContenutoPrecedente, Executor esecutore) {
+        return EsecuzioneAsincrona.eseguiSenzaRisultato(() -> copiaIn(jfm, cancellaContenutoPrecedente), esecutore);
+    }
+
+    /**
+     * Metodo che permette di copiare in modo asincrono il contenuto del file in un altro file specificato, sull'esecutore predefinito. Di default, non cancella il contenuto precedente del file di destinazione.
+     *
+     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     * @return CompletableFuture completato al termine della copia.
+     * @see #copiaInAsync(String, boolean, Executor)
+     */
+    public CompletableFuture<Void> copiaInAsync(String nomeFile) {
+        return copiaInAsync(nomeFile, false, null);
+    }
+
+    /**
+     * Metodo che permette di copiare in modo asincrono il contenuto del file in un altro file specificato, come copiaIn(String, boolean).
+     *
+     * @param nomeFile Percorso dalla root del progetto del file in cui copiare il contenuto del file.
+     * @param cancellaContenutoPrecedente Variabile che indica se cancellare o meno il contenuto precedente del file di destinazione.
+     * @param esecutore Esecutore su cui eseguire la copia. Se null, viene utilizzato l'esecutore predefinito.
+     * @return CompletableFuture completato al termine della copia.
+     */
+    public CompletableFuture<Void> copiaInAsync(String nomeFile, boolean cancellaContenutoPrecedente, Executor esecutore) {
+        return EsecuzioneAsincrona.eseguiSenzaRisultato(() -> copiaIn(nomeFile, cancellaContenutoPrecedente), esecutore);
     }
 
     /**
      * Metodo che permette di cancellare il contenuto del file tramite il metodo scrivi().
      * @see #scrivi(String, boolean, boolean)
      */
-    public synchronized void cancellaContenuto() {
-        this.scrivi("", false, true);
+    public void cancellaContenuto() {
+        blocca(this.lock.writeLock());
+        try {
+            this.scrivi("", false, true);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Metodo che restituisce il file indice gestito da JFM associato al file, riconoscendone il formato dal numero magico iniziale:
+     * quello del log di oggetti (.jfmidx) o quello del file di record (.bidx).
+     * @return File indice associato al file. Null se il file non è né un log di oggetti né un file di record o non può essere letto.
+     */
+    private File fileIndice() {
+        try (DataInputStream input = new DataInputStream(new FileInputStream(this.fileDaGestire))) {
+            int magia = input.readInt();
+            if(magia == LogOggetti.MAGIA) return LogOggetti.fileIndice(this.fileDaGestire);
+            if(magia == FileRecord.MAGIA) return FileRecord.fileIndice(this.fileDaGestire);
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
     }
 
     /**
-     * Metodo che permette di eliminare il file.
+     * Metodo che permette di eliminare il file e l'eventuale file indice del log di oggetti o del file di record.
      * @see File#delete()
      */
-    public synchronized void elimina() {
-        if(this.fileDaGestire.isFile() && this.fileDaGestire.exists()) {
-            if(!this.fileDaGestire.delete()) {
-                if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file tramite JFM. Errore durante l'eliminazione del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da elimina().");
+    public void elimina() {
+        blocca(this.lock.writeLock());
+        try {
+            if(this.fileDaGestire.isFile() && this.fileDaGestire.exists()) {
+                chiudiMappatura();
+                rilasciaCanaleLettura();
+                PoolCanali.condiviso().scarta(this.fileDaGestire);
+                File fileIndice = fileIndice();
+                if(!this.fileDaGestire.delete()) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file tramite JFM. Errore durante l'eliminazione del file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da elimina().");
+                } else if(fileIndice != null && fileIndice.exists() && !fileIndice.delete()) {
+                    if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file indice tramite JFM. Errore durante l'eliminazione del file '" + fileIndice + "'.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da elimina().");
+                }
+            } else {
+                if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file tramite JFM. Il file non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da elimina().");
             }
-        } else {
-            if(this.mostraAvvisi) System.err.println("Impossibile eliminare il file tramite JFM. Il file non esiste o non è un file.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da elimina().");
+        } finally {
+            invalidaCache();
+            this.lock.writeLock().unlock();
         }
     }
 
     /**
-     * Metodo che permette di chiudere lo stream di input per la lettura di dati tipizzati.
-     * È obbligatorio invocare questo metodo prima di terminare il programma.
+     * Metodo che permette di rilasciare il canale per la lettura di dati tipizzati e di chiudere l'eventuale sessione di scrittura, l'eventuale mappatura in memoria, l'eventuale scrittura asincrona, l'eventuale inseguimento del file, l'eventuale log segmentato e l'eventuale file di record.
+     * È obbligatorio invocare questo metodo (o close()) al termine dell'utilizzo di JFM. Una successiva lettura di dati tipizzati acquisisce di nuovo il canale.
      */
-    public synchronized void termina() {
+    public void termina() {
+        Inseguimento inseguimento = null;
+        blocca(this.lock.writeLock());
         try {
-            if(this.inputStreamTipizzato != null) this.inputStreamTipizzato.close();
-        } catch (IOException e) {
-            if(this.mostraAvvisi) System.err.println("Errore durante la chiusura del file tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da termina().");
+            chiudiScrittura();
+            chiudiMappatura();
+            fermaScritturaAsincrona();
+            inseguimento = interrompiInseguimento("termina()");
+            fermaLogSegmentato();
+            chiudiRecord();
+            rilasciaCanaleLettura();
+            if(this.nomeMBean != null) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.nomeMBean);
+                } catch (JMException e) {
+                    if(this.mostraAvvisi) System.err.println("Errore durante la rimozione dell'MBean tramite JFM.\nDa JFM('" + this.fileDaGestire + "').\nGenerato da termina().");
+                } finally {
+                    this.nomeMBean = null;
+                }
+            }
+        } finally {
+            this.lock.writeLock().unlock();
         }
+        attendiInseguimento(inseguimento);
+    }
+
+    /**
+     * Metodo che permette di utilizzare JFM con try-with-resources. Equivale a termina().
+     *
+     * @see #termina()
+     */
+    @Override
+    public void close() {
+        termina();
     }
 
     @Override
@@ -0,0 +1,144 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * LettoreIncrementale
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Lettore delle righe aggiunte a un file di testo, utilizzato da JavaFileManager per l'inseguimento dei file di log.
+ * Il lettore ricorda la posizione successiva all'ultima riga completa letta: ogni lettura legge solo i byte aggiunti da allora, per cui il suo costo non dipende dalla dimensione del file.
+ * Una riga non ancora terminata da '\n' viene restituita solo quando è completa.</p>
+ * <p> Il lettore riparte dall'inizio del file se il file viene troncato (dimensione inferiore alla posizione ricordata, oppure l'ultimo byte letto non è più un '\n')
+ * o ruotato (il percorso corrisponde a un file diverso, riconosciuto tramite BasicFileAttributes#fileKey()).</p>
+ */
+class LettoreIncrementale {
+
+    /**
+     * Dimensione (in byte) del buffer di lettura.
+     */
+    private static final int DIMENSIONE_BUFFER = 64 * 1024;
+
+    private final File file;
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Posizione nel file successiva all'ultima riga completa letta.
+     */
+    private long posizione;
+
+    /**
+     * Identificativo del file letto, per riconoscerne la rotazione. Null se non disponibile.
+     */
+    private Object chiaveFile = null;
+
+    /**
+     * Costruttore di LettoreIncrementale.
+     * @param file File da leggere.
+     * @param dallaFine Variabile che indica se ignorare il contenuto già presente nel file e leggere solo le righe aggiunte in seguito.
+     */
+    LettoreIncrementale(File file, boolean dallaFine) {
+        this.file = file;
+        if(dallaFine) {
+            try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                this.chiaveFile = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+                this.posizione = fineUltimaRiga(canale, canale.size());
+            } catch (IOException e) {
+                this.posizione = 0;
+                this.chiaveFile = null;
+            }
+        }
+    }
+
+    /**
+     * Metodo che cerca, a ritroso, la posizione successiva all'ultimo '\n' del file, così che un'eventuale riga non ancora terminata venga letta quando completa.
+     * @param canale Canale del file.
+     * @param dimensione Dimensione (in byte) del file.
+     * @return Posizione successiva all'ultimo '\n'. 0 se il file non contiene '\n'.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private static long fineUltimaRiga(FileChannel canale, long dimensione) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long fine = dimensione;
+        while(fine > 0) {
+            long inizio = Math.max(0, fine - buffer.capacity());
+            buffer.clear();
+            buffer.limit((int) (fine - inizio));
+            int letti = canale.read(buffer, inizio);
+            if(letti <= 0) break;
+            for(int i = letti - 1; i >= 0; i--) {
+                if(buffer.get(i) == '\n') return inizio + i + 1;
+            }
+            fine = inizio;
+        }
+        return 0;
+    }
+
+    /**
+     * Metodo che legge le righe complete aggiunte al file dall'ultima lettura.
+     * @return Righe lette, prive del terminatore di riga. Vuota se non sono state aggiunte righe o se il file non esiste (ad esempio durante una rotazione).
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    synchronized List<String> leggi() throws IOException {
+        List<String> righe = new ArrayList<>();
+        try (FileChannel canale = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            Object chiave = Files.readAttributes(this.file.toPath(), BasicFileAttributes.class).fileKey();
+            long dimensione = canale.size();
+            if(!Objects.equals(chiave, this.chiaveFile) || dimensione < this.posizione || !terminaRiga(canale)) {
+                this.posizione = 0;
+                this.chiaveFile = chiave;
+            }
+            ByteArrayOutputStream riga = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(DIMENSIONE_BUFFER);
+            long letta = this.posizione;
+            while(letta < dimensione) {
+                buffer.clear();
+                if(dimensione - letta < buffer.capacity()) buffer.limit((int) (dimensione - letta));
+                int letti = canale.read(buffer, letta);
+                if(letti <= 0) break;
+                for(int i = 0; i < letti; i++) {
+                    byte b = buffer.get(i);
+                    if(b == '\n') {
+                        righe.add(decodifica(riga));
+                        riga.reset();
+                        this.posizione = letta + i + 1;
+                    } else {
+                        riga.write(b);
+                    }
+                }
+                letta += letti;
+            }
+        } catch (NoSuchFileException e) {
+            // Il file è stato rimosso (ad esempio durante una rotazione): verrà letto dall'inizio quando ricreato.
+        }
+        return righe;
+    }
+
+    /**
+     * Metodo che verifica se il byte precedente alla posizione ricordata è ancora un '\n', cioè se il contenuto già letto non è stato sostituito.
+     */
+    private boolean terminaRiga(FileChannel canale) throws IOException {
+        if(this.posizione == 0) return true;
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        return canale.read(ultimo, this.posizione - 1) == 1 && ultimo.get(0) == '\n';
+    }
+
+    /**
+     * Metodo che decodifica una riga, escluso l'eventuale '\r' finale.
+     */
+    private String decodifica(ByteArrayOutputStream riga) {
+        byte[] bytes = riga.toByteArray();
+        int lunghezza = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, lunghezza, this.charset);
+    }
+}
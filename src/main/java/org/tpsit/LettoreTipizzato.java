@@ -0,0 +1,228 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * LettoreTipizzato
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Lettore di dati tipizzati utilizzato da JavaFileManager. Legge il file a blocchi tramite un FileChannel e un ByteBuffer, evitando una chiamata di sistema per ogni byte letto,
+ * e decodifica i dati nel formato di DataOutputStream (big-endian). Le letture sono posizionali: il lettore mantiene la propria posizione nel file senza modificare quella del canale,
+ * per cui più lettori (uno per thread) possono condividere lo stesso canale. Il canale non viene chiuso dal lettore.</p>
+ */
+class LettoreTipizzato {
+
+    /**
+     * Dimensione (in byte) del buffer di lettura.
+     */
+    static final int DIMENSIONE_BUFFER = 64 * 1024;
+
+    /**
+     * Canale del file da cui leggere.
+     */
+    private final FileChannel canale;
+
+    /**
+     * Buffer contenente i byte letti dal file e non ancora decodificati.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocate(DIMENSIONE_BUFFER);
+
+    /**
+     * Posizione nel file del primo byte non ancora caricato nel buffer.
+     */
+    private long posizione = 0;
+
+    /**
+     * Generazione del file a cui appartengono i byte contenuti nel buffer.
+     */
+    private long generazione = 0;
+
+    /**
+     * Costruttore di LettoreTipizzato.
+     * @param canale Canale del file da cui leggere.
+     */
+    LettoreTipizzato(FileChannel canale) {
+        this.canale = canale;
+        this.buffer.limit(0);
+    }
+
+    /**
+     * Metodo che carica nel buffer altri byte dal file.
+     * @return False se il file è terminato e non è stato letto alcun byte.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private boolean riempi() throws IOException {
+        this.buffer.compact();
+        int letti;
+        try {
+            letti = this.canale.read(this.buffer, this.posizione);
+        } finally {
+            this.buffer.flip();
+        }
+        if(letti <= 0) return false;
+        this.posizione += letti;
+        return true;
+    }
+
+    /**
+     * Metodo che garantisce la presenza nel buffer di almeno n byte.
+     * @param n Numero di byte richiesti (non superiore alla dimensione del buffer).
+     * @throws EOFException Se il file termina prima di n byte.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private void richiedi(int n) throws IOException {
+        while(this.buffer.remaining() < n) {
+            if(!riempi()) throw new EOFException();
+        }
+    }
+
+    int leggiInt() throws IOException {
+        richiedi(Integer.BYTES);
+        return this.buffer.getInt();
+    }
+
+    long leggiLong() throws IOException {
+        richiedi(Long.BYTES);
+        return this.buffer.getLong();
+    }
+
+    float leggiFloat() throws IOException {
+        richiedi(Float.BYTES);
+        return this.buffer.getFloat();
+    }
+
+    double leggiDouble() throws IOException {
+        richiedi(Double.BYTES);
+        return this.buffer.getDouble();
+    }
+
+    /**
+     * Metodo che legge una stringa nel formato UTF modificato di DataOutputStream#writeUTF(String).
+     * @return Stringa letta.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    String leggiUTF() throws IOException {
+        richiedi(2);
+        int lunghezza = this.buffer.getShort() & 0xFFFF;
+        byte[] codificata = new byte[lunghezza + 2];
+        codificata[0] = (byte) (lunghezza >>> 8);
+        codificata[1] = (byte) lunghezza;
+        int letti = 0;
+        while(letti < lunghezza) {
+            if(!this.buffer.hasRemaining() && !riempi()) throw new EOFException();
+            int n = Math.min(lunghezza - letti, this.buffer.remaining());
+            this.buffer.get(codificata, letti + 2, n);
+            letti += n;
+        }
+        return new DataInputStream(new ByteArrayInputStream(codificata)).readUTF();
+    }
+
+    /**
+     * Metodo che garantisce la presenza nel buffer di almeno un elemento della dimensione indicata, se il file non è terminato.
+     * @param dimensioneElemento Dimensione (in byte) dell'elemento.
+     * @return False se il file termina prima di un elemento completo.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private boolean disponibile(int dimensioneElemento) throws IOException {
+        while(this.buffer.remaining() < dimensioneElemento) {
+            if(!riempi()) return false;
+        }
+        return true;
+    }
+
+    int leggi(int[] destinazione, int inizio, int lunghezza, ByteOrder ordine) throws IOException {
+        int letti = 0;
+        this.buffer.order(ordine);
+        try {
+            while(letti < lunghezza && disponibile(Integer.BYTES)) {
+                int n = Math.min(lunghezza - letti, this.buffer.remaining() / Integer.BYTES);
+                this.buffer.asIntBuffer().get(destinazione, inizio + letti, n);
+                this.buffer.position(this.buffer.position() + n * Integer.BYTES);
+                letti += n;
+            }
+        } finally {
+            this.buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        return letti;
+    }
+
+    int leggi(long[] destinazione, int inizio, int lunghezza, ByteOrder ordine) throws IOException {
+        int letti = 0;
+        this.buffer.order(ordine);
+        try {
+            while(letti < lunghezza && disponibile(Long.BYTES)) {
+                int n = Math.min(lunghezza - letti, this.buffer.remaining() / Long.BYTES);
+                this.buffer.asLongBuffer().get(destinazione, inizio + letti, n);
+                this.buffer.position(this.buffer.position() + n * Long.BYTES);
+                letti += n;
+            }
+        } finally {
+            this.buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        return letti;
+    }
+
+    int leggi(float[] destinazione, int inizio, int lunghezza, ByteOrder ordine) throws IOException {
+        int letti = 0;
+        this.buffer.order(ordine);
+        try {
+            while(letti < lunghezza && disponibile(Float.BYTES)) {
+                int n = Math.min(lunghezza - letti, this.buffer.remaining() / Float.BYTES);
+                this.buffer.asFloatBuffer().get(destinazione, inizio + letti, n);
+                this.buffer.position(this.buffer.position() + n * Float.BYTES);
+                letti += n;
+            }
+        } finally {
+            this.buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        return letti;
+    }
+
+    int leggi(double[] destinazione, int inizio, int lunghezza, ByteOrder ordine) throws IOException {
+        int letti = 0;
+        this.buffer.order(ordine);
+        try {
+            while(letti < lunghezza && disponibile(Double.BYTES)) {
+                int n = Math.min(lunghezza - letti, this.buffer.remaining() / Double.BYTES);
+                this.buffer.asDoubleBuffer().get(destinazione, inizio + letti, n);
+                this.buffer.position(this.buffer.position() + n * Double.BYTES);
+                letti += n;
+            }
+        } finally {
+            this.buffer.order(ByteOrder.BIG_ENDIAN);
+        }
+        return letti;
+    }
+
+    /**
+     * Metodo che restituisce la posizione nel file del prossimo byte da leggere.
+     * @return Posizione (in byte) nel file.
+     */
+    long posizione() {
+        return this.posizione - this.buffer.remaining();
+    }
+
+    /**
+     * Metodo che scarta i byte letti in anticipo se il file è stato modificato dopo la loro lettura, mantenendo la posizione del lettore:
+     * la lettura successiva rilegge i byte dal file.
+     * @param generazione Generazione corrente del file, incrementata ad ogni scrittura.
+     */
+    void sincronizza(long generazione) {
+        if(this.generazione == generazione) return;
+        this.posizione = posizione();
+        this.buffer.clear().limit(0);
+        this.generazione = generazione;
+    }
+
+    /**
+     * Metodo che verifica se il lettore legge dal canale indicato.
+     * @param canale Canale da verificare.
+     * @return True se il lettore legge dal canale indicato.
+     */
+    boolean utilizza(FileChannel canale) {
+        return this.canale == canale;
+    }
+}
@@ -0,0 +1,147 @@
+package org.tpsit;
+
+import java.io.*;
+
+/**
+ * LogOggetti
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Formato del log di oggetti serializzati utilizzato da JavaFileManager.
+ * Il file inizia con un'unica intestazione (numero magico e versione), seguita dai record: ogni record è composto dalla lunghezza (int) e dall'oggetto serializzato.
+ * I record non contengono l'intestazione di ObjectOutputStream e i descrittori delle classi sono ridotti al solo nome della classe, per cui ogni record è indipendente
+ * dagli altri e può essere letto direttamente conoscendone la posizione. Le classi devono essere le stesse in scrittura e in lettura.</p>
+ */
+class LogOggetti {
+
+    /**
+     * Numero magico all'inizio del file ("JFML").
+     */
+    static final int MAGIA = 0x4A464D4C;
+
+    /**
+     * Versione del formato.
+     */
+    static final int VERSIONE = 1;
+
+    /**
+     * Dimensione (in byte) dell'intestazione del file.
+     */
+    static final int DIMENSIONE_INTESTAZIONE = 2 * Integer.BYTES;
+
+    /**
+     * Estensione del file indice, contenente la posizione (long) di ogni record.
+     */
+    static final String ESTENSIONE_INDICE = ".jfmidx";
+
+    private LogOggetti() {
+    }
+
+    /**
+     * Metodo che restituisce il file indice associato a un log.
+     * @param log File del log.
+     * @return File indice.
+     */
+    static File fileIndice(File log) {
+        return new File(log.getPath() + ESTENSIONE_INDICE);
+    }
+
+    /**
+     * Metodo che scrive l'intestazione del log.
+     * @param output Stream su cui scrivere.
+     * @throws IOException In caso di errore durante la scrittura.
+     */
+    static void scriviIntestazione(DataOutput output) throws IOException {
+        output.writeInt(MAGIA);
+        output.writeInt(VERSIONE);
+    }
+
+    /**
+     * Metodo che verifica l'intestazione del log.
+     * @param input Stream da cui leggere.
+     * @throws IOException Se il file non è un log di oggetti o in caso di errore durante la lettura.
+     */
+    static void verificaIntestazione(DataInput input) throws IOException {
+        if(input.readInt() != MAGIA || input.readInt() != VERSIONE) throw new StreamCorruptedException("Il file non è un log di oggetti di JFM");
+    }
+
+    /**
+     * Metodo che legge la lunghezza di un record.
+     * @param input Stream da cui leggere.
+     * @return Lunghezza (in byte) del record.
+     * @throws IOException Se la lunghezza non è valida o in caso di errore durante la lettura.
+     */
+    static int leggiLunghezza(DataInput input) throws IOException {
+        int lunghezza = input.readInt();
+        if(lunghezza < 0) throw new StreamCorruptedException("Lunghezza del record non valida: " + lunghezza);
+        return lunghezza;
+    }
+
+    /**
+     * Metodo che serializza un oggetto nel formato di un record, senza intestazione e con i descrittori di classe ridotti.
+     * @param oggetto Oggetto da serializzare.
+     * @return Byte dell'oggetto serializzato.
+     * @throws IOException In caso di errore durante la serializzazione.
+     */
+    static byte[] codifica(Object oggetto) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new OutputRecord(bytes)) {
+            output.writeObject(oggetto);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Metodo che de-serializza un oggetto scritto con codifica(Object).
+     * @param record Byte dell'oggetto serializzato.
+     * @return Oggetto de-serializzato.
+     * @throws IOException In caso di errore durante la de-serializzazione.
+     * @throws ClassNotFoundException Se la classe dell'oggetto non è disponibile.
+     */
+    static Object decodifica(byte[] record) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream input = new InputRecord(new ByteArrayInputStream(record))) {
+            return input.readObject();
+        }
+    }
+
+    /**
+     * ObjectOutputStream che non scrive l'intestazione e riduce i descrittori di classe al nome della classe.
+     */
+    private static class OutputRecord extends ObjectOutputStream {
+
+        OutputRecord(OutputStream output) throws IOException {
+            super(output);
+        }
+
+        @Override
+        protected void writeStreamHeader() {
+        }
+
+        @Override
+        protected void writeClassDescriptor(ObjectStreamClass descrittore) throws IOException {
+            writeUTF(descrittore.getName());
+        }
+    }
+
+    /**
+     * ObjectInputStream che legge i record scritti da OutputRecord, ricostruendo i descrittori di classe dalle classi locali.
+     */
+    private static class InputRecord extends ObjectInputStream {
+
+        InputRecord(InputStream input) throws IOException {
+            super(input);
+        }
+
+        @Override
+        protected void readStreamHeader() {
+        }
+
+        @Override
+        protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+            String nomeClasse = readUTF();
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            ObjectStreamClass descrittore = ObjectStreamClass.lookupAny(Class.forName(nomeClasse, false, loader != null ? loader : LogOggetti.class.getClassLoader()));
+            if(descrittore == null) throw new InvalidClassException(nomeClasse, "Classe non serializzabile");
+            return descrittore;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * LogSegmentato
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Log di testo diviso in segmenti, utilizzato da JavaFileManager al posto di un unico file che cresce senza limiti.
+ * I segmenti si trovano nella cartella del file e si chiamano come il file seguito dal numero del segmento (ad esempio "app.log.0000000001"):
+ * l'ordine dei numeri è l'ordine di scrittura.</p>
+ * <p> Le righe vengono scritte in append sul segmento attivo, tramite un canale che resta aperto fino alla chiusura del log, per cui ogni scrittura costa un'unica write()
+ * indipendentemente dalla dimensione del log. Il segmento attivo viene chiuso e ne viene aperto uno nuovo (rotazione) quando la riga da scrivere supererebbe la dimensione massima
+ * del segmento o quando il segmento è aperto da più della durata massima. A ogni rotazione vengono eliminati i segmenti più vecchi oltre il numero massimo di segmenti o il numero massimo di byte.</p>
+ */
+class LogSegmentato implements Closeable {
+
+    /**
+     * Numero di cifre del numero di segmento nel nome del file.
+     */
+    private static final int CIFRE = 10;
+
+    /**
+     * Segmento chiuso, con la sua dimensione definitiva.
+     */
+    private static class Segmento {
+        private final File file;
+        private final long dimensione;
+
+        Segmento(File file, long dimensione) {
+            this.file = file;
+            this.dimensione = dimensione;
+        }
+    }
+
+    private final File base;
+    private final Charset charset = Charset.defaultCharset();
+    private final long dimensioneSegmento;
+    private final long durataSegmentoNanos;
+    private final int segmentiMassimi;
+    private final long byteMassimi;
+
+    /**
+     * Segmenti chiusi non ancora eliminati, dal più vecchio.
+     */
+    private final ArrayDeque<Segmento> chiusi = new ArrayDeque<>();
+    private long byteChiusi = 0;
+
+    private long numeroAttivo;
+    private File fileAttivo;
+    private FileChannel canale;
+    private long dimensioneAttiva;
+    private long aperturaAttivo;
+
+    /**
+     * Costruttore di LogSegmentato. Riprende la scrittura dall'ultimo segmento esistente, se non ha già raggiunto la dimensione massima.
+     * @param base File del log: i segmenti ne condividono la cartella e il nome.
+     * @param dimensioneSegmento Dimensione (in byte) massima di un segmento. Una riga più grande viene scritta da sola in un segmento.
+     * @param durataSegmentoMs Tempo (in millisecondi) dopo il quale il segmento attivo viene ruotato alla scrittura successiva. 0 per ruotare solo per dimensione.
+     * @param segmentiMassimi Numero massimo di segmenti, compreso quello attivo. 0 per non limitarlo.
+     * @param byteMassimi Dimensione (in byte) massima complessiva dei segmenti. 0 per non limitarla.
+     * @throws IOException In caso di errore durante l'apertura del segmento attivo.
+     */
+    LogSegmentato(File base, long dimensioneSegmento, long durataSegmentoMs, int segmentiMassimi, long byteMassimi) throws IOException {
+        if(dimensioneSegmento <= 0 || durataSegmentoMs < 0 || segmentiMassimi < 0 || byteMassimi < 0) throw new IllegalArgumentException("Parametri del log segmentato non validi");
+        this.base = base.getAbsoluteFile();
+        this.dimensioneSegmento = dimensioneSegmento;
+        this.durataSegmentoNanos = durataSegmentoMs * 1_000_000L;
+        this.segmentiMassimi = segmentiMassimi;
+        this.byteMassimi = byteMassimi;
+        List<File> esistenti = segmenti(this.base);
+        for(File segmento : esistenti) {
+            this.chiusi.addLast(new Segmento(segmento, segmento.length()));
+            this.byteChiusi += segmento.length();
+        }
+        Segmento ultimo = this.chiusi.peekLast();
+        if(ultimo != null && ultimo.dimensione < dimensioneSegmento) {
+            this.chiusi.removeLast();
+            this.byteChiusi -= ultimo.dimensione;
+            apri(numero(ultimo.file));
+        } else {
+            apri(ultimo == null ? 1 : numero(ultimo.file) + 1);
+        }
+        applicaRitenzione();
+    }
+
+    /**
+     * Metodo che apre in append il segmento indicato come segmento attivo.
+     * @param numero Numero del segmento.
+     * @throws IOException In caso di errore durante l'apertura del segmento.
+     */
+    private void apri(long numero) throws IOException {
+        File file = segmento(this.base, numero);
+        this.canale = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.fileAttivo = file;
+        this.numeroAttivo = numero;
+        this.dimensioneAttiva = this.canale.size();
+        this.aperturaAttivo = System.nanoTime();
+    }
+
+    /**
+     * Metodo che scrive una riga nel segmento attivo, ruotandolo se necessario.
+     * @param testo Testo da scrivere.
+     * @param mandaACapo Variabile che indica se mandare a capo o meno dopo aver scritto il testo.
+     * @return Numero di byte scritti.
+     * @throws IOException In caso di errore durante la scrittura o la rotazione.
+     */
+    synchronized long scrivi(String testo, boolean mandaACapo) throws IOException {
+        if(this.canale == null) throw new IOException("Log segmentato chiuso");
+        ByteBuffer bytes = ByteBuffer.wrap((mandaACapo ? testo + System.lineSeparator() : testo).getBytes(this.charset));
+        if(this.dimensioneAttiva > 0 && (this.dimensioneAttiva + bytes.remaining() > this.dimensioneSegmento
+                || (this.durataSegmentoNanos > 0 && System.nanoTime() - this.aperturaAttivo >= this.durataSegmentoNanos))) {
+            ruota();
+        }
+        long scritti = 0;
+        while(bytes.hasRemaining()) scritti += this.canale.write(bytes);
+        this.dimensioneAttiva += scritti;
+        return scritti;
+    }
+
+    /**
+     * Metodo che chiude il segmento attivo, apre il successivo ed elimina i segmenti oltre i limiti di ritenzione.
+     * @throws IOException In caso di errore durante la chiusura o l'apertura dei segmenti.
+     */
+    private void ruota() throws IOException {
+        this.canale.close();
+        this.canale = null;
+        this.chiusi.addLast(new Segmento(this.fileAttivo, this.dimensioneAttiva));
+        this.byteChiusi += this.dimensioneAttiva;
+        apri(this.numeroAttivo + 1);
+        applicaRitenzione();
+    }
+
+    /**
+     * Metodo che elimina i segmenti chiusi più vecchi finché il log non rispetta il numero massimo di segmenti e di byte. Il segmento attivo non viene mai eliminato.
+     */
+    private void applicaRitenzione() {
+        while(!this.chiusi.isEmpty() && ((this.segmentiMassimi > 0 && this.chiusi.size() + 1 > this.segmentiMassimi)
+                || (this.byteMassimi > 0 && this.byteChiusi + this.dimensioneAttiva > this.byteMassimi))) {
+            Segmento vecchio = this.chiusi.removeFirst();
+            this.byteChiusi -= vecchio.dimensione;
+            if(!vecchio.file.delete() && vecchio.file.exists()) {
+                // Il segmento resta nel log e verrà eliminato alla prossima rotazione, se ancora oltre i limiti.
+                this.chiusi.addFirst(vecchio);
+                this.byteChiusi += vecchio.dimensione;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Metodo che chiude il segmento attivo.
+     * @throws IOException In caso di errore durante la chiusura del segmento.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if(this.canale == null) return;
+        try {
+            this.canale.close();
+        } finally {
+            this.canale = null;
+        }
+    }
+
+    /**
+     * Metodo che restituisce il file di un segmento.
+     * @param base File del log.
+     * @param numero Numero del segmento.
+     * @return File del segmento.
+     */
+    static File segmento(File base, long numero) {
+        return new File(base.getPath() + "." + String.format("%0" + CIFRE + "d", numero));
+    }
+
+    /**
+     * Metodo che restituisce il numero di un segmento dal nome del file.
+     */
+    private static long numero(File segmento) {
+        String nome = segmento.getName();
+        return Long.parseLong(nome.substring(nome.lastIndexOf('.') + 1));
+    }
+
+    /**
+     * Metodo che elenca i segmenti esistenti di un log, in ordine di scrittura.
+     * @param base File del log.
+     * @return Segmenti del log. Vuota se il log non ha segmenti.
+     */
+    static List<File> segmenti(File base) {
+        File assoluto = base.getAbsoluteFile();
+        File cartella = assoluto.getParentFile();
+        String prefisso = assoluto.getName() + ".";
+        File[] file = cartella == null ? null : cartella.listFiles((c, nome) -> nome.length() == prefisso.length() + CIFRE && nome.startsWith(prefisso)
+                && nome.substring(prefisso.length()).chars().allMatch(Character::isDigit));
+        List<File> segmenti = new ArrayList<>();
+        if(file == null) return segmenti;
+        for(File segmento : file) if(segmento.isFile()) segmenti.add(segmento);
+        segmenti.sort(Comparator.comparingLong(LogSegmentato::numero));
+        return segmenti;
+    }
+
+    /**
+     * Metodo che apre lo Stream delle righe di un segmento. Un segmento eliminato dalla ritenzione dopo l'elenco dei segmenti viene saltato.
+     * @param segmento File del segmento.
+     * @param charset Charset con cui decodificare il segmento.
+     * @return Stream delle righe del segmento, che chiude il file alla chiusura.
+     */
+    static Stream<String> righe(File segmento, Charset charset) {
+        try {
+            BufferedReader input = new BufferedReader(new InputStreamReader(new FileInputStream(segmento), charset));
+            return input.lines().onClose(() -> {
+                try {
+                    input.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (FileNotFoundException e) {
+            if(segmento.exists()) throw new UncheckedIOException(e);
+            return Stream.empty();
+        }
+    }
+}
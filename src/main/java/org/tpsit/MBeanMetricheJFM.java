@@ -0,0 +1,104 @@
+package org.tpsit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * MBeanMetricheJFM
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Implementazione di MetricheJFMMXBean che espone tramite JMX le istantanee delle metriche di un JFM o di tutti i JFM.</p>
+ */
+class MBeanMetricheJFM implements MetricheJFMMXBean {
+
+    private final Supplier<StatisticheIO> statistiche;
+    private final Runnable azzera;
+
+    /**
+     * Costruttore di MBeanMetricheJFM.
+     * @param statistiche Funzione che restituisce l'istantanea delle metriche.
+     * @param azzera Operazione che azzera i contatori.
+     */
+    MBeanMetricheJFM(Supplier<StatisticheIO> statistiche, Runnable azzera) {
+        this.statistiche = statistiche;
+        this.azzera = azzera;
+    }
+
+    private <T> Map<String, T> perOperazione(Function<OperazioneIO, T> valore) {
+        Map<String, T> valori = new LinkedHashMap<>();
+        for(OperazioneIO operazione : OperazioneIO.values()) valori.put(operazione.name(), valore.apply(operazione));
+        return valori;
+    }
+
+    @Override
+    public boolean isAbilitate() {
+        return MetricheJFM.abilitate();
+    }
+
+    @Override
+    public void setAbilitate(boolean abilitate) {
+        MetricheJFM.setAbilitate(abilitate);
+    }
+
+    @Override
+    public Map<String, Long> getOperazioni() {
+        StatisticheIO statistiche = this.statistiche.get();
+        return perOperazione(statistiche::getConteggio);
+    }
+
+    @Override
+    public Map<String, Long> getByte() {
+        StatisticheIO statistiche = this.statistiche.get();
+        return perOperazione(statistiche::getByte);
+    }
+
+    @Override
+    public Map<String, Long> getLatenzaMediaNanos() {
+        StatisticheIO statistiche = this.statistiche.get();
+        return perOperazione(statistiche::getLatenzaMediaNanos);
+    }
+
+    @Override
+    public Map<String, Long> getLatenzaP99Nanos() {
+        StatisticheIO statistiche = this.statistiche.get();
+        return perOperazione(operazione -> statistiche.getLatenzaPercentileNanos(operazione, 99));
+    }
+
+    @Override
+    public Map<String, long[]> getIstogrammiLatenza() {
+        StatisticheIO statistiche = this.statistiche.get();
+        return perOperazione(statistiche::getIstogrammaLatenza);
+    }
+
+    @Override
+    public long getByteLetti() {
+        return this.statistiche.get().getByteLetti();
+    }
+
+    @Override
+    public long getByteScritti() {
+        return this.statistiche.get().getByteScritti();
+    }
+
+    @Override
+    public long getAcquisizioniConAttesa() {
+        return this.statistiche.get().getAcquisizioniConAttesa();
+    }
+
+    @Override
+    public long getAttesaLockNanos() {
+        return this.statistiche.get().getAttesaLockNanos();
+    }
+
+    @Override
+    public int getFileAperti() {
+        return this.statistiche.get().getFileAperti();
+    }
+
+    @Override
+    public void azzera() {
+        this.azzera.run();
+    }
+}
@@ -0,0 +1,149 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * MappaturaTipizzata
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Mappatura in memoria di un file di dati tipizzati utilizzata da JavaFileManager. Il file viene mappato tramite FileChannel#map in segmenti da 1 GB,
+ * così da superare il limite di 2 GB di un singolo MappedByteBuffer. I dati sono letti e scritti nel formato di DataOutputStream (big-endian).</p>
+ */
+class MappaturaTipizzata implements Closeable {
+
+    /**
+     * Bit dell'offset che individuano la posizione all'interno di un segmento.
+     * La dimensione dei segmenti è multipla della dimensione di ogni tipo, per cui un elemento non è mai diviso tra due segmenti.
+     */
+    private static final int BIT_SEGMENTO = 30;
+
+    /**
+     * Dimensione (in byte) di un segmento.
+     */
+    private static final long DIMENSIONE_SEGMENTO = 1L << BIT_SEGMENTO;
+
+    /**
+     * File mappato in memoria.
+     */
+    private final RandomAccessFile file;
+
+    /**
+     * Segmenti in cui è mappato il file.
+     */
+    private final MappedByteBuffer[] segmenti;
+
+    /**
+     * Dimensione (in byte) della porzione di file mappata.
+     */
+    private final long dimensione;
+
+    /**
+     * Variabile che indica se la mappatura permette la scrittura.
+     */
+    private final boolean scrittura;
+
+    /**
+     * Costruttore di MappaturaTipizzata.
+     * @param fileDaMappare File da mappare in memoria.
+     * @param scrittura Variabile che indica se mappare il file anche in scrittura.
+     * @throws IOException In caso di errore durante l'apertura o la mappatura del file.
+     */
+    MappaturaTipizzata(File fileDaMappare, boolean scrittura) throws IOException {
+        this.scrittura = scrittura;
+        this.file = new RandomAccessFile(fileDaMappare, scrittura ? "rw" : "r");
+        try {
+            FileChannel canale = this.file.getChannel();
+            this.dimensione = canale.size();
+            this.segmenti = new MappedByteBuffer[(int) ((this.dimensione + DIMENSIONE_SEGMENTO - 1) >>> BIT_SEGMENTO)];
+            for(int i = 0; i < this.segmenti.length; i++) {
+                long inizio = (long) i << BIT_SEGMENTO;
+                this.segmenti[i] = canale.map(scrittura ? FileChannel.MapMode.READ_WRITE : FileChannel.MapMode.READ_ONLY, inizio, Math.min(DIMENSIONE_SEGMENTO, this.dimensione - inizio));
+                this.segmenti[i].order(ByteOrder.BIG_ENDIAN);
+            }
+        } catch (IOException e) {
+            this.file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Metodo che restituisce la dimensione in byte della porzione di file mappata.
+     * @return Dimensione in byte.
+     */
+    long dimensione() {
+        return this.dimensione;
+    }
+
+    /**
+     * Metodo che individua il segmento contenente l'elemento richiesto.
+     * @param indice Indice dell'elemento.
+     * @param dimensioneElemento Dimensione (in byte) dell'elemento.
+     * @return Segmento contenente l'elemento.
+     * @throws IndexOutOfBoundsException Se l'elemento non è interamente contenuto nel file.
+     */
+    private MappedByteBuffer segmento(long indice, int dimensioneElemento) {
+        if(indice < 0 || indice > (this.dimensione - dimensioneElemento) / dimensioneElemento) throw new IndexOutOfBoundsException("Indice " + indice + " fuori dal file");
+        return this.segmenti[(int) ((indice * dimensioneElemento) >>> BIT_SEGMENTO)];
+    }
+
+    /**
+     * Metodo che calcola la posizione dell'elemento all'interno del proprio segmento.
+     * @param indice Indice dell'elemento.
+     * @param dimensioneElemento Dimensione (in byte) dell'elemento.
+     * @return Posizione nel segmento.
+     */
+    private static int posizione(long indice, int dimensioneElemento) {
+        return (int) ((indice * dimensioneElemento) & (DIMENSIONE_SEGMENTO - 1));
+    }
+
+    int leggiInt(long indice) {
+        return segmento(indice, Integer.BYTES).getInt(posizione(indice, Integer.BYTES));
+    }
+
+    long leggiLong(long indice) {
+        return segmento(indice, Long.BYTES).getLong(posizione(indice, Long.BYTES));
+    }
+
+    float leggiFloat(long indice) {
+        return segmento(indice, Float.BYTES).getFloat(posizione(indice, Float.BYTES));
+    }
+
+    double leggiDouble(long indice) {
+        return segmento(indice, Double.BYTES).getDouble(posizione(indice, Double.BYTES));
+    }
+
+    void scriviInt(long indice, int valore) {
+        segmento(indice, Integer.BYTES).putInt(posizione(indice, Integer.BYTES), valore);
+    }
+
+    void scriviLong(long indice, long valore) {
+        segmento(indice, Long.BYTES).putLong(posizione(indice, Long.BYTES), valore);
+    }
+
+    void scriviFloat(long indice, float valore) {
+        segmento(indice, Float.BYTES).putFloat(posizione(indice, Float.BYTES), valore);
+    }
+
+    void scriviDouble(long indice, double valore) {
+        segmento(indice, Double.BYTES).putDouble(posizione(indice, Double.BYTES), valore);
+    }
+
+    /**
+     * Metodo che chiude il file mappato, scrivendo su disco le eventuali modifiche.
+     * I segmenti vengono rilasciati dal garbage collector.
+     * @throws IOException In caso di errore durante la chiusura del file.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if(this.scrittura) {
+                for(MappedByteBuffer segmento : this.segmenti) segmento.force();
+            }
+        } finally {
+            this.file.close();
+        }
+    }
+}
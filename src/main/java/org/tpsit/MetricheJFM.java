@@ -0,0 +1,171 @@
+package org.tpsit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricheJFM
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Contatori delle operazioni di JavaFileManager: numero di operazioni, byte, istogramma delle latenze (in intervalli di potenze di 2 di nanosecondi) e attesa dei lock.
+ * Ogni JFM ha i propri contatori, creati alla prima operazione registrata, e ogni registrazione aggiorna anche i contatori globali.
+ * I contatori sono LongAdder, per cui la registrazione non alloca memoria e non è contesa tra i thread. La registrazione può essere abilitata e disabilitata a runtime.</p>
+ */
+final class MetricheJFM {
+
+    /**
+     * Numero di intervalli dell'istogramma delle latenze: l'intervallo i contiene le durate comprese tra 2^i e 2^(i+1) nanosecondi, l'ultimo anche quelle superiori.
+     */
+    static final int INTERVALLI_LATENZA = 40;
+
+    /**
+     * Variabile che indica se registrare le metriche. Di default, impostata dalla proprietà di sistema jfm.metriche.
+     */
+    private static volatile boolean abilitate = Boolean.getBoolean("jfm.metriche");
+
+    private static final OperazioneIO[] OPERAZIONI = OperazioneIO.values();
+
+    /**
+     * Contatori globali, aggiornati da tutti i JFM.
+     */
+    private static final MetricheJFM GLOBALI = new MetricheJFM();
+
+    /**
+     * Numero di sessioni di scrittura, mappature e scritture asincrone aperte da tutti i JFM.
+     */
+    private static final AtomicInteger RISORSE_APERTE = new AtomicInteger();
+
+    private final LongAdder[] conteggi = new LongAdder[OPERAZIONI.length];
+    private final LongAdder[] byteOperazioni = new LongAdder[OPERAZIONI.length];
+    private final LongAdder[] latenzeTotali = new LongAdder[OPERAZIONI.length];
+    private final LongAdder[][] istogrammi = new LongAdder[OPERAZIONI.length][INTERVALLI_LATENZA];
+    private final LongAdder acquisizioniConAttesa = new LongAdder();
+    private final LongAdder attesaLockNanos = new LongAdder();
+
+    MetricheJFM() {
+        for(int i = 0; i < OPERAZIONI.length; i++) {
+            this.conteggi[i] = new LongAdder();
+            this.byteOperazioni[i] = new LongAdder();
+            this.latenzeTotali[i] = new LongAdder();
+            for(int j = 0; j < INTERVALLI_LATENZA; j++) this.istogrammi[i][j] = new LongAdder();
+        }
+    }
+
+    static boolean abilitate() {
+        return abilitate;
+    }
+
+    static void setAbilitate(boolean abilitate) {
+        MetricheJFM.abilitate = abilitate;
+    }
+
+    static MetricheJFM globali() {
+        return GLOBALI;
+    }
+
+    /**
+     * Metodo che restituisce l'istante di inizio di un'operazione da registrare.
+     * @return System.nanoTime() se le metriche sono abilitate, altrimenti 0 (l'operazione non verrà registrata).
+     */
+    static long inizio() {
+        return abilitate ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Metodo che aggiorna il numero di risorse aperte (sessioni di scrittura, mappature e scritture asincrone) da tutti i JFM.
+     * @param differenza Numero di risorse aperte (positivo) o chiuse (negativo).
+     */
+    static void risorseAperte(int differenza) {
+        RISORSE_APERTE.addAndGet(differenza);
+    }
+
+    /**
+     * Metodo che restituisce il numero di file aperti da tutti i JFM: canali del pool in lettura, sessioni di scrittura, mappature e scritture asincrone.
+     * @return Numero di file aperti.
+     */
+    static int fileAperti() {
+        return PoolCanali.condiviso().aperti() + RISORSE_APERTE.get();
+    }
+
+    /**
+     * Metodo che registra un'operazione completata.
+     * @param operazione Operazione eseguita.
+     * @param inizio Istante di inizio restituito da inizio(). Se 0, l'operazione non viene registrata.
+     * @param numeroByte Byte letti, scritti o copiati.
+     */
+    void registra(OperazioneIO operazione, long inizio, long numeroByte) {
+        if(inizio == 0) return;
+        long durata = System.nanoTime() - inizio;
+        int i = operazione.ordinal();
+        int intervallo = Math.min(INTERVALLI_LATENZA - 1, 63 - Long.numberOfLeadingZeros(Math.max(1, durata)));
+        this.conteggi[i].increment();
+        this.byteOperazioni[i].add(numeroByte);
+        this.latenzeTotali[i].add(durata);
+        this.istogrammi[i][intervallo].increment();
+        if(this != GLOBALI) GLOBALI.registra(operazione, numeroByte, durata, intervallo);
+    }
+
+    private void registra(OperazioneIO operazione, long numeroByte, long durata, int intervallo) {
+        int i = operazione.ordinal();
+        this.conteggi[i].increment();
+        this.byteOperazioni[i].add(numeroByte);
+        this.latenzeTotali[i].add(durata);
+        this.istogrammi[i][intervallo].increment();
+    }
+
+    /**
+     * Metodo che registra l'attesa per l'acquisizione di un lock già posseduto da un altro thread.
+     * @param attesaNanos Durata dell'attesa.
+     */
+    void registraAttesaLock(long attesaNanos) {
+        this.acquisizioniConAttesa.increment();
+        this.attesaLockNanos.add(attesaNanos);
+        if(this != GLOBALI) {
+            GLOBALI.acquisizioniConAttesa.increment();
+            GLOBALI.attesaLockNanos.add(attesaNanos);
+        }
+    }
+
+    /**
+     * Metodo che azzera i contatori.
+     */
+    void azzera() {
+        for(int i = 0; i < OPERAZIONI.length; i++) {
+            this.conteggi[i].reset();
+            this.byteOperazioni[i].reset();
+            this.latenzeTotali[i].reset();
+            for(LongAdder intervallo : this.istogrammi[i]) intervallo.reset();
+        }
+        this.acquisizioniConAttesa.reset();
+        this.attesaLockNanos.reset();
+    }
+
+    /**
+     * Metodo che restituisce un'istantanea dei contatori.
+     * @param fileAperti Numero di file aperti da riportare nell'istantanea.
+     * @return Istantanea dei contatori.
+     */
+    StatisticheIO istantanea(int fileAperti) {
+        long[] conteggi = new long[OPERAZIONI.length];
+        long[] byteOperazioni = new long[OPERAZIONI.length];
+        long[] latenzeTotali = new long[OPERAZIONI.length];
+        long[][] istogrammi = new long[OPERAZIONI.length][INTERVALLI_LATENZA];
+        for(int i = 0; i < OPERAZIONI.length; i++) {
+            conteggi[i] = this.conteggi[i].sum();
+            byteOperazioni[i] = this.byteOperazioni[i].sum();
+            latenzeTotali[i] = this.latenzeTotali[i].sum();
+            for(int j = 0; j < INTERVALLI_LATENZA; j++) istogrammi[i][j] = this.istogrammi[i][j].sum();
+        }
+        return new StatisticheIO(conteggi, byteOperazioni, latenzeTotali, istogrammi, this.acquisizioniConAttesa.sum(), this.attesaLockNanos.sum(), fileAperti);
+    }
+
+    /**
+     * Metodo che restituisce un'istantanea vuota, per i JFM che non hanno ancora registrato operazioni.
+     * @param fileAperti Numero di file aperti da riportare nell'istantanea.
+     * @return Istantanea con tutti i contatori a zero.
+     */
+    static StatisticheIO istantaneaVuota(int fileAperti) {
+        int operazioni = OPERAZIONI.length;
+        return new StatisticheIO(new long[operazioni], new long[operazioni], new long[operazioni], new long[operazioni][INTERVALLI_LATENZA], 0, 0, fileAperti);
+    }
+}
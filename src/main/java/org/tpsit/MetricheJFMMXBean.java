@@ -0,0 +1,63 @@
+package org.tpsit;
+
+import java.util.Map;
+
+/**
+ * MetricheJFMMXBean
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Interfaccia JMX delle metriche di JavaFileManager. Le mappe hanno come chiave il nome dell'operazione (vedi OperazioneIO).</p>
+ * @see JavaFileManager#registraMBean()
+ */
+public interface MetricheJFMMXBean {
+
+    /**
+     * @return True se la registrazione delle metriche è abilitata (per tutti i JFM).
+     */
+    boolean isAbilitate();
+
+    /**
+     * @param abilitate Variabile che indica se abilitare la registrazione delle metriche (per tutti i JFM).
+     */
+    void setAbilitate(boolean abilitate);
+
+    /**
+     * @return Numero di operazioni eseguite per operazione.
+     */
+    Map<String, Long> getOperazioni();
+
+    /**
+     * @return Byte letti, scritti o copiati per operazione.
+     */
+    Map<String, Long> getByte();
+
+    /**
+     * @return Latenza media (in nanosecondi) per operazione.
+     */
+    Map<String, Long> getLatenzaMediaNanos();
+
+    /**
+     * @return Stima per eccesso del 99° percentile della latenza (in nanosecondi) per operazione.
+     */
+    Map<String, Long> getLatenzaP99Nanos();
+
+    /**
+     * @return Istogramma delle latenze per operazione: l'elemento i è il numero di operazioni durate tra 2^i e 2^(i+1) nanosecondi.
+     */
+    Map<String, long[]> getIstogrammiLatenza();
+
+    long getByteLetti();
+
+    long getByteScritti();
+
+    long getAcquisizioniConAttesa();
+
+    long getAttesaLockNanos();
+
+    int getFileAperti();
+
+    /**
+     * Azzera i contatori.
+     */
+    void azzera();
+}
@@ -0,0 +1,47 @@
+package org.tpsit;
+
+/**
+ * Occorrenza
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Occorrenza di un testo o di un'espressione regolare trovata da JavaFileManager#cerca().</p>
+ * @see JavaFileManager#cerca(String)
+ */
+public final class Occorrenza {
+
+    private final long posizione;
+    private final long riga;
+    private final String testoRiga;
+
+    Occorrenza(long posizione, long riga, String testoRiga) {
+        this.posizione = posizione;
+        this.riga = riga;
+        this.testoRiga = testoRiga;
+    }
+
+    /**
+     * @return Posizione (in byte) dell'occorrenza nel file.
+     */
+    public long getPosizione() {
+        return posizione;
+    }
+
+    /**
+     * @return Numero della riga contenente l'occorrenza, a partire da 1.
+     */
+    public long getRiga() {
+        return riga;
+    }
+
+    /**
+     * @return Testo della riga contenente l'occorrenza, privo del terminatore di riga.
+     */
+    public String getTestoRiga() {
+        return testoRiga;
+    }
+
+    @Override
+    public String toString() {
+        return riga + ":" + testoRiga;
+    }
+}
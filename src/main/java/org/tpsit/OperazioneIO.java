@@ -0,0 +1,59 @@
+package org.tpsit;
+
+/**
+ * OperazioneIO
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Operazioni di JavaFileManager di cui vengono registrate le metriche.</p>
+ * @see StatisticheIO
+ */
+public enum OperazioneIO {
+
+    /**
+     * Lettura del testo con leggi().
+     */
+    LEGGI(true),
+
+    /**
+     * Scrittura del testo con scrivi() e cancellaContenuto().
+     */
+    SCRIVI(false),
+
+    /**
+     * Lettura di dati tipizzati, singoli o in array.
+     */
+    LEGGI_TIPIZZATO(true),
+
+    /**
+     * Scrittura di dati tipizzati con scriviTipizzato(), singoli o in array.
+     */
+    SCRIVI_TIPIZZATO(false),
+
+    /**
+     * Lettura di oggetti con leggiOggetto().
+     */
+    LEGGI_OGGETTO(true),
+
+    /**
+     * Scrittura di oggetti con scriviOggetto() e scriviOggettoLog().
+     */
+    SCRIVI_OGGETTO(false),
+
+    /**
+     * Copia con copiaIn() e copiaDa().
+     */
+    COPIA(false);
+
+    private final boolean lettura;
+
+    OperazioneIO(boolean lettura) {
+        this.lettura = lettura;
+    }
+
+    /**
+     * @return True se l'operazione legge dal file, false se scrive o copia.
+     */
+    public boolean isLettura() {
+        return lettura;
+    }
+}
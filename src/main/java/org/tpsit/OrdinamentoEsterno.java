@@ -0,0 +1,320 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * OrdinamentoEsterno
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Ordinamento esterno (merge sort) di un file di dati tipizzati utilizzato da JavaFileManager, con una quantità di memoria limitata indipendentemente dalla dimensione del file.
+ * Il file viene letto a sequenze che occupano al più metà della memoria indicata; ogni sequenza viene ordinata in parallelo (Arrays#parallelSort) e scritta in un file temporaneo.
+ * Le sequenze vengono poi fuse con un merge a k vie tramite canali bufferizzati: se sono troppe per la memoria disponibile, vengono fuse in più passaggi.
+ * Con una sola sequenza, questa viene scritta direttamente nel file di destinazione.</p>
+ * <p> I double vengono ordinati come Double#compare(double, double): -0.0 precede 0.0 e i NaN seguono tutti gli altri valori.</p>
+ */
+final class OrdinamentoEsterno {
+
+    /**
+     * Dimensione (in byte) del buffer di lettura del file e di scrittura delle sequenze.
+     */
+    private static final int DIMENSIONE_BUFFER = 1024 * 1024;
+
+    /**
+     * Dimensione (in byte) minima del buffer di ogni sequenza durante la fusione. Determina il numero massimo di sequenze fuse in un passaggio.
+     */
+    private static final int DIMENSIONE_MINIMA_BUFFER_FUSIONE = 64 * 1024;
+
+    /**
+     * Tipo dei dati da ordinare.
+     */
+    enum Tipo {
+        INT(Integer.BYTES),
+        DOUBLE(Double.BYTES);
+
+        private final int dimensione;
+
+        Tipo(int dimensione) {
+            this.dimensione = dimensione;
+        }
+
+        /**
+         * Metodo che legge un elemento dal buffer, restituendone i bit.
+         */
+        private long leggi(ByteBuffer buffer) {
+            return this == INT ? buffer.getInt() : buffer.getLong();
+        }
+
+        /**
+         * Metodo che scrive un elemento nel buffer a partire dai suoi bit.
+         */
+        private void scrivi(ByteBuffer buffer, long bit) {
+            if(this == INT) buffer.putInt((int) bit);
+            else buffer.putLong(bit);
+        }
+
+        /**
+         * Metodo che trasforma i bit di un elemento in una chiave long il cui ordine corrisponde all'ordine degli elementi.
+         * Per i double, i bit (con i NaN ridotti al NaN canonico, come Double#compare) vengono riflessi se il segno è negativo.
+         */
+        private long chiave(long bit) {
+            if(this == INT) return bit;
+            long canonici = Double.doubleToLongBits(Double.longBitsToDouble(bit));
+            return canonici ^ ((canonici >> 63) & Long.MAX_VALUE);
+        }
+    }
+
+    private final Tipo tipo;
+    private final ByteOrder ordine;
+    private final long memoriaMassima;
+    private final Path cartellaTemporanea;
+
+    /**
+     * Array in cui vengono ordinate le sequenze, allocato alla prima sequenza e riutilizzato per le successive.
+     */
+    private int[] valoriInt;
+    private double[] valoriDouble;
+
+    /**
+     * Costruttore di OrdinamentoEsterno.
+     * @param tipo Tipo dei dati da ordinare.
+     * @param ordine Ordine dei byte del file, mantenuto nel file di destinazione.
+     * @param memoriaMassima Memoria (in byte) utilizzabile per le sequenze e i buffer.
+     * @param cartellaTemporanea Cartella in cui scrivere le sequenze. Se null, viene utilizzata la cartella temporanea di sistema.
+     */
+    OrdinamentoEsterno(Tipo tipo, ByteOrder ordine, long memoriaMassima, File cartellaTemporanea) {
+        this.tipo = tipo;
+        this.ordine = ordine;
+        this.memoriaMassima = Math.max(memoriaMassima, 4L * DIMENSIONE_BUFFER);
+        this.cartellaTemporanea = cartellaTemporanea != null ? cartellaTemporanea.toPath() : null;
+    }
+
+    /**
+     * Metodo che ordina il file di origine nel file di destinazione. Gli eventuali byte finali che non formano un elemento completo vengono ignorati.
+     * @param origine File da ordinare.
+     * @param destinazione File in cui scrivere i dati ordinati. Il contenuto precedente viene cancellato.
+     * @return Numero di elementi ordinati.
+     * @throws IOException In caso di errore durante la lettura o la scrittura dei file.
+     */
+    long ordina(File origine, File destinazione) throws IOException {
+        List<Path> temporanei = new ArrayList<>();
+        try {
+            long elementi;
+            List<Path> sequenze = new ArrayList<>();
+            try (FileChannel input = FileChannel.open(origine.toPath(), StandardOpenOption.READ)) {
+                elementi = input.size() / this.tipo.dimensione;
+                int lunghezzaSequenza = (int) Math.min(elementi, Math.min(Integer.MAX_VALUE - 8, this.memoriaMassima / 2 / this.tipo.dimensione));
+                if(elementi <= lunghezzaSequenza) {
+                    scriviSequenza(input, (int) elementi, destinazione.toPath());
+                    return elementi;
+                }
+                for(long letti = 0; letti < elementi; letti += lunghezzaSequenza) {
+                    Path sequenza = temporaneo(temporanei);
+                    sequenze.add(sequenza);
+                    scriviSequenza(input, (int) Math.min(lunghezzaSequenza, elementi - letti), sequenza);
+                }
+            } finally {
+                this.valoriInt = null;
+                this.valoriDouble = null;
+            }
+            int gradoMassimo = (int) Math.max(2, Math.min(1024, this.memoriaMassima / DIMENSIONE_MINIMA_BUFFER_FUSIONE - 1));
+            while(sequenze.size() > gradoMassimo) {
+                List<Path> fuse = new ArrayList<>();
+                for(int i = 0; i < sequenze.size(); i += gradoMassimo) {
+                    List<Path> gruppo = sequenze.subList(i, Math.min(sequenze.size(), i + gradoMassimo));
+                    Path fusa = temporaneo(temporanei);
+                    fuse.add(fusa);
+                    fondi(gruppo, fusa);
+                    for(Path sequenza : gruppo) Files.deleteIfExists(sequenza);
+                }
+                sequenze = fuse;
+            }
+            fondi(sequenze, destinazione.toPath());
+            return elementi;
+        } finally {
+            for(Path temporaneo : temporanei) Files.deleteIfExists(temporaneo);
+        }
+    }
+
+    /**
+     * Metodo che crea un file temporaneo per una sequenza.
+     * @param temporanei Lista dei file temporanei da eliminare al termine dell'ordinamento, a cui aggiungere il file creato.
+     */
+    private Path temporaneo(List<Path> temporanei) throws IOException {
+        Path temporaneo = this.cartellaTemporanea != null ? Files.createTempFile(this.cartellaTemporanea, "jfm-ordinamento-", ".tmp") : Files.createTempFile("jfm-ordinamento-", ".tmp");
+        temporanei.add(temporaneo);
+        return temporaneo;
+    }
+
+    /**
+     * Metodo che legge una sequenza di elementi dalla posizione corrente del canale, la ordina in parallelo e la scrive in un file.
+     * @param input Canale del file da ordinare.
+     * @param lunghezza Numero di elementi della sequenza.
+     * @param destinazione File in cui scrivere la sequenza ordinata.
+     * @throws IOException In caso di errore durante la lettura o la scrittura dei file.
+     */
+    private void scriviSequenza(FileChannel input, int lunghezza, Path destinazione) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(DIMENSIONE_BUFFER).order(this.ordine);
+        try (FileChannel output = FileChannel.open(destinazione, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if(this.tipo == Tipo.INT) {
+                if(this.valoriInt == null || this.valoriInt.length < lunghezza) this.valoriInt = new int[lunghezza];
+                int[] valori = this.valoriInt;
+                for(int letti = 0; letti < lunghezza; ) {
+                    riempi(input, buffer, Math.min(buffer.capacity() / Integer.BYTES, lunghezza - letti) * Integer.BYTES);
+                    int n = buffer.remaining() / Integer.BYTES;
+                    buffer.asIntBuffer().get(valori, letti, n);
+                    letti += n;
+                }
+                Arrays.parallelSort(valori, 0, lunghezza);
+                for(int scritti = 0; scritti < lunghezza; ) {
+                    int n = Math.min(buffer.capacity() / Integer.BYTES, lunghezza - scritti);
+                    buffer.clear();
+                    buffer.asIntBuffer().put(valori, scritti, n);
+                    buffer.limit(n * Integer.BYTES);
+                    svuota(output, buffer);
+                    scritti += n;
+                }
+            } else {
+                if(this.valoriDouble == null || this.valoriDouble.length < lunghezza) this.valoriDouble = new double[lunghezza];
+                double[] valori = this.valoriDouble;
+                for(int letti = 0; letti < lunghezza; ) {
+                    riempi(input, buffer, Math.min(buffer.capacity() / Double.BYTES, lunghezza - letti) * Double.BYTES);
+                    int n = buffer.remaining() / Double.BYTES;
+                    buffer.asDoubleBuffer().get(valori, letti, n);
+                    letti += n;
+                }
+                Arrays.parallelSort(valori, 0, lunghezza);
+                for(int scritti = 0; scritti < lunghezza; ) {
+                    int n = Math.min(buffer.capacity() / Double.BYTES, lunghezza - scritti);
+                    buffer.clear();
+                    buffer.asDoubleBuffer().put(valori, scritti, n);
+                    buffer.limit(n * Double.BYTES);
+                    svuota(output, buffer);
+                    scritti += n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Metodo che fonde delle sequenze ordinate in un file, con un merge a k vie.
+     * Le sequenze sono mantenute in un heap binario di indici, ordinato secondo la chiave dell'elemento corrente di ogni sequenza.
+     * @param sequenze File delle sequenze ordinate.
+     * @param destinazione File in cui scrivere il risultato della fusione.
+     * @throws IOException In caso di errore durante la lettura o la scrittura dei file.
+     */
+    private void fondi(List<Path> sequenze, Path destinazione) throws IOException {
+        int k = sequenze.size();
+        int dimensioneBuffer = (int) Math.max(DIMENSIONE_MINIMA_BUFFER_FUSIONE, Math.min(DIMENSIONE_BUFFER, this.memoriaMassima / (k + 1)));
+        dimensioneBuffer -= dimensioneBuffer % this.tipo.dimensione;
+        FileChannel[] input = new FileChannel[k];
+        ByteBuffer[] buffer = new ByteBuffer[k];
+        long[] correnti = new long[k];
+        long[] chiavi = new long[k];
+        int[] heap = new int[k];
+        int dimensioneHeap = 0;
+        try (FileChannel output = FileChannel.open(destinazione, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for(int i = 0; i < k; i++) {
+                input[i] = FileChannel.open(sequenze.get(i), StandardOpenOption.READ);
+                buffer[i] = ByteBuffer.allocateDirect(dimensioneBuffer).order(this.ordine);
+                buffer[i].limit(0);
+                if(prossimo(input[i], buffer[i])) {
+                    correnti[i] = this.tipo.leggi(buffer[i]);
+                    chiavi[i] = this.tipo.chiave(correnti[i]);
+                    heap[dimensioneHeap] = i;
+                    risali(heap, dimensioneHeap++, chiavi);
+                }
+            }
+            ByteBuffer uscita = ByteBuffer.allocateDirect(DIMENSIONE_BUFFER).order(this.ordine);
+            while(dimensioneHeap > 0) {
+                int minima = heap[0];
+                if(uscita.remaining() < this.tipo.dimensione) {
+                    uscita.flip();
+                    svuota(output, uscita);
+                    uscita.clear();
+                }
+                this.tipo.scrivi(uscita, correnti[minima]);
+                if(prossimo(input[minima], buffer[minima])) {
+                    correnti[minima] = this.tipo.leggi(buffer[minima]);
+                    chiavi[minima] = this.tipo.chiave(correnti[minima]);
+                } else {
+                    heap[0] = heap[--dimensioneHeap];
+                }
+                scendi(heap, dimensioneHeap, chiavi);
+            }
+            uscita.flip();
+            svuota(output, uscita);
+        } finally {
+            for(FileChannel canale : input) {
+                if(canale != null) canale.close();
+            }
+        }
+    }
+
+    /**
+     * Metodo che garantisce la presenza nel buffer di una sequenza di almeno un elemento, se la sequenza non è terminata.
+     * @return False se la sequenza è terminata.
+     */
+    private boolean prossimo(FileChannel input, ByteBuffer buffer) throws IOException {
+        if(buffer.remaining() >= this.tipo.dimensione) return true;
+        buffer.compact();
+        while(buffer.position() < this.tipo.dimensione) {
+            if(input.read(buffer) < 0) break;
+        }
+        buffer.flip();
+        return buffer.remaining() >= this.tipo.dimensione;
+    }
+
+    private static void risali(int[] heap, int posizione, long[] chiavi) {
+        int elemento = heap[posizione];
+        while(posizione > 0) {
+            int padre = (posizione - 1) >>> 1;
+            if(chiavi[heap[padre]] <= chiavi[elemento]) break;
+            heap[posizione] = heap[padre];
+            posizione = padre;
+        }
+        heap[posizione] = elemento;
+    }
+
+    private static void scendi(int[] heap, int dimensione, long[] chiavi) {
+        if(dimensione == 0) return;
+        int elemento = heap[0];
+        int posizione = 0;
+        while(true) {
+            int figlio = 2 * posizione + 1;
+            if(figlio >= dimensione) break;
+            if(figlio + 1 < dimensione && chiavi[heap[figlio + 1]] < chiavi[heap[figlio]]) figlio++;
+            if(chiavi[elemento] <= chiavi[heap[figlio]]) break;
+            heap[posizione] = heap[figlio];
+            posizione = figlio;
+        }
+        heap[posizione] = elemento;
+    }
+
+    /**
+     * Metodo che legge dal canale esattamente il numero di byte indicato.
+     */
+    private static void riempi(FileChannel input, ByteBuffer buffer, int byteDaLeggere) throws IOException {
+        buffer.clear();
+        buffer.limit(byteDaLeggere);
+        while(buffer.hasRemaining()) {
+            if(input.read(buffer) < 0) throw new EOFException();
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Metodo che scrive nel canale tutti i byte rimanenti del buffer.
+     */
+    private static void svuota(FileChannel output, ByteBuffer buffer) throws IOException {
+        while(buffer.hasRemaining()) output.write(buffer);
+    }
+}
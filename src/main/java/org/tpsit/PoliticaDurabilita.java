@@ -0,0 +1,26 @@
+package org.tpsit;
+
+/**
+ * PoliticaDurabilita
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Politica con cui la scrittura asincrona di JavaFileManager forza la scrittura su disco (fsync) dei dati scritti.</p>
+ * @see JavaFileManager#avviaScritturaAsincrona(int, PoliticaDurabilita, long)
+ */
+public enum PoliticaDurabilita {
+
+    /**
+     * I dati vengono scritti sul file senza forzarne la scrittura su disco, che è lasciata al sistema operativo.
+     */
+    NESSUNA,
+
+    /**
+     * La scrittura su disco viene forzata dopo ogni lotto di righe, prima di completarne le conferme.
+     */
+    PER_LOTTO,
+
+    /**
+     * La scrittura su disco viene forzata al più ogni intervallo di tempo indicato.
+     */
+    PERIODICA
+}
@@ -0,0 +1,238 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PoolCanali
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Pool dei canali in lettura condiviso da tutti i JavaFileManager della JVM. I canali sono identificati dal percorso canonico del file e contano i riferimenti:
+ * più JFM dello stesso file utilizzano lo stesso canale, che viene lasciato aperto per un certo tempo dopo l'ultimo rilascio e poi chiuso da un thread in background.
+ * Al superamento del numero massimo di canali aperti vengono chiusi i canali inutilizzati da più tempo; i canali in uso non vengono mai chiusi.</p>
+ * <p> Le letture dai canali sono posizionali, per cui possono essere condivise da più cursori senza interferire.</p>
+ */
+final class PoolCanali {
+
+    /**
+     * Numero massimo predefinito di canali aperti.
+     */
+    static final int CANALI_MASSIMI = 256;
+
+    /**
+     * Tempo predefinito (in millisecondi) dopo il quale un canale non più utilizzato viene chiuso.
+     */
+    static final long INATTIVITA_MASSIMA_MS = 30_000;
+
+    /**
+     * Pool condiviso.
+     */
+    private static final PoolCanali POOL = new PoolCanali();
+
+    /**
+     * Canale aperto con il numero di riferimenti che lo utilizzano.
+     */
+    private static final class Voce {
+        private final String chiave;
+        private final FileChannel canale;
+        private final Object identificativoFile;
+        private int riferimenti = 0;
+        private long rilasciataIl = 0;
+        private boolean scartata = false;
+
+        Voce(String chiave, FileChannel canale, Object identificativoFile) {
+            this.chiave = chiave;
+            this.canale = canale;
+            this.identificativoFile = identificativoFile;
+        }
+    }
+
+    /**
+     * Riferimento a un canale del pool, da rilasciare con close() al termine dell'utilizzo.
+     */
+    final class Riferimento implements Closeable {
+        private final Voce voce;
+        private boolean rilasciato = false;
+
+        private Riferimento(Voce voce) {
+            this.voce = voce;
+        }
+
+        FileChannel canale() {
+            return this.voce.canale;
+        }
+
+        @Override
+        public void close() {
+            synchronized (PoolCanali.this) {
+                if(this.rilasciato) return;
+                this.rilasciato = true;
+                rilascia(this.voce);
+            }
+        }
+    }
+
+    /**
+     * Canali aperti e non scartati, in ordine di accesso (dal meno recente).
+     */
+    private final LinkedHashMap<String, Voce> voci = new LinkedHashMap<>(16, 0.75f, true);
+    private int canaliMassimi = CANALI_MASSIMI;
+    private long inattivitaMassimaNanos = TimeUnit.MILLISECONDS.toNanos(INATTIVITA_MASSIMA_MS);
+    private int aperti = 0;
+    private ScheduledExecutorService pulitore = null;
+    private ScheduledFuture<?> pulizia = null;
+
+    private PoolCanali() {
+    }
+
+    /**
+     * Metodo che restituisce il pool condiviso.
+     * @return Pool condiviso.
+     */
+    static PoolCanali condiviso() {
+        return POOL;
+    }
+
+    /**
+     * Metodo che modifica i limiti del pool. I canali in eccesso vengono chiusi appena inutilizzati.
+     * @param canaliMassimi Numero massimo di canali aperti.
+     * @param inattivitaMassimaMs Tempo (in millisecondi) dopo il quale un canale non più utilizzato viene chiuso.
+     */
+    synchronized void configura(int canaliMassimi, long inattivitaMassimaMs) {
+        this.canaliMassimi = Math.max(0, canaliMassimi);
+        this.inattivitaMassimaNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, inattivitaMassimaMs));
+        if(this.pulizia != null) {
+            this.pulizia.cancel(false);
+            this.pulizia = null;
+        }
+        liberaSpazio();
+        pianificaPulizia();
+    }
+
+    /**
+     * Metodo che restituisce un riferimento al canale in lettura del file, aprendolo se non è già presente nel pool.
+     * Se il file è stato sostituito (ad esempio eliminato e ricreato) o il canale è stato chiuso, viene aperto un nuovo canale.
+     * @param file File da leggere.
+     * @return Riferimento al canale, da rilasciare con close().
+     * @throws IOException In caso di errore durante l'apertura del file.
+     */
+    synchronized Riferimento acquisisci(File file) throws IOException {
+        String chiave = CacheContenuti.chiave(file);
+        Object identificativoFile = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+        Voce voce = this.voci.get(chiave);
+        if(voce != null && (!voce.canale.isOpen() || !Objects.equals(voce.identificativoFile, identificativoFile))) {
+            scarta(voce);
+            voce = null;
+        }
+        if(voce == null) {
+            voce = new Voce(chiave, FileChannel.open(file.toPath(), StandardOpenOption.READ), identificativoFile);
+            this.voci.put(chiave, voce);
+            this.aperti++;
+        }
+        voce.riferimenti++;
+        liberaSpazio();
+        return new Riferimento(voce);
+    }
+
+    /**
+     * Metodo che scarta il canale di un file, ad esempio perché il file è stato eliminato.
+     * Il canale viene chiuso appena non più utilizzato e le successive acquisizioni aprono un nuovo canale.
+     * @param file File del canale da scartare.
+     */
+    synchronized void scarta(File file) {
+        Voce voce = this.voci.get(CacheContenuti.chiave(file));
+        if(voce != null) scarta(voce);
+    }
+
+    /**
+     * Metodo che restituisce il numero di canali aperti, compresi quelli scartati ma ancora in uso.
+     * @return Numero di canali aperti.
+     */
+    synchronized int aperti() {
+        return this.aperti;
+    }
+
+    private void scarta(Voce voce) {
+        this.voci.remove(voce.chiave, voce);
+        voce.scartata = true;
+        if(voce.riferimenti == 0) chiudi(voce);
+    }
+
+    private void rilascia(Voce voce) {
+        if(--voce.riferimenti > 0) return;
+        if(voce.scartata) {
+            chiudi(voce);
+            return;
+        }
+        voce.rilasciataIl = System.nanoTime();
+        liberaSpazio();
+        pianificaPulizia();
+    }
+
+    /**
+     * Metodo che chiude i canali inutilizzati da più tempo finché il numero di canali aperti non rientra nel massimo.
+     */
+    private void liberaSpazio() {
+        Iterator<Voce> menoRecenti = this.voci.values().iterator();
+        while(this.aperti > this.canaliMassimi && menoRecenti.hasNext()) {
+            Voce voce = menoRecenti.next();
+            if(voce.riferimenti > 0) continue;
+            menoRecenti.remove();
+            chiudi(voce);
+        }
+    }
+
+    /**
+     * Metodo che chiude i canali inutilizzati da più del tempo massimo di inattività. Eseguito periodicamente dal thread in background.
+     */
+    private synchronized void pulisci() {
+        long ora = System.nanoTime();
+        Iterator<Voce> voci = this.voci.values().iterator();
+        while(voci.hasNext()) {
+            Voce voce = voci.next();
+            if(voce.riferimenti == 0 && ora - voce.rilasciataIl >= this.inattivitaMassimaNanos) {
+                voci.remove();
+                chiudi(voce);
+            }
+        }
+        if(this.voci.isEmpty() && this.pulizia != null) {
+            this.pulizia.cancel(false);
+            this.pulizia = null;
+        }
+    }
+
+    /**
+     * Metodo che avvia la pulizia periodica dei canali inutilizzati, se non è già avviata. Il thread in background viene creato al primo utilizzo.
+     */
+    private void pianificaPulizia() {
+        if(this.pulizia != null) return;
+        if(this.pulitore == null) {
+            this.pulitore = Executors.newSingleThreadScheduledExecutor(attivita -> {
+                Thread thread = new Thread(attivita, "JFM-pulizia-canali");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        long periodo = Math.max(TimeUnit.MILLISECONDS.toNanos(100), this.inattivitaMassimaNanos / 2);
+        this.pulizia = this.pulitore.scheduleWithFixedDelay(this::pulisci, periodo, periodo, TimeUnit.NANOSECONDS);
+    }
+
+    private void chiudi(Voce voce) {
+        this.aperti--;
+        try {
+            voce.canale.close();
+        } catch (IOException ignorata) {
+            // Il canale era aperto solo in lettura: nessun dato può andare perso.
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.tpsit;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * RisultatoCartella
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Risultato di un'operazione eseguita da JavaDirectoryManager su tutti i file di una cartella: il risultato di ogni file elaborato con successo e l'errore di ogni file non elaborato.
+ * I file sono ordinati per percorso.</p>
+ * @param <T> Tipo del risultato di ogni file.
+ * @see JavaDirectoryManager
+ */
+public final class RisultatoCartella<T> {
+
+    private final Map<File, T> risultati;
+    private final Map<File, Exception> errori;
+    private final long durataNanos;
+
+    RisultatoCartella(Map<File, T> risultati, Map<File, Exception> errori, long durataNanos) {
+        this.risultati = Collections.unmodifiableMap(new TreeMap<>(risultati));
+        this.errori = Collections.unmodifiableMap(new TreeMap<>(errori));
+        this.durataNanos = durataNanos;
+    }
+
+    /**
+     * @return Risultato di ogni file elaborato con successo.
+     */
+    public Map<File, T> getRisultati() {
+        return risultati;
+    }
+
+    /**
+     * @return Errore di ogni file che non è stato possibile elaborare.
+     */
+    public Map<File, Exception> getErrori() {
+        return errori;
+    }
+
+    /**
+     * @return Numero di file elaborati, con o senza errori.
+     */
+    public int getFileElaborati() {
+        return risultati.size() + errori.size();
+    }
+
+    /**
+     * @return True se tutti i file sono stati elaborati senza errori.
+     */
+    public boolean isCompletato() {
+        return errori.isEmpty();
+    }
+
+    /**
+     * @return Durata (in nanosecondi) dell'operazione, compresa la visita della cartella.
+     */
+    public long getDurataNanos() {
+        return durataNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Risultato della cartella: " + getFileElaborati() + " file, " + errori.size() + " errori, " + durataNanos / 1_000_000 + " ms";
+    }
+}
@@ -0,0 +1,434 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ScansioneParallela
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Scansione parallela di un file di testo utilizzata da JavaFileManager per la ricerca e il conteggio delle righe.
+ * Il file viene mappato in memoria a blocchi allineati alle righe (ogni blocco termina dopo un '\n'), così che ogni blocco possa essere analizzato da un thread diverso
+ * del ForkJoinPool comune senza che una riga sia divisa tra due blocchi. I numeri di riga vengono ricostruiti sommando le righe dei blocchi precedenti.</p>
+ * <p> La ricerca delle occorrenze non utilizza la mappatura: i blocchi vengono letti in memoria un lotto alla volta, solo quando lo Stream richiede nuove occorrenze,
+ * e analizzati in parallelo. Il lock di lettura di JFM viene mantenuto solo durante la lettura di ogni lotto.</p>
+ * <p> Il conteggio delle righe e la ricerca di un testo avvengono direttamente sui byte, codificando il testo cercato con il charset predefinito (come FileReader):
+ * per UTF-8 e per i charset a un byte un'occorrenza nei byte corrisponde a un'occorrenza nel testo. Le espressioni regolari richiedono invece la decodifica di ogni riga.</p>
+ */
+final class ScansioneParallela {
+
+    /**
+     * Dimensione (in byte) minima di un blocco: per file piccoli la suddivisione in blocchi non è conveniente.
+     */
+    private static final long DIMENSIONE_MINIMA_BLOCCO = 1L << 20;
+
+    /**
+     * Dimensione (in byte) massima di un blocco.
+     */
+    private static final long DIMENSIONE_MASSIMA_BLOCCO = 1L << 28;
+
+    /**
+     * Dimensione (in byte) massima di un MappedByteBuffer. Una riga più lunga viene divisa tra due blocchi.
+     */
+    private static final long DIMENSIONE_MAPPABILE = Integer.MAX_VALUE - 8;
+
+    /**
+     * Dimensione (in byte) indicativa di un blocco letto in memoria durante la ricerca.
+     */
+    private static final int DIMENSIONE_BLOCCO_RICERCA = 1 << 22;
+
+    /**
+     * Dimensione (in byte) massima di un blocco letto in memoria durante la ricerca. Una riga più lunga viene divisa tra due blocchi.
+     */
+    private static final int DIMENSIONE_MASSIMA_BLOCCO_RICERCA = 1 << 28;
+
+    private static final long UNO_PER_BYTE = 0x0101010101010101L;
+    private static final long SETTE_BIT = 0x7F7F7F7F7F7F7F7FL;
+    private static final long A_CAPO = '\n' * UNO_PER_BYTE;
+
+    /**
+     * Blocchi in cui è mappato il file, allineati alle righe.
+     */
+    private final MappedByteBuffer[] blocchi;
+
+    /**
+     * Posizione nel file del primo byte di ogni blocco.
+     */
+    private final long[] inizi;
+
+    /**
+     * Dimensione (in byte) del file al momento della mappatura.
+     */
+    private final long dimensione;
+
+    /**
+     * Charset con cui decodificare il testo delle righe.
+     */
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * Costruttore di ScansioneParallela. Mappa il file in memoria in sola lettura; il file viene chiuso subito dopo la mappatura.
+     * @param file File da analizzare.
+     * @throws IOException In caso di errore durante l'apertura o la mappatura del file.
+     */
+    ScansioneParallela(File file) throws IOException {
+        try (FileChannel canale = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            this.dimensione = canale.size();
+            long dimensioneBlocco = Math.max(DIMENSIONE_MINIMA_BLOCCO, Math.min(DIMENSIONE_MASSIMA_BLOCCO, this.dimensione / (4L * ForkJoinPool.getCommonPoolParallelism())));
+            List<MappedByteBuffer> blocchi = new ArrayList<>();
+            List<Long> inizi = new ArrayList<>();
+            long inizio = 0;
+            while(inizio < this.dimensione) {
+                long fine = fineBlocco(canale, inizio, dimensioneBlocco);
+                blocchi.add(canale.map(FileChannel.MapMode.READ_ONLY, inizio, fine - inizio));
+                inizi.add(inizio);
+                inizio = fine;
+            }
+            this.blocchi = blocchi.toArray(new MappedByteBuffer[0]);
+            this.inizi = inizi.stream().mapToLong(Long::longValue).toArray();
+        }
+    }
+
+    /**
+     * Metodo che calcola la fine di un blocco: il byte successivo al primo '\n' che segue la dimensione indicata.
+     * @param canale Canale del file.
+     * @param inizio Posizione del primo byte del blocco.
+     * @param dimensioneBlocco Dimensione indicativa del blocco.
+     * @return Posizione del primo byte del blocco successivo.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private long fineBlocco(FileChannel canale, long inizio, long dimensioneBlocco) throws IOException {
+        long limite = Math.min(this.dimensione, inizio + DIMENSIONE_MAPPABILE);
+        long posizione = inizio + dimensioneBlocco;
+        if(posizione >= limite) return limite;
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        while(posizione < limite) {
+            buffer.clear();
+            int letti = canale.read(buffer, posizione);
+            if(letti <= 0) break;
+            for(int i = 0; i < letti; i++) {
+                if(buffer.get(i) == '\n') return Math.min(limite, posizione + i + 1);
+            }
+            posizione += letti;
+        }
+        return limite;
+    }
+
+    /**
+     * Metodo che conta in parallelo le righe del file, come BufferedReader#lines(): ogni '\n' termina una riga e l'eventuale ultima riga non terminata viene contata.
+     * @return Numero di righe del file.
+     */
+    long contaRighe() {
+        if(this.dimensione == 0) return 0;
+        long terminatori = IntStream.range(0, this.blocchi.length).parallel().mapToLong(i -> contaACapo(this.blocchi[i])).sum();
+        MappedByteBuffer ultimo = this.blocchi[this.blocchi.length - 1];
+        return ultimo.get(ultimo.limit() - 1) == '\n' ? terminatori : terminatori + 1;
+    }
+
+    /**
+     * Metodo che conta i '\n' di un blocco, confrontando otto byte alla volta.
+     * @param blocco Blocco da analizzare.
+     * @return Numero di '\n' nel blocco.
+     */
+    private static long contaACapo(MappedByteBuffer blocco) {
+        long conteggio = 0;
+        int fine = blocco.limit();
+        int i = 0;
+        for(; i + Long.BYTES <= fine; i += Long.BYTES) {
+            long x = blocco.getLong(i) ^ A_CAPO;
+            long zeri = ~(((x & SETTE_BIT) + SETTE_BIT) | x | SETTE_BIT);
+            conteggio += Long.bitCount(zeri);
+        }
+        for(; i < fine; i++) {
+            if(blocco.get(i) == '\n') conteggio++;
+        }
+        return conteggio;
+    }
+
+    /**
+     * Metodo che conta in parallelo le occorrenze (non sovrapposte) di un testo.
+     * @param testo Testo da cercare, già codificato. Non può contenere '\n'.
+     * @return Numero di occorrenze.
+     */
+    long contaOccorrenze(byte[] testo) {
+        return IntStream.range(0, this.blocchi.length).parallel().mapToLong(i -> scansiona(this.blocchi[i], this.inizi[i], testo, null).occorrenze).sum();
+    }
+
+    /**
+     * Metodo che conta in parallelo le occorrenze di un'espressione regolare, riga per riga.
+     * @param espressione Espressione regolare da cercare.
+     * @return Numero di occorrenze.
+     */
+    long contaOccorrenze(Pattern espressione) {
+        return IntStream.range(0, this.blocchi.length).parallel().mapToLong(i -> scansiona(this.blocchi[i], this.inizi[i], espressione, null).occorrenze).sum();
+    }
+
+    /**
+     * Metodo che cerca le occorrenze (non sovrapposte) di un testo, un lotto di blocchi alla volta.
+     * @param canale Canale del file, chiuso alla chiusura dello Stream.
+     * @param lettura Lock di lettura di JFM, acquisito durante la lettura di ogni lotto.
+     * @param blocca Funzione con cui acquisire il lock.
+     * @param testo Testo da cercare, già codificato. Non può contenere '\n'.
+     * @return Stream delle occorrenze, in ordine di posizione.
+     */
+    static Stream<Occorrenza> cerca(FileChannel canale, Lock lettura, Consumer<Lock> blocca, byte[] testo) {
+        return cerca(canale, lettura, blocca, (blocco, inizio) -> scansiona(blocco, inizio, testo, new ArrayList<>()));
+    }
+
+    /**
+     * Metodo che cerca le occorrenze di un'espressione regolare, riga per riga, un lotto di blocchi alla volta.
+     * @param canale Canale del file, chiuso alla chiusura dello Stream.
+     * @param lettura Lock di lettura di JFM, acquisito durante la lettura di ogni lotto.
+     * @param blocca Funzione con cui acquisire il lock.
+     * @param espressione Espressione regolare da cercare.
+     * @return Stream delle occorrenze, in ordine di posizione.
+     */
+    static Stream<Occorrenza> cerca(FileChannel canale, Lock lettura, Consumer<Lock> blocca, Pattern espressione) {
+        return cerca(canale, lettura, blocca, (blocco, inizio) -> scansiona(blocco, inizio, espressione, new ArrayList<>()));
+    }
+
+    /**
+     * Metodo che crea lo Stream delle occorrenze trovate dalla scansione dei blocchi.
+     * @param canale Canale del file, chiuso alla chiusura dello Stream.
+     * @param lettura Lock di lettura di JFM.
+     * @param blocca Funzione con cui acquisire il lock.
+     * @param scansione Scansione di un blocco.
+     * @return Stream delle occorrenze, in ordine di posizione.
+     */
+    private static Stream<Occorrenza> cerca(FileChannel canale, Lock lettura, Consumer<Lock> blocca, ScansioneBlocco scansione) {
+        return StreamSupport.stream(new Ricerca(canale, lettura, blocca, scansione), false).onClose(() -> {
+            try {
+                canale.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Scansione di un blocco.
+     */
+    private interface ScansioneBlocco {
+        Risultato scansiona(ByteBuffer blocco, long inizio);
+    }
+
+    /**
+     * Ricerca delle occorrenze un lotto di blocchi alla volta. Ogni lotto contiene un blocco per ogni thread del ForkJoinPool comune:
+     * i blocchi vengono letti in memoria mantenendo il lock di lettura di JFM, che viene rilasciato prima dell'analisi.
+     * Le occorrenze restano in memoria solo fino a quando lo Stream non le restituisce, per cui l'occupazione di memoria dipende dalla dimensione di un lotto e non da quella del file.
+     */
+    private static final class Ricerca extends Spliterators.AbstractSpliterator<Occorrenza> {
+        private final FileChannel canale;
+        private final Lock lettura;
+        private final Consumer<Lock> blocca;
+        private final ScansioneBlocco scansione;
+        private final Deque<Occorrenza> trovate = new ArrayDeque<>();
+        private long posizione = 0;
+        private long primaRiga = 1;
+
+        Ricerca(FileChannel canale, Lock lettura, Consumer<Lock> blocca, ScansioneBlocco scansione) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.canale = canale;
+            this.lettura = lettura;
+            this.blocca = blocca;
+            this.scansione = scansione;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Occorrenza> azione) {
+            while(this.trovate.isEmpty()) {
+                if(!analizzaLotto()) return false;
+            }
+            azione.accept(this.trovate.poll());
+            return true;
+        }
+
+        /**
+         * Metodo che legge il lotto di blocchi successivo e ne analizza i blocchi in parallelo.
+         * @return False se il file è terminato.
+         */
+        private boolean analizzaLotto() {
+            int parallelismo = ForkJoinPool.getCommonPoolParallelism();
+            List<ByteBuffer> blocchi = new ArrayList<>(parallelismo);
+            long[] inizi = new long[parallelismo];
+            this.blocca.accept(this.lettura);
+            try {
+                long dimensione = this.canale.size();
+                while(blocchi.size() < parallelismo && this.posizione < dimensione) {
+                    ByteBuffer blocco = leggiBlocco(this.canale, this.posizione, dimensione);
+                    if(blocco.limit() == 0) break;
+                    inizi[blocchi.size()] = this.posizione;
+                    blocchi.add(blocco);
+                    this.posizione += blocco.limit();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                this.lettura.unlock();
+            }
+            if(blocchi.isEmpty()) return false;
+            List<Risultato> risultati = IntStream.range(0, blocchi.size()).parallel().mapToObj(i -> this.scansione.scansiona(blocchi.get(i), inizi[i])).toList();
+            for(Risultato risultato : risultati) {
+                for(Occorrenza o : risultato.trovate) this.trovate.add(new Occorrenza(o.getPosizione(), this.primaRiga + o.getRiga(), o.getTestoRiga()));
+                this.primaRiga += risultato.righe;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Metodo che legge in memoria un blocco allineato alle righe: il blocco termina dopo l'ultimo '\n' letto e, se una riga è più lunga del blocco, viene esteso fino alla fine della riga.
+     * @param canale Canale del file.
+     * @param inizio Posizione del primo byte del blocco.
+     * @param dimensione Dimensione del file.
+     * @return Blocco letto. Vuoto se il file è terminato.
+     * @throws IOException In caso di errore durante la lettura del file.
+     */
+    private static ByteBuffer leggiBlocco(FileChannel canale, long inizio, long dimensione) throws IOException {
+        ByteBuffer blocco = ByteBuffer.allocate((int) Math.min(DIMENSIONE_BLOCCO_RICERCA, dimensione - inizio));
+        while(true) {
+            int letti = blocco.position();
+            while(blocco.hasRemaining() && canale.read(blocco, inizio + blocco.position()) > 0);
+            boolean terminato = blocco.hasRemaining() || inizio + blocco.position() >= dimensione;
+            for(int i = blocco.position() - 1; i >= letti; i--) {
+                if(blocco.get(i) == '\n') return blocco.flip().limit(i + 1);
+            }
+            if(terminato || blocco.capacity() >= DIMENSIONE_MASSIMA_BLOCCO_RICERCA) return blocco.flip();
+            ByteBuffer esteso = ByteBuffer.allocate((int) Math.min(Math.min(2L * blocco.capacity(), DIMENSIONE_MASSIMA_BLOCCO_RICERCA), dimensione - inizio));
+            esteso.put(blocco.flip());
+            blocco = esteso;
+        }
+    }
+
+    /**
+     * Risultato della scansione di un blocco. Le occorrenze trovate hanno il numero di riga relativo al blocco (a partire da 0).
+     */
+    private static class Risultato {
+        private long righe = 0;
+        private long occorrenze = 0;
+        private final List<Occorrenza> trovate;
+
+        Risultato(List<Occorrenza> trovate) {
+            this.trovate = trovate;
+        }
+    }
+
+    /**
+     * Metodo che cerca un testo nei byte di un blocco.
+     * @param blocco Blocco da analizzare.
+     * @param inizio Posizione nel file del primo byte del blocco.
+     * @param testo Testo da cercare, già codificato.
+     * @param trovate Lista in cui raccogliere le occorrenze. Se null, le occorrenze vengono solo contate.
+     * @return Risultato della scansione.
+     */
+    private static Risultato scansiona(ByteBuffer blocco, long inizio, byte[] testo, List<Occorrenza> trovate) {
+        Risultato risultato = new Risultato(trovate);
+        int fine = blocco.limit();
+        byte primo = testo[0];
+        int inizioRiga = 0;
+        String testoRiga = null;
+        for(int i = 0; i < fine; i++) {
+            byte b = blocco.get(i);
+            if(b == '\n') {
+                risultato.righe++;
+                inizioRiga = i + 1;
+                testoRiga = null;
+            } else if(b == primo && corrisponde(blocco, i, testo)) {
+                risultato.occorrenze++;
+                if(trovate != null) {
+                    if(testoRiga == null) testoRiga = testoRiga(blocco, inizioRiga);
+                    trovate.add(new Occorrenza(inizio + i, risultato.righe, testoRiga));
+                }
+                i += testo.length - 1;
+            }
+        }
+        return risultato;
+    }
+
+    /**
+     * Metodo che cerca un'espressione regolare nelle righe di un blocco.
+     * @param blocco Blocco da analizzare.
+     * @param inizio Posizione nel file del primo byte del blocco.
+     * @param espressione Espressione regolare da cercare.
+     * @param trovate Lista in cui raccogliere le occorrenze. Se null, le occorrenze vengono solo contate.
+     * @return Risultato della scansione.
+     */
+    private static Risultato scansiona(ByteBuffer blocco, long inizio, Pattern espressione, List<Occorrenza> trovate) {
+        Risultato risultato = new Risultato(trovate);
+        int fine = blocco.limit();
+        Matcher matcher = espressione.matcher("");
+        int inizioRiga = 0;
+        while(inizioRiga < fine) {
+            int fineRiga = fineRiga(blocco, inizioRiga);
+            String riga = testoRiga(blocco, inizioRiga, fineRiga);
+            matcher.reset(riga);
+            while(matcher.find()) {
+                risultato.occorrenze++;
+                if(trovate != null) {
+                    long posizione = inizio + inizioRiga + riga.substring(0, matcher.start()).getBytes(CHARSET).length;
+                    trovate.add(new Occorrenza(posizione, risultato.righe, riga));
+                }
+            }
+            if(fineRiga < fine) risultato.righe++;
+            inizioRiga = fineRiga + 1;
+        }
+        return risultato;
+    }
+
+    /**
+     * Metodo che verifica se un testo è presente nel blocco alla posizione indicata.
+     */
+    private static boolean corrisponde(ByteBuffer blocco, int posizione, byte[] testo) {
+        if(posizione + testo.length > blocco.limit()) return false;
+        for(int k = 1; k < testo.length; k++) {
+            if(blocco.get(posizione + k) != testo[k]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Metodo che restituisce la posizione del '\n' che termina la riga, oppure la fine del blocco.
+     */
+    private static int fineRiga(ByteBuffer blocco, int inizioRiga) {
+        int fine = blocco.limit();
+        for(int i = inizioRiga; i < fine; i++) {
+            if(blocco.get(i) == '\n') return i;
+        }
+        return fine;
+    }
+
+    /**
+     * Metodo che decodifica il testo della riga che inizia alla posizione indicata.
+     */
+    private static String testoRiga(ByteBuffer blocco, int inizioRiga) {
+        return testoRiga(blocco, inizioRiga, fineRiga(blocco, inizioRiga));
+    }
+
+    /**
+     * Metodo che decodifica il testo di una riga, escluso l'eventuale '\r' finale.
+     */
+    private static String testoRiga(ByteBuffer blocco, int inizioRiga, int fineRiga) {
+        if(fineRiga > inizioRiga && blocco.get(fineRiga - 1) == '\r') fineRiga--;
+        byte[] bytes = new byte[fineRiga - inizioRiga];
+        blocco.get(inizioRiga, bytes);
+        return new String(bytes, CHARSET);
+    }
+}
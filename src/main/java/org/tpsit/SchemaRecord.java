@@ -0,0 +1,125 @@
+package org.tpsit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * SchemaRecord
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Schema dei record di un file di record: nome e tipo di ogni colonna, nell'ordine in cui i valori vengono passati a JavaFileManager#scriviRecord(Object...).
+ * Lo schema viene scritto nell'intestazione del file, per cui in lettura non è necessario conoscerlo in anticipo.</p>
+ * @see JavaFileManager#apriRecord(SchemaRecord)
+ */
+public final class SchemaRecord {
+
+    private final List<String> nomi = new ArrayList<>();
+    private final List<TipoColonna> tipi = new ArrayList<>();
+    private final List<Integer> lunghezze = new ArrayList<>();
+
+    /**
+     * Costruttore di SchemaRecord. Lo schema non ha colonne: vanno aggiunte con aggiungiColonna().
+     */
+    public SchemaRecord() {
+    }
+
+    /**
+     * Metodo che aggiunge una colonna numerica o di stringhe di lunghezza variabile.
+     * @param nome Nome della colonna, univoco nello schema.
+     * @param tipo Tipo della colonna.
+     * @throws IllegalArgumentException Se il nome è vuoto o già presente.
+     */
+    public void aggiungiColonna(String nome, TipoColonna tipo) {
+        aggiungiColonna(nome, tipo, 0);
+    }
+
+    /**
+     * Metodo che aggiunge una colonna. Le stringhe di lunghezza fissa occupano sempre la lunghezza indicata, per cui possono essere lette direttamente per posizione.
+     * @param nome Nome della colonna, univoco nello schema.
+     * @param tipo Tipo della colonna.
+     * @param lunghezzaFissa Lunghezza (in byte, UTF-8) delle stringhe della colonna. 0 per stringhe di lunghezza variabile. Ignorata per le colonne numeriche.
+     * @throws IllegalArgumentException Se il nome è vuoto o già presente oppure se la lunghezza è negativa.
+     */
+    public void aggiungiColonna(String nome, TipoColonna tipo, int lunghezzaFissa) {
+        if(nome == null || nome.isEmpty() || this.nomi.contains(nome)) throw new IllegalArgumentException("Nome della colonna non valido o già presente: " + nome);
+        if(tipo == null || lunghezzaFissa < 0) throw new IllegalArgumentException("Tipo o lunghezza della colonna non validi: " + nome);
+        this.nomi.add(nome);
+        this.tipi.add(tipo);
+        this.lunghezze.add(tipo == TipoColonna.STRING ? lunghezzaFissa : 0);
+    }
+
+    /**
+     * @return Numero di colonne dello schema.
+     */
+    public int getNumeroColonne() {
+        return nomi.size();
+    }
+
+    /**
+     * @param colonna Indice della colonna, a partire da 0.
+     * @return Nome della colonna.
+     */
+    public String getNome(int colonna) {
+        return nomi.get(colonna);
+    }
+
+    /**
+     * @param colonna Indice della colonna, a partire da 0.
+     * @return Tipo della colonna.
+     */
+    public TipoColonna getTipo(int colonna) {
+        return tipi.get(colonna);
+    }
+
+    /**
+     * @param colonna Indice della colonna, a partire da 0.
+     * @return Lunghezza (in byte) delle stringhe della colonna. 0 per le stringhe di lunghezza variabile e per le colonne numeriche.
+     */
+    public int getLunghezzaFissa(int colonna) {
+        return lunghezze.get(colonna);
+    }
+
+    /**
+     * @param nome Nome della colonna.
+     * @return Indice della colonna. -1 se lo schema non contiene la colonna.
+     */
+    public int indice(String nome) {
+        return nomi.indexOf(nome);
+    }
+
+    /**
+     * Metodo che restituisce una copia dello schema, che non cambia se lo schema originale viene modificato.
+     */
+    SchemaRecord copia() {
+        SchemaRecord copia = new SchemaRecord();
+        copia.nomi.addAll(this.nomi);
+        copia.tipi.addAll(this.tipi);
+        copia.lunghezze.addAll(this.lunghezze);
+        return copia;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) return true;
+        if(!(o instanceof SchemaRecord)) return false;
+        SchemaRecord altro = (SchemaRecord) o;
+        return nomi.equals(altro.nomi) && tipi.equals(altro.tipi) && lunghezze.equals(altro.lunghezze);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nomi, tipi, lunghezze);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder testo = new StringBuilder("(");
+        for(int i = 0; i < nomi.size(); i++) {
+            if(i > 0) testo.append(", ");
+            testo.append(nomi.get(i)).append(' ').append(tipi.get(i));
+            if(lunghezze.get(i) > 0) testo.append('[').append(lunghezze.get(i)).append(']');
+        }
+        return testo.append(')').toString();
+    }
+}
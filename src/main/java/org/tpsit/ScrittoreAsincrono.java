@@ -0,0 +1,225 @@
+package org.tpsit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ScrittoreAsincrono
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Scrittore asincrono di righe di testo utilizzato da JavaFileManager. I produttori accodano le righe in una coda limitata e ricevono una conferma (CompletableFuture);
+ * un unico thread in background preleva le righe a lotti e le scrive in append con un'unica scrittura (gathering write), applicando la politica di durabilità indicata.
+ * Se la coda è piena, i produttori attendono che si liberi spazio.</p>
+ */
+class ScrittoreAsincrono implements Closeable {
+
+    /**
+     * Numero massimo di righe scritte in un lotto.
+     */
+    private static final int DIMENSIONE_LOTTO = 1024;
+
+    /**
+     * Riga accodata da un produttore, già codificata, con la relativa conferma.
+     */
+    private static class Riga {
+        private final ByteBuffer bytes;
+        private final CompletableFuture<Void> conferma = new CompletableFuture<>();
+
+        Riga(ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Elemento che segnala al thread di scrittura la chiusura dello scrittore.
+     */
+    private static final Riga FINE = new Riga(ByteBuffer.allocate(0));
+
+    private final File file;
+    private final String chiaveCache;
+    private final BlockingQueue<Riga> coda;
+    private final FileChannel canale;
+    private final PoliticaDurabilita politica;
+    private final long intervalloSincronizzazioneNanos;
+    private final Thread thread;
+    private volatile boolean chiuso = false;
+
+    /**
+     * Errore imprevisto che ha terminato il thread di scrittura. Null se il thread non è terminato per un errore.
+     */
+    private volatile Throwable errore = null;
+
+    private final LongAdder righeAccodate = new LongAdder();
+    private final LongAdder righeScritte = new LongAdder();
+    private final LongAdder lottiScritti = new LongAdder();
+    private final LongAdder byteScritti = new LongAdder();
+    private final LongAdder sincronizzazioni = new LongAdder();
+    private final LongAdder attesePerCodaPiena = new LongAdder();
+    private final LongAdder tempoAttesaNanos = new LongAdder();
+
+    /**
+     * Costruttore di ScrittoreAsincrono. Apre il file in append e avvia il thread di scrittura.
+     * @param file File su cui scrivere.
+     * @param capacitaCoda Numero massimo di righe in attesa di essere scritte.
+     * @param politica Politica di durabilità.
+     * @param intervalloSincronizzazioneMs Intervallo (in millisecondi) tra due scritture su disco forzate, utilizzato con PoliticaDurabilita.PERIODICA.
+     * @throws IOException In caso di errore durante l'apertura del file.
+     */
+    ScrittoreAsincrono(File file, int capacitaCoda, PoliticaDurabilita politica, long intervalloSincronizzazioneMs) throws IOException {
+        this.file = file;
+        this.chiaveCache = CacheContenuti.chiave(file);
+        this.coda = new ArrayBlockingQueue<>(capacitaCoda);
+        this.politica = politica;
+        this.intervalloSincronizzazioneNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalloSincronizzazioneMs));
+        this.canale = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        this.thread = new Thread(this::scrivi, "JFM-scrittura-asincrona('" + file + "')");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Metodo che accoda una riga da scrivere. Se la coda è piena, attende che si liberi spazio.
+     * @param testo Testo da scrivere. Viene aggiunto il separatore di riga di sistema.
+     * @return Conferma completata quando la riga è stata scritta (e, secondo la politica, forzata su disco), oppure completata eccezionalmente in caso di errore.
+     */
+    CompletableFuture<Void> accoda(String testo) {
+        if(this.chiuso) return CompletableFuture.failedFuture(new IllegalStateException("Scrittura asincrona terminata per il file " + this.file, this.errore));
+        Riga riga = new Riga(ByteBuffer.wrap((testo + System.lineSeparator()).getBytes(Charset.defaultCharset())));
+        if(!this.coda.offer(riga)) {
+            this.attesePerCodaPiena.increment();
+            long inizio = System.nanoTime();
+            try {
+                this.coda.put(riga);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return CompletableFuture.failedFuture(e);
+            } finally {
+                this.tempoAttesaNanos.add(System.nanoTime() - inizio);
+            }
+        }
+        this.righeAccodate.increment();
+        if(this.chiuso && this.coda.remove(riga)) riga.conferma.completeExceptionally(new IllegalStateException("Scrittura asincrona terminata per il file " + this.file, this.errore));
+        return riga.conferma;
+    }
+
+    /**
+     * Ciclo del thread di scrittura: preleva le righe a lotti e le scrive fino alla chiusura.
+     * Un errore imprevisto termina lo scrittore, completando eccezionalmente le righe del lotto e quelle in coda.
+     */
+    private void scrivi() {
+        List<Riga> lotto = new ArrayList<>(DIMENSIONE_LOTTO);
+        long prossimaSincronizzazione = System.nanoTime() + this.intervalloSincronizzazioneNanos;
+        boolean daSincronizzare = false;
+        boolean fine = false;
+        while(!fine) {
+            try {
+                Riga prima;
+                if(this.politica == PoliticaDurabilita.PERIODICA) {
+                    prima = this.coda.poll(Math.max(0, prossimaSincronizzazione - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } else {
+                    prima = this.coda.take();
+                }
+                if(prima != null) {
+                    lotto.add(prima);
+                    this.coda.drainTo(lotto, DIMENSIONE_LOTTO - 1);
+                    if(lotto.remove(FINE)) fine = true;
+                    scriviLotto(lotto);
+                    daSincronizzare = true;
+                }
+                if(daSincronizzare && (this.politica == PoliticaDurabilita.PER_LOTTO || (this.politica == PoliticaDurabilita.PERIODICA && (fine || System.nanoTime() >= prossimaSincronizzazione)))) {
+                    this.canale.force(false);
+                    this.sincronizzazioni.increment();
+                    daSincronizzare = false;
+                }
+                if(System.nanoTime() >= prossimaSincronizzazione) prossimaSincronizzazione = System.nanoTime() + this.intervalloSincronizzazioneNanos;
+                for(Riga riga : lotto) riga.conferma.complete(null);
+            } catch (IOException e) {
+                for(Riga riga : lotto) riga.conferma.completeExceptionally(e);
+            } catch (InterruptedException e) {
+                fine = true;
+            } catch (Throwable e) {
+                terminaPerErrore(e, lotto);
+                if(e instanceof Error) throw (Error) e;
+                fine = true;
+            }
+            lotto.clear();
+        }
+    }
+
+    /**
+     * Metodo che segna lo scrittore come chiuso in seguito a un errore imprevisto del thread di scrittura e completa eccezionalmente le righe del lotto e quelle in coda.
+     * Le righe accodate successivamente vengono rifiutate da accoda().
+     * @param errore Errore che ha terminato il thread.
+     * @param lotto Righe del lotto in scrittura.
+     */
+    private void terminaPerErrore(Throwable errore, List<Riga> lotto) {
+        this.errore = errore;
+        this.chiuso = true;
+        for(Riga riga : lotto) riga.conferma.completeExceptionally(errore);
+        Riga riga;
+        while((riga = this.coda.poll()) != null) riga.conferma.completeExceptionally(errore);
+    }
+
+    /**
+     * Metodo che scrive un lotto di righe con un'unica scrittura.
+     * @param lotto Righe da scrivere.
+     * @throws IOException In caso di errore durante la scrittura.
+     */
+    private void scriviLotto(List<Riga> lotto) throws IOException {
+        if(lotto.isEmpty()) return;
+        ByteBuffer[] buffer = new ByteBuffer[lotto.size()];
+        long daScrivere = 0;
+        for(int i = 0; i < buffer.length; i++) {
+            buffer[i] = lotto.get(i).bytes;
+            daScrivere += buffer[i].remaining();
+        }
+        long scritti = 0;
+        while(scritti < daScrivere) scritti += this.canale.write(buffer);
+        CacheContenuti cache = CacheContenuti.attiva();
+        if(cache != null) cache.invalida(this.chiaveCache);
+        this.righeScritte.add(lotto.size());
+        this.lottiScritti.increment();
+        this.byteScritti.add(scritti);
+    }
+
+    /**
+     * Metodo che restituisce un'istantanea delle statistiche dello scrittore.
+     * @return Statistiche dello scrittore.
+     */
+    StatisticheScritturaAsincrona statistiche() {
+        return new StatisticheScritturaAsincrona(this.righeAccodate.sum(), this.righeScritte.sum(), this.lottiScritti.sum(), this.byteScritti.sum(), this.sincronizzazioni.sum(),
+                this.attesePerCodaPiena.sum(), this.tempoAttesaNanos.sum(), this.coda.size(), this.coda.size() + this.coda.remainingCapacity());
+    }
+
+    /**
+     * Metodo che chiude lo scrittore dopo aver scritto tutte le righe già accodate. Se il thread di scrittura è terminato per un errore, chiude solo il file.
+     * @throws IOException In caso di errore durante la chiusura del file.
+     */
+    @Override
+    public void close() throws IOException {
+        boolean giaChiuso = this.chiuso;
+        this.chiuso = true;
+        try {
+            boolean accodato = giaChiuso;
+            while(!accodato && this.thread.isAlive()) accodato = this.coda.offer(FINE, 100, TimeUnit.MILLISECONDS);
+            this.thread.join();
+        } catch (InterruptedException e) {
+            this.thread.interrupt();
+            Thread.currentThread().interrupt();
+        } finally {
+            Riga riga;
+            while((riga = this.coda.poll()) != null) riga.conferma.completeExceptionally(new IllegalStateException("Scrittura asincrona terminata per il file " + this.file, this.errore));
+            this.canale.close();
+        }
+    }
+}
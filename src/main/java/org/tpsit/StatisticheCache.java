@@ -0,0 +1,83 @@
+package org.tpsit;
+
+/**
+ * StatisticheCache
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Istantanea delle statistiche della cache dei contenuti di JavaFileManager.</p>
+ * @see JavaFileManager#statisticheCache()
+ */
+public final class StatisticheCache {
+
+    private final long successi;
+    private final long mancati;
+    private final long rimozioni;
+    private final long invalidazioni;
+    private final int voci;
+    private final long occupazione;
+    private final long dimensioneMassima;
+
+    StatisticheCache(long successi, long mancati, long rimozioni, long invalidazioni, int voci, long occupazione, long dimensioneMassima) {
+        this.successi = successi;
+        this.mancati = mancati;
+        this.rimozioni = rimozioni;
+        this.invalidazioni = invalidazioni;
+        this.voci = voci;
+        this.occupazione = occupazione;
+        this.dimensioneMassima = dimensioneMassima;
+    }
+
+    /**
+     * @return Numero di letture servite dalla cache.
+     */
+    public long getSuccessi() {
+        return successi;
+    }
+
+    /**
+     * @return Numero di letture non servite dalla cache, per cui è stato letto il file.
+     */
+    public long getMancati() {
+        return mancati;
+    }
+
+    /**
+     * @return Numero di voci rimosse per rispettare la dimensione massima della cache.
+     */
+    public long getRimozioni() {
+        return rimozioni;
+    }
+
+    /**
+     * @return Numero di voci invalidate da una scrittura tramite JFM o da una modifica del file.
+     */
+    public long getInvalidazioni() {
+        return invalidazioni;
+    }
+
+    /**
+     * @return Numero di file memorizzati al momento dell'istantanea.
+     */
+    public int getVoci() {
+        return voci;
+    }
+
+    /**
+     * @return Occupazione stimata (in byte) dei contenuti memorizzati al momento dell'istantanea.
+     */
+    public long getOccupazione() {
+        return occupazione;
+    }
+
+    /**
+     * @return Occupazione massima (in byte) della cache.
+     */
+    public long getDimensioneMassima() {
+        return dimensioneMassima;
+    }
+
+    @Override
+    public String toString() {
+        return "Cache dei contenuti: " + successi + " successi, " + mancati + " mancati, " + rimozioni + " rimozioni, " + invalidazioni + " invalidazioni, " + voci + " file (" + occupazione + "/" + dimensioneMassima + " byte)";
+    }
+}
@@ -0,0 +1,147 @@
+package org.tpsit;
+
+import java.util.Arrays;
+
+/**
+ * StatisticheIO
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Istantanea delle metriche di un JavaFileManager o di tutti i JFM della JVM. Sono registrate solo le operazioni completate senza errori.
+ * Le latenze comprendono l'attesa del lock e sono raccolte in un istogramma: l'intervallo i contiene le durate comprese tra 2^i e 2^(i+1) nanosecondi.</p>
+ * @see JavaFileManager#statisticheIO()
+ * @see JavaFileManager#statisticheIOGlobali()
+ */
+public final class StatisticheIO {
+
+    private final long[] conteggi;
+    private final long[] byteOperazioni;
+    private final long[] latenzeTotali;
+    private final long[][] istogrammi;
+    private final long acquisizioniConAttesa;
+    private final long attesaLockNanos;
+    private final int fileAperti;
+
+    StatisticheIO(long[] conteggi, long[] byteOperazioni, long[] latenzeTotali, long[][] istogrammi, long acquisizioniConAttesa, long attesaLockNanos, int fileAperti) {
+        this.conteggi = conteggi;
+        this.byteOperazioni = byteOperazioni;
+        this.latenzeTotali = latenzeTotali;
+        this.istogrammi = istogrammi;
+        this.acquisizioniConAttesa = acquisizioniConAttesa;
+        this.attesaLockNanos = attesaLockNanos;
+        this.fileAperti = fileAperti;
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @return Numero di operazioni eseguite.
+     */
+    public long getConteggio(OperazioneIO operazione) {
+        return conteggi[operazione.ordinal()];
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @return Byte letti, scritti o copiati dall'operazione. Per le letture e le scritture di testo, il numero di caratteri.
+     */
+    public long getByte(OperazioneIO operazione) {
+        return byteOperazioni[operazione.ordinal()];
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @return Tempo complessivo (in nanosecondi) trascorso nell'operazione.
+     */
+    public long getLatenzaTotaleNanos(OperazioneIO operazione) {
+        return latenzeTotali[operazione.ordinal()];
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @return Latenza media (in nanosecondi) dell'operazione. 0 se l'operazione non è mai stata eseguita.
+     */
+    public long getLatenzaMediaNanos(OperazioneIO operazione) {
+        long conteggio = getConteggio(operazione);
+        return conteggio == 0 ? 0 : getLatenzaTotaleNanos(operazione) / conteggio;
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @return Istogramma delle latenze dell'operazione: l'elemento i è il numero di operazioni durate tra 2^i e 2^(i+1) nanosecondi.
+     */
+    public long[] getIstogrammaLatenza(OperazioneIO operazione) {
+        return istogrammi[operazione.ordinal()].clone();
+    }
+
+    /**
+     * @param operazione Operazione di cui conoscere il dato.
+     * @param percentile Percentile richiesto, tra 0 e 100.
+     * @return Stima per eccesso (limite superiore dell'intervallo dell'istogramma) della latenza in nanosecondi entro cui è stata completata la percentuale indicata di operazioni.
+     * 0 se l'operazione non è mai stata eseguita.
+     */
+    public long getLatenzaPercentileNanos(OperazioneIO operazione, double percentile) {
+        long[] istogramma = istogrammi[operazione.ordinal()];
+        long totale = Arrays.stream(istogramma).sum();
+        if(totale == 0) return 0;
+        long soglia = (long) Math.ceil(totale * Math.min(100, Math.max(0, percentile)) / 100);
+        long cumulato = 0;
+        for(int i = 0; i < istogramma.length; i++) {
+            cumulato += istogramma[i];
+            if(cumulato >= soglia && cumulato > 0) return (1L << (i + 1)) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Byte letti da tutte le operazioni di lettura.
+     */
+    public long getByteLetti() {
+        long totale = 0;
+        for(OperazioneIO operazione : OperazioneIO.values()) {
+            if(operazione.isLettura()) totale += getByte(operazione);
+        }
+        return totale;
+    }
+
+    /**
+     * @return Byte scritti da tutte le operazioni di scrittura, escluse le copie.
+     */
+    public long getByteScritti() {
+        long totale = 0;
+        for(OperazioneIO operazione : OperazioneIO.values()) {
+            if(!operazione.isLettura() && operazione != OperazioneIO.COPIA) totale += getByte(operazione);
+        }
+        return totale;
+    }
+
+    /**
+     * @return Numero di acquisizioni del lock che hanno dovuto attendere un altro thread.
+     */
+    public long getAcquisizioniConAttesa() {
+        return acquisizioniConAttesa;
+    }
+
+    /**
+     * @return Tempo complessivo (in nanosecondi) trascorso in attesa del lock.
+     */
+    public long getAttesaLockNanos() {
+        return attesaLockNanos;
+    }
+
+    /**
+     * @return Numero di file aperti al momento dell'istantanea: canale in lettura, sessione di scrittura, mappatura e scrittura asincrona.
+     */
+    public int getFileAperti() {
+        return fileAperti;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder testo = new StringBuilder("Metriche JFM: ");
+        for(OperazioneIO operazione : OperazioneIO.values()) {
+            if(getConteggio(operazione) == 0) continue;
+            testo.append(operazione).append(' ').append(getConteggio(operazione)).append(" (").append(getByte(operazione)).append(" byte, media ")
+                    .append(getLatenzaMediaNanos(operazione) / 1000).append(" µs, p99 ").append(getLatenzaPercentileNanos(operazione, 99) / 1000).append(" µs), ");
+        }
+        return testo.append(acquisizioniConAttesa).append(" attese del lock (").append(attesaLockNanos / 1_000_000).append(" ms), ").append(fileAperti).append(" file aperti").toString();
+    }
+}
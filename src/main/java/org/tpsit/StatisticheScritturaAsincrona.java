@@ -0,0 +1,101 @@
+package org.tpsit;
+
+/**
+ * StatisticheScritturaAsincrona
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Istantanea delle statistiche della scrittura asincrona di JavaFileManager.</p>
+ * @see JavaFileManager#statisticheScritturaAsincrona()
+ */
+public final class StatisticheScritturaAsincrona {
+
+    private final long righeAccodate;
+    private final long righeScritte;
+    private final long lottiScritti;
+    private final long byteScritti;
+    private final long sincronizzazioni;
+    private final long attesePerCodaPiena;
+    private final long tempoAttesaNanos;
+    private final int dimensioneCoda;
+    private final int capacitaCoda;
+
+    StatisticheScritturaAsincrona(long righeAccodate, long righeScritte, long lottiScritti, long byteScritti, long sincronizzazioni, long attesePerCodaPiena, long tempoAttesaNanos, int dimensioneCoda, int capacitaCoda) {
+        this.righeAccodate = righeAccodate;
+        this.righeScritte = righeScritte;
+        this.lottiScritti = lottiScritti;
+        this.byteScritti = byteScritti;
+        this.sincronizzazioni = sincronizzazioni;
+        this.attesePerCodaPiena = attesePerCodaPiena;
+        this.tempoAttesaNanos = tempoAttesaNanos;
+        this.dimensioneCoda = dimensioneCoda;
+        this.capacitaCoda = capacitaCoda;
+    }
+
+    /**
+     * @return Numero di righe accodate dai produttori.
+     */
+    public long getRigheAccodate() {
+        return righeAccodate;
+    }
+
+    /**
+     * @return Numero di righe scritte sul file.
+     */
+    public long getRigheScritte() {
+        return righeScritte;
+    }
+
+    /**
+     * @return Numero di lotti scritti sul file, ognuno con un'unica operazione di scrittura.
+     */
+    public long getLottiScritti() {
+        return lottiScritti;
+    }
+
+    /**
+     * @return Numero di byte scritti sul file.
+     */
+    public long getByteScritti() {
+        return byteScritti;
+    }
+
+    /**
+     * @return Numero di scritture su disco forzate (fsync).
+     */
+    public long getSincronizzazioni() {
+        return sincronizzazioni;
+    }
+
+    /**
+     * @return Numero di volte in cui un produttore ha dovuto attendere perché la coda era piena.
+     */
+    public long getAttesePerCodaPiena() {
+        return attesePerCodaPiena;
+    }
+
+    /**
+     * @return Tempo complessivo (in nanosecondi) trascorso dai produttori in attesa di spazio nella coda.
+     */
+    public long getTempoAttesaNanos() {
+        return tempoAttesaNanos;
+    }
+
+    /**
+     * @return Numero di righe presenti nella coda al momento dell'istantanea.
+     */
+    public int getDimensioneCoda() {
+        return dimensioneCoda;
+    }
+
+    /**
+     * @return Capacità massima della coda.
+     */
+    public int getCapacitaCoda() {
+        return capacitaCoda;
+    }
+
+    @Override
+    public String toString() {
+        return "Scrittura asincrona: " + righeScritte + "/" + righeAccodate + " righe scritte in " + lottiScritti + " lotti (" + byteScritti + " byte, " + sincronizzazioni + " fsync), coda " + dimensioneCoda + "/" + capacitaCoda + ", " + attesePerCodaPiena + " attese per coda piena (" + tempoAttesaNanos / 1_000_000 + " ms)";
+    }
+}
@@ -0,0 +1,49 @@
+package org.tpsit;
+
+/**
+ * TipoColonna
+ * @author Matteo Bagnoletti Tini
+ * @since 1.3.0
+ * <p> Tipo di una colonna di un file di record. I numeri sono memorizzati in big-endian, le stringhe in UTF-8.</p>
+ * @see SchemaRecord
+ */
+public enum TipoColonna {
+
+    /**
+     * Numero int (4 byte).
+     */
+    INT(Integer.BYTES),
+
+    /**
+     * Numero long (8 byte).
+     */
+    LONG(Long.BYTES),
+
+    /**
+     * Numero float (4 byte).
+     */
+    FLOAT(Float.BYTES),
+
+    /**
+     * Numero double (8 byte).
+     */
+    DOUBLE(Double.BYTES),
+
+    /**
+     * Stringa, di lunghezza fissa (in byte) o variabile.
+     */
+    STRING(0);
+
+    private final int dimensione;
+
+    TipoColonna(int dimensione) {
+        this.dimensione = dimensione;
+    }
+
+    /**
+     * @return Dimensione (in byte) di un valore. 0 per le stringhe, la cui dimensione è indicata dallo schema.
+     */
+    public int getDimensione() {
+        return dimensione;
+    }
+}